@@ -143,6 +143,214 @@ public class AppConfig {
         return getIntProperty("session.timeout", 30);
     }
     
+    /**
+     * Node id used by the ID generator
+     * @return configured node id, or -1 if not set
+     */
+    public int getNodeId() {
+        return getIntProperty("app.nodeId", -1);
+    }
+    
+    /**
+     * Number of application nodes sharing the database
+     * @return node count
+     */
+    public int getNodeCount() {
+        return getIntProperty("app.nodes", 1);
+    }
+    
+    /**
+     * Seconds between refreshes of the admin dashboard snapshot
+     * @return refresh interval in seconds
+     */
+    public int getDashboardRefreshSeconds() {
+        return getIntProperty("dashboard.refreshSeconds", 10);
+    }
+    
+    /**
+     * Number of nights covered by the in-memory availability index
+     * @return window length in days
+     */
+    public int getAvailabilityWindowDays() {
+        return getIntProperty("availability.windowDays", 365);
+    }
+    
+    /**
+     * Minutes between rebuilds of the availability index from the database
+     * @return reconcile interval in minutes
+     */
+    public int getAvailabilityReconcileMinutes() {
+        return getIntProperty("availability.reconcileMinutes", 15);
+    }
+    
+    /**
+     * Minutes an unconfirmed PENDING reservation holds its room before it is cancelled
+     * @return hold time in minutes
+     */
+    public int getPendingHoldMinutes() {
+        return getIntProperty("reservation.pendingHoldMinutes", 1440);
+    }
+    
+    /**
+     * Minutes between checks for expired PENDING reservations
+     * @return check interval in minutes
+     */
+    public int getPendingExpiryCheckMinutes() {
+        return getIntProperty("reservation.expiryCheckMinutes", 10);
+    }
+    
+    /**
+     * Number of nights ahead that the room inventory ledger is rebuilt for
+     * @return horizon in days
+     */
+    public int getInventoryHorizonDays() {
+        return getIntProperty("inventory.horizonDays", 365);
+    }
+    
+    /**
+     * Minutes between rebuilds of the room inventory ledger from reservations
+     * @return reconcile interval in minutes
+     */
+    public int getInventoryReconcileMinutes() {
+        return getIntProperty("inventory.reconcileMinutes", 60);
+    }
+    
+    /**
+     * Maximum age of the cached room catalog, covering edits made outside the application
+     * @return time to live in seconds
+     */
+    public int getRoomCacheTtlSeconds() {
+        return getIntProperty("roomCache.ttlSeconds", 300);
+    }
+    
+    /**
+     * Maximum number of users kept by the user cache
+     * @return number of users
+     */
+    public int getUserCacheMaxEntries() {
+        return getIntProperty("userCache.maxEntries", 1000);
+    }
+    
+    /**
+     * Maximum age of a cached user, covering edits made outside the application
+     * @return time to live in seconds
+     */
+    public int getUserCacheTtlSeconds() {
+        return getIntProperty("userCache.ttlSeconds", 60);
+    }
+    
+    /**
+     * Seconds between batched writes of users' last login time
+     * @return flush interval in seconds
+     */
+    public int getLastLoginFlushSeconds() {
+        return getIntProperty("auth.lastLoginFlushSeconds", 15);
+    }
+    
+    /**
+     * Maximum number of audit logs waiting to be written
+     * @return queue capacity
+     */
+    public int getAuditQueueCapacity() {
+        return getIntProperty("audit.queueCapacity", 10000);
+    }
+    
+    /**
+     * Number of audit logs written per batch insert
+     * @return batch size
+     */
+    public int getAuditBatchSize() {
+        return getIntProperty("audit.batchSize", 200);
+    }
+    
+    /**
+     * Longest time an audit log waits in the queue before it is written
+     * @return flush interval in milliseconds
+     */
+    public int getAuditFlushMillis() {
+        return getIntProperty("audit.flushMillis", 1000);
+    }
+    
+    /**
+     * What to do with audit logs when the queue is full: DROP, SAMPLE or BLOCK
+     * @return overflow policy name
+     */
+    public String getAuditOverflowPolicy() {
+        return getProperty("audit.overflowPolicy", "DROP");
+    }
+    
+    /**
+     * Under the SAMPLE policy, one in this many audit logs is kept once the queue is half full
+     * @return sample rate
+     */
+    public int getAuditSampleRate() {
+        return getIntProperty("audit.sampleRate", 10);
+    }
+    
+    /**
+     * Under the BLOCK policy, longest time a request waits for room in the queue
+     * @return wait in milliseconds
+     */
+    public int getAuditBlockMillis() {
+        return getIntProperty("audit.blockMillis", 50);
+    }
+    
+    /**
+     * Days of audit logs to keep
+     * @return retention in days
+     */
+    public int getAuditRetentionDays() {
+        return getIntProperty("audit.retention.days", 365);
+    }
+    
+    /**
+     * Hours between audit retention runs
+     * @return interval in hours
+     */
+    public int getAuditRetentionIntervalHours() {
+        return getIntProperty("audit.retention.intervalHours", 24);
+    }
+    
+    /**
+     * Audit logs deleted per transaction when audit_logs is not partitioned
+     * @return chunk size in rows
+     */
+    public int getAuditRetentionChunkSize() {
+        return getIntProperty("audit.retention.chunkSize", 5000);
+    }
+    
+    /**
+     * Pause between audit retention delete chunks
+     * @return pause in milliseconds
+     */
+    public int getAuditRetentionPauseMillis() {
+        return getIntProperty("audit.retention.pauseMillis", 200);
+    }
+    
+    /**
+     * Whether audit_logs is range partitioned by month, so retention drops partitions
+     * @return true if partitioned
+     */
+    public boolean isAuditPartitioned() {
+        return getBooleanProperty("audit.retention.partitioned", false);
+    }
+    
+    /**
+     * Months of audit log partitions created ahead of time
+     * @return number of months
+     */
+    public int getAuditPartitionMonthsAhead() {
+        return getIntProperty("audit.retention.monthsAhead", 3);
+    }
+    
+    /**
+     * Directory partitions are archived to before they are dropped; blank disables archiving
+     * @return directory path
+     */
+    public String getAuditArchiveDir() {
+        return getProperty("audit.retention.archiveDir", "");
+    }
+    
     // ========================================
     // Email Settings
     // ========================================
@@ -171,6 +379,95 @@ public class AppConfig {
         return getProperty("email.from");
     }
     
+    public boolean isEmailAuth() {
+        return getBooleanProperty("email.auth", true);
+    }
+    
+    public boolean isEmailStartTls() {
+        return getBooleanProperty("email.starttls", true);
+    }
+    
+    /**
+     * Sender threads, and pooled SMTP connections, delivering the email outbox
+     * @return number of senders
+     */
+    public int getEmailOutboxWorkers() {
+        return getIntProperty("email.outbox.workers", 2);
+    }
+    
+    /**
+     * Emails claimed from the outbox per poll
+     * @return batch size
+     */
+    public int getEmailOutboxBatchSize() {
+        return getIntProperty("email.outbox.batchSize", 20);
+    }
+    
+    /**
+     * Time between polls of the email outbox
+     * @return poll interval in milliseconds
+     */
+    public int getEmailOutboxPollMillis() {
+        return getIntProperty("email.outbox.pollMillis", 2000);
+    }
+    
+    /**
+     * Delay before the first retry of a failed email, doubled per attempt
+     * @return delay in seconds
+     */
+    public int getEmailOutboxBackoffSeconds() {
+        return getIntProperty("email.outbox.backoffSeconds", 30);
+    }
+    
+    /**
+     * Longest delay between retries of a failed email
+     * @return delay in seconds
+     */
+    public int getEmailOutboxMaxBackoffSeconds() {
+        return getIntProperty("email.outbox.maxBackoffSeconds", 3600);
+    }
+    
+    /**
+     * Delivery attempts before an email is marked DEAD
+     * @return maximum attempts
+     */
+    public int getEmailOutboxMaxAttempts() {
+        return getIntProperty("email.outbox.maxAttempts", 8);
+    }
+    
+    /**
+     * Threads rendering PDF documents
+     * @return number of render threads
+     */
+    public int getPdfRenderThreads() {
+        return getIntProperty("pdf.renderThreads", 2);
+    }
+    
+    /**
+     * PDF renders allowed to wait for a thread before downloads are refused
+     * @return queue capacity
+     */
+    public int getPdfQueueCapacity() {
+        return getIntProperty("pdf.queueCapacity", 16);
+    }
+    
+    /**
+     * Longest a download waits for its PDF to be rendered
+     * @return timeout in seconds
+     */
+    public int getPdfRenderTimeoutSeconds() {
+        return getIntProperty("pdf.renderTimeoutSeconds", 30);
+    }
+    
+    /**
+     * Directory rendered invoices and confirmations are cached in
+     * @return directory path, relative to the working directory unless absolute
+     */
+    public String getPdfCacheDir() {
+        String cacheDir = getProperty("pdf.cacheDir", "");
+        return cacheDir.isBlank() ? "data/pdf-cache" : cacheDir;
+    }
+    
     // ========================================
     // File Upload Settings
     // ========================================
@@ -235,6 +532,94 @@ public class AppConfig {
         return getIntProperty("pagination.maxPageSize", 100);
     }
     
+    // ========================================
+    // Metrics Settings
+    // ========================================
+    
+    /**
+     * Whether /metrics serves request and component metrics
+     * @return true if enabled
+     */
+    public boolean isMetricsEnabled() {
+        return getBooleanProperty("metrics.enabled", true);
+    }
+    
+    /**
+     * Bearer token scrapers must send to /metrics; blank allows loopback requests only
+     * @return token
+     */
+    public String getMetricsToken() {
+        return getProperty("metrics.token", "");
+    }
+    
+    /**
+     * Most servlet/action pairs given their own request metrics
+     * @return series limit
+     */
+    public int getMetricsMaxSeries() {
+        return getIntProperty("metrics.maxSeries", 500);
+    }
+    
+    // ========================================
+    // Tracing Settings
+    // ========================================
+    
+    /**
+     * Whether requests are traced and slow traces written to tracing.file
+     * @return true if enabled
+     */
+    public boolean isTracingEnabled() {
+        return getBooleanProperty("tracing.enabled", true);
+    }
+    
+    /**
+     * Traces taking at least this long are written
+     * @return threshold in milliseconds
+     */
+    public long getTracingThresholdMillis() {
+        return getIntProperty("tracing.thresholdMillis", 1000);
+    }
+    
+    /**
+     * JSON-lines file slow traces are appended to
+     * @return file path
+     */
+    public String getTracingFile() {
+        return getProperty("tracing.file", "logs/traces.jsonl");
+    }
+    
+    /**
+     * Size at which the trace file is rolled
+     * @return size in megabytes
+     */
+    public int getTracingMaxFileMB() {
+        return getIntProperty("tracing.maxFileMB", 20);
+    }
+    
+    /**
+     * Rolled trace files kept
+     * @return file count
+     */
+    public int getTracingMaxFiles() {
+        return getIntProperty("tracing.maxFiles", 5);
+    }
+    
+    /**
+     * Slow traces that may wait to be written before further ones are dropped
+     * @return queue capacity
+     */
+    public int getTracingQueueCapacity() {
+        return getIntProperty("tracing.queueCapacity", 1000);
+    }
+    
+    /**
+     * Most spans kept per trace
+     * @return span limit
+     */
+    public int getTracingMaxSpans() {
+        return getIntProperty("tracing.maxSpans", 500);
+    }
+    
     // ========================================
     // Feature Flags
     // ========================================
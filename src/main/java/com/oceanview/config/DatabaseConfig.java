@@ -1,5 +1,10 @@
 package com.oceanview.config;
 
+import com.oceanview.jdbc.ConnectionLeakDetector;
+import com.oceanview.jdbc.InstrumentedDataSource;
+import com.oceanview.jdbc.PoolSizeController;
+import com.oceanview.jdbc.PoolTelemetry;
+import com.oceanview.jdbc.SqlStatistics;
 import org.apache.commons.dbcp2.BasicDataSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -9,10 +14,18 @@ import java.io.InputStream;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.Properties;
+import javax.sql.DataSource;
 
 /**
  * Database Configuration - Singleton Pattern
  * Manages database connection pool using Apache Commons DBCP2
+ * With db.instrumentation.enabled, connections are handed out through an
+ * InstrumentedDataSource that records per-statement timing, rows and
+ * connection wait in {@link #getSqlStatistics()}. Every borrow is also
+ * reported to {@link #getPoolTelemetry()}, which PoolSizeController uses to
+ * resize the pool when db.pool.adaptive.enabled. With
+ * db.leakDetection.enabled a sample of borrows is tracked by
+ * {@link #getLeakDetector()} to find code paths that never close them.
  * 
  * @author Ocean View Resort Development Team
  * @version 1.0.0
@@ -22,10 +35,23 @@ public class DatabaseConfig {
     private static final Logger logger = LoggerFactory.getLogger(DatabaseConfig.class);
     private static DatabaseConfig instance;
     private BasicDataSource dataSource;
+    private DataSource connectionSource;
+    private SqlStatistics sqlStatistics;
+    private PoolTelemetry poolTelemetry;
+    private PoolSizeController poolSizeController;
+    private ConnectionLeakDetector leakDetector;
+    private int streamingFetchSize;
+    private boolean mysql;
+    private long slowStatementMillis;
+    private int batchSize;
     
     // Private constructor for Singleton pattern
     private DatabaseConfig() {
-        initializeDataSource();
+        initializeDataSource(null);
+    }
+    
+    private DatabaseConfig(Properties props) {
+        initializeDataSource(props);
     }
     
     /**
@@ -39,12 +65,25 @@ public class DatabaseConfig {
         return instance;
     }
     
+    /**
+     * Create a stand-alone configuration from the given properties.
+     * Used by tests and tools that need their own pool (for example on an
+     * H2 database) instead of the application singleton; the caller owns
+     * the pool and must close it with {@link #closeDataSource()}.
+     * @param props Database properties (db.* keys)
+     * @return New DatabaseConfig
+     */
+    public static DatabaseConfig create(Properties props) {
+        return new DatabaseConfig(props);
+    }
+    
     /**
      * Initialize the data source with connection pooling
+     * @param overrides Properties to use, or null to load application.properties
      */
-    private void initializeDataSource() {
+    private void initializeDataSource(Properties overrides) {
         try {
-            Properties props = loadProperties();
+            Properties props = overrides != null ? overrides : loadProperties();
             
             dataSource = new BasicDataSource();
             
@@ -61,13 +100,62 @@ public class DatabaseConfig {
             dataSource.setMinIdle(Integer.parseInt(props.getProperty("db.pool.minIdle", "5")));
             dataSource.setMaxWaitMillis(Long.parseLong(props.getProperty("db.pool.maxWait", "30000")));
             
-            // Connection validation
-            dataSource.setTestOnBorrow(true);
-            dataSource.setTestOnReturn(true);
+            // Connection validation: idle connections are checked with
+            // Connection.isValid() (no validation query) by the evictor, so
+            // borrows and returns cost no extra round trip. A connection that
+            // has thrown a fatal SQL error fails validation without a check
+            dataSource.setTestOnBorrow(false);
+            dataSource.setTestOnReturn(false);
             dataSource.setTestWhileIdle(true);
-            dataSource.setValidationQuery("SELECT 1");
+            dataSource.setValidationQueryTimeout(
+                    Integer.parseInt(props.getProperty("db.pool.validationTimeoutSeconds", "5")));
+            dataSource.setFastFailValidation(true);
             dataSource.setTimeBetweenEvictionRunsMillis(30000);
+            dataSource.setNumTestsPerEvictionRun(-1);
             dataSource.setMinEvictableIdleTimeMillis(60000);
+            dataSource.setMaxConnLifetimeMillis(
+                    Long.parseLong(props.getProperty("db.pool.maxLifetimeMillis", "1800000")));
+            
+            // Pool telemetry and adaptive sizing
+            poolTelemetry = new PoolTelemetry(dataSource);
+            int maxActive = dataSource.getMaxTotal();
+            poolSizeController = new PoolSizeController(dataSource, poolTelemetry,
+                    Boolean.parseBoolean(props.getProperty("db.pool.adaptive.enabled", "false")),
+                    Integer.parseInt(props.getProperty("db.pool.adaptive.minTotal", String.valueOf(maxActive))),
+                    Integer.parseInt(props.getProperty("db.pool.adaptive.maxTotal", String.valueOf(maxActive))),
+                    Long.parseLong(props.getProperty("db.pool.adaptive.targetWaitMillis", "50")),
+                    Integer.parseInt(props.getProperty("db.pool.adaptive.step", "2")),
+                    Long.parseLong(props.getProperty("db.pool.adaptive.intervalSeconds", "30")));
+            
+            // Result streaming
+            mysql = props.getProperty("db.url", "").startsWith("jdbc:mysql:");
+            streamingFetchSize = Integer.parseInt(props.getProperty("db.streaming.fetchSize", "500"));
+            
+            // Batched writes; Connector/J only sends a batch as multi-row
+            // INSERTs when rewriteBatchedStatements is enabled
+            batchSize = Integer.parseInt(props.getProperty("db.batch.size", "500"));
+            if (mysql) {
+                dataSource.addConnectionProperty("rewriteBatchedStatements",
+                        props.getProperty("db.batch.rewriteStatements", "true"));
+            }
+            
+            // Statement timing
+            slowStatementMillis = Long.parseLong(props.getProperty("db.slowStatementMillis", "500"));
+            
+            // Leak detection, wrapping the pool directly so the proxies
+            // below see the tracked connection
+            leakDetector = new ConnectionLeakDetector(
+                    Boolean.parseBoolean(props.getProperty("db.leakDetection.enabled", "true")),
+                    Double.parseDouble(props.getProperty("db.leakDetection.sampleRate", "0.05")),
+                    Long.parseLong(props.getProperty("db.leakDetection.thresholdMillis", "30000")));
+            connectionSource = leakDetector.wrap(dataSource);
+            
+            // Statement instrumentation
+            if (Boolean.parseBoolean(props.getProperty("db.instrumentation.enabled", "true"))) {
+                sqlStatistics = new SqlStatistics(slowStatementMillis,
+                        Integer.parseInt(props.getProperty("db.instrumentation.maxStatements", "500")));
+                connectionSource = new InstrumentedDataSource(connectionSource, sqlStatistics);
+            }
             
             logger.info("Database connection pool initialized successfully");
             
@@ -107,11 +195,14 @@ public class DatabaseConfig {
      * @throws SQLException if connection cannot be obtained
      */
     public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
         try {
-            Connection conn = dataSource.getConnection();
+            Connection conn = connectionSource.getConnection();
+            poolTelemetry.borrowed(System.nanoTime() - start);
             logger.debug("Database connection obtained from pool");
             return conn;
         } catch (SQLException e) {
+            poolTelemetry.failed(System.nanoTime() - start, e);
             logger.error("Failed to get database connection", e);
             throw e;
         }
@@ -139,6 +230,64 @@ public class DatabaseConfig {
         return dataSource;
     }
     
+    /**
+     * Get the fetch size to use for row-by-row streaming queries.
+     * MySQL Connector/J only streams when the fetch size is Integer.MIN_VALUE;
+     * other drivers get the configured positive batch size.
+     * @return fetch size hint
+     */
+    public int getStreamingFetchSize() {
+        return mysql ? Integer.MIN_VALUE : streamingFetchSize;
+    }
+    
+    /**
+     * Get the threshold above which a statement is logged as slow
+     * @return threshold in milliseconds
+     */
+    public long getSlowStatementMillis() {
+        return slowStatementMillis;
+    }
+    
+    /**
+     * Get the per-statement statistics collected by the instrumented pool
+     * @return Statistics, or null when db.instrumentation.enabled is false
+     */
+    public SqlStatistics getSqlStatistics() {
+        return sqlStatistics;
+    }
+    
+    /**
+     * Get the borrow wait, timeout and peak usage figures for the pool
+     * @return Pool telemetry
+     */
+    public PoolTelemetry getPoolTelemetry() {
+        return poolTelemetry;
+    }
+    
+    /**
+     * Get the controller that resizes the pool from its telemetry
+     * @return Controller; start() does nothing unless db.pool.adaptive.enabled
+     */
+    public PoolSizeController getPoolSizeController() {
+        return poolSizeController;
+    }
+    
+    /**
+     * Get the detector that flags connections held too long
+     * @return Leak detector; tracks nothing unless db.leakDetection.enabled
+     */
+    public ConnectionLeakDetector getLeakDetector() {
+        return leakDetector;
+    }
+    
+    /**
+     * Get the maximum number of rows sent in one JDBC batch
+     * @return batch size
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+    
     /**
      * Get active connection count
      * @return number of active connections
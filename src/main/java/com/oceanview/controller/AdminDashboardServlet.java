@@ -1,8 +1,9 @@
 package com.oceanview.controller;
 
-import com.oceanview.dao.*;
+import com.oceanview.model.DashboardStats;
 import com.oceanview.model.User;
-import com.oceanview.model.Reservation;
+import com.oceanview.service.DashboardStatsService;
+import com.oceanview.util.Constants;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
@@ -12,14 +13,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.sql.SQLException;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.Optional;
 
 /**
  * Admin Dashboard Servlet
- * Loads dashboard statistics and data for admin users
+ * Shows dashboard statistics and data for admin users. The numbers come
+ * from the snapshot kept by {@link DashboardStatsService}, so a page load
+ * does not run any database queries.
  * URL Mapping: /admin/dashboard (configured in web.xml)
  * 
  * @author Ocean View Resort Development Team
@@ -29,20 +29,12 @@ public class AdminDashboardServlet extends HttpServlet {
     
     private static final Logger logger = LoggerFactory.getLogger(AdminDashboardServlet.class);
     
-    private UserDAO userDAO;
-    private ReservationDAO reservationDAO;
-    private RoomDAO roomDAO;
-    private ReviewDAO reviewDAO;
-    private PaymentDAO paymentDAO;
+    private DashboardStatsService dashboardStatsService;
     
     @Override
     public void init() throws ServletException {
         super.init();
-        this.userDAO = new UserDAO();
-        this.reservationDAO = new ReservationDAO();
-        this.roomDAO = new RoomDAO();
-        this.reviewDAO = new ReviewDAO();
-        this.paymentDAO = new PaymentDAO();
+        this.dashboardStatsService = DashboardStatsService.getInstance();
         logger.info("AdminDashboardServlet initialized");
     }
     
@@ -53,12 +45,12 @@ public class AdminDashboardServlet extends HttpServlet {
         HttpSession session = request.getSession(false);
         
         // Check if user is logged in
-        if (session == null || session.getAttribute("loggedInUser") == null) {
+        if (session == null || session.getAttribute(Constants.SESSION_USER) == null) {
             response.sendRedirect(request.getContextPath() + "/login");
             return;
         }
         
-        User user = (User) session.getAttribute("loggedInUser");
+        User user = (User) session.getAttribute(Constants.SESSION_USER);
         
         // Check if user has ADMIN role
         if (!"ADMIN".equals(user.getRole().toString())) {
@@ -68,75 +60,45 @@ public class AdminDashboardServlet extends HttpServlet {
             return;
         }
         
-        try {
-            // Load dashboard statistics
-            Map<String, Object> stats = loadDashboardStats();
-            
-            // Load recent reservations
-            List<Reservation> recentReservations = reservationDAO.findRecent(10);
-            
-            // Set attributes for JSP
-            request.setAttribute("stats", stats);
-            request.setAttribute("recentReservations", recentReservations);
-            
-            logger.info("Admin dashboard accessed by: {}", user.getUsername());
-            request.getRequestDispatcher("/views/admin/dashboard.jsp").forward(request, response);
-            
-        } catch (SQLException e) {
-            logger.error("Error loading dashboard data", e);
-            request.setAttribute("error", "Failed to load dashboard data");
-            request.getRequestDispatcher("/views/admin/dashboard.jsp").forward(request, response);
+        Optional<DashboardStats> stats = dashboardStatsService.getSnapshot();
+        if (stats.isPresent()) {
+            setDashboardAttributes(request, stats.get(), dashboardStatsService.getAgeSeconds(stats.get()));
+        } else {
+            request.setAttribute(Constants.ATTR_ERROR, "Failed to load dashboard data");
         }
+        
+        logger.info("Admin dashboard accessed by: {}", user.getUsername());
+        request.getRequestDispatcher("/views/admin/dashboard.jsp").forward(request, response);
     }
     
     /**
-     * Load all dashboard statistics
+     * Expose a dashboard snapshot to the dashboard JSP
+     * @param request Current request
+     * @param stats Dashboard snapshot
+     * @param ageSeconds Seconds since the snapshot was loaded
      */
-    private Map<String, Object> loadDashboardStats() throws SQLException {
-        Map<String, Object> stats = new HashMap<>();
-        
-        // User statistics
-        stats.put("totalUsers", userDAO.count());
-        stats.put("activeUsers", userDAO.countByStatus("ACTIVE"));
-        stats.put("guestCount", userDAO.countByRole("GUEST"));
-        stats.put("staffCount", userDAO.countByRole("STAFF"));
+    static void setDashboardAttributes(HttpServletRequest request, DashboardStats stats, long ageSeconds) {
+        request.setAttribute("stats", stats);
+        request.setAttribute("statsAgeSeconds", ageSeconds);
         
-        // Reservation statistics
-        stats.put("totalReservations", reservationDAO.count());
-        stats.put("confirmedReservations", reservationDAO.countByStatus("CONFIRMED"));
-        stats.put("checkedInReservations", reservationDAO.countByStatus("CHECKED_IN"));
-        stats.put("pendingReservations", reservationDAO.countByStatus("PENDING"));
-        stats.put("todayCheckIns", reservationDAO.countTodayCheckIns());
-        stats.put("todayCheckOuts", reservationDAO.countTodayCheckOuts());
+        request.setAttribute("totalRooms", stats.getTotalRooms());
+        request.setAttribute("availableRooms", stats.getAvailableRooms());
+        request.setAttribute("occupiedRooms", stats.getOccupiedRooms());
+        request.setAttribute("reservedRooms", stats.getReservedRooms());
+        request.setAttribute("maintenanceRooms", stats.getMaintenanceRooms());
+        request.setAttribute("occupancyRate", stats.getOccupancyRate());
         
-        // Room statistics
-        stats.put("totalRooms", roomDAO.count());
-        stats.put("availableRooms", roomDAO.countByStatus("AVAILABLE"));
-        stats.put("occupiedRooms", roomDAO.countByStatus("OCCUPIED"));
-        stats.put("maintenanceRooms", roomDAO.countByStatus("MAINTENANCE"));
-        stats.put("occupancyRate", calculateOccupancyRate());
+        request.setAttribute("totalReservations", stats.getTotalReservations());
+        request.setAttribute("activeReservations", stats.getActiveReservations());
+        request.setAttribute("todayCheckIns", stats.getTodayCheckIns());
+        request.setAttribute("todayCheckOuts", stats.getTodayCheckOuts());
+        request.setAttribute("totalGuests", stats.getTotalGuests());
         
-        // Review statistics
-        stats.put("totalReviews", reviewDAO.count());
-        stats.put("pendingReviews", reviewDAO.countByStatus("PENDING"));
-        stats.put("averageRating", reviewDAO.getAverageRating());
+        request.setAttribute("totalRevenue", stats.getTotalRevenue());
+        request.setAttribute("monthlyRevenue", stats.getMonthlyRevenue());
+        request.setAttribute("pendingReviews", stats.getPendingReviews());
         
-        // Revenue statistics (this month)
-        stats.put("monthlyRevenue", paymentDAO.getMonthlyRevenue());
-        stats.put("todayRevenue", paymentDAO.getTodayRevenue());
-        stats.put("yearlyRevenue", paymentDAO.getYearlyRevenue());
-        
-        return stats;
-    }
-    
-    /**
-     * Calculate occupancy rate
-     */
-    private double calculateOccupancyRate() throws SQLException {
-        int total = roomDAO.count();
-        int occupied = roomDAO.countByStatus("OCCUPIED");
-        if (total == 0) return 0.0;
-        return (occupied * 100.0) / total;
+        request.setAttribute("recentReservations", stats.getRecentReservations());
     }
     
     @Override
@@ -4,6 +4,7 @@ import com.oceanview.model.Payment;
 import com.oceanview.model.Reservation;
 import com.oceanview.model.User;
 import com.oceanview.service.BillingService;
+import com.oceanview.service.PdfRenderService;
 import com.oceanview.service.ReservationService;
 import com.oceanview.util.Constants;
 import jakarta.servlet.ServletException;
@@ -17,6 +18,7 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Billing Servlet
@@ -60,6 +62,9 @@ public class BillingServlet extends HttpServlet {
                 case "viewBill":
                     viewBill(request, response);
                     break;
+                case "invoice":
+                    downloadInvoice(request, response);
+                    break;
                 case "processPayment":
                     showPaymentForm(request, response);
                     break;
@@ -169,6 +174,43 @@ public class BillingServlet extends HttpServlet {
         }
     }
     
+    /**
+     * Download the invoice PDF for a payment, served from the PDF cache.
+     * Guests may only download invoices of their own reservations.
+     */
+    private void downloadInvoice(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        
+        User user = PdfDownload.requireUser(request, response);
+        if (user == null) {
+            return;
+        }
+        String paymentIdStr = request.getParameter("id");
+        
+        try {
+            int paymentId = Integer.parseInt(paymentIdStr);
+            Optional<Payment> payment = billingService.getPaymentById(paymentId);
+            if (payment.isEmpty() || !reservationService.canAccess(user, payment.get().getReservationId())) {
+                logger.warn("Invoice download refused: user {}, payment ID {}", user.getUsername(), paymentId);
+                response.sendError(HttpServletResponse.SC_NOT_FOUND, "Invoice not available");
+                return;
+            }
+            Optional<PdfRenderService.CachedPdf> invoice = billingService.getInvoicePDF(paymentId);
+            if (invoice.isPresent()) {
+                PdfDownload.send(request, response, invoice.get(), "invoice-" + paymentId + ".pdf");
+            } else {
+                request.setAttribute(Constants.ATTR_ERROR, "Invoice not available");
+                listPayments(request, response);
+            }
+        } catch (RejectedExecutionException e) {
+            PdfDownload.sendBusy(response);
+        } catch (NumberFormatException e) {
+            logger.error("Invalid payment ID: {}", paymentIdStr);
+            request.setAttribute(Constants.ATTR_ERROR, "Invalid payment ID");
+            listPayments(request, response);
+        }
+    }
+    
     /**
      * View bill for a reservation
      */
@@ -1,9 +1,10 @@
 package com.oceanview.controller;
 
+import com.oceanview.model.DashboardStats;
 import com.oceanview.model.User;
+import com.oceanview.service.DashboardStatsService;
 import com.oceanview.service.ReservationService;
 import com.oceanview.service.RoomService;
-import com.oceanview.service.BillingService;
 import com.oceanview.util.Constants;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServlet;
@@ -14,6 +15,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.Optional;
 
 /**
  * Dashboard Servlet
@@ -28,13 +30,13 @@ public class DashboardServlet extends HttpServlet {
     private static final Logger logger = LoggerFactory.getLogger(DashboardServlet.class);
     private ReservationService reservationService;
     private RoomService roomService;
-    private BillingService billingService;
+    private DashboardStatsService dashboardStatsService;
     
     @Override
     public void init() throws ServletException {
         reservationService = new ReservationService();
         roomService = new RoomService();
-        billingService = new BillingService();
+        dashboardStatsService = DashboardStatsService.getInstance();
         logger.info("DashboardServlet initialized");
     }
     
@@ -66,59 +68,15 @@ public class DashboardServlet extends HttpServlet {
     private void loadAdminDashboard(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
         
-        try {
-            // Room statistics
-            int[] roomStats = roomService.getRoomStatistics();
-            int totalRooms = roomStats[0] + roomStats[1] + roomStats[2] + roomStats[3];
-            
-            request.setAttribute("totalRooms", totalRooms);
-            request.setAttribute("availableRooms", roomStats[0]);
-            request.setAttribute("occupiedRooms", roomStats[1]);
-            request.setAttribute("reservedRooms", roomStats[2]);
-            request.setAttribute("maintenanceRooms", roomStats[3]);
-            
-            // Reservation counts
-            int totalReservations = reservationService.getAllReservations().size();
-            int activeReservations = reservationService.getActiveReservations().size();
-            int todayCheckIns = reservationService.getTodayCheckIns().size();
-            int todayCheckOuts = reservationService.getTodayCheckOuts().size();
-            
-            request.setAttribute("totalReservations", totalReservations);
-            request.setAttribute("activeReservations", activeReservations);
-            request.setAttribute("todayCheckIns", todayCheckIns);
-            request.setAttribute("todayCheckOuts", todayCheckOuts);
-            
-            // Revenue
-            double totalRevenue = billingService.getTotalRevenue();
-            double monthlyRevenue = totalRevenue; // Simplified - use current total as monthly
-            request.setAttribute("totalRevenue", totalRevenue);
-            request.setAttribute("monthlyRevenue", monthlyRevenue);
-            
-            // Total guests (unique guests from all reservations)
-            int totalGuests = reservationService.getAllReservations().size(); // Simplified
-            request.setAttribute("totalGuests", totalGuests);
-            
-            // Occupancy rate
-            double occupancyRate = totalRooms > 0 ? ((double) roomStats[1] / totalRooms) * 100 : 0.0;
-            request.setAttribute("occupancyRate", occupancyRate);
-            
-            // Pending reviews (simplified - count recent reservations)
-            int pendingReviews = 0;
-            request.setAttribute("pendingReviews", pendingReviews);
-            
-            // Recent activities
-            request.setAttribute("recentReservations", reservationService.getAllReservations());
-            request.setAttribute("todayCheckInsList", reservationService.getTodayCheckIns());
-            request.setAttribute("todayCheckOutsList", reservationService.getTodayCheckOuts());
-            
+        Optional<DashboardStats> stats = dashboardStatsService.getSnapshot();
+        if (stats.isPresent()) {
+            AdminDashboardServlet.setDashboardAttributes(request, stats.get(),
+                                                         dashboardStatsService.getAgeSeconds(stats.get()));
             logger.info("Admin dashboard data loaded successfully");
-            request.getRequestDispatcher("/views/admin/dashboard.jsp").forward(request, response);
-            
-        } catch (Exception e) {
-            logger.error("Error loading admin dashboard", e);
+        } else {
             request.setAttribute(Constants.ATTR_ERROR, "Error loading dashboard");
-            request.getRequestDispatcher("/views/admin/dashboard.jsp").forward(request, response);
         }
+        request.getRequestDispatcher("/views/admin/dashboard.jsp").forward(request, response);
     }
     
     /**
@@ -0,0 +1,112 @@
+package com.oceanview.controller;
+
+import com.oceanview.config.DatabaseConfig;
+import com.oceanview.jdbc.ConnectionLeakDetector;
+import com.oceanview.jdbc.PoolTelemetry;
+import com.oceanview.jdbc.SqlStatistics;
+import com.oceanview.metrics.LatencyHistogram;
+import com.oceanview.model.User;
+import com.oceanview.util.Constants;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Database Servlet
+ * Shows connection pool usage and borrow waits, suspected connection leaks
+ * per borrow site, and the statements that take the most database time,
+ * from the statistics kept by the instrumented pool
+ * URL Mapping: /admin/database (configured in web.xml)
+ * 
+ * @author Ocean View Resort Development Team
+ * @version 1.0.0
+ */
+public class DatabaseServlet extends HttpServlet {
+    
+    private static final Logger logger = LoggerFactory.getLogger(DatabaseServlet.class);
+    private static final int MAX_STATEMENTS_SHOWN = 50;
+    
+    private DatabaseConfig dbConfig;
+    
+    @Override
+    public void init() throws ServletException {
+        super.init();
+        this.dbConfig = DatabaseConfig.getInstance();
+        logger.info("DatabaseServlet initialized");
+    }
+    
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        
+        if (!isAdmin(request)) {
+            response.sendRedirect(request.getContextPath() + "/login");
+            return;
+        }
+        
+        request.setAttribute("activeConnections", dbConfig.getActiveConnections());
+        request.setAttribute("idleConnections", dbConfig.getIdleConnections());
+        request.setAttribute("maxConnections", dbConfig.getDataSource().getMaxTotal());
+        request.setAttribute("slowStatementMillis", dbConfig.getSlowStatementMillis());
+        
+        PoolTelemetry telemetry = dbConfig.getPoolTelemetry();
+        LatencyHistogram.Snapshot borrowWait = telemetry.getBorrowWait();
+        request.setAttribute("borrowCount", borrowWait.getCount());
+        request.setAttribute("borrowWaitP99Millis", borrowWait.getQuantileSeconds(0.99) * 1000);
+        request.setAttribute("poolTimeouts", telemetry.getTimeoutCount());
+        request.setAttribute("peakConnections", telemetry.getPeakActive());
+        request.setAttribute("poolResizes", telemetry.getResizeCount());
+        
+        ConnectionLeakDetector leakDetector = dbConfig.getLeakDetector();
+        request.setAttribute("leakDetection", leakDetector.isEnabled());
+        request.setAttribute("leakSampleRate", leakDetector.getSampleRate());
+        request.setAttribute("leakThresholdMillis", leakDetector.getThresholdMillis());
+        request.setAttribute("leakSuspects", leakDetector.getSuspectCount());
+        request.setAttribute("leakSites", leakDetector.getSites());
+        
+        SqlStatistics statistics = dbConfig.getSqlStatistics();
+        request.setAttribute("instrumented", statistics != null);
+        if (statistics != null) {
+            List<SqlStatistics.StatementStats> statements = statistics.getStatements();
+            request.setAttribute("statementCount", statements.size());
+            request.setAttribute("slowCount", statistics.getSlowCount());
+            request.setAttribute("statements",
+                                 statements.subList(0, Math.min(MAX_STATEMENTS_SHOWN, statements.size())));
+        }
+        
+        request.getRequestDispatcher("/views/admin/database.jsp").forward(request, response);
+    }
+    
+    @Override
+    protected void doPost(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        
+        if (!isAdmin(request)) {
+            response.sendRedirect(request.getContextPath() + "/login");
+            return;
+        }
+        
+        if ("reset".equals(request.getParameter("action"))) {
+            if (dbConfig.getSqlStatistics() != null) {
+                dbConfig.getSqlStatistics().reset();
+            }
+            dbConfig.getLeakDetector().reset();
+            User user = (User) request.getSession().getAttribute(Constants.SESSION_USER);
+            logger.info("Database statistics reset by: {}", user.getUsername());
+        }
+        response.sendRedirect(request.getContextPath() + "/admin/database");
+    }
+    
+    private boolean isAdmin(HttpServletRequest request) {
+        HttpSession session = request.getSession(false);
+        User user = session != null ? (User) session.getAttribute(Constants.SESSION_USER) : null;
+        return user != null && user.isAdmin();
+    }
+}
@@ -0,0 +1,94 @@
+package com.oceanview.controller;
+
+import com.oceanview.config.AppConfig;
+import com.oceanview.metrics.MetricsRegistry;
+import com.oceanview.metrics.MetricsWriter;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Metrics Servlet
+ * Exposes application metrics in the Prometheus text format
+ * URL Mapping: /metrics (configured in web.xml)
+ * 
+ * Scrapers have no session, so the endpoint sits outside the login filters.
+ * The metrics include SQL statement text and per-endpoint traffic, so when
+ * metrics.token is set requests must carry it as a bearer token, and when
+ * it is not only scrapers on the same host (loopback) are answered.
+ * 
+ * @author Ocean View Resort Development Team
+ * @version 1.0.0
+ */
+public class MetricsServlet extends HttpServlet {
+    
+    private static final Logger logger = LoggerFactory.getLogger(MetricsServlet.class);
+    private MetricsRegistry registry;
+    private boolean enabled;
+    private byte[] token;
+    
+    @Override
+    public void init() throws ServletException {
+        AppConfig config = AppConfig.getInstance();
+        registry = MetricsRegistry.getInstance();
+        enabled = config.isMetricsEnabled();
+        String configuredToken = config.getMetricsToken();
+        token = configuredToken.isBlank() ? null : ("Bearer " + configuredToken).getBytes(StandardCharsets.UTF_8);
+        if (enabled && token == null) {
+            logger.warn("metrics.token is not set; /metrics answers loopback requests only");
+        }
+    }
+    
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        
+        if (!enabled) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        if (token == null && !isLoopback(request.getRemoteAddr())) {
+            logger.warn("Metrics request from {} refused: metrics.token is not set", request.getRemoteAddr());
+            response.sendError(HttpServletResponse.SC_FORBIDDEN);
+            return;
+        }
+        if (token != null && !authorized(request.getHeader("Authorization"))) {
+            logger.warn("Metrics request without a valid token from {}", request.getRemoteAddr());
+            response.setHeader("WWW-Authenticate", "Bearer");
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED);
+            return;
+        }
+        
+        response.setContentType(MetricsWriter.CONTENT_TYPE);
+        response.setHeader("Cache-Control", "no-store");
+        registry.scrape(response.getWriter());
+    }
+    
+    private boolean authorized(String header) {
+        return header != null && MessageDigest.isEqual(token, header.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * Whether the client connected from this host; the address is a literal
+     * IP, so no name lookup happens
+     */
+    static boolean isLoopback(String remoteAddr) {
+        if (remoteAddr == null || remoteAddr.isEmpty()) {
+            return false;
+        }
+        try {
+            return InetAddress.getByName(remoteAddr).isLoopbackAddress();
+        } catch (UnknownHostException e) {
+            return false;
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package com.oceanview.controller;
 
 import com.oceanview.dao.OfferDAO;
+import com.oceanview.dao.Page;
+import com.oceanview.dao.PageRequest;
+import com.oceanview.model.GroupTotal;
 import com.oceanview.model.Offer;
 import com.oceanview.model.User;
 import com.oceanview.util.Constants;
@@ -122,23 +125,28 @@ public class OfferServlet extends HttpServlet {
             throws ServletException, IOException {
         
         try {
-            List<Offer> offers = offerDAO.findAll();
+            Page<Offer> page = offerDAO.findPage(PageRequest.of(
+                request.getParameter(Constants.PARAM_CURSOR),
+                request.getParameter(Constants.PARAM_PAGE_SIZE)));
             
             // Calculate statistics
-            long activeCount = offers.stream()
-                .filter(o -> o.getOfferStatus() == Offer.OfferStatus.ACTIVE)
-                .count();
-            long scheduledCount = offers.stream()
-                .filter(o -> o.getOfferStatus() == Offer.OfferStatus.SCHEDULED)
-                .count();
-            long expiredCount = offers.stream()
-                .filter(o -> o.getOfferStatus() == Offer.OfferStatus.EXPIRED)
-                .count();
-            int totalRedemptions = offers.stream()
-                .mapToInt(Offer::getUsedCount)
-                .sum();
+            long activeCount = 0;
+            long scheduledCount = 0;
+            long expiredCount = 0;
+            int totalRedemptions = 0;
+            for (GroupTotal row : offerDAO.summarizeByStatus()) {
+                totalRedemptions += (int) row.getAmount();
+                if (Offer.OfferStatus.ACTIVE.name().equals(row.getKey())) {
+                    activeCount = row.getCount();
+                } else if (Offer.OfferStatus.SCHEDULED.name().equals(row.getKey())) {
+                    scheduledCount = row.getCount();
+                } else if (Offer.OfferStatus.EXPIRED.name().equals(row.getKey())) {
+                    expiredCount = row.getCount();
+                }
+            }
             
-            request.setAttribute("offers", offers);
+            request.setAttribute("offers", page.getItems());
+            request.setAttribute(Constants.ATTR_PAGE, page);
             request.setAttribute("activeOffers", activeCount);
             request.setAttribute("scheduledOffers", scheduledCount);
             request.setAttribute("expiredOffers", expiredCount);
@@ -0,0 +1,88 @@
+package com.oceanview.controller;
+
+import com.oceanview.model.User;
+import com.oceanview.service.PdfRenderService;
+import com.oceanview.util.Constants;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+
+import java.io.IOException;
+
+/**
+ * PDF Download - sends a cached PDF with ETag revalidation
+ * The ETag is the document's content hash, so a client that already holds
+ * the current version gets 304 Not Modified instead of the file.
+ * Documents carry guest contact details, so the servlets serve them only
+ * to a logged-in user allowed to see the reservation.
+ * 
+ * @author Ocean View Resort Development Team
+ * @version 1.0.0
+ */
+final class PdfDownload {
+    
+    private PdfDownload() {
+    }
+    
+    /**
+     * Send a PDF, or 304 if the client's copy is current
+     * @param request Request, checked for If-None-Match
+     * @param response Response
+     * @param pdf Cached document
+     * @param filename Download file name
+     */
+    static void send(HttpServletRequest request, HttpServletResponse response,
+                     PdfRenderService.CachedPdf pdf, String filename) throws IOException {
+        String etag = "\"" + pdf.getEtag() + "\"";
+        response.setHeader("ETag", etag);
+        response.setHeader("Cache-Control", "private, no-cache");
+        if (matches(request.getHeader("If-None-Match"), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        response.setContentType("application/pdf");
+        response.setContentLengthLong(pdf.getSize());
+        response.setHeader("Content-Disposition", "attachment; filename=\"" + filename + "\"");
+        pdf.writeTo(response.getOutputStream());
+    }
+    
+    /**
+     * Get the logged-in user, or send the client to the login page
+     * @param request Request
+     * @param response Response, redirected when there is no session user
+     * @return Session user, or null after redirecting
+     */
+    static User requireUser(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        HttpSession session = request.getSession(false);
+        User user = session != null ? (User) session.getAttribute(Constants.SESSION_USER) : null;
+        if (user == null) {
+            response.sendRedirect(request.getContextPath() + "/login");
+        }
+        return user;
+    }
+    
+    /**
+     * Refuse a download while the render pool is saturated
+     * @param response Response
+     */
+    static void sendBusy(HttpServletResponse response) throws IOException {
+        response.setHeader("Retry-After", "5");
+        response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Document generation is busy, try again shortly");
+    }
+    
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag) || tag.equals("*")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -157,6 +157,18 @@ public class ReportServlet extends HttpServlet {
         
         logger.info("Generating revenue report from {} to {}", startDate, endDate);
         
+        if ("pdf".equals(request.getParameter("format"))) {
+            response.setContentType("application/pdf");
+            response.setHeader("Content-Disposition",
+                               "attachment; filename=\"revenue-" + startDate + "-to-" + endDate + ".pdf\"");
+            if (!billingService.writeRevenueReportPDF(startDate, endDate, response.getOutputStream())
+                    && !response.isCommitted()) {
+                response.reset();
+                response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "Error generating report");
+            }
+            return;
+        }
+        
         // Get all payments
         List<Payment> allPayments = billingService.getAllPayments();
         
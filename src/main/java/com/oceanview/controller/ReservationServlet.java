@@ -1,7 +1,10 @@
 package com.oceanview.controller;
 
+import com.oceanview.dao.Page;
+import com.oceanview.dao.PageRequest;
 import com.oceanview.model.Reservation;
 import com.oceanview.model.User;
+import com.oceanview.service.PdfRenderService;
 import com.oceanview.service.ReservationService;
 import com.oceanview.util.Constants;
 import com.oceanview.util.ValidationUtil;
@@ -15,8 +18,8 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.time.LocalDate;
-import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Reservation Servlet
@@ -66,6 +69,9 @@ public class ReservationServlet extends HttpServlet {
             case "checkout":
                 checkOutReservation(request, response);
                 break;
+            case "confirmation":
+                downloadConfirmation(request, response);
+                break;
             default:
                 listReservations(request, response);
         }
@@ -174,6 +180,42 @@ public class ReservationServlet extends HttpServlet {
         }
     }
     
+    /**
+     * Download the booking confirmation PDF, served from the PDF cache.
+     * Guests may only download confirmations of their own reservations.
+     */
+    private void downloadConfirmation(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        
+        User user = PdfDownload.requireUser(request, response);
+        if (user == null) {
+            return;
+        }
+        String idStr = request.getParameter("id");
+        
+        if (!ValidationUtil.isValidInteger(idStr)) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Invalid reservation ID");
+            return;
+        }
+        
+        int reservationId = Integer.parseInt(idStr);
+        if (!reservationService.canAccess(user, reservationId)) {
+            logger.warn("Confirmation download refused: user {}, reservation ID {}", user.getUsername(), reservationId);
+            response.sendError(HttpServletResponse.SC_NOT_FOUND, "Confirmation not available");
+            return;
+        }
+        try {
+            Optional<PdfRenderService.CachedPdf> confirmation = reservationService.getConfirmationPDF(reservationId);
+            if (confirmation.isPresent()) {
+                PdfDownload.send(request, response, confirmation.get(), "confirmation-" + reservationId + ".pdf");
+            } else {
+                response.sendError(HttpServletResponse.SC_NOT_FOUND, "Confirmation not available");
+            }
+        } catch (RejectedExecutionException e) {
+            PdfDownload.sendBusy(response);
+        }
+    }
+    
     /**
      * List reservations
      */
@@ -183,18 +225,22 @@ public class ReservationServlet extends HttpServlet {
         HttpSession session = request.getSession();
         User user = (User) session.getAttribute(Constants.SESSION_USER);
         
-        List<Reservation> reservations;
+        PageRequest pageRequest = PageRequest.of(
+            request.getParameter(Constants.PARAM_CURSOR),
+            request.getParameter(Constants.PARAM_PAGE_SIZE));
+        Page<Reservation> page;
         
         if (user.isGuest()) {
             // Get guest's reservations only
             // You would need to get the guest ID from the database
-            reservations = reservationService.getAllReservations(); // Simplified
+            page = reservationService.getReservationsPage(pageRequest); // Simplified
         } else {
             // Admin/Staff can see all reservations
-            reservations = reservationService.getAllReservations();
+            page = reservationService.getReservationsPage(pageRequest);
         }
         
-        request.setAttribute("reservations", reservations);
+        request.setAttribute("reservations", page.getItems());
+        request.setAttribute(Constants.ATTR_PAGE, page);
         request.getRequestDispatcher("/views/reservations/list.jsp").forward(request, response);
     }
     
@@ -212,9 +258,10 @@ public class ReservationServlet extends HttpServlet {
         }
         
         int reservationId = Integer.parseInt(idStr);
-        boolean success = reservationService.confirmReservation(reservationId);
-        
         HttpSession session = request.getSession();
+        User currentUser = (User) session.getAttribute(Constants.SESSION_USER);
+        boolean success = reservationService.confirmReservation(reservationId, currentUser.getUserId());
+        
         if (success) {
             session.setAttribute(Constants.ATTR_SUCCESS, "Reservation confirmed successfully!");
         } else {
@@ -238,9 +285,10 @@ public class ReservationServlet extends HttpServlet {
         }
         
         int reservationId = Integer.parseInt(idStr);
-        boolean success = reservationService.checkInReservation(reservationId);
-        
         HttpSession session = request.getSession();
+        User currentUser = (User) session.getAttribute(Constants.SESSION_USER);
+        boolean success = reservationService.checkInReservation(reservationId, currentUser.getUserId());
+        
         if (success) {
             session.setAttribute(Constants.ATTR_SUCCESS, Constants.MSG_CHECKIN_SUCCESS);
         } else {
@@ -264,9 +312,10 @@ public class ReservationServlet extends HttpServlet {
         }
         
         int reservationId = Integer.parseInt(idStr);
-        boolean success = reservationService.checkOutReservation(reservationId);
-        
         HttpSession session = request.getSession();
+        User currentUser = (User) session.getAttribute(Constants.SESSION_USER);
+        boolean success = reservationService.checkOutReservation(reservationId, currentUser.getUserId());
+        
         if (success) {
             session.setAttribute(Constants.ATTR_SUCCESS, Constants.MSG_CHECKOUT_SUCCESS);
         } else {
@@ -290,9 +339,10 @@ public class ReservationServlet extends HttpServlet {
         }
         
         int reservationId = Integer.parseInt(idStr);
-        boolean success = reservationService.cancelReservation(reservationId);
-        
         HttpSession session = request.getSession();
+        User currentUser = (User) session.getAttribute(Constants.SESSION_USER);
+        boolean success = reservationService.cancelReservation(reservationId, currentUser.getUserId());
+        
         if (success) {
             session.setAttribute(Constants.ATTR_SUCCESS, Constants.MSG_RESERVATION_CANCELLED);
         } else {
@@ -320,6 +370,7 @@ public class ReservationServlet extends HttpServlet {
             case -1: return "Check-in date cannot be in the past";
             case -2: return "Invalid date range";
             case -3: return "Room not found";
+            case -5: return Constants.MSG_ROOM_NOT_AVAILABLE;
             default: return "Failed to create reservation";
         }
     }
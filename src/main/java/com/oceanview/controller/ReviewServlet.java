@@ -1,5 +1,7 @@
 package com.oceanview.controller;
 
+import com.oceanview.dao.Page;
+import com.oceanview.dao.PageRequest;
 import com.oceanview.dao.ReviewDAO;
 import com.oceanview.model.Review;
 import com.oceanview.model.User;
@@ -122,11 +124,13 @@ public class ReviewServlet extends HttpServlet {
     private void listReviews(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException, SQLException {
         
-        // Default limit of 100 approved reviews
-        List<Review> reviews = reviewDAO.findApprovedReviews(100);
-        request.setAttribute("reviews", reviews);
+        Page<Review> page = reviewDAO.findPageByStatus(Review.ReviewStatus.APPROVED, PageRequest.of(
+            request.getParameter(Constants.PARAM_CURSOR),
+            request.getParameter(Constants.PARAM_PAGE_SIZE)));
+        request.setAttribute("reviews", page.getItems());
+        request.setAttribute(Constants.ATTR_PAGE, page);
         
-        logger.info("Loaded {} approved reviews", reviews.size());
+        logger.info("Loaded {} approved reviews", page.size());
         
         request.getRequestDispatcher("/views/reviews/list.jsp").forward(request, response);
     }
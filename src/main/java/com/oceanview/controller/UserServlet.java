@@ -1,6 +1,9 @@
 package com.oceanview.controller;
 
+import com.oceanview.dao.Page;
+import com.oceanview.dao.PageRequest;
 import com.oceanview.dao.UserDAO;
+import com.oceanview.model.GroupTotal;
 import com.oceanview.model.User;
 import com.oceanview.service.AuthenticationService;
 import com.oceanview.util.Constants;
@@ -15,7 +18,6 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.sql.SQLException;
-import java.util.List;
 import java.util.Optional;
 
 /**
@@ -92,14 +94,27 @@ public class UserServlet extends HttpServlet {
             throws ServletException, IOException {
         
         try {
-            List<User> users = userDAO.findAll();
-            request.setAttribute("users", users);
+            Page<User> page = userDAO.findPage(PageRequest.of(
+                request.getParameter(Constants.PARAM_CURSOR),
+                request.getParameter(Constants.PARAM_PAGE_SIZE)));
+            request.setAttribute("users", page.getItems());
+            request.setAttribute(Constants.ATTR_PAGE, page);
             
             // Calculate statistics for dashboard
-            long totalUsers = users.size();
-            long adminCount = users.stream().filter(u -> u.getRole() == User.Role.ADMIN).count();
-            long staffCount = users.stream().filter(u -> u.getRole() == User.Role.STAFF).count();
-            long guestCount = users.stream().filter(u -> u.getRole() == User.Role.GUEST).count();
+            long totalUsers = 0;
+            long adminCount = 0;
+            long staffCount = 0;
+            long guestCount = 0;
+            for (GroupTotal row : userDAO.countGroupedByRole()) {
+                totalUsers += row.getCount();
+                if (User.Role.ADMIN.name().equals(row.getKey())) {
+                    adminCount = row.getCount();
+                } else if (User.Role.STAFF.name().equals(row.getKey())) {
+                    staffCount = row.getCount();
+                } else if (User.Role.GUEST.name().equals(row.getKey())) {
+                    guestCount = row.getCount();
+                }
+            }
             
             request.setAttribute("totalUsers", totalUsers);
             request.setAttribute("adminCount", adminCount);
@@ -1,13 +1,20 @@
 package com.oceanview.dao;
 
+import com.oceanview.config.DatabaseConfig;
 import com.oceanview.model.AuditLog;
+import com.oceanview.model.AuditPartition;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.sql.*;
-import java.util.ArrayList;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
 
 /**
  * AuditLog DAO - Data Access Object for AuditLog entity
@@ -21,8 +28,8 @@ public class AuditLogDAO extends BaseDAO {
     
     // SQL Queries
     private static final String INSERT_LOG = 
-        "INSERT INTO audit_logs (user_id, action, entity_type, entity_id, details, ip_address) " +
-        "VALUES (?, ?, ?, ?, ?, ?)";
+        "INSERT INTO audit_logs (user_id, action, entity_type, entity_id, details, ip_address, timestamp) " +
+        "VALUES (?, ?, ?, ?, ?, ?, COALESCE(?, CURRENT_TIMESTAMP))";
     
     private static final String SELECT_BY_ID = 
         "SELECT * FROM audit_logs WHERE log_id = ?";
@@ -44,267 +51,265 @@ public class AuditLogDAO extends BaseDAO {
         "SELECT * FROM audit_logs WHERE DATE(timestamp) BETWEEN ? AND ? " +
         "ORDER BY timestamp DESC";
     
-    private static final String DELETE_OLD_LOGS = 
-        "DELETE FROM audit_logs WHERE timestamp < DATE_SUB(NOW(), INTERVAL ? DAY)";
+    private static final String SELECT_BY_PERIOD = 
+        "SELECT * FROM audit_logs WHERE timestamp >= ? AND timestamp < ? " +
+        "ORDER BY timestamp";
+    
+    private static final String SELECT_CHUNK_END = 
+        "SELECT MAX(log_id) FROM (SELECT log_id FROM audit_logs WHERE timestamp < ? " +
+        "ORDER BY log_id LIMIT ?) oldest";
+    
+    private static final String DELETE_CHUNK = 
+        "DELETE FROM audit_logs WHERE log_id <= ? AND timestamp < ?";
+    
+    private static final String SELECT_PARTITIONS = 
+        "SELECT partition_name, partition_description, table_rows FROM information_schema.partitions " +
+        "WHERE table_schema = DATABASE() AND table_name = 'audit_logs' AND partition_name IS NOT NULL " +
+        "ORDER BY partition_ordinal_position";
+    
+    private static final String DROP_PARTITION = 
+        "ALTER TABLE audit_logs DROP PARTITION ";
+    
+    private static final String SPLIT_FUTURE_PARTITION = 
+        "ALTER TABLE audit_logs REORGANIZE PARTITION p_future INTO (" +
+        "PARTITION %s VALUES LESS THAN (UNIX_TIMESTAMP('%s')), " +
+        "PARTITION p_future VALUES LESS THAN MAXVALUE)";
+    
+    private static final int DEFAULT_CHUNK_SIZE = 5000;
+    private static final Pattern PARTITION_NAME = Pattern.compile("[A-Za-z0-9_]+");
+    private static final DateTimeFormatter BOUND_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    
+    // Row Mapper
+    private static final RowMapper<AuditLog> AUDIT_LOG_MAPPER = RowMapper.indexed(AuditLogRowMapper::new);
+    
+    /**
+     * Constructor
+     */
+    public AuditLogDAO() {
+        super();
+    }
+    
+    /**
+     * Constructor with an explicit database configuration
+     */
+    public AuditLogDAO(DatabaseConfig dbConfig) {
+        super(dbConfig);
+    }
     
     /**
      * Create a new audit log entry
      */
     public int create(AuditLog auditLog) throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(INSERT_LOG, Statement.RETURN_GENERATED_KEYS);
-            
-            if (auditLog.getUserId() != null) {
-                stmt.setInt(1, auditLog.getUserId());
-            } else {
-                stmt.setNull(1, Types.INTEGER);
-            }
-            
-            stmt.setString(2, auditLog.getAction());
-            stmt.setString(3, auditLog.getEntityType());
-            
-            if (auditLog.getEntityId() != null) {
-                stmt.setInt(4, auditLog.getEntityId());
-            } else {
-                stmt.setNull(4, Types.INTEGER);
-            }
-            
-            stmt.setString(5, auditLog.getDetails());
-            stmt.setString(6, auditLog.getIpAddress());
-            
-            int affectedRows = stmt.executeUpdate();
-            
-            if (affectedRows == 0) {
-                throw new SQLException("Creating audit log failed, no rows affected.");
-            }
-            
-            rs = stmt.getGeneratedKeys();
-            if (rs.next()) {
-                int logId = rs.getInt(1);
-                logger.debug("Audit log created successfully with ID: {}", logId);
-                return logId;
-            } else {
-                throw new SQLException("Creating audit log failed, no ID obtained.");
-            }
-            
-        } catch (SQLException e) {
-            logSQLException("create audit log", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt, rs);
-        }
+        int logId = insert(INSERT_LOG, insertParams(auditLog), "create audit log");
+        logger.debug("Audit log created successfully with ID: {}", logId);
+        return logId;
+    }
+    
+    /**
+     * Create many audit log entries with batched inserts.
+     * Generated IDs are set on the entries that were written.
+     * @param auditLogs Entries to create
+     * @return Inserted entries and per-row failures
+     */
+    public BatchResult<AuditLog> createAll(List<AuditLog> auditLogs) throws SQLException {
+        BatchResult<AuditLog> result = batchInsert(INSERT_LOG, auditLogs,
+                AuditLogDAO::insertParams, AuditLog::setLogId, "create audit logs");
+        logger.debug("Audit logs created in batch: {} inserted, {} failed",
+                    result.getInsertedCount(), result.getFailedCount());
+        return result;
+    }
+    
+    private static StatementBinder insertParams(AuditLog auditLog) {
+        return params(
+                auditLog.getUserId(), auditLog.getAction(), auditLog.getEntityType(),
+                auditLog.getEntityId(), auditLog.getDetails(), auditLog.getIpAddress(),
+                auditLog.getTimestamp());
     }
     
     /**
      * Find audit log by ID
      */
     public Optional<AuditLog> findById(int logId) throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(SELECT_BY_ID);
-            stmt.setInt(1, logId);
-            
-            rs = stmt.executeQuery();
-            
-            if (rs.next()) {
-                return Optional.of(mapResultSetToAuditLog(rs));
-            }
-            
-            return Optional.empty();
-            
-        } catch (SQLException e) {
-            logSQLException("find audit log by ID", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt, rs);
-        }
+        return queryForOptional(SELECT_BY_ID, params(logId), AUDIT_LOG_MAPPER, "find audit log by ID");
     }
     
     /**
      * Find recent audit logs
      */
     public List<AuditLog> findRecent(int limit) throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
-        List<AuditLog> logs = new ArrayList<>();
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(SELECT_ALL);
-            stmt.setInt(1, limit);
-            rs = stmt.executeQuery();
-            
-            while (rs.next()) {
-                logs.add(mapResultSetToAuditLog(rs));
-            }
-            
-            logger.debug("Found {} audit logs", logs.size());
-            return logs;
-            
-        } catch (SQLException e) {
-            logSQLException("find recent audit logs", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt, rs);
-        }
+        List<AuditLog> logs = queryForList(SELECT_ALL, params(limit), AUDIT_LOG_MAPPER,
+                                           "find recent audit logs");
+        logger.debug("Found {} audit logs", logs.size());
+        return logs;
     }
     
     /**
      * Find audit logs by user
      */
     public List<AuditLog> findByUserId(int userId, int limit) throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
-        List<AuditLog> logs = new ArrayList<>();
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(SELECT_BY_USER);
-            stmt.setInt(1, userId);
-            stmt.setInt(2, limit);
-            rs = stmt.executeQuery();
-            
-            while (rs.next()) {
-                logs.add(mapResultSetToAuditLog(rs));
-            }
-            
-            logger.debug("Found {} audit logs for user ID: {}", logs.size(), userId);
-            return logs;
-            
-        } catch (SQLException e) {
-            logSQLException("find audit logs by user", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt, rs);
-        }
+        List<AuditLog> logs = queryForList(SELECT_BY_USER, params(userId, limit), AUDIT_LOG_MAPPER,
+                                           "find audit logs by user");
+        logger.debug("Found {} audit logs for user ID: {}", logs.size(), userId);
+        return logs;
     }
     
     /**
      * Find audit logs by action
      */
     public List<AuditLog> findByAction(String action, int limit) throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
-        List<AuditLog> logs = new ArrayList<>();
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(SELECT_BY_ACTION);
-            stmt.setString(1, action);
-            stmt.setInt(2, limit);
-            rs = stmt.executeQuery();
-            
-            while (rs.next()) {
-                logs.add(mapResultSetToAuditLog(rs));
-            }
-            
-            logger.debug("Found {} audit logs for action: {}", logs.size(), action);
-            return logs;
-            
-        } catch (SQLException e) {
-            logSQLException("find audit logs by action", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt, rs);
-        }
+        List<AuditLog> logs = queryForList(SELECT_BY_ACTION, params(action, limit), AUDIT_LOG_MAPPER,
+                                           "find audit logs by action");
+        logger.debug("Found {} audit logs for action: {}", logs.size(), action);
+        return logs;
     }
     
     /**
      * Find audit logs by entity
      */
     public List<AuditLog> findByEntity(String entityType, int entityId) throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
-        List<AuditLog> logs = new ArrayList<>();
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(SELECT_BY_ENTITY);
-            stmt.setString(1, entityType);
-            stmt.setInt(2, entityId);
-            rs = stmt.executeQuery();
-            
-            while (rs.next()) {
-                logs.add(mapResultSetToAuditLog(rs));
-            }
-            
-            logger.debug("Found {} audit logs for {} ID: {}", logs.size(), entityType, entityId);
-            return logs;
-            
-        } catch (SQLException e) {
-            logSQLException("find audit logs by entity", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt, rs);
-        }
+        List<AuditLog> logs = queryForList(SELECT_BY_ENTITY, params(entityType, entityId), AUDIT_LOG_MAPPER,
+                                           "find audit logs by entity");
+        logger.debug("Found {} audit logs for {} ID: {}", logs.size(), entityType, entityId);
+        return logs;
     }
     
     /**
-     * Delete old logs
+     * Delete logs older than a number of days, one chunk per statement so no
+     * single transaction holds locks on the whole range
      */
     public int deleteOldLogs(int daysToKeep) throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(DELETE_OLD_LOGS);
-            stmt.setInt(1, daysToKeep);
-            
-            int affectedRows = stmt.executeUpdate();
-            logger.info("Deleted {} old audit logs (older than {} days)", affectedRows, daysToKeep);
-            
-            return affectedRows;
-            
-        } catch (SQLException e) {
-            logSQLException("delete old audit logs", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt);
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(daysToKeep);
+        int affectedRows = 0;
+        int deleted;
+        do {
+            deleted = deleteChunkOlderThan(cutoff, DEFAULT_CHUNK_SIZE);
+            affectedRows += deleted;
+        } while (deleted > 0);
+        logger.info("Deleted {} old audit logs (older than {} days)", affectedRows, daysToKeep);
+        return affectedRows;
+    }
+    
+    /**
+     * Delete the oldest logs before a cutoff, at most chunkSize rows. The
+     * chunk is bounded by log ID, so the delete walks the primary key and
+     * commits on its own.
+     * @param cutoff Oldest timestamp to keep
+     * @param chunkSize Maximum rows to delete
+     * @return Rows deleted; 0 once nothing older than the cutoff is left
+     */
+    public int deleteChunkOlderThan(LocalDateTime cutoff, int chunkSize) throws SQLException {
+        int lastId = queryForInt(SELECT_CHUNK_END, params(cutoff, chunkSize), "find audit log chunk");
+        if (lastId == 0) {
+            return 0;
         }
+        return update(DELETE_CHUNK, params(lastId, cutoff), "delete audit log chunk");
     }
     
     /**
-     * Map ResultSet to AuditLog object
+     * List the range partitions of audit_logs (MySQL only), oldest first
+     * @return Partitions, empty if the table is not partitioned
      */
-    private AuditLog mapResultSetToAuditLog(ResultSet rs) throws SQLException {
-        AuditLog auditLog = new AuditLog();
-        auditLog.setLogId(rs.getInt("log_id"));
-        
-        int userId = rs.getInt("user_id");
-        if (!rs.wasNull()) {
-            auditLog.setUserId(userId);
+    public List<AuditPartition> findPartitions() throws SQLException {
+        return queryForList(SELECT_PARTITIONS, StatementBinder.NONE, rs -> {
+            String bound = rs.getString("partition_description");
+            LocalDateTime upperBound = "MAXVALUE".equalsIgnoreCase(bound) ? null
+                    : LocalDateTime.ofInstant(Instant.ofEpochSecond(Long.parseLong(bound)), ZoneId.systemDefault());
+            return new AuditPartition(rs.getString("partition_name"), upperBound, rs.getLong("table_rows"));
+        }, "find audit log partitions");
+    }
+    
+    /**
+     * Drop a partition and every row in it
+     * @param name Partition name
+     */
+    public void dropPartition(String name) throws SQLException {
+        update(DROP_PARTITION + checkedName(name), StatementBinder.NONE, "drop audit log partition");
+        logger.info("Audit log partition dropped: {}", name);
+    }
+    
+    /**
+     * Split a new partition off the front of p_future
+     * @param name New partition name
+     * @param upperBound First timestamp not in the new partition
+     */
+    public void addPartition(String name, LocalDateTime upperBound) throws SQLException {
+        update(String.format(SPLIT_FUTURE_PARTITION, checkedName(name), BOUND_FORMAT.format(upperBound)),
+               StatementBinder.NONE, "add audit log partition");
+        logger.info("Audit log partition added: {} before {}", name, upperBound);
+    }
+    
+    private static String checkedName(String name) {
+        if (!PARTITION_NAME.matcher(name).matches()) {
+            throw new IllegalArgumentException("Invalid partition name: " + name);
         }
+        return name;
+    }
+    
+    /**
+     * Stream audit logs recorded in [from, to), oldest first
+     * @param from Period start (inclusive)
+     * @param to Period end (exclusive)
+     * @param consumer Receives each audit log
+     * @return Number of audit logs streamed
+     */
+    public long streamByPeriod(LocalDateTime from, LocalDateTime to,
+                               Consumer<? super AuditLog> consumer) throws SQLException {
+        return stream(SELECT_BY_PERIOD, params(from, to), AUDIT_LOG_MAPPER, consumer,
+                      "stream audit logs by period");
+    }
+    
+    /**
+     * Maps audit_logs rows to AuditLog objects by column position
+     */
+    private static final class AuditLogRowMapper implements RowMapper<AuditLog> {
         
-        auditLog.setAction(rs.getString("action"));
-        auditLog.setEntityType(rs.getString("entity_type"));
+        private final int logId;
+        private final int userId;
+        private final int action;
+        private final int entityType;
+        private final int entityId;
+        private final int details;
+        private final int ipAddress;
+        private final int timestamp;
         
-        int entityId = rs.getInt("entity_id");
-        if (!rs.wasNull()) {
-            auditLog.setEntityId(entityId);
+        AuditLogRowMapper(ResultSet rs) throws SQLException {
+            logId = rs.findColumn("log_id");
+            userId = rs.findColumn("user_id");
+            action = rs.findColumn("action");
+            entityType = rs.findColumn("entity_type");
+            entityId = rs.findColumn("entity_id");
+            details = rs.findColumn("details");
+            ipAddress = rs.findColumn("ip_address");
+            timestamp = rs.findColumn("timestamp");
         }
         
-        auditLog.setDetails(rs.getString("details"));
-        auditLog.setIpAddress(rs.getString("ip_address"));
-        
-        Timestamp timestamp = rs.getTimestamp("timestamp");
-        if (timestamp != null) {
-            auditLog.setTimestamp(timestamp.toLocalDateTime());
+        @Override
+        public AuditLog mapRow(ResultSet rs) throws SQLException {
+            AuditLog auditLog = new AuditLog();
+            auditLog.setLogId(rs.getInt(logId));
+            
+            int user = rs.getInt(userId);
+            if (!rs.wasNull()) {
+                auditLog.setUserId(user);
+            }
+            
+            auditLog.setAction(rs.getString(action));
+            auditLog.setEntityType(rs.getString(entityType));
+            
+            int entity = rs.getInt(entityId);
+            if (!rs.wasNull()) {
+                auditLog.setEntityId(entity);
+            }
+            
+            auditLog.setDetails(rs.getString(details));
+            auditLog.setIpAddress(rs.getString(ipAddress));
+            
+            Timestamp recorded = rs.getTimestamp(timestamp);
+            if (recorded != null) {
+                auditLog.setTimestamp(recorded.toLocalDateTime());
+            }
+            
+            return auditLog;
         }
-        
-        return auditLog;
     }
 }
@@ -1,17 +1,42 @@
 package com.oceanview.dao;
 
 import com.oceanview.config.DatabaseConfig;
+import com.oceanview.model.GroupTotal;
+import com.oceanview.tracing.Span;
+import com.oceanview.tracing.Tracer;
+import com.oceanview.util.RequestCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.sql.BatchUpdateException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ToLongFunction;
 
 /**
  * Base DAO - Parent class for all DAOs
- * Provides common database operations and resource management
+ * Provides common database operations and resource management, and a small
+ * JDBC template (queryForList, queryForOptional, update, insert, batchUpdate,
+ * batchInsert, stream, queryPage) that owns the connection/statement
+ * lifecycle and times every statement it runs. Every write clears the
+ * current {@link RequestCache}.
  * 
  * @author Ocean View Resort Development Team
  * @version 1.0.0
@@ -19,30 +44,65 @@ import java.sql.SQLException;
 public abstract class BaseDAO {
     
     protected static final Logger logger = LoggerFactory.getLogger(BaseDAO.class);
+    
+    /**
+     * First column as int, for COUNT(*) style queries
+     */
+    protected static final RowMapper<Integer> INT_COLUMN = rs -> rs.getInt(1);
+    
+    /**
+     * First column as double, for SUM(...) style queries
+     */
+    protected static final RowMapper<Double> DOUBLE_COLUMN = rs -> rs.getDouble(1);
+    
+    /**
+     * Aggregate rows with the columns group_key, row_count and amount_total
+     */
+    protected static final RowMapper<GroupTotal> GROUP_TOTAL_MAPPER = RowMapper.indexed(rs -> {
+        int key = rs.findColumn("group_key");
+        int count = rs.findColumn("row_count");
+        int amount = rs.findColumn("amount_total");
+        return row -> new GroupTotal(row.getString(key), row.getLong(count), row.getDouble(amount));
+    });
+    
+    private static final List<StatementListener> statementListeners = new CopyOnWriteArrayList<>();
+    
     protected DatabaseConfig dbConfig;
     
     /**
      * Constructor
      */
     public BaseDAO() {
-        this.dbConfig = DatabaseConfig.getInstance();
+        this(DatabaseConfig.getInstance());
+    }
+    
+    /**
+     * Constructor with an explicit configuration (e.g. a test database)
+     * @param dbConfig Database configuration
+     */
+    protected BaseDAO(DatabaseConfig dbConfig) {
+        this.dbConfig = dbConfig;
     }
     
     /**
      * Get database connection
+     * Inside a TransactionTemplate this is the connection bound to the
+     * current thread, so every DAO call joins the same unit of work
      * @return Connection object
      * @throws SQLException if connection fails
      */
     protected Connection getConnection() throws SQLException {
-        return dbConfig.getConnection();
+        Connection bound = TransactionTemplate.boundConnection(dbConfig);
+        return bound != null ? bound : dbConfig.getConnection();
     }
     
     /**
      * Close connection safely
+     * A connection owned by a unit of work stays open until the template ends
      * @param conn Connection to close
      */
     protected void closeConnection(Connection conn) {
-        if (conn != null) {
+        if (conn != null && !TransactionTemplate.isBound(conn)) {
             try {
                 conn.close();
                 logger.debug("Connection closed successfully");
@@ -106,10 +166,12 @@ public abstract class BaseDAO {
     
     /**
      * Rollback transaction safely
+     * Left to the template when the connection belongs to a unit of work;
+     * the failure that caused the rollback reaches it as an exception
      * @param conn Connection
      */
     protected void rollback(Connection conn) {
-        if (conn != null) {
+        if (conn != null && !TransactionTemplate.isBound(conn)) {
             try {
                 conn.rollback();
                 logger.debug("Transaction rolled back");
@@ -121,11 +183,12 @@ public abstract class BaseDAO {
     
     /**
      * Begin transaction
+     * A unit of work is already transactional, so nothing changes there
      * @param conn Connection
      * @throws SQLException if operation fails
      */
     protected void beginTransaction(Connection conn) throws SQLException {
-        if (conn != null) {
+        if (conn != null && !TransactionTemplate.isBound(conn)) {
             conn.setAutoCommit(false);
             logger.debug("Transaction started");
         }
@@ -133,16 +196,531 @@ public abstract class BaseDAO {
     
     /**
      * Commit transaction
+     * Deferred to the template when the connection belongs to a unit of work
      * @param conn Connection
      * @throws SQLException if operation fails
      */
     protected void commit(Connection conn) throws SQLException {
-        if (conn != null) {
+        if (conn != null && !TransactionTemplate.isBound(conn)) {
             conn.commit();
             logger.debug("Transaction committed");
         }
     }
     
+    /**
+     * Register a listener that is told about every statement run through the
+     * template methods (timing, row count and failure)
+     * @param listener Listener to add
+     */
+    public static void addStatementListener(StatementListener listener) {
+        statementListeners.add(listener);
+    }
+    
+    /**
+     * Remove a previously registered statement listener
+     * @param listener Listener to remove
+     */
+    public static void removeStatementListener(StatementListener listener) {
+        statementListeners.remove(listener);
+    }
+    
+    /**
+     * Binder for positional parameters
+     * @param values Parameter values in placeholder order
+     * @return Binder
+     * @see StatementBinder#of(Object...)
+     */
+    protected static StatementBinder params(Object... values) {
+        return StatementBinder.of(values);
+    }
+    
+    /**
+     * Run a query and map every row
+     * @param sql SQL query
+     * @param binder Parameter binder
+     * @param mapper Row mapper
+     * @param operation Operation name for logging
+     * @return Mapped rows in result set order
+     * @throws SQLException if the query fails
+     */
+    protected <T> List<T> queryForList(String sql, StatementBinder binder, RowMapper<T> mapper,
+                                       String operation) throws SQLException {
+        return execute(sql, false, binder, stmt -> {
+            try (ResultSet rs = stmt.executeQuery()) {
+                List<T> rows = new ArrayList<>();
+                RowMapper<T> rowMapper = mapper.forResultSet(rs);
+                while (rs.next()) {
+                    rows.add(rowMapper.mapRow(rs));
+                }
+                return rows;
+            }
+        }, List::size, operation);
+    }
+    
+    /**
+     * Run a query and map the first row, if any
+     * @param sql SQL query
+     * @param binder Parameter binder
+     * @param mapper Row mapper
+     * @param operation Operation name for logging
+     * @return Mapped first row, or empty when the query returned nothing
+     * @throws SQLException if the query fails
+     */
+    protected <T> Optional<T> queryForOptional(String sql, StatementBinder binder, RowMapper<T> mapper,
+                                               String operation) throws SQLException {
+        return execute(sql, false, binder, stmt -> {
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return Optional.ofNullable(mapper.forResultSet(rs).mapRow(rs));
+                }
+                return Optional.<T>empty();
+            }
+        }, row -> row.isPresent() ? 1 : 0, operation);
+    }
+    
+    /**
+     * Run a single-value query such as COUNT(*)
+     * @return First column of the first row, or 0 when there is no row
+     * @throws SQLException if the query fails
+     */
+    protected int queryForInt(String sql, StatementBinder binder, String operation) throws SQLException {
+        return queryForOptional(sql, binder, INT_COLUMN, operation).orElse(0);
+    }
+    
+    /**
+     * Run a single-value query such as SUM(amount)
+     * @return First column of the first row (SQL NULL reads as 0), or 0 when there is no row
+     * @throws SQLException if the query fails
+     */
+    protected double queryForDouble(String sql, StatementBinder binder, String operation) throws SQLException {
+        return queryForOptional(sql, binder, DOUBLE_COLUMN, operation).orElse(0.0);
+    }
+    
+    /**
+     * Run an INSERT, UPDATE or DELETE statement
+     * @param sql SQL statement
+     * @param binder Parameter binder
+     * @param operation Operation name for logging
+     * @return Number of affected rows
+     * @throws SQLException if the statement fails
+     */
+    protected int update(String sql, StatementBinder binder, String operation) throws SQLException {
+        RequestCache.invalidate();
+        return execute(sql, false, binder, PreparedStatement::executeUpdate, rows -> rows, operation);
+    }
+    
+    /**
+     * Run an INSERT and return the generated key
+     * @param sql INSERT statement
+     * @param binder Parameter binder
+     * @param operation Operation name for logging
+     * @return Generated primary key
+     * @throws SQLException if the insert fails or no key was generated
+     */
+    protected int insert(String sql, StatementBinder binder, String operation) throws SQLException {
+        RequestCache.invalidate();
+        return execute(sql, true, binder, stmt -> {
+            if (stmt.executeUpdate() == 0) {
+                throw new SQLException("Insert failed, no rows affected: " + operation);
+            }
+            try (ResultSet keys = stmt.getGeneratedKeys()) {
+                if (keys.next()) {
+                    return keys.getInt(1);
+                }
+                throw new SQLException("Insert failed, no ID obtained: " + operation);
+            }
+        }, key -> 1, operation);
+    }
+    
+    /**
+     * Run one statement for many items as a single JDBC batch
+     * @param sql SQL statement
+     * @param items Items to bind, one batch entry each
+     * @param binder Builds the parameter binder for an item
+     * @param operation Operation name for logging
+     * @return Update counts in item order
+     * @throws SQLException if the batch fails
+     */
+    protected <T> int[] batchUpdate(String sql, Collection<? extends T> items,
+                                    Function<? super T, StatementBinder> binder,
+                                    String operation) throws SQLException {
+        if (items.isEmpty()) {
+            return new int[0];
+        }
+        RequestCache.invalidate();
+        return execute(sql, false, StatementBinder.NONE, stmt -> {
+            for (T item : items) {
+                binder.apply(item).bind(stmt);
+                stmt.addBatch();
+            }
+            return stmt.executeBatch();
+        }, counts -> Arrays.stream(counts).filter(count -> count > 0).sum(), operation);
+    }
+    
+    /**
+     * Insert many rows with JDBC batches and map the generated keys back.
+     * Items are sent in chunks of {@code db.batch.size}; each chunk is one
+     * batch in its own transaction, so with rewriteBatchedStatements MySQL
+     * receives a single multi-row INSERT per chunk. If a chunk is rejected it
+     * is rolled back and replayed row by row, which isolates the offending
+     * rows: they are reported in the result and every other row is written.
+     * @param sql INSERT statement
+     * @param items Items to insert
+     * @param binder Builds the parameter binder for an item
+     * @param keySetter Stores the generated key on an item
+     * @param operation Operation name for logging
+     * @return Inserted and rejected items
+     * @throws SQLException if the connection fails outside a single row
+     */
+    protected <T> BatchResult<T> batchInsert(String sql, List<? extends T> items,
+                                             Function<? super T, StatementBinder> binder,
+                                             ObjIntConsumer<? super T> keySetter,
+                                             String operation) throws SQLException {
+        BatchResult<T> result = new BatchResult<>();
+        if (items.isEmpty()) {
+            return result;
+        }
+        RequestCache.invalidate();
+        
+        Connection conn = null;
+        try {
+            conn = getConnection();
+            int batchSize = Math.max(1, dbConfig.getBatchSize());
+            for (int from = 0; from < items.size(); from += batchSize) {
+                int to = Math.min(from + batchSize, items.size());
+                if (!insertChunk(conn, sql, items.subList(from, to), binder, keySetter, result, operation)) {
+                    insertRows(conn, sql, items, from, to, binder, keySetter, result, operation);
+                }
+            }
+            return result;
+        
+        } catch (SQLException e) {
+            logSQLException(operation, e);
+            throw e;
+        } finally {
+            closeConnection(conn);
+        }
+    }
+    
+    /**
+     * Insert one chunk as a single batch inside a transaction
+     * @return false if the database rejected the batch and it was rolled back
+     */
+    private <T> boolean insertChunk(Connection conn, String sql, List<? extends T> chunk,
+                                    Function<? super T, StatementBinder> binder,
+                                    ObjIntConsumer<? super T> keySetter, BatchResult<T> result,
+                                    String operation) throws SQLException {
+        long start = System.nanoTime();
+        int[] keys = new int[chunk.size()];
+        // Inside a unit of work only this chunk may be undone, not the whole transaction
+        Savepoint savepoint = TransactionTemplate.isBound(conn) ? conn.setSavepoint() : null;
+        beginTransaction(conn);
+        try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            for (T item : chunk) {
+                binder.apply(item).bind(stmt);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+            
+            int count = 0;
+            try (ResultSet rs = stmt.getGeneratedKeys()) {
+                while (rs.next() && count < keys.length) {
+                    keys[count++] = rs.getInt(1);
+                }
+            }
+            if (count != keys.length) {
+                throw new SQLException("Batch insert returned " + count + " keys for "
+                                       + keys.length + " rows: " + operation);
+            }
+            commit(conn);
+        
+        } catch (BatchUpdateException e) {
+            rollbackChunk(conn, savepoint);
+            statementExecuted(operation, sql, System.nanoTime() - start, 0, e);
+            logger.warn("Batch in {} rejected ({} rows), retrying row by row: {}",
+                       operation, chunk.size(), e.getMessage());
+            return false;
+        } catch (SQLException e) {
+            rollbackChunk(conn, savepoint);
+            statementExecuted(operation, sql, System.nanoTime() - start, 0, e);
+            throw e;
+        } finally {
+            if (savepoint == null) {
+                conn.setAutoCommit(true);
+            }
+        }
+        
+        // Keys are only handed out once the rows are committed
+        for (int i = 0; i < keys.length; i++) {
+            T item = chunk.get(i);
+            keySetter.accept(item, keys[i]);
+            result.addInserted(item);
+        }
+        statementExecuted(operation, sql, System.nanoTime() - start, keys.length, null);
+        return true;
+    }
+    
+    /**
+     * Undo a rejected chunk, back to its savepoint inside a unit of work
+     */
+    private void rollbackChunk(Connection conn, Savepoint savepoint) throws SQLException {
+        if (savepoint != null) {
+            conn.rollback(savepoint);
+        } else {
+            rollback(conn);
+        }
+    }
+    
+    /**
+     * Insert the items in [from, to) one statement at a time, recording
+     * each rejected row instead of failing the whole range
+     */
+    private <T> void insertRows(Connection conn, String sql, List<? extends T> items, int from, int to,
+                                Function<? super T, StatementBinder> binder,
+                                ObjIntConsumer<? super T> keySetter, BatchResult<T> result,
+                                String operation) throws SQLException {
+        long start = System.nanoTime();
+        int inserted = 0;
+        try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = from; i < to; i++) {
+                T item = items.get(i);
+                try {
+                    stmt.clearParameters();
+                    binder.apply(item).bind(stmt);
+                    stmt.executeUpdate();
+                    try (ResultSet rs = stmt.getGeneratedKeys()) {
+                        if (!rs.next()) {
+                            throw new SQLException("Insert failed, no ID obtained: " + operation);
+                        }
+                        keySetter.accept(item, rs.getInt(1));
+                    }
+                    result.addInserted(item);
+                    inserted++;
+                } catch (SQLException e) {
+                    logger.warn("Row {} rejected in {}: {}", i, operation, e.getMessage());
+                    result.addFailure(i, item, e);
+                }
+            }
+        }
+        statementExecuted(operation, sql, System.nanoTime() - start, inserted, null);
+    }
+    
+    /**
+     * Stream a query row by row to a consumer.
+     * The statement is forward-only and read-only with a streaming fetch size,
+     * so only one row is mapped and held at a time; the connection is released
+     * as soon as the last row has been consumed or an error occurs.
+     * @param sql SQL query
+     * @param binder Parameter binder
+     * @param mapper Row mapper
+     * @param consumer Receives each mapped row
+     * @param operation Operation name for error logging
+     * @return Number of rows streamed
+     * @throws SQLException if the query fails
+     */
+    protected <T> long stream(String sql, StatementBinder binder, RowMapper<T> mapper,
+                              Consumer<? super T> consumer, String operation) throws SQLException {
+        return execute(sql, false, binder, stmt -> {
+            stmt.setFetchSize(dbConfig.getStreamingFetchSize());
+            long rows = 0;
+            try (ResultSet rs = stmt.executeQuery()) {
+                RowMapper<T> rowMapper = mapper.forResultSet(rs);
+                while (rs.next()) {
+                    consumer.accept(rowMapper.mapRow(rs));
+                    rows++;
+                }
+            }
+            logger.debug("Streamed {} rows for {}", rows, operation);
+            return rows;
+        }, rows -> rows, operation);
+    }
+    
+    /**
+     * Load one page of a list with keyset (seek) pagination.
+     * Rows are ordered newest first by (sort key, id). The page is located with
+     * a range predicate on that pair instead of OFFSET, so every page costs the
+     * same index seek no matter how deep the client has paged.
+     * @param selectSql SELECT ... FROM ... without WHERE/ORDER BY/LIMIT
+     * @param filter Optional extra WHERE condition (null for none)
+     * @param keyset Sort key and id columns
+     * @param pageRequest Page size and cursor
+     * @param mapper Row mapper
+     * @param operation Operation name for error logging
+     * @param filterParams Parameters for the filter condition
+     * @return Page with cursors to the neighbouring pages
+     * @throws SQLException if the query fails
+     */
+    protected <T> Page<T> queryPage(String selectSql, String filter, Keyset keyset,
+                                    PageRequest pageRequest, RowMapper<T> mapper,
+                                    String operation, Object... filterParams) throws SQLException {
+        PageCursor requested = pageRequest.getCursor();
+        PageCursor cursor = requested != null && requested.getKeyType() == keyset.getKeyType()
+                ? requested : null;
+        boolean backwards = cursor != null && cursor.getDirection() == PageCursor.Direction.BEFORE;
+        int pageSize = pageRequest.getPageSize();
+        
+        String sort = keyset.getSortColumn();
+        String id = keyset.getIdColumn();
+        StringBuilder sql = new StringBuilder(selectSql);
+        List<String> conditions = new ArrayList<>();
+        if (filter != null) {
+            conditions.add("(" + filter + ")");
+        }
+        if (cursor != null) {
+            String op = backwards ? ">" : "<";
+            conditions.add("(" + sort + " " + op + " ? OR (" + sort + " = ? AND " + id + " " + op + " ?))");
+        }
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        String order = backwards ? " ASC" : " DESC";
+        sql.append(" ORDER BY ").append(sort).append(order).append(", ").append(id).append(order);
+        sql.append(" LIMIT ?");
+        
+        StatementBinder binder = stmt -> {
+            int index = 1;
+            for (Object param : filterParams) {
+                StatementBinder.setParameter(stmt, index++, param);
+            }
+            if (cursor != null) {
+                stmt.setObject(index++, cursor.getSortKey());
+                stmt.setObject(index++, cursor.getSortKey());
+                stmt.setInt(index++, cursor.getId());
+            }
+            // One extra row tells us whether another page exists
+            stmt.setInt(index, pageSize + 1);
+        };
+        
+        return execute(sql.toString(), false, binder, stmt -> {
+            List<T> items = new ArrayList<>();
+            List<PageCursor> keys = new ArrayList<>();
+            try (ResultSet rs = stmt.executeQuery()) {
+                RowMapper<T> rowMapper = mapper.forResultSet(rs);
+                RowMapper<PageCursor> keyMapper = keyset.keyMapper().forResultSet(rs);
+                while (rs.next()) {
+                    items.add(rowMapper.mapRow(rs));
+                    keys.add(keyMapper.mapRow(rs));
+                }
+            }
+            
+            boolean more = items.size() > pageSize;
+            if (more) {
+                items.remove(pageSize);
+                keys.remove(pageSize);
+            }
+            if (backwards) {
+                Collections.reverse(items);
+                Collections.reverse(keys);
+            }
+            
+            String next = null;
+            String previous = null;
+            if (!items.isEmpty()) {
+                PageCursor firstKey = keys.get(0);
+                PageCursor lastKey = keys.get(keys.size() - 1);
+                boolean hasNext = backwards || more;
+                boolean hasPrevious = backwards ? more : cursor != null;
+                if (hasNext) {
+                    next = boundary(PageCursor.Direction.AFTER, lastKey);
+                }
+                if (hasPrevious) {
+                    previous = boundary(PageCursor.Direction.BEFORE, firstKey);
+                }
+            }
+            
+            return new Page<>(items, pageSize, next, previous);
+        }, Page::size, operation);
+    }
+    
+    private String boundary(PageCursor.Direction direction, PageCursor key) {
+        return new PageCursor(direction, key.getKeyType(), key.getSortKey(), key.getId()).encode();
+    }
+    
+    /**
+     * Borrow a connection, prepare and bind the statement, run the callback
+     * and release everything again. Every template method goes through here,
+     * which is where statements are timed and failures logged.
+     * @param sql SQL text
+     * @param returnKeys Whether generated keys should be available
+     * @param binder Parameter binder
+     * @param callback Executes the bound statement
+     * @param rowCount Row count of the callback result, for listeners
+     * @param operation Operation name for logging
+     * @return Callback result
+     * @throws SQLException if any step fails
+     */
+    private <R> R execute(String sql, boolean returnKeys, StatementBinder binder,
+                          StatementCallback<R> callback, ToLongFunction<? super R> rowCount,
+                          String operation) throws SQLException {
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        Span span = Tracer.span(getClass().getSimpleName() + ": " + operation);
+        long start = System.nanoTime();
+        
+        try {
+            conn = getConnection();
+            stmt = returnKeys
+                    ? conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)
+                    : conn.prepareStatement(sql);
+            binder.bind(stmt);
+            R result = callback.doInStatement(stmt);
+            long rows = rowCount.applyAsLong(result);
+            statementExecuted(operation, sql, System.nanoTime() - start, rows, null);
+            span.tag("rows", rows);
+            return result;
+        
+        } catch (SQLException e) {
+            statementExecuted(operation, sql, System.nanoTime() - start, 0, e);
+            logSQLException(operation, e);
+            span.error(e);
+            throw e;
+        } finally {
+            closeResources(conn, stmt);
+            span.close();
+        }
+    }
+    
+    /**
+     * Log the statement timing and notify registered listeners
+     */
+    private void statementExecuted(String operation, String sql, long elapsedNanos,
+                                   long rows, SQLException failure) {
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        // With instrumentation on, the slow query log already reports it with its SQL
+        if (failure == null && elapsedMillis >= dbConfig.getSlowStatementMillis()
+                && dbConfig.getSqlStatistics() == null) {
+            logger.warn("Slow statement in {}: {} ms, {} rows", operation, elapsedMillis, rows);
+        } else {
+            logger.debug("Statement {} took {} ms, {} rows", operation, elapsedMillis, rows);
+        }
+        
+        for (StatementListener listener : statementListeners) {
+            try {
+                listener.statementExecuted(operation, sql, elapsedNanos, rows, failure);
+            } catch (RuntimeException e) {
+                logger.warn("Statement listener failed", e);
+            }
+        }
+    }
+    
+    /**
+     * Work done with a prepared and bound statement
+     */
+    @FunctionalInterface
+    private interface StatementCallback<R> {
+        R doInStatement(PreparedStatement stmt) throws SQLException;
+    }
+    
+    /**
+     * Convert a date to the timestamp at the start of that day
+     * Used to build half-open [start, end) ranges that stay index friendly
+     * @param date Date
+     * @return Timestamp at midnight
+     */
+    protected Timestamp startOfDay(LocalDate date) {
+        return Timestamp.valueOf(date.atStartOfDay());
+    }
+    
     /**
      * Log SQL exception
      * @param operation Operation name
@@ -0,0 +1,90 @@
+package com.oceanview.dao;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * BatchResult - Outcome of a batched insert.
+ * Rows that were written carry their generated key on the input object;
+ * rows that were rejected are reported individually with their position in
+ * the input list and the error the database returned for them.
+ * 
+ * @param <T> Item type
+ * @author Ocean View Resort Development Team
+ * @version 1.0.0
+ */
+public final class BatchResult<T> {
+    
+    private final List<T> inserted = new ArrayList<>();
+    private final List<Failure<T>> failures = new ArrayList<>();
+    
+    void addInserted(T item) {
+        inserted.add(item);
+    }
+    
+    void addFailure(int index, T item, SQLException error) {
+        failures.add(new Failure<>(index, item, error));
+    }
+    
+    /**
+     * Items that were written, in input order
+     */
+    public List<T> getInserted() {
+        return Collections.unmodifiableList(inserted);
+    }
+    
+    /**
+     * Items that were rejected, in input order
+     */
+    public List<Failure<T>> getFailures() {
+        return Collections.unmodifiableList(failures);
+    }
+    
+    public int getInsertedCount() {
+        return inserted.size();
+    }
+    
+    public int getFailedCount() {
+        return failures.size();
+    }
+    
+    /**
+     * Whether every item was written
+     */
+    public boolean isComplete() {
+        return failures.isEmpty();
+    }
+    
+    /**
+     * One rejected row
+     */
+    public static final class Failure<T> {
+        
+        private final int index;
+        private final T item;
+        private final SQLException error;
+        
+        Failure(int index, T item, SQLException error) {
+            this.index = index;
+            this.item = item;
+            this.error = error;
+        }
+        
+        /**
+         * Position of the item in the list passed to createAll
+         */
+        public int getIndex() {
+            return index;
+        }
+        
+        public T getItem() {
+            return item;
+        }
+        
+        public SQLException getError() {
+            return error;
+        }
+    }
+}
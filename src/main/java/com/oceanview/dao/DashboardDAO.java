@@ -0,0 +1,116 @@
+package com.oceanview.dao;
+
+import com.oceanview.config.DatabaseConfig;
+import com.oceanview.model.DashboardStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Dashboard DAO - Read-only aggregate queries for the admin dashboard
+ * 
+ * Every dashboard counter comes from one statement. Each table is scanned
+ * once by a derived table of conditional aggregates (SUM(CASE ...)), and the
+ * single-row results are cross joined, so the whole dashboard costs one
+ * round trip instead of one COUNT or SUM query per tile.
+ * 
+ * @author Ocean View Resort Development Team
+ * @version 1.0.0
+ */
+public class DashboardDAO extends BaseDAO {
+    
+    private static final Logger logger = LoggerFactory.getLogger(DashboardDAO.class);
+    
+    // Parameters: today (check-ins), today (check-outs), start of today,
+    // start of month, start of year
+    private static final String SELECT_COUNTERS =
+        "SELECT u.total_users, u.active_users, u.guest_users, u.staff_users, " +
+        "       g.total_guests, " +
+        "       r.total_reservations, r.pending_reservations, r.confirmed_reservations, " +
+        "       r.checked_in_reservations, r.today_check_ins, r.today_check_outs, " +
+        "       rm.total_rooms, rm.available_rooms, rm.occupied_rooms, rm.reserved_rooms, " +
+        "       rm.maintenance_rooms, " +
+        "       rv.total_reviews, rv.pending_reviews, rv.average_rating, " +
+        "       p.today_revenue, p.monthly_revenue, p.yearly_revenue, p.total_revenue " +
+        "FROM (SELECT COUNT(*) AS total_users, " +
+        "             COALESCE(SUM(CASE WHEN status = 'ACTIVE' THEN 1 ELSE 0 END), 0) AS active_users, " +
+        "             COALESCE(SUM(CASE WHEN role = 'GUEST' THEN 1 ELSE 0 END), 0) AS guest_users, " +
+        "             COALESCE(SUM(CASE WHEN role = 'STAFF' THEN 1 ELSE 0 END), 0) AS staff_users " +
+        "      FROM users) u " +
+        "CROSS JOIN (SELECT COUNT(*) AS total_guests FROM guests) g " +
+        "CROSS JOIN (SELECT COUNT(*) AS total_reservations, " +
+        "             COALESCE(SUM(CASE WHEN status = 'PENDING' THEN 1 ELSE 0 END), 0) AS pending_reservations, " +
+        "             COALESCE(SUM(CASE WHEN status = 'CONFIRMED' THEN 1 ELSE 0 END), 0) AS confirmed_reservations, " +
+        "             COALESCE(SUM(CASE WHEN status = 'CHECKED_IN' THEN 1 ELSE 0 END), 0) AS checked_in_reservations, " +
+        "             COALESCE(SUM(CASE WHEN status = 'CONFIRMED' AND check_in_date = ? " +
+        "                               THEN 1 ELSE 0 END), 0) AS today_check_ins, " +
+        "             COALESCE(SUM(CASE WHEN status = 'CHECKED_IN' AND check_out_date = ? " +
+        "                               THEN 1 ELSE 0 END), 0) AS today_check_outs " +
+        "      FROM reservations) r " +
+        "CROSS JOIN (SELECT COUNT(*) AS total_rooms, " +
+        "             COALESCE(SUM(CASE WHEN status = 'AVAILABLE' THEN 1 ELSE 0 END), 0) AS available_rooms, " +
+        "             COALESCE(SUM(CASE WHEN status = 'OCCUPIED' THEN 1 ELSE 0 END), 0) AS occupied_rooms, " +
+        "             COALESCE(SUM(CASE WHEN status = 'RESERVED' THEN 1 ELSE 0 END), 0) AS reserved_rooms, " +
+        "             COALESCE(SUM(CASE WHEN status = 'MAINTENANCE' THEN 1 ELSE 0 END), 0) AS maintenance_rooms " +
+        "      FROM rooms) rm " +
+        "CROSS JOIN (SELECT COUNT(*) AS total_reviews, " +
+        "             COALESCE(SUM(CASE WHEN status = 'PENDING' THEN 1 ELSE 0 END), 0) AS pending_reviews, " +
+        "             COALESCE(AVG(CASE WHEN status = 'APPROVED' THEN rating END), 0) AS average_rating " +
+        "      FROM reviews) rv " +
+        "CROSS JOIN (SELECT COALESCE(SUM(CASE WHEN payment_date >= ? THEN amount ELSE 0 END), 0) AS today_revenue, " +
+        "             COALESCE(SUM(CASE WHEN payment_date >= ? THEN amount ELSE 0 END), 0) AS monthly_revenue, " +
+        "             COALESCE(SUM(CASE WHEN payment_date >= ? THEN amount ELSE 0 END), 0) AS yearly_revenue, " +
+        "             COALESCE(SUM(amount), 0) AS total_revenue " +
+        "      FROM payments WHERE payment_status = 'COMPLETED') p";
+    
+    private static final RowMapper<DashboardStats.Builder> COUNTERS_MAPPER = rs -> DashboardStats.builder()
+        .users(rs.getInt("total_users"), rs.getInt("active_users"),
+               rs.getInt("guest_users"), rs.getInt("staff_users"))
+        .totalGuests(rs.getInt("total_guests"))
+        .reservations(rs.getInt("total_reservations"), rs.getInt("pending_reservations"),
+                      rs.getInt("confirmed_reservations"), rs.getInt("checked_in_reservations"))
+        .todayMovements(rs.getInt("today_check_ins"), rs.getInt("today_check_outs"))
+        .rooms(rs.getInt("total_rooms"), rs.getInt("available_rooms"), rs.getInt("occupied_rooms"),
+               rs.getInt("reserved_rooms"), rs.getInt("maintenance_rooms"))
+        .reviews(rs.getInt("total_reviews"), rs.getInt("pending_reviews"), rs.getDouble("average_rating"))
+        .revenue(rs.getDouble("today_revenue"), rs.getDouble("monthly_revenue"),
+                 rs.getDouble("yearly_revenue"), rs.getDouble("total_revenue"));
+    
+    /**
+     * Constructor
+     */
+    public DashboardDAO() {
+        super();
+    }
+    
+    /**
+     * Constructor with an explicit configuration (e.g. a test database)
+     * @param dbConfig Database configuration
+     */
+    public DashboardDAO(DatabaseConfig dbConfig) {
+        super(dbConfig);
+    }
+    
+    /**
+     * Load every dashboard counter in one query
+     * @param today Business date used for today's check-ins, check-outs and revenue
+     * @return Builder holding the counters; recent reservations and the
+     *         snapshot time are left for the caller
+     * @throws SQLException if the query fails
+     */
+    public DashboardStats.Builder loadCounters(LocalDate today) throws SQLException {
+        LocalDateTime startOfDay = today.atStartOfDay();
+        LocalDateTime startOfMonth = today.withDayOfMonth(1).atStartOfDay();
+        LocalDateTime startOfYear = today.withDayOfYear(1).atStartOfDay();
+        
+        DashboardStats.Builder builder = queryForOptional(SELECT_COUNTERS,
+                params(today, today, startOfDay, startOfMonth, startOfYear),
+                COUNTERS_MAPPER, "load dashboard counters")
+            .orElseGet(DashboardStats::builder);
+        logger.debug("Loaded dashboard counters for {}", today);
+        return builder;
+    }
+}
@@ -0,0 +1,163 @@
+package com.oceanview.dao;
+
+import com.oceanview.config.DatabaseConfig;
+import com.oceanview.model.OutboxEmail;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Email Outbox DAO - Data Access Object for the email_outbox table
+ * 
+ * An email is enqueued with the connection of the caller's unit of work, so
+ * it is only sent if the business change that produced it commits. Senders
+ * claim due rows with a conditional update that moves them to SENDING and
+ * sets next_attempt_at to a lease expiry; only one sender can win a row, and
+ * a row whose sender died becomes due again when the lease runs out.
+ * 
+ * @author Ocean View Resort Development Team
+ * @version 1.0.0
+ */
+public class EmailOutboxDAO extends BaseDAO {
+    
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxDAO.class);
+    private static final int MAX_ERROR_LENGTH = 500;
+    
+    // SQL Queries
+    private static final String INSERT_EMAIL =
+        "INSERT INTO email_outbox (recipient, subject, body, status, attempts, next_attempt_at) " +
+        "VALUES (?, ?, ?, 'PENDING', 0, ?)";
+    
+    private static final String SELECT_DUE =
+        "SELECT outbox_id FROM email_outbox WHERE status IN ('PENDING', 'SENDING') " +
+        "AND next_attempt_at <= ? ORDER BY next_attempt_at LIMIT ?";
+    
+    private static final String CLAIM =
+        "UPDATE email_outbox SET status = 'SENDING', attempts = attempts + 1, next_attempt_at = ? " +
+        "WHERE outbox_id = ? AND status IN ('PENDING', 'SENDING') AND next_attempt_at <= ?";
+    
+    private static final String SELECT_BY_ID =
+        "SELECT outbox_id, recipient, subject, body, attempts FROM email_outbox WHERE outbox_id = ?";
+    
+    private static final String MARK_SENT =
+        "UPDATE email_outbox SET status = 'SENT', sent_at = ?, last_error = NULL WHERE outbox_id = ?";
+    
+    private static final String MARK_RETRY =
+        "UPDATE email_outbox SET status = 'PENDING', next_attempt_at = ?, last_error = ? WHERE outbox_id = ?";
+    
+    private static final String MARK_DEAD =
+        "UPDATE email_outbox SET status = 'DEAD', last_error = ? WHERE outbox_id = ?";
+    
+    private static final String COUNT_BY_STATUS =
+        "SELECT COUNT(*) FROM email_outbox WHERE status = ?";
+    
+    // Row Mapper
+    private static final RowMapper<OutboxEmail> OUTBOX_MAPPER = rs -> new OutboxEmail(
+        rs.getLong("outbox_id"), rs.getString("recipient"), rs.getString("subject"),
+        rs.getString("body"), rs.getInt("attempts"));
+    
+    /**
+     * Constructor
+     */
+    public EmailOutboxDAO() {
+        super();
+    }
+    
+    /**
+     * Constructor with an explicit database configuration
+     * @param dbConfig Database configuration
+     */
+    public EmailOutboxDAO(DatabaseConfig dbConfig) {
+        super(dbConfig);
+    }
+    
+    /**
+     * Add an email to the outbox, due now
+     * @param recipient Recipient address
+     * @param subject Subject
+     * @param body HTML body
+     * @return Outbox ID
+     * @throws SQLException if operation fails
+     */
+    public long enqueue(String recipient, String subject, String body) throws SQLException {
+        long outboxId = insert(INSERT_EMAIL, params(recipient, subject, body, LocalDateTime.now()),
+                               "enqueue email");
+        logger.debug("Email queued: ID={}, to={}", outboxId, recipient);
+        return outboxId;
+    }
+    
+    /**
+     * Claim up to limit due emails for sending
+     * @param now Current time
+     * @param leaseUntil When a claimed email becomes due again if it is never marked
+     * @param limit Maximum emails to claim
+     * @return Claimed emails, attempts counting this one
+     * @throws SQLException if operation fails
+     */
+    public List<OutboxEmail> claimDue(LocalDateTime now, LocalDateTime leaseUntil, int limit) throws SQLException {
+        List<Long> candidates = queryForList(SELECT_DUE, params(now, limit), rs -> rs.getLong(1),
+                                             "find due emails");
+        List<OutboxEmail> claimed = new ArrayList<>(candidates.size());
+        for (long outboxId : candidates) {
+            // Another sender may have claimed the row since it was read
+            if (update(CLAIM, params(leaseUntil, outboxId, now), "claim email") == 1) {
+                queryForOptional(SELECT_BY_ID, params(outboxId), OUTBOX_MAPPER, "find email")
+                    .ifPresent(claimed::add);
+            }
+        }
+        return claimed;
+    }
+    
+    /**
+     * Mark an email as delivered
+     * @param outboxId Outbox ID
+     * @param sentAt Delivery time
+     * @throws SQLException if operation fails
+     */
+    public void markSent(long outboxId, LocalDateTime sentAt) throws SQLException {
+        update(MARK_SENT, params(sentAt, outboxId), "mark email sent");
+    }
+    
+    /**
+     * Put an email back in the queue for a later attempt
+     * @param outboxId Outbox ID
+     * @param nextAttemptAt When to try again
+     * @param error Why the attempt failed
+     * @throws SQLException if operation fails
+     */
+    public void markRetry(long outboxId, LocalDateTime nextAttemptAt, String error) throws SQLException {
+        update(MARK_RETRY, params(nextAttemptAt, truncate(error), outboxId), "reschedule email");
+    }
+    
+    /**
+     * Give up on an email
+     * @param outboxId Outbox ID
+     * @param error Why the last attempt failed
+     * @throws SQLException if operation fails
+     */
+    public void markDead(long outboxId, String error) throws SQLException {
+        update(MARK_DEAD, params(truncate(error), outboxId), "mark email dead");
+        logger.warn("Email dead-lettered: ID={}, {}", outboxId, error);
+    }
+    
+    /**
+     * Count emails in a status
+     * @param status PENDING, SENDING, SENT or DEAD
+     * @return Number of emails
+     * @throws SQLException if operation fails
+     */
+    public int countByStatus(String status) throws SQLException {
+        return queryForInt(COUNT_BY_STATUS, params(status), "count emails by status");
+    }
+    
+    private static String truncate(String error) {
+        if (error == null || error.length() <= MAX_ERROR_LENGTH) {
+            return error;
+        }
+        return error.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -1,11 +1,11 @@
 package com.oceanview.dao;
 
+import com.oceanview.config.DatabaseConfig;
 import com.oceanview.model.Guest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.sql.*;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -44,252 +44,142 @@ public class GuestDAO extends BaseDAO {
     private static final String SELECT_BY_COUNTRY = 
         "SELECT * FROM guests WHERE country = ? ORDER BY created_at DESC";
     
+    // Row Mapper
+    private static final RowMapper<Guest> GUEST_MAPPER = RowMapper.indexed(GuestRowMapper::new);
+    
+    /**
+     * Constructor
+     */
+    public GuestDAO() {
+        super();
+    }
+    
+    /**
+     * Constructor with an explicit database configuration
+     */
+    public GuestDAO(DatabaseConfig dbConfig) {
+        super(dbConfig);
+    }
+    
     /**
      * Create a new guest
      */
     public int create(Guest guest) throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(INSERT_GUEST, Statement.RETURN_GENERATED_KEYS);
-            
-            stmt.setInt(1, guest.getUserId());
-            stmt.setString(2, guest.getAddress());
-            stmt.setString(3, guest.getCity());
-            stmt.setString(4, guest.getCountry());
-            stmt.setString(5, guest.getPostalCode());
-            stmt.setString(6, guest.getIdType());
-            stmt.setString(7, guest.getIdNumber());
-            
-            if (guest.getDateOfBirth() != null) {
-                stmt.setDate(8, Date.valueOf(guest.getDateOfBirth()));
-            } else {
-                stmt.setNull(8, Types.DATE);
-            }
-            
-            if (guest.getGender() != null) {
-                stmt.setString(9, guest.getGender().name());
-            } else {
-                stmt.setNull(9, Types.VARCHAR);
-            }
-            
-            stmt.setString(10, guest.getPreferences());
-            
-            int affectedRows = stmt.executeUpdate();
-            
-            if (affectedRows == 0) {
-                throw new SQLException("Creating guest failed, no rows affected.");
-            }
-            
-            rs = stmt.getGeneratedKeys();
-            if (rs.next()) {
-                int guestId = rs.getInt(1);
-                logger.info("Guest created successfully with ID: {}", guestId);
-                return guestId;
-            } else {
-                throw new SQLException("Creating guest failed, no ID obtained.");
-            }
-            
-        } catch (SQLException e) {
-            logSQLException("create guest", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt, rs);
-        }
+        int guestId = insert(INSERT_GUEST, params(
+                guest.getUserId(), guest.getAddress(), guest.getCity(), guest.getCountry(),
+                guest.getPostalCode(), guest.getIdType(), guest.getIdNumber(),
+                guest.getDateOfBirth(), guest.getGender(), guest.getPreferences()), "create guest");
+        logger.info("Guest created successfully with ID: {}", guestId);
+        return guestId;
     }
     
     /**
      * Update existing guest
      */
     public boolean update(Guest guest) throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(UPDATE_GUEST);
-            
-            stmt.setString(1, guest.getAddress());
-            stmt.setString(2, guest.getCity());
-            stmt.setString(3, guest.getCountry());
-            stmt.setString(4, guest.getPostalCode());
-            stmt.setString(5, guest.getIdType());
-            stmt.setString(6, guest.getIdNumber());
-            
-            if (guest.getDateOfBirth() != null) {
-                stmt.setDate(7, Date.valueOf(guest.getDateOfBirth()));
-            } else {
-                stmt.setNull(7, Types.DATE);
-            }
-            
-            if (guest.getGender() != null) {
-                stmt.setString(8, guest.getGender().name());
-            } else {
-                stmt.setNull(8, Types.VARCHAR);
-            }
-            
-            stmt.setString(9, guest.getPreferences());
-            stmt.setInt(10, guest.getGuestId());
-            
-            int affectedRows = stmt.executeUpdate();
-            logger.info("Guest updated: ID={}, affected rows={}", guest.getGuestId(), affectedRows);
-            
-            return affectedRows > 0;
-            
-        } catch (SQLException e) {
-            logSQLException("update guest", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt);
-        }
+        int affectedRows = update(UPDATE_GUEST, params(
+                guest.getAddress(), guest.getCity(), guest.getCountry(), guest.getPostalCode(),
+                guest.getIdType(), guest.getIdNumber(), guest.getDateOfBirth(), guest.getGender(),
+                guest.getPreferences(), guest.getGuestId()), "update guest");
+        logger.info("Guest updated: ID={}, affected rows={}", guest.getGuestId(), affectedRows);
+        return affectedRows > 0;
     }
     
     /**
      * Delete guest
      */
     public boolean delete(int guestId) throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(DELETE_GUEST);
-            stmt.setInt(1, guestId);
-            
-            int affectedRows = stmt.executeUpdate();
-            logger.info("Guest deleted: ID={}, affected rows={}", guestId, affectedRows);
-            
-            return affectedRows > 0;
-            
-        } catch (SQLException e) {
-            logSQLException("delete guest", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt);
-        }
+        int affectedRows = update(DELETE_GUEST, params(guestId), "delete guest");
+        logger.info("Guest deleted: ID={}, affected rows={}", guestId, affectedRows);
+        return affectedRows > 0;
     }
     
     /**
      * Find guest by ID
      */
     public Optional<Guest> findById(int guestId) throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(SELECT_BY_ID);
-            stmt.setInt(1, guestId);
-            
-            rs = stmt.executeQuery();
-            
-            if (rs.next()) {
-                return Optional.of(mapResultSetToGuest(rs));
-            }
-            
-            return Optional.empty();
-            
-        } catch (SQLException e) {
-            logSQLException("find guest by ID", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt, rs);
-        }
+        return queryForOptional(SELECT_BY_ID, params(guestId), GUEST_MAPPER, "find guest by ID");
     }
     
     /**
      * Find guest by user ID
      */
     public Optional<Guest> findByUserId(int userId) throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(SELECT_BY_USER_ID);
-            stmt.setInt(1, userId);
-            
-            rs = stmt.executeQuery();
-            
-            if (rs.next()) {
-                return Optional.of(mapResultSetToGuest(rs));
-            }
-            
-            return Optional.empty();
-            
-        } catch (SQLException e) {
-            logSQLException("find guest by user ID", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt, rs);
-        }
+        return queryForOptional(SELECT_BY_USER_ID, params(userId), GUEST_MAPPER, "find guest by user ID");
     }
     
     /**
      * Find all guests
      */
     public List<Guest> findAll() throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
-        List<Guest> guests = new ArrayList<>();
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(SELECT_ALL);
-            rs = stmt.executeQuery();
-            
-            while (rs.next()) {
-                guests.add(mapResultSetToGuest(rs));
-            }
-            
-            logger.debug("Found {} guests", guests.size());
-            return guests;
-            
-        } catch (SQLException e) {
-            logSQLException("find all guests", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt, rs);
-        }
+        List<Guest> guests = queryForList(SELECT_ALL, StatementBinder.NONE, GUEST_MAPPER, "find all guests");
+        logger.debug("Found {} guests", guests.size());
+        return guests;
     }
     
     /**
-     * Map ResultSet to Guest object
+     * Maps guests rows to Guest objects by column position
      */
-    private Guest mapResultSetToGuest(ResultSet rs) throws SQLException {
-        Guest guest = new Guest();
-        guest.setGuestId(rs.getInt("guest_id"));
-        guest.setUserId(rs.getInt("user_id"));
-        guest.setAddress(rs.getString("address"));
-        guest.setCity(rs.getString("city"));
-        guest.setCountry(rs.getString("country"));
-        guest.setPostalCode(rs.getString("postal_code"));
-        guest.setIdType(rs.getString("id_type"));
-        guest.setIdNumber(rs.getString("id_number"));
+    private static final class GuestRowMapper implements RowMapper<Guest> {
         
-        Date dob = rs.getDate("date_of_birth");
-        if (dob != null) {
-            guest.setDateOfBirth(dob.toLocalDate());
-        }
+        private final int guestId;
+        private final int userId;
+        private final int address;
+        private final int city;
+        private final int country;
+        private final int postalCode;
+        private final int idType;
+        private final int idNumber;
+        private final int dateOfBirth;
+        private final int gender;
+        private final int preferences;
+        private final int createdAt;
         
-        String gender = rs.getString("gender");
-        if (gender != null) {
-            guest.setGender(Guest.Gender.valueOf(gender));
+        GuestRowMapper(ResultSet rs) throws SQLException {
+            guestId = rs.findColumn("guest_id");
+            userId = rs.findColumn("user_id");
+            address = rs.findColumn("address");
+            city = rs.findColumn("city");
+            country = rs.findColumn("country");
+            postalCode = rs.findColumn("postal_code");
+            idType = rs.findColumn("id_type");
+            idNumber = rs.findColumn("id_number");
+            dateOfBirth = rs.findColumn("date_of_birth");
+            gender = rs.findColumn("gender");
+            preferences = rs.findColumn("preferences");
+            createdAt = rs.findColumn("created_at");
         }
         
-        guest.setPreferences(rs.getString("preferences"));
-        
-        Timestamp createdAt = rs.getTimestamp("created_at");
-        if (createdAt != null) {
-            guest.setCreatedAt(createdAt.toLocalDateTime());
+        @Override
+        public Guest mapRow(ResultSet rs) throws SQLException {
+            Guest guest = new Guest();
+            guest.setGuestId(rs.getInt(guestId));
+            guest.setUserId(rs.getInt(userId));
+            guest.setAddress(rs.getString(address));
+            guest.setCity(rs.getString(city));
+            guest.setCountry(rs.getString(country));
+            guest.setPostalCode(rs.getString(postalCode));
+            guest.setIdType(rs.getString(idType));
+            guest.setIdNumber(rs.getString(idNumber));
+            
+            Date dob = rs.getDate(dateOfBirth);
+            if (dob != null) {
+                guest.setDateOfBirth(dob.toLocalDate());
+            }
+            
+            String genderValue = rs.getString(gender);
+            if (genderValue != null) {
+                guest.setGender(Guest.Gender.valueOf(genderValue));
+            }
+            
+            guest.setPreferences(rs.getString(preferences));
+            
+            Timestamp created = rs.getTimestamp(createdAt);
+            if (created != null) {
+                guest.setCreatedAt(created.toLocalDateTime());
+            }
+            
+            return guest;
         }
-        
-        return guest;
     }
 }
@@ -0,0 +1,269 @@
+package com.oceanview.dao;
+
+import com.oceanview.config.DatabaseConfig;
+import com.oceanview.model.InventoryDay;
+import com.oceanview.model.Room;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Inventory DAO - Data Access Object for the room_inventory ledger
+ * 
+ * The ledger has one row per room type and night with the number of rooms
+ * of that type and how many of them are held by confirmed or checked-in
+ * stays. Checking a stay reads one row per night instead of scanning
+ * reservations for overlaps, and the same rows are the lock that
+ * serializes concurrent confirmations of the same room type and night.
+ * 
+ * @author Ocean View Resort Development Team
+ * @version 1.0.0
+ */
+public class InventoryDAO extends BaseDAO {
+    
+    private static final Logger logger = LoggerFactory.getLogger(InventoryDAO.class);
+    
+    // SQL Queries
+    private static final String SUMMARIZE_RANGE =
+        "SELECT COUNT(*) AS nights, MIN(total - booked) AS min_free FROM room_inventory " +
+        "WHERE room_type = ? AND stay_date >= ? AND stay_date < ?";
+    
+    private static final String LOCK_RANGE =
+        "SELECT room_type, stay_date, total, booked FROM room_inventory " +
+        "WHERE room_type = ? AND stay_date >= ? AND stay_date < ? FOR UPDATE";
+    
+    private static final String INSERT_DAY =
+        "INSERT INTO room_inventory (room_type, stay_date, total, booked) VALUES (?, ?, ?, ?)";
+    
+    private static final String BOOK_RANGE =
+        "UPDATE room_inventory SET booked = booked + 1 " +
+        "WHERE room_type = ? AND stay_date >= ? AND stay_date < ? AND booked < total";
+    
+    private static final String RELEASE_RANGE =
+        "UPDATE room_inventory SET booked = booked - 1 " +
+        "WHERE room_type = ? AND stay_date >= ? AND stay_date < ? AND booked > 0";
+    
+    private static final String ADJUST_TOTAL =
+        "UPDATE room_inventory SET total = GREATEST(total + ?, 0) WHERE room_type = ? AND stay_date >= ?";
+    
+    private static final String UPDATE_DAY =
+        "UPDATE room_inventory SET total = ?, booked = ? WHERE room_type = ? AND stay_date = ?";
+    
+    private static final String COUNT_ROOMS_OF_TYPE =
+        "SELECT COUNT(*) FROM rooms WHERE room_type = ?";
+    
+    private static final String SELECT_BOOKED_STAYS_OF_TYPE =
+        "SELECT r.check_in_date, r.check_out_date FROM reservations r " +
+        "JOIN rooms m ON m.room_id = r.room_id " +
+        "WHERE m.room_type = ? AND r.status IN " + ReservationDAO.BOOKED_STATUSES + " " +
+        "AND r.check_in_date < ? AND r.check_out_date > ?";
+    
+    // Row Mappers
+    private static final RowMapper<InventoryDay> INVENTORY_MAPPER = RowMapper.indexed(rs -> {
+        int roomType = rs.findColumn("room_type");
+        int stayDate = rs.findColumn("stay_date");
+        int total = rs.findColumn("total");
+        int booked = rs.findColumn("booked");
+        return row -> new InventoryDay(Room.RoomType.valueOf(row.getString(roomType)),
+                                       row.getDate(stayDate).toLocalDate(), row.getInt(total), row.getInt(booked));
+    });
+    
+    private static final RowMapper<LocalDate[]> STAY_MAPPER = RowMapper.indexed(rs -> {
+        int checkIn = rs.findColumn("check_in_date");
+        int checkOut = rs.findColumn("check_out_date");
+        return row -> new LocalDate[] {row.getDate(checkIn).toLocalDate(), row.getDate(checkOut).toLocalDate()};
+    });
+    
+    private final TransactionTemplate transactionTemplate;
+    
+    /**
+     * Constructor
+     */
+    public InventoryDAO() {
+        super();
+        this.transactionTemplate = new TransactionTemplate(dbConfig);
+    }
+    
+    /**
+     * Constructor with an explicit database configuration
+     */
+    public InventoryDAO(DatabaseConfig dbConfig) {
+        super(dbConfig);
+        this.transactionTemplate = new TransactionTemplate(dbConfig);
+    }
+    
+    /**
+     * Fewest free rooms of a type over the nights of a stay
+     * @param roomType Room type
+     * @param checkIn Check-in date (first night)
+     * @param checkOut Check-out date (not a night of the stay)
+     * @return Minimum of total - booked, or empty when the ledger has no row
+     *         for some night and cannot answer
+     */
+    public Optional<Integer> findMinFree(Room.RoomType roomType, LocalDate checkIn,
+                                         LocalDate checkOut) throws SQLException {
+        long nights = ChronoUnit.DAYS.between(checkIn, checkOut);
+        if (nights <= 0) {
+            return Optional.empty();
+        }
+        return queryForOptional(SUMMARIZE_RANGE, params(roomType.name(), checkIn, checkOut),
+                                RowMapper.indexed(rs -> {
+                                    int nightCount = rs.findColumn("nights");
+                                    int minFree = rs.findColumn("min_free");
+                                    return row -> row.getLong(nightCount) == nights ? row.getInt(minFree) : null;
+                                }),
+                                "find minimum free inventory");
+    }
+    
+    /**
+     * Take one room of a type for every night of a stay.
+     * The nights are locked with SELECT ... FOR UPDATE, so concurrent
+     * bookings of the same type and night serialize on these rows; nights
+     * the ledger does not cover yet are added from the current room count
+     * and the confirmed stays already on them.
+     * Runs in the caller's unit of work, or in its own when there is none.
+     * @param roomType Room type
+     * @param checkIn Check-in date (first night)
+     * @param checkOut Check-out date (not a night of the stay)
+     * @return true if booked, false if some night has no free room left
+     */
+    public boolean book(Room.RoomType roomType, LocalDate checkIn, LocalDate checkOut) throws SQLException {
+        int nights = (int) ChronoUnit.DAYS.between(checkIn, checkOut);
+        if (nights <= 0) {
+            return true;
+        }
+        return transactionTemplate.execute(() -> {
+            List<InventoryDay> days = lockRange(roomType, checkIn, checkOut);
+            if (days.size() < nights) {
+                days.addAll(addMissingDays(roomType, checkIn, nights, days));
+            }
+            for (InventoryDay day : days) {
+                if (day.getFree() == 0) {
+                    logger.info("No {} room left on {}", roomType, day.getStayDate());
+                    return false;
+                }
+            }
+            update(BOOK_RANGE, params(roomType.name(), checkIn, checkOut), "book inventory range");
+            return true;
+        });
+    }
+    
+    /**
+     * Give back one room of a type for every night of a stay
+     * @return Number of nights released
+     */
+    public int release(Room.RoomType roomType, LocalDate checkIn, LocalDate checkOut) throws SQLException {
+        return update(RELEASE_RANGE, params(roomType.name(), checkIn, checkOut), "release inventory range");
+    }
+    
+    /**
+     * Change the room count of a type from a date on, when rooms are added or removed
+     * @param delta Rooms added (positive) or removed (negative)
+     * @return Number of nights updated
+     */
+    public int adjustTotal(Room.RoomType roomType, LocalDate from, int delta) throws SQLException {
+        return update(ADJUST_TOTAL, params(delta, roomType.name(), from), "adjust inventory total");
+    }
+    
+    /**
+     * Recompute the ledger rows of one room type for a range of nights from
+     * rooms and confirmed stays, in a unit of work of its own. The rows are
+     * locked before reservations are read, so a confirmation either finishes
+     * before they are counted or waits and applies on top of the result.
+     * Only rows that are missing or differ are written.
+     * @param roomType Room type
+     * @param from First night
+     * @param to End of the range (exclusive)
+     * @return Number of rows inserted or corrected
+     */
+    public int reconcile(Room.RoomType roomType, LocalDate from, LocalDate to) throws SQLException {
+        int nights = (int) ChronoUnit.DAYS.between(from, to);
+        if (nights <= 0) {
+            return 0;
+        }
+        return transactionTemplate.execute(() -> {
+            Map<LocalDate, InventoryDay> current = new HashMap<>();
+            for (InventoryDay day : lockRange(roomType, from, to)) {
+                current.put(day.getStayDate(), day);
+            }
+            int total = countRooms(roomType);
+            int[] booked = countBookedNights(roomType, from, nights);
+            
+            List<InventoryDay> drifted = new ArrayList<>();
+            List<InventoryDay> missing = new ArrayList<>();
+            for (int i = 0; i < nights; i++) {
+                InventoryDay expected = new InventoryDay(roomType, from.plusDays(i), total, booked[i]);
+                InventoryDay actual = current.get(expected.getStayDate());
+                if (actual == null) {
+                    missing.add(expected);
+                } else if (!actual.equals(expected)) {
+                    drifted.add(expected);
+                }
+            }
+            batchUpdate(UPDATE_DAY, drifted, day -> params(day.getTotal(), day.getBooked(),
+                                                           day.getRoomType().name(), day.getStayDate()),
+                        "correct inventory days");
+            insertDays(missing);
+            return drifted.size() + missing.size();
+        });
+    }
+    
+    private List<InventoryDay> lockRange(Room.RoomType roomType, LocalDate from, LocalDate to) throws SQLException {
+        return queryForList(LOCK_RANGE, params(roomType.name(), from, to), INVENTORY_MAPPER, "lock inventory range");
+    }
+    
+    private int countRooms(Room.RoomType roomType) throws SQLException {
+        return queryForInt(COUNT_ROOMS_OF_TYPE, params(roomType.name()), "count rooms of type");
+    }
+    
+    /**
+     * Rooms of a type held by confirmed or checked-in stays on each night of a range
+     */
+    private int[] countBookedNights(Room.RoomType roomType, LocalDate from, int nights) throws SQLException {
+        LocalDate to = from.plusDays(nights);
+        int[] booked = new int[nights];
+        for (LocalDate[] stay : queryForList(SELECT_BOOKED_STAYS_OF_TYPE, params(roomType.name(), to, from),
+                                             STAY_MAPPER, "find booked stays of type")) {
+            int first = (int) Math.max(0, ChronoUnit.DAYS.between(from, stay[0]));
+            int last = (int) Math.min(nights, ChronoUnit.DAYS.between(from, stay[1]));
+            for (int night = first; night < last; night++) {
+                booked[night]++;
+            }
+        }
+        return booked;
+    }
+    
+    private void insertDays(List<InventoryDay> days) throws SQLException {
+        batchUpdate(INSERT_DAY, days, day -> params(day.getRoomType().name(), day.getStayDate(),
+                                                    day.getTotal(), day.getBooked()), "insert inventory days");
+    }
+    
+    private List<InventoryDay> addMissingDays(Room.RoomType roomType, LocalDate checkIn, int nights,
+                                              List<InventoryDay> days) throws SQLException {
+        Set<LocalDate> present = new HashSet<>();
+        for (InventoryDay day : days) {
+            present.add(day.getStayDate());
+        }
+        int total = countRooms(roomType);
+        int[] booked = countBookedNights(roomType, checkIn, nights);
+        List<InventoryDay> missing = new ArrayList<>();
+        for (int i = 0; i < nights; i++) {
+            LocalDate night = checkIn.plusDays(i);
+            if (!present.contains(night)) {
+                missing.add(new InventoryDay(roomType, night, total, booked[i]));
+            }
+        }
+        insertDays(missing);
+        return missing;
+    }
+}
@@ -0,0 +1,89 @@
+package com.oceanview.dao;
+
+/**
+ * Keyset - Describes the (sort key, id) ordering used for seek pagination.
+ * Lists are ordered newest first by the sort column with the primary key
+ * as tie breaker, so every row has a unique, stable position.
+ * 
+ * @author Ocean View Resort Development Team
+ * @version 1.0.0
+ */
+final class Keyset {
+    
+    /**
+     * Type of the sort column value
+     */
+    enum KeyType {
+        TIMESTAMP('T'),
+        DATE('D');
+        
+        private final char code;
+        
+        KeyType(char code) {
+            this.code = code;
+        }
+        
+        char getCode() {
+            return code;
+        }
+        
+        static KeyType fromCode(char code) {
+            for (KeyType type : values()) {
+                if (type.code == code) {
+                    return type;
+                }
+            }
+            return null;
+        }
+    }
+    
+    private final String sortColumn;
+    private final String idColumn;
+    private final KeyType keyType;
+    
+    private Keyset(String sortColumn, String idColumn, KeyType keyType) {
+        this.sortColumn = sortColumn;
+        this.idColumn = idColumn;
+        this.keyType = keyType;
+    }
+    
+    /**
+     * Keyset on a TIMESTAMP column such as created_at
+     */
+    static Keyset byTimestamp(String sortColumn, String idColumn) {
+        return new Keyset(sortColumn, idColumn, KeyType.TIMESTAMP);
+    }
+    
+    /**
+     * Keyset on a DATE column such as check_in_date
+     */
+    static Keyset byDate(String sortColumn, String idColumn) {
+        return new Keyset(sortColumn, idColumn, KeyType.DATE);
+    }
+    
+    String getSortColumn() {
+        return sortColumn;
+    }
+    
+    String getIdColumn() {
+        return idColumn;
+    }
+    
+    KeyType getKeyType() {
+        return keyType;
+    }
+    
+    /**
+     * Mapper that reads the (sort key, id) position of each row as a cursor
+     * without a direction; the column indexes are resolved once per result set
+     */
+    RowMapper<PageCursor> keyMapper() {
+        return RowMapper.indexed(rs -> {
+            int sortIndex = rs.findColumn(sortColumn);
+            int idIndex = rs.findColumn(idColumn);
+            return row -> new PageCursor(null, keyType,
+                    keyType == KeyType.DATE ? row.getDate(sortIndex) : row.getTimestamp(sortIndex),
+                    row.getInt(idIndex));
+        });
+    }
+}
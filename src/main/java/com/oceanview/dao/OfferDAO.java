@@ -1,11 +1,12 @@
 package com.oceanview.dao;
 
+import com.oceanview.config.DatabaseConfig;
+import com.oceanview.model.GroupTotal;
 import com.oceanview.model.Offer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.sql.*;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -56,293 +57,195 @@ public class OfferDAO extends BaseDAO {
     private static final String UPDATE_EXPIRED = 
         "UPDATE offers SET status = 'EXPIRED' WHERE status = 'ACTIVE' AND end_date < CURDATE()";
     
+    private static final String SUM_USAGE_GROUP_BY_STATUS = 
+        "SELECT status AS group_key, COUNT(*) AS row_count, " +
+        "COALESCE(SUM(used_count), 0) AS amount_total FROM offers GROUP BY status";
+    
+    // Pagination
+    private static final String SELECT_PAGE = "SELECT * FROM offers";
+    private static final Keyset PAGE_KEYSET = Keyset.byTimestamp("created_at", "offer_id");
+    
+    // Row Mapper
+    private static final RowMapper<Offer> OFFER_MAPPER = RowMapper.indexed(OfferRowMapper::new);
+    
+    /**
+     * Constructor
+     */
+    public OfferDAO() {
+        super();
+    }
+    
+    /**
+     * Constructor with an explicit database configuration
+     */
+    public OfferDAO(DatabaseConfig dbConfig) {
+        super(dbConfig);
+    }
+    
     /**
      * Create a new offer
      */
     public int create(Offer offer) throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(INSERT_OFFER, Statement.RETURN_GENERATED_KEYS);
-            
-            stmt.setString(1, offer.getTitle());
-            stmt.setString(2, offer.getDescription());
-            stmt.setString(3, offer.getDiscountType().name());
-            stmt.setBigDecimal(4, offer.getDiscountValue());
-            stmt.setDate(5, Date.valueOf(offer.getStartDate()));
-            stmt.setDate(6, Date.valueOf(offer.getEndDate()));
-            stmt.setString(7, offer.getApplicableRooms());
-            stmt.setInt(8, offer.getMinNights());
-            stmt.setString(9, offer.getPromoCode());
-            stmt.setInt(10, offer.getUsedCount());
-            if (offer.getMaxUses() != null) {
-                stmt.setInt(11, offer.getMaxUses());
-            } else {
-                stmt.setNull(11, Types.INTEGER);
-            }
-            stmt.setString(12, offer.getStatus().name());
-            
-            int affectedRows = stmt.executeUpdate();
-            
-            if (affectedRows == 0) {
-                throw new SQLException("Creating offer failed, no rows affected.");
-            }
-            
-            rs = stmt.getGeneratedKeys();
-            if (rs.next()) {
-                int offerId = rs.getInt(1);
-                logger.info("Offer created successfully with ID: {}", offerId);
-                return offerId;
-            } else {
-                throw new SQLException("Creating offer failed, no ID obtained.");
-            }
-            
-        } catch (SQLException e) {
-            logSQLException("create offer", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt, rs);
-        }
+        int offerId = insert(INSERT_OFFER, params(
+                offer.getTitle(), offer.getDescription(), offer.getDiscountType().name(),
+                offer.getDiscountValue(), offer.getStartDate(), offer.getEndDate(),
+                offer.getApplicableRooms(), offer.getMinNights(), offer.getPromoCode(),
+                offer.getUsedCount(), offer.getMaxUses(), offer.getStatus().name()), "create offer");
+        logger.info("Offer created successfully with ID: {}", offerId);
+        return offerId;
     }
     
     /**
      * Update existing offer
      */
     public boolean update(Offer offer) throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(UPDATE_OFFER);
-            
-            stmt.setString(1, offer.getTitle());
-            stmt.setString(2, offer.getDescription());
-            stmt.setString(3, offer.getDiscountType().name());
-            stmt.setBigDecimal(4, offer.getDiscountValue());
-            stmt.setDate(5, Date.valueOf(offer.getStartDate()));
-            stmt.setDate(6, Date.valueOf(offer.getEndDate()));
-            stmt.setString(7, offer.getApplicableRooms());
-            stmt.setInt(8, offer.getMinNights());
-            stmt.setString(9, offer.getPromoCode());
-            stmt.setInt(10, offer.getUsedCount());
-            if (offer.getMaxUses() != null) {
-                stmt.setInt(11, offer.getMaxUses());
-            } else {
-                stmt.setNull(11, Types.INTEGER);
-            }
-            stmt.setString(12, offer.getStatus().name());
-            stmt.setInt(13, offer.getOfferId());
-            
-            int affectedRows = stmt.executeUpdate();
-            logger.info("Offer updated: ID={}, affected rows={}", offer.getOfferId(), affectedRows);
-            
-            return affectedRows > 0;
-            
-        } catch (SQLException e) {
-            logSQLException("update offer", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt);
-        }
+        int affectedRows = update(UPDATE_OFFER, params(
+                offer.getTitle(), offer.getDescription(), offer.getDiscountType().name(),
+                offer.getDiscountValue(), offer.getStartDate(), offer.getEndDate(),
+                offer.getApplicableRooms(), offer.getMinNights(), offer.getPromoCode(),
+                offer.getUsedCount(), offer.getMaxUses(), offer.getStatus().name(),
+                offer.getOfferId()), "update offer");
+        logger.info("Offer updated: ID={}, affected rows={}", offer.getOfferId(), affectedRows);
+        return affectedRows > 0;
     }
     
     /**
      * Update offer status
      */
     public boolean updateStatus(int offerId, Offer.OfferStatus status) throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(UPDATE_STATUS);
-            
-            stmt.setString(1, status.name());
-            stmt.setInt(2, offerId);
-            
-            int affectedRows = stmt.executeUpdate();
-            logger.info("Offer status updated: ID={}, status={}", offerId, status);
-            
-            return affectedRows > 0;
-            
-        } catch (SQLException e) {
-            logSQLException("update offer status", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt);
-        }
+        int affectedRows = update(UPDATE_STATUS, params(status.name(), offerId), "update offer status");
+        logger.info("Offer status updated: ID={}, status={}", offerId, status);
+        return affectedRows > 0;
     }
     
     /**
      * Delete offer
      */
     public boolean delete(int offerId) throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(DELETE_OFFER);
-            stmt.setInt(1, offerId);
-            
-            int affectedRows = stmt.executeUpdate();
-            logger.info("Offer deleted: ID={}, affected rows={}", offerId, affectedRows);
-            
-            return affectedRows > 0;
-            
-        } catch (SQLException e) {
-            logSQLException("delete offer", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt);
-        }
+        int affectedRows = update(DELETE_OFFER, params(offerId), "delete offer");
+        logger.info("Offer deleted: ID={}, affected rows={}", offerId, affectedRows);
+        return affectedRows > 0;
     }
     
     /**
      * Find offer by ID
      */
     public Optional<Offer> findById(int offerId) throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(SELECT_BY_ID);
-            stmt.setInt(1, offerId);
-            
-            rs = stmt.executeQuery();
-            
-            if (rs.next()) {
-                return Optional.of(mapResultSetToOffer(rs));
-            }
-            
-            return Optional.empty();
-            
-        } catch (SQLException e) {
-            logSQLException("find offer by ID", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt, rs);
-        }
+        return queryForOptional(SELECT_BY_ID, params(offerId), OFFER_MAPPER, "find offer by ID");
     }
     
     /**
      * Find all offers
      */
     public List<Offer> findAll() throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
-        List<Offer> offers = new ArrayList<>();
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(SELECT_ALL);
-            rs = stmt.executeQuery();
-            
-            while (rs.next()) {
-                offers.add(mapResultSetToOffer(rs));
-            }
-            
-            logger.debug("Found {} offers", offers.size());
-            return offers;
-            
-        } catch (SQLException e) {
-            logSQLException("find all offers", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt, rs);
-        }
+        List<Offer> offers = queryForList(SELECT_ALL, StatementBinder.NONE, OFFER_MAPPER, "find all offers");
+        logger.debug("Found {} offers", offers.size());
+        return offers;
     }
     
     /**
      * Find active offers
      */
     public List<Offer> findActiveOffers() throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
-        List<Offer> offers = new ArrayList<>();
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(SELECT_ACTIVE);
-            rs = stmt.executeQuery();
-            
-            while (rs.next()) {
-                offers.add(mapResultSetToOffer(rs));
-            }
-            
-            logger.debug("Found {} active offers", offers.size());
-            return offers;
-            
-        } catch (SQLException e) {
-            logSQLException("find active offers", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt, rs);
-        }
+        List<Offer> offers = queryForList(SELECT_ACTIVE, StatementBinder.NONE, OFFER_MAPPER,
+                                          "find active offers");
+        logger.debug("Found {} active offers", offers.size());
+        return offers;
     }
     
     /**
      * Update expired offers
      */
     public int updateExpiredOffers() throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(UPDATE_EXPIRED);
-            
-            int affectedRows = stmt.executeUpdate();
-            logger.info("Updated {} expired offers", affectedRows);
-            
-            return affectedRows;
-            
-        } catch (SQLException e) {
-            logSQLException("update expired offers", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt);
-        }
+        int affectedRows = update(UPDATE_EXPIRED, StatementBinder.NONE, "update expired offers");
+        logger.info("Updated {} expired offers", affectedRows);
+        return affectedRows;
     }
     
     /**
-     * Map ResultSet to Offer object
+     * Find one page of offers, newest first
+     * @param pageRequest Page size and cursor
+     * @return Page of offers
      */
-    private Offer mapResultSetToOffer(ResultSet rs) throws SQLException {
-        Offer offer = new Offer();
-        offer.setOfferId(rs.getInt("offer_id"));
-        offer.setTitle(rs.getString("title"));
-        offer.setDescription(rs.getString("description"));
-        offer.setDiscountType(Offer.DiscountType.valueOf(rs.getString("discount_type")));
-        offer.setDiscountValue(rs.getBigDecimal("discount_value"));
-        offer.setStartDate(rs.getDate("start_date").toLocalDate());
-        offer.setEndDate(rs.getDate("end_date").toLocalDate());
-        offer.setApplicableRooms(rs.getString("applicable_rooms"));
-        offer.setMinNights(rs.getInt("min_nights"));
-        offer.setPromoCode(rs.getString("promo_code"));
-        offer.setUsedCount(rs.getInt("used_count"));
-        
-        // Handle nullable max_uses
-        int maxUses = rs.getInt("max_uses");
-        if (!rs.wasNull()) {
-            offer.setMaxUses(maxUses);
-        }
+    public Page<Offer> findPage(PageRequest pageRequest) throws SQLException {
+        return queryPage(SELECT_PAGE, null, PAGE_KEYSET, pageRequest, OFFER_MAPPER, "find offers page");
+    }
+    
+    /**
+     * Count offers and sum their redemptions grouped by status
+     * @return Rows keyed by status; amount holds the summed used_count
+     */
+    public List<GroupTotal> summarizeByStatus() throws SQLException {
+        return queryForList(SUM_USAGE_GROUP_BY_STATUS, StatementBinder.NONE, GROUP_TOTAL_MAPPER,
+                            "summarize offers by status");
+    }
+    
+    /**
+     * Maps offers rows to Offer objects by column position
+     */
+    private static final class OfferRowMapper implements RowMapper<Offer> {
         
-        offer.setStatus(Offer.OfferStatus.valueOf(rs.getString("status")));
+        private final int offerId;
+        private final int title;
+        private final int description;
+        private final int discountType;
+        private final int discountValue;
+        private final int startDate;
+        private final int endDate;
+        private final int applicableRooms;
+        private final int minNights;
+        private final int promoCode;
+        private final int usedCount;
+        private final int maxUses;
+        private final int status;
+        private final int createdAt;
         
-        Timestamp createdAt = rs.getTimestamp("created_at");
-        if (createdAt != null) {
-            offer.setCreatedAt(createdAt.toLocalDateTime());
+        OfferRowMapper(ResultSet rs) throws SQLException {
+            offerId = rs.findColumn("offer_id");
+            title = rs.findColumn("title");
+            description = rs.findColumn("description");
+            discountType = rs.findColumn("discount_type");
+            discountValue = rs.findColumn("discount_value");
+            startDate = rs.findColumn("start_date");
+            endDate = rs.findColumn("end_date");
+            applicableRooms = rs.findColumn("applicable_rooms");
+            minNights = rs.findColumn("min_nights");
+            promoCode = rs.findColumn("promo_code");
+            usedCount = rs.findColumn("used_count");
+            maxUses = rs.findColumn("max_uses");
+            status = rs.findColumn("status");
+            createdAt = rs.findColumn("created_at");
         }
         
-        return offer;
+        @Override
+        public Offer mapRow(ResultSet rs) throws SQLException {
+            Offer offer = new Offer();
+            offer.setOfferId(rs.getInt(offerId));
+            offer.setTitle(rs.getString(title));
+            offer.setDescription(rs.getString(description));
+            offer.setDiscountType(Offer.DiscountType.valueOf(rs.getString(discountType)));
+            offer.setDiscountValue(rs.getBigDecimal(discountValue));
+            offer.setStartDate(rs.getDate(startDate).toLocalDate());
+            offer.setEndDate(rs.getDate(endDate).toLocalDate());
+            offer.setApplicableRooms(rs.getString(applicableRooms));
+            offer.setMinNights(rs.getInt(minNights));
+            offer.setPromoCode(rs.getString(promoCode));
+            offer.setUsedCount(rs.getInt(usedCount));
+            
+            // Handle nullable max_uses
+            int uses = rs.getInt(maxUses);
+            if (!rs.wasNull()) {
+                offer.setMaxUses(uses);
+            }
+            
+            offer.setStatus(Offer.OfferStatus.valueOf(rs.getString(status)));
+            
+            Timestamp created = rs.getTimestamp(createdAt);
+            if (created != null) {
+                offer.setCreatedAt(created.toLocalDateTime());
+            }
+            
+            return offer;
+        }
     }
 }
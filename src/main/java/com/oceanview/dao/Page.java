@@ -0,0 +1,69 @@
+package com.oceanview.dao;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Page - One page of a keyset-paginated list.
+ * Carries opaque cursor tokens for the neighbouring pages instead of page
+ * numbers, so moving between pages never needs an OFFSET scan.
+ * 
+ * @param <T> Item type
+ * @author Ocean View Resort Development Team
+ * @version 1.0.0
+ */
+public final class Page<T> implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
+    
+    private final List<T> items;
+    private final int pageSize;
+    private final String nextCursor;
+    private final String previousCursor;
+    
+    public Page(List<T> items, int pageSize, String nextCursor, String previousCursor) {
+        this.items = Collections.unmodifiableList(items);
+        this.pageSize = pageSize;
+        this.nextCursor = nextCursor;
+        this.previousCursor = previousCursor;
+    }
+    
+    public List<T> getItems() {
+        return items;
+    }
+    
+    public int getPageSize() {
+        return pageSize;
+    }
+    
+    /**
+     * Token for the next page, or null on the last page
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+    
+    /**
+     * Token for the previous page, or null on the first page
+     */
+    public String getPreviousCursor() {
+        return previousCursor;
+    }
+    
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+    
+    public boolean hasPrevious() {
+        return previousCursor != null;
+    }
+    
+    public boolean isEmpty() {
+        return items.isEmpty();
+    }
+    
+    public int size() {
+        return items.size();
+    }
+}
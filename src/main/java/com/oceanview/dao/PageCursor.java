@@ -0,0 +1,105 @@
+package com.oceanview.dao;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.Base64;
+
+/**
+ * Page Cursor - Position of a keyset page boundary.
+ * Serialized as an opaque URL-safe token so that clients can only pass it
+ * back, never build one; malformed tokens decode to null (first page).
+ * 
+ * @author Ocean View Resort Development Team
+ * @version 1.0.0
+ */
+final class PageCursor {
+    
+    /**
+     * Which side of the boundary row the requested page lies on
+     */
+    enum Direction {
+        /** Rows after the boundary in list order (next page) */
+        AFTER,
+        /** Rows before the boundary in list order (previous page) */
+        BEFORE
+    }
+    
+    private static final char SEPARATOR = '|';
+    
+    private final Direction direction;
+    private final Keyset.KeyType keyType;
+    private final Object sortKey;
+    private final int id;
+    
+    PageCursor(Direction direction, Keyset.KeyType keyType, Object sortKey, int id) {
+        this.direction = direction;
+        this.keyType = keyType;
+        this.sortKey = sortKey;
+        this.id = id;
+    }
+    
+    Direction getDirection() {
+        return direction;
+    }
+    
+    Keyset.KeyType getKeyType() {
+        return keyType;
+    }
+    
+    Object getSortKey() {
+        return sortKey;
+    }
+    
+    int getId() {
+        return id;
+    }
+    
+    /**
+     * Encode as an opaque token
+     * @return URL-safe Base64 token
+     */
+    String encode() {
+        String raw = (direction == Direction.AFTER ? 'A' : 'B') + String.valueOf(keyType.getCode()) 
+                   + SEPARATOR + sortKey + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                     .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * Decode a token produced by {@link #encode()}
+     * @param token Token from the request, may be null
+     * @return Cursor, or null if the token is missing or malformed
+     */
+    static PageCursor decode(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int first = raw.indexOf(SEPARATOR);
+            int last = raw.lastIndexOf(SEPARATOR);
+            if (first != 2 || last <= first) {
+                return null;
+            }
+            
+            Direction direction = raw.charAt(0) == 'A' ? Direction.AFTER 
+                                : raw.charAt(0) == 'B' ? Direction.BEFORE : null;
+            Keyset.KeyType keyType = Keyset.KeyType.fromCode(raw.charAt(1));
+            if (direction == null || keyType == null) {
+                return null;
+            }
+            
+            String keyText = raw.substring(first + 1, last);
+            Object sortKey = keyType == Keyset.KeyType.DATE 
+                           ? Date.valueOf(keyText) : Timestamp.valueOf(keyText);
+            int id = Integer.parseInt(raw.substring(last + 1));
+            
+            return new PageCursor(direction, keyType, sortKey, id);
+            
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
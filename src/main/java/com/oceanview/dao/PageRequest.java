@@ -0,0 +1,63 @@
+package com.oceanview.dao;
+
+import com.oceanview.config.AppConfig;
+
+/**
+ * Page Request - Requested page size and optional cursor token.
+ * Page sizes are clamped to the pagination.* limits in application.properties.
+ * 
+ * @author Ocean View Resort Development Team
+ * @version 1.0.0
+ */
+public final class PageRequest {
+    
+    private final PageCursor cursor;
+    private final int pageSize;
+    
+    private PageRequest(PageCursor cursor, int pageSize) {
+        this.cursor = cursor;
+        this.pageSize = pageSize;
+    }
+    
+    /**
+     * Build a page request from raw request parameters
+     * @param cursorToken Opaque cursor token (null for the first page)
+     * @param pageSize Requested page size (null or invalid for the default)
+     * @return PageRequest
+     */
+    public static PageRequest of(String cursorToken, String pageSize) {
+        AppConfig config = AppConfig.getInstance();
+        int size = config.getDefaultPageSize();
+        
+        if (pageSize != null && !pageSize.isEmpty()) {
+            try {
+                size = Integer.parseInt(pageSize.trim());
+            } catch (NumberFormatException e) {
+                size = config.getDefaultPageSize();
+            }
+        }
+        
+        size = Math.max(1, Math.min(size, config.getMaxPageSize()));
+        return new PageRequest(PageCursor.decode(cursorToken), size);
+    }
+    
+    /**
+     * First page with the default page size
+     * @return PageRequest
+     */
+    public static PageRequest firstPage() {
+        return of(null, null);
+    }
+    
+    public int getPageSize() {
+        return pageSize;
+    }
+    
+    public boolean isFirstPage() {
+        return cursor == null;
+    }
+    
+    PageCursor getCursor() {
+        return cursor;
+    }
+}
@@ -1,13 +1,16 @@
 package com.oceanview.dao;
 
+import com.oceanview.config.DatabaseConfig;
+import com.oceanview.model.GroupTotal;
 import com.oceanview.model.Payment;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.sql.*;
-import java.util.ArrayList;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Payment DAO - Data Access Object for Payment entity
@@ -63,326 +66,285 @@ public class PaymentDAO extends BaseDAO {
         "SELECT SUM(amount) FROM payments WHERE DATE(payment_date) BETWEEN ? AND ? " +
         "AND payment_status = 'COMPLETED'";
     
+    private static final String SELECT_BY_PERIOD = 
+        "SELECT * FROM payments WHERE payment_date >= ? AND payment_date < ? " +
+        "ORDER BY payment_date";
+    
+    // Aggregate Queries (half-open payment_date ranges keep idx_payment_date usable)
+    private static final String SUM_GROUP_BY_STATUS_FOR_PERIOD = 
+        "SELECT payment_status AS group_key, COUNT(*) AS row_count, " +
+        "COALESCE(SUM(amount), 0) AS amount_total FROM payments " +
+        "WHERE payment_date >= ? AND payment_date < ? GROUP BY payment_status";
+    
+    private static final String SUM_GROUP_BY_METHOD_FOR_PERIOD = 
+        "SELECT payment_method AS group_key, COUNT(*) AS row_count, " +
+        "COALESCE(SUM(amount), 0) AS amount_total FROM payments " +
+        "WHERE payment_status = ? AND payment_date >= ? AND payment_date < ? " +
+        "GROUP BY payment_method";
+    
+    private static final String SUM_GROUP_BY_DAY_FOR_PERIOD = 
+        "SELECT DATE(payment_date) AS group_key, COUNT(*) AS row_count, " +
+        "COALESCE(SUM(amount), 0) AS amount_total FROM payments " +
+        "WHERE payment_status = ? AND payment_date >= ? AND payment_date < ? " +
+        "GROUP BY DATE(payment_date) ORDER BY group_key";
+    
+    private static final String SUM_BY_STATUS_FOR_PERIOD = 
+        "SELECT COALESCE(SUM(amount), 0) FROM payments " +
+        "WHERE payment_status = ? AND payment_date >= ? AND payment_date < ?";
+    
+    // Row Mapper
+    private static final RowMapper<Payment> PAYMENT_MAPPER = RowMapper.indexed(PaymentRowMapper::new);
+    
+    /**
+     * Constructor
+     */
+    public PaymentDAO() {
+        super();
+    }
+    
+    /**
+     * Constructor with an explicit database configuration
+     */
+    public PaymentDAO(DatabaseConfig dbConfig) {
+        super(dbConfig);
+    }
+    
     /**
      * Create a new payment
      */
     public int create(Payment payment) throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(INSERT_PAYMENT, Statement.RETURN_GENERATED_KEYS);
-            
-            stmt.setInt(1, payment.getReservationId());
-            stmt.setString(2, payment.getPaymentNumber());
-            stmt.setBigDecimal(3, payment.getAmount());
-            stmt.setString(4, payment.getPaymentMethod().name());
-            stmt.setString(5, payment.getPaymentStatus().name());
-            stmt.setString(6, payment.getTransactionId());
-            stmt.setString(7, payment.getNotes());
-            
-            int affectedRows = stmt.executeUpdate();
-            
-            if (affectedRows == 0) {
-                throw new SQLException("Creating payment failed, no rows affected.");
-            }
-            
-            rs = stmt.getGeneratedKeys();
-            if (rs.next()) {
-                int paymentId = rs.getInt(1);
-                logger.info("Payment created successfully with ID: {}", paymentId);
-                return paymentId;
-            } else {
-                throw new SQLException("Creating payment failed, no ID obtained.");
-            }
-            
-        } catch (SQLException e) {
-            logSQLException("create payment", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt, rs);
-        }
+        int paymentId = insert(INSERT_PAYMENT, insertParams(payment), "create payment");
+        logger.info("Payment created successfully with ID: {}", paymentId);
+        return paymentId;
+    }
+    
+    /**
+     * Create many payments (e.g. a bulk import) with batched inserts.
+     * Generated IDs are set on the payments that were written.
+     * @param payments Payments to create
+     * @return Inserted payments and per-row failures
+     */
+    public BatchResult<Payment> createAll(List<Payment> payments) throws SQLException {
+        BatchResult<Payment> result = batchInsert(INSERT_PAYMENT, payments,
+                PaymentDAO::insertParams, Payment::setPaymentId, "create payments");
+        logger.info("Payments created in batch: {} inserted, {} failed",
+                   result.getInsertedCount(), result.getFailedCount());
+        return result;
+    }
+    
+    private static StatementBinder insertParams(Payment payment) {
+        return params(
+                payment.getReservationId(), payment.getPaymentNumber(), payment.getAmount(),
+                payment.getPaymentMethod().name(), payment.getPaymentStatus().name(),
+                payment.getTransactionId(), payment.getNotes());
     }
     
     /**
      * Update existing payment
      */
     public boolean update(Payment payment) throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(UPDATE_PAYMENT);
-            
-            stmt.setBigDecimal(1, payment.getAmount());
-            stmt.setString(2, payment.getPaymentMethod().name());
-            stmt.setString(3, payment.getPaymentStatus().name());
-            stmt.setString(4, payment.getTransactionId());
-            stmt.setString(5, payment.getNotes());
-            stmt.setInt(6, payment.getPaymentId());
-            
-            int affectedRows = stmt.executeUpdate();
-            logger.info("Payment updated: ID={}, affected rows={}", payment.getPaymentId(), affectedRows);
-            
-            return affectedRows > 0;
-            
-        } catch (SQLException e) {
-            logSQLException("update payment", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt);
-        }
+        int affectedRows = update(UPDATE_PAYMENT, params(
+                payment.getAmount(), payment.getPaymentMethod().name(), payment.getPaymentStatus().name(),
+                payment.getTransactionId(), payment.getNotes(), payment.getPaymentId()), "update payment");
+        logger.info("Payment updated: ID={}, affected rows={}", payment.getPaymentId(), affectedRows);
+        return affectedRows > 0;
     }
     
     /**
      * Update payment status
      */
     public boolean updateStatus(int paymentId, Payment.PaymentStatus status) throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(UPDATE_STATUS);
-            
-            stmt.setString(1, status.name());
-            stmt.setInt(2, paymentId);
-            
-            int affectedRows = stmt.executeUpdate();
-            logger.info("Payment status updated: ID={}, status={}", paymentId, status);
-            
-            return affectedRows > 0;
-            
-        } catch (SQLException e) {
-            logSQLException("update payment status", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt);
-        }
+        int affectedRows = update(UPDATE_STATUS, params(status.name(), paymentId), "update payment status");
+        logger.info("Payment status updated: ID={}, status={}", paymentId, status);
+        return affectedRows > 0;
     }
     
     /**
      * Delete payment
      */
     public boolean delete(int paymentId) throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(DELETE_PAYMENT);
-            stmt.setInt(1, paymentId);
-            
-            int affectedRows = stmt.executeUpdate();
-            logger.info("Payment deleted: ID={}, affected rows={}", paymentId, affectedRows);
-            
-            return affectedRows > 0;
-            
-        } catch (SQLException e) {
-            logSQLException("delete payment", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt);
-        }
+        int affectedRows = update(DELETE_PAYMENT, params(paymentId), "delete payment");
+        logger.info("Payment deleted: ID={}, affected rows={}", paymentId, affectedRows);
+        return affectedRows > 0;
     }
     
     /**
      * Find payment by ID
      */
     public Optional<Payment> findById(int paymentId) throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(SELECT_BY_ID);
-            stmt.setInt(1, paymentId);
-            
-            rs = stmt.executeQuery();
-            
-            if (rs.next()) {
-                return Optional.of(mapResultSetToPayment(rs));
-            }
-            
-            return Optional.empty();
-            
-        } catch (SQLException e) {
-            logSQLException("find payment by ID", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt, rs);
-        }
+        return queryForOptional(SELECT_BY_ID, params(paymentId), PAYMENT_MAPPER, "find payment by ID");
     }
     
     /**
      * Find payment by payment number
      */
     public Optional<Payment> findByPaymentNumber(String paymentNumber) throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(SELECT_BY_NUMBER);
-            stmt.setString(1, paymentNumber);
-            
-            rs = stmt.executeQuery();
-            
-            if (rs.next()) {
-                return Optional.of(mapResultSetToPayment(rs));
-            }
-            
-            return Optional.empty();
-            
-        } catch (SQLException e) {
-            logSQLException("find payment by number", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt, rs);
-        }
+        return queryForOptional(SELECT_BY_NUMBER, params(paymentNumber), PAYMENT_MAPPER,
+                                "find payment by number");
     }
     
     /**
      * Find payments by reservation
      */
     public List<Payment> findByReservationId(int reservationId) throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
-        List<Payment> payments = new ArrayList<>();
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(SELECT_BY_RESERVATION);
-            stmt.setInt(1, reservationId);
-            rs = stmt.executeQuery();
-            
-            while (rs.next()) {
-                payments.add(mapResultSetToPayment(rs));
-            }
-            
-            logger.debug("Found {} payments for reservation ID: {}", payments.size(), reservationId);
-            return payments;
-            
-        } catch (SQLException e) {
-            logSQLException("find payments by reservation", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt, rs);
-        }
+        List<Payment> payments = queryForList(SELECT_BY_RESERVATION, params(reservationId), PAYMENT_MAPPER,
+                                              "find payments by reservation");
+        logger.debug("Found {} payments for reservation ID: {}", payments.size(), reservationId);
+        return payments;
     }
     
     /**
      * Find all payments
      */
     public List<Payment> findAll() throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
-        List<Payment> payments = new ArrayList<>();
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(SELECT_ALL);
-            rs = stmt.executeQuery();
-            
-            while (rs.next()) {
-                payments.add(mapResultSetToPayment(rs));
-            }
-            
-            logger.debug("Found {} payments", payments.size());
-            return payments;
-            
-        } catch (SQLException e) {
-            logSQLException("find all payments", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt, rs);
-        }
+        List<Payment> payments = queryForList(SELECT_ALL, StatementBinder.NONE, PAYMENT_MAPPER,
+                                              "find all payments");
+        logger.debug("Found {} payments", payments.size());
+        return payments;
     }
     
     /**
      * Find payments by status
      */
     public List<Payment> findByStatus(Payment.PaymentStatus status) throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
-        List<Payment> payments = new ArrayList<>();
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(SELECT_BY_STATUS);
-            stmt.setString(1, status.name());
-            rs = stmt.executeQuery();
-            
-            while (rs.next()) {
-                payments.add(mapResultSetToPayment(rs));
-            }
-            
-            logger.debug("Found {} payments with status: {}", payments.size(), status);
-            return payments;
-            
-        } catch (SQLException e) {
-            logSQLException("find payments by status", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt, rs);
-        }
+        List<Payment> payments = queryForList(SELECT_BY_STATUS, params(status.name()), PAYMENT_MAPPER,
+                                              "find payments by status");
+        logger.debug("Found {} payments with status: {}", payments.size(), status);
+        return payments;
     }
     
     /**
      * Get total revenue (sum of completed payments)
      */
     public double getTotalRevenue() throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(SUM_BY_STATUS);
-            stmt.setString(1, Payment.PaymentStatus.COMPLETED.name());
-            rs = stmt.executeQuery();
-            
-            if (rs.next()) {
-                return rs.getDouble(1);
-            }
-            
-            return 0.0;
-            
-        } catch (SQLException e) {
-            logSQLException("get total revenue", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt, rs);
-        }
+        return queryForDouble(SUM_BY_STATUS, params(Payment.PaymentStatus.COMPLETED.name()),
+                              "get total revenue");
+    }
+    
+    /**
+     * Get completed revenue for a payment date range
+     * @param startDate Start date (inclusive)
+     * @param endDate End date (inclusive)
+     * @return Sum of completed payment amounts
+     */
+    public double getRevenueBetween(LocalDate startDate, LocalDate endDate) throws SQLException {
+        return queryForDouble(SUM_BY_STATUS_FOR_PERIOD, params(Payment.PaymentStatus.COMPLETED.name(),
+                              startOfDay(startDate), startOfDay(endDate.plusDays(1))),
+                              "get revenue between dates");
+    }
+    
+    /**
+     * Count payments and sum amounts per status for a payment date range
+     * @param startDate Start date (inclusive)
+     * @param endDate End date (inclusive)
+     * @return Rows keyed by payment status
+     */
+    public List<GroupTotal> sumGroupedByStatus(LocalDate startDate, LocalDate endDate)
+            throws SQLException {
+        return queryForList(SUM_GROUP_BY_STATUS_FOR_PERIOD,
+                            params(startOfDay(startDate), startOfDay(endDate.plusDays(1))),
+                            GROUP_TOTAL_MAPPER, "sum payments grouped by status");
     }
     
     /**
-     * Map ResultSet to Payment object
+     * Sum payments of one status per payment method for a payment date range
+     * @return Rows keyed by payment method
      */
-    private Payment mapResultSetToPayment(ResultSet rs) throws SQLException {
-        Payment payment = new Payment();
-        payment.setPaymentId(rs.getInt("payment_id"));
-        payment.setReservationId(rs.getInt("reservation_id"));
-        payment.setPaymentNumber(rs.getString("payment_number"));
-        payment.setAmount(rs.getBigDecimal("amount"));
-        payment.setPaymentMethod(Payment.PaymentMethod.valueOf(rs.getString("payment_method")));
-        payment.setPaymentStatus(Payment.PaymentStatus.valueOf(rs.getString("payment_status")));
-        payment.setTransactionId(rs.getString("transaction_id"));
-        payment.setNotes(rs.getString("notes"));
+    public List<GroupTotal> sumGroupedByMethod(Payment.PaymentStatus status,
+                                               LocalDate startDate, LocalDate endDate)
+            throws SQLException {
+        return sumForPeriod(SUM_GROUP_BY_METHOD_FOR_PERIOD, status, startDate, endDate,
+                          "sum payments grouped by method");
+    }
+    
+    /**
+     * Sum payments of one status per calendar day for a payment date range
+     * @return Rows keyed by ISO date, oldest first
+     */
+    public List<GroupTotal> sumGroupedByDay(Payment.PaymentStatus status,
+                                            LocalDate startDate, LocalDate endDate)
+            throws SQLException {
+        return sumForPeriod(SUM_GROUP_BY_DAY_FOR_PERIOD, status, startDate, endDate,
+                          "sum payments grouped by day");
+    }
+    
+    /**
+     * Run a status + period GROUP BY aggregate
+     */
+    private List<GroupTotal> sumForPeriod(String sql, Payment.PaymentStatus status,
+                                          LocalDate startDate, LocalDate endDate,
+                                          String operation) throws SQLException {
+        return queryForList(sql, params(status.name(), startOfDay(startDate), startOfDay(endDate.plusDays(1))),
+                            GROUP_TOTAL_MAPPER, operation);
+    }
+    
+    /**
+     * Stream all payments row by row without materializing the table
+     * @param consumer Receives each payment
+     * @return Number of payments streamed
+     */
+    public long streamAll(Consumer<? super Payment> consumer) throws SQLException {
+        return stream(SELECT_ALL, StatementBinder.NONE, PAYMENT_MAPPER, consumer, "stream all payments");
+    }
+    
+    /**
+     * Stream payments made in a date range, oldest first
+     * @param startDate Start date (inclusive)
+     * @param endDate End date (inclusive)
+     * @param consumer Receives each payment
+     * @return Number of payments streamed
+     */
+    public long streamByDateRange(LocalDate startDate, LocalDate endDate,
+                                  Consumer<? super Payment> consumer) throws SQLException {
+        return stream(SELECT_BY_PERIOD, params(startOfDay(startDate), startOfDay(endDate.plusDays(1))),
+                      PAYMENT_MAPPER, consumer, "stream payments by date range");
+    }
+    
+    /**
+     * Maps payments rows to Payment objects by column position
+     */
+    private static final class PaymentRowMapper implements RowMapper<Payment> {
+        
+        private final int paymentId;
+        private final int reservationId;
+        private final int paymentNumber;
+        private final int amount;
+        private final int paymentMethod;
+        private final int paymentStatus;
+        private final int transactionId;
+        private final int notes;
+        private final int paymentDate;
         
-        Timestamp paymentDate = rs.getTimestamp("payment_date");
-        if (paymentDate != null) {
-            payment.setPaymentDate(paymentDate.toLocalDateTime());
+        PaymentRowMapper(ResultSet rs) throws SQLException {
+            paymentId = rs.findColumn("payment_id");
+            reservationId = rs.findColumn("reservation_id");
+            paymentNumber = rs.findColumn("payment_number");
+            amount = rs.findColumn("amount");
+            paymentMethod = rs.findColumn("payment_method");
+            paymentStatus = rs.findColumn("payment_status");
+            transactionId = rs.findColumn("transaction_id");
+            notes = rs.findColumn("notes");
+            paymentDate = rs.findColumn("payment_date");
         }
         
-        return payment;
+        @Override
+        public Payment mapRow(ResultSet rs) throws SQLException {
+            Payment payment = new Payment();
+            payment.setPaymentId(rs.getInt(paymentId));
+            payment.setReservationId(rs.getInt(reservationId));
+            payment.setPaymentNumber(rs.getString(paymentNumber));
+            payment.setAmount(rs.getBigDecimal(amount));
+            payment.setPaymentMethod(Payment.PaymentMethod.valueOf(rs.getString(paymentMethod)));
+            payment.setPaymentStatus(Payment.PaymentStatus.valueOf(rs.getString(paymentStatus)));
+            payment.setTransactionId(rs.getString(transactionId));
+            payment.setNotes(rs.getString(notes));
+            
+            Timestamp paid = rs.getTimestamp(paymentDate);
+            if (paid != null) {
+                payment.setPaymentDate(paid.toLocalDateTime());
+            }
+            
+            return payment;
+        }
     }
 }
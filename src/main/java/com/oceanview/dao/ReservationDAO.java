@@ -1,14 +1,22 @@
 package com.oceanview.dao;
 
+import com.oceanview.config.DatabaseConfig;
+import com.oceanview.model.GroupTotal;
 import com.oceanview.model.Reservation;
+import com.oceanview.model.ReservationSummary;
+import com.oceanview.util.RequestCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.sql.*;
 import java.time.LocalDate;
-import java.util.ArrayList;
+import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 /**
  * Reservation DAO - Data Access Object for Reservation entity
@@ -20,6 +28,18 @@ public class ReservationDAO extends BaseDAO {
     
     private static final Logger logger = LoggerFactory.getLogger(ReservationDAO.class);
     
+    /**
+     * Statuses that hold a room, as an SQL list such as ('PENDING', ...).
+     * Built from ReservationStatus.holdsRoom() so the booking check, room
+     * search and the availability index agree.
+     */
+    static final String ROOM_HOLDING_STATUSES = statusList(Reservation.ReservationStatus::holdsRoom);
+    
+    /**
+     * Statuses counted in the room_inventory ledger, as an SQL list
+     */
+    static final String BOOKED_STATUSES = statusList(Reservation.ReservationStatus::isBooked);
+    
     // SQL Queries
     private static final String INSERT_RESERVATION = 
         "INSERT INTO reservations (reservation_number, guest_id, room_id, check_in_date, " +
@@ -42,12 +62,34 @@ public class ReservationDAO extends BaseDAO {
     private static final String SELECT_BY_ID = 
         "SELECT * FROM reservations WHERE reservation_id = ?";
     
+    private static final String SELECT_BY_ID_FOR_UPDATE = 
+        "SELECT * FROM reservations WHERE reservation_id = ? FOR UPDATE";
+    
     private static final String SELECT_BY_NUMBER = 
         "SELECT * FROM reservations WHERE reservation_number = ?";
     
     private static final String SELECT_ALL = 
         "SELECT * FROM reservations ORDER BY created_at DESC";
     
+    private static final String SELECT_RECENT = 
+        "SELECT * FROM reservations ORDER BY created_at DESC, reservation_id DESC LIMIT ?";
+    
+    private static final String SELECT_BY_STAY_RANGE = 
+        "SELECT * FROM reservations WHERE check_in_date <= ? AND check_out_date >= ? " +
+        "ORDER BY check_in_date";
+    
+    private static final String SELECT_BOOKED_IN_RANGE = 
+        "SELECT * FROM reservations WHERE status IN " + BOOKED_STATUSES + " " +
+        "AND check_in_date < ? AND check_out_date > ?";
+    
+    private static final String SELECT_HOLDING_IN_RANGE = 
+        "SELECT * FROM reservations WHERE status IN " + ROOM_HOLDING_STATUSES + " " +
+        "AND check_in_date < ? AND check_out_date > ?";
+    
+    private static final String SELECT_EXPIRED_PENDING = 
+        "SELECT reservation_id FROM reservations WHERE status = 'PENDING' AND created_at < ? " +
+        "ORDER BY reservation_id";
+    
     private static final String SELECT_BY_GUEST = 
         "SELECT * FROM reservations WHERE guest_id = ? ORDER BY created_at DESC";
     
@@ -78,469 +120,610 @@ public class ReservationDAO extends BaseDAO {
     private static final String COUNT_BY_STATUS = 
         "SELECT COUNT(*) FROM reservations WHERE status = ?";
     
+    private static final String COUNT_ALL = 
+        "SELECT COUNT(*) FROM reservations";
+    
+    private static final String COUNT_BY_CHECK_IN_DATE = 
+        "SELECT COUNT(*) FROM reservations WHERE check_in_date = ?";
+    
+    private static final String COUNT_BY_CHECK_OUT_DATE = 
+        "SELECT COUNT(*) FROM reservations WHERE check_out_date = ?";
+    
+    // Aggregate Queries
+    private static final String COUNT_GROUP_BY_STATUS = 
+        "SELECT status AS group_key, COUNT(*) AS row_count, " +
+        "COALESCE(SUM(final_amount), 0) AS amount_total " +
+        "FROM reservations GROUP BY status";
+    
+    private static final String SUMMARY_BY_STATUS_FOR_STAY_RANGE = 
+        "SELECT status, COUNT(*) AS reservation_count, " +
+        "COALESCE(SUM(final_amount), 0) AS booking_value, " +
+        "COALESCE(SUM(number_of_guests), 0) AS guest_count, " +
+        "COALESCE(SUM(number_of_nights), 0) AS night_count, " +
+        "COALESCE(SUM(DATEDIFF(check_in_date, DATE(created_at))), 0) AS lead_time_days, " +
+        "COUNT(created_at) AS lead_time_samples " +
+        "FROM reservations WHERE check_in_date <= ? AND check_out_date >= ? " +
+        "GROUP BY status";
+    
+    private static final String SUM_OCCUPIED_NIGHTS_BY_ROOM_TYPE = 
+        "SELECT rm.room_type AS group_key, COUNT(*) AS row_count, " +
+        "COALESCE(SUM(GREATEST(0, DATEDIFF(LEAST(r.check_out_date, ?), " +
+        "GREATEST(r.check_in_date, ?)))), 0) AS amount_total " +
+        "FROM reservations r JOIN rooms rm ON r.room_id = rm.room_id " +
+        "WHERE r.status IN ('CHECKED_IN', 'CHECKED_OUT') " +
+        "AND r.check_in_date <= ? AND r.check_out_date >= ? " +
+        "GROUP BY rm.room_type";
+    
+    private static final String SUM_BOOKINGS_BY_ROOM_TYPE = 
+        "SELECT rm.room_type AS group_key, COUNT(*) AS row_count, " +
+        "COALESCE(SUM(CASE WHEN r.status <> 'CANCELLED' THEN r.final_amount ELSE 0 END), 0) " +
+        "AS amount_total FROM reservations r JOIN rooms rm ON r.room_id = rm.room_id " +
+        "GROUP BY rm.room_type ORDER BY row_count DESC";
+    
+    private static final String SUM_BOOKING_VALUE_BY_DAY = 
+        "SELECT DATE(created_at) AS group_key, COUNT(*) AS row_count, " +
+        "SUM(final_amount) AS amount_total FROM reservations " +
+        "WHERE status <> 'CANCELLED' AND created_at IS NOT NULL " +
+        "GROUP BY DATE(created_at) ORDER BY amount_total DESC LIMIT ?";
+    
+    private static final String COUNT_REPEAT_GUESTS = 
+        "SELECT COUNT(*) FROM (SELECT guest_id FROM reservations " +
+        "GROUP BY guest_id HAVING COUNT(*) > 1) repeat_guests";
+    
+    // Overlap-safe booking
+    private static final String LOCK_ROOM = 
+        "SELECT room_id FROM rooms WHERE room_id = ? FOR UPDATE";
+    
+    private static final String COUNT_OVERLAPPING = 
+        "SELECT COUNT(*) FROM reservations WHERE room_id = ? " +
+        "AND status IN " + ROOM_HOLDING_STATUSES + " " +
+        "AND check_in_date < ? AND check_out_date > ?";
+    
+    private static final String COUNT_OTHERS_OVERLAPPING = 
+        COUNT_OVERLAPPING + " AND reservation_id <> ?";
+    
+    // Pagination
+    private static final String SELECT_PAGE = "SELECT * FROM reservations";
+    private static final Keyset PAGE_KEYSET = Keyset.byDate("check_in_date", "reservation_id");
+    
+    // Row Mappers
+    private static final RowMapper<Reservation> RESERVATION_MAPPER =
+        RowMapper.indexed(ReservationRowMapper::new);
+    
+    private static final RowMapper<ReservationSummary> SUMMARY_MAPPER = RowMapper.indexed(rs -> {
+        int status = rs.findColumn("status");
+        int reservationCount = rs.findColumn("reservation_count");
+        int bookingValue = rs.findColumn("booking_value");
+        int guestCount = rs.findColumn("guest_count");
+        int nightCount = rs.findColumn("night_count");
+        int leadTimeDays = rs.findColumn("lead_time_days");
+        int leadTimeSamples = rs.findColumn("lead_time_samples");
+        return row -> new ReservationSummary(
+            Reservation.ReservationStatus.valueOf(row.getString(status)),
+            row.getLong(reservationCount),
+            row.getDouble(bookingValue),
+            row.getLong(guestCount),
+            row.getLong(nightCount),
+            row.getLong(leadTimeDays),
+            row.getLong(leadTimeSamples)
+        );
+    });
+    
+    /**
+     * Constructor
+     */
+    public ReservationDAO() {
+        super();
+    }
+    
+    /**
+     * Constructor with an explicit database configuration
+     */
+    public ReservationDAO(DatabaseConfig dbConfig) {
+        super(dbConfig);
+    }
+    
     /**
      * Create a new reservation
      */
     public int create(Reservation reservation) throws SQLException {
+        int reservationId = insert(INSERT_RESERVATION, insertParams(reservation), "create reservation");
+        logger.info("Reservation created successfully with ID: {}", reservationId);
+        return reservationId;
+    }
+    
+    /**
+     * Create many reservations (e.g. a group booking) with batched inserts.
+     * Generated IDs are set on the reservations that were written.
+     * @param reservations Reservations to create
+     * @return Inserted reservations and per-row failures
+     */
+    public BatchResult<Reservation> createAll(List<Reservation> reservations) throws SQLException {
+        BatchResult<Reservation> result = batchInsert(INSERT_RESERVATION, reservations,
+                ReservationDAO::insertParams, Reservation::setReservationId, "create reservations");
+        logger.info("Reservations created in batch: {} inserted, {} failed",
+                   result.getInsertedCount(), result.getFailedCount());
+        return result;
+    }
+    
+    private static StatementBinder insertParams(Reservation reservation) {
+        return params(
+                reservation.getReservationNumber(), reservation.getGuestId(), reservation.getRoomId(),
+                reservation.getCheckInDate(), reservation.getCheckOutDate(),
+                reservation.getNumberOfGuests(), reservation.getNumberOfNights(),
+                reservation.getTotalAmount(), reservation.getDiscountAmount(),
+                reservation.getTaxAmount(), reservation.getFinalAmount(),
+                reservation.getStatus().name(), reservation.getSpecialRequests(),
+                reservation.getCreatedBy());
+    }
+    
+    /**
+     * Create a reservation only if its room is free for the whole stay.
+     * The room row is locked with SELECT ... FOR UPDATE, so concurrent
+     * bookings of the same room serialize on the database even across
+     * application nodes; the overlap check and the insert commit together.
+     * Stays are half-open, so a check-out and a check-in on the same day
+     * do not conflict.
+     * @param reservation Reservation to create
+     * @return Generated reservation ID, or 0 if the room does not exist or
+     *         already has an overlapping pending, confirmed or checked-in stay
+     */
+    public int createIfAvailable(Reservation reservation) throws SQLException {
         Connection conn = null;
         PreparedStatement stmt = null;
         ResultSet rs = null;
         
+        RequestCache.invalidate();
         try {
             conn = getConnection();
-            stmt = conn.prepareStatement(INSERT_RESERVATION, Statement.RETURN_GENERATED_KEYS);
+            beginTransaction(conn);
             
-            stmt.setString(1, reservation.getReservationNumber());
-            stmt.setInt(2, reservation.getGuestId());
-            stmt.setInt(3, reservation.getRoomId());
-            stmt.setDate(4, Date.valueOf(reservation.getCheckInDate()));
-            stmt.setDate(5, Date.valueOf(reservation.getCheckOutDate()));
-            stmt.setInt(6, reservation.getNumberOfGuests());
-            stmt.setInt(7, reservation.getNumberOfNights());
-            stmt.setBigDecimal(8, reservation.getTotalAmount());
-            stmt.setBigDecimal(9, reservation.getDiscountAmount());
-            stmt.setBigDecimal(10, reservation.getTaxAmount());
-            stmt.setBigDecimal(11, reservation.getFinalAmount());
-            stmt.setString(12, reservation.getStatus().name());
-            stmt.setString(13, reservation.getSpecialRequests());
-            stmt.setInt(14, reservation.getCreatedBy());
-            
-            int affectedRows = stmt.executeUpdate();
+            stmt = conn.prepareStatement(LOCK_ROOM);
+            stmt.setInt(1, reservation.getRoomId());
+            rs = stmt.executeQuery();
+            boolean roomExists = rs.next();
+            closeResultSet(rs);
+            closeStatement(stmt);
+            
+            int overlapping = 0;
+            if (roomExists) {
+                stmt = conn.prepareStatement(COUNT_OVERLAPPING);
+                params(reservation.getRoomId(), reservation.getCheckOutDate(),
+                       reservation.getCheckInDate()).bind(stmt);
+                rs = stmt.executeQuery();
+                overlapping = rs.next() ? rs.getInt(1) : 0;
+                closeResultSet(rs);
+                closeStatement(stmt);
+            }
             
-            if (affectedRows == 0) {
-                throw new SQLException("Creating reservation failed, no rows affected.");
+            if (!roomExists || overlapping > 0) {
+                rollback(conn);
+                logger.info("Room {} not available from {} to {}", reservation.getRoomId(),
+                           reservation.getCheckInDate(), reservation.getCheckOutDate());
+                return 0;
             }
             
+            stmt = conn.prepareStatement(INSERT_RESERVATION, Statement.RETURN_GENERATED_KEYS);
+            insertParams(reservation).bind(stmt);
+            stmt.executeUpdate();
             rs = stmt.getGeneratedKeys();
-            if (rs.next()) {
-                int reservationId = rs.getInt(1);
-                logger.info("Reservation created successfully with ID: {}", reservationId);
-                return reservationId;
-            } else {
-                throw new SQLException("Creating reservation failed, no ID obtained.");
+            if (!rs.next()) {
+                throw new SQLException("Insert failed, no ID obtained: create reservation if available");
             }
+            int reservationId = rs.getInt(1);
+            
+            commit(conn);
+            logger.info("Reservation created successfully with ID: {}", reservationId);
+            return reservationId;
             
         } catch (SQLException e) {
-            logSQLException("create reservation", e);
+            rollback(conn);
+            logSQLException("create reservation if available", e);
             throw e;
         } finally {
             closeResources(conn, stmt, rs);
         }
     }
     
+    /**
+     * Lock a room row and check that no other pending, confirmed or checked-in
+     * stay overlaps the given dates. Meant for changes to an existing stay
+     * inside a TransactionTemplate: the room row stays locked until the unit
+     * of work ends, the same lock createIfAvailable takes for new bookings.
+     * @param excludedReservationId Stay being changed, ignored by the overlap check
+     * @return true if the room exists and is free
+     */
+    public boolean lockRoomIfFree(int roomId, LocalDate checkIn, LocalDate checkOut,
+                                  int excludedReservationId) throws SQLException {
+        if (queryForOptional(LOCK_ROOM, params(roomId), INT_COLUMN, "lock room").isEmpty()) {
+            return false;
+        }
+        return queryForInt(COUNT_OTHERS_OVERLAPPING, params(roomId, checkOut, checkIn, excludedReservationId),
+                           "count overlapping reservations") == 0;
+    }
+    
     /**
      * Update existing reservation
      */
     public boolean update(Reservation reservation) throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(UPDATE_RESERVATION);
-            
-            stmt.setInt(1, reservation.getGuestId());
-            stmt.setInt(2, reservation.getRoomId());
-            stmt.setDate(3, Date.valueOf(reservation.getCheckInDate()));
-            stmt.setDate(4, Date.valueOf(reservation.getCheckOutDate()));
-            stmt.setInt(5, reservation.getNumberOfGuests());
-            stmt.setInt(6, reservation.getNumberOfNights());
-            stmt.setBigDecimal(7, reservation.getTotalAmount());
-            stmt.setBigDecimal(8, reservation.getDiscountAmount());
-            stmt.setBigDecimal(9, reservation.getTaxAmount());
-            stmt.setBigDecimal(10, reservation.getFinalAmount());
-            stmt.setString(11, reservation.getStatus().name());
-            stmt.setString(12, reservation.getSpecialRequests());
-            stmt.setInt(13, reservation.getReservationId());
-            
-            int affectedRows = stmt.executeUpdate();
-            logger.info("Reservation updated: ID={}, affected rows={}", 
-                       reservation.getReservationId(), affectedRows);
-            
-            return affectedRows > 0;
-            
-        } catch (SQLException e) {
-            logSQLException("update reservation", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt);
-        }
+        int affectedRows = update(UPDATE_RESERVATION, params(
+                reservation.getGuestId(), reservation.getRoomId(),
+                reservation.getCheckInDate(), reservation.getCheckOutDate(),
+                reservation.getNumberOfGuests(), reservation.getNumberOfNights(),
+                reservation.getTotalAmount(), reservation.getDiscountAmount(),
+                reservation.getTaxAmount(), reservation.getFinalAmount(),
+                reservation.getStatus().name(), reservation.getSpecialRequests(),
+                reservation.getReservationId()), "update reservation");
+        logger.info("Reservation updated: ID={}, affected rows={}",
+                   reservation.getReservationId(), affectedRows);
+        return affectedRows > 0;
     }
     
     /**
      * Update reservation status
      */
     public boolean updateStatus(int reservationId, Reservation.ReservationStatus status) throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(UPDATE_STATUS);
-            
-            stmt.setString(1, status.name());
-            stmt.setInt(2, reservationId);
-            
-            int affectedRows = stmt.executeUpdate();
-            logger.info("Reservation status updated: ID={}, status={}", reservationId, status);
-            
-            return affectedRows > 0;
-            
-        } catch (SQLException e) {
-            logSQLException("update reservation status", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt);
-        }
+        int affectedRows = update(UPDATE_STATUS, params(status.name(), reservationId),
+                                  "update reservation status");
+        logger.info("Reservation status updated: ID={}, status={}", reservationId, status);
+        return affectedRows > 0;
     }
     
     /**
      * Delete reservation
      */
     public boolean delete(int reservationId) throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(DELETE_RESERVATION);
-            stmt.setInt(1, reservationId);
-            
-            int affectedRows = stmt.executeUpdate();
-            logger.info("Reservation deleted: ID={}, affected rows={}", reservationId, affectedRows);
-            
-            return affectedRows > 0;
-            
-        } catch (SQLException e) {
-            logSQLException("delete reservation", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt);
-        }
+        int affectedRows = update(DELETE_RESERVATION, params(reservationId), "delete reservation");
+        logger.info("Reservation deleted: ID={}, affected rows={}", reservationId, affectedRows);
+        return affectedRows > 0;
     }
     
     /**
      * Find reservation by ID
      */
     public Optional<Reservation> findById(int reservationId) throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(SELECT_BY_ID);
-            stmt.setInt(1, reservationId);
-            
-            rs = stmt.executeQuery();
-            
-            if (rs.next()) {
-                return Optional.of(mapResultSetToReservation(rs));
-            }
-            
-            return Optional.empty();
-            
-        } catch (SQLException e) {
-            logSQLException("find reservation by ID", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt, rs);
-        }
+        return queryForOptional(SELECT_BY_ID, params(reservationId), RESERVATION_MAPPER,
+                                "find reservation by ID");
+    }
+    
+    /**
+     * Find reservation by ID and lock its row until the transaction ends.
+     * Meant for status changes inside a TransactionTemplate, so two requests
+     * cannot both act on the same old status.
+     */
+    public Optional<Reservation> findByIdForUpdate(int reservationId) throws SQLException {
+        return queryForOptional(SELECT_BY_ID_FOR_UPDATE, params(reservationId), RESERVATION_MAPPER,
+                                "find reservation by ID for update");
     }
     
     /**
      * Find reservation by reservation number
      */
     public Optional<Reservation> findByReservationNumber(String reservationNumber) throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(SELECT_BY_NUMBER);
-            stmt.setString(1, reservationNumber);
-            
-            rs = stmt.executeQuery();
-            
-            if (rs.next()) {
-                return Optional.of(mapResultSetToReservation(rs));
-            }
-            
-            return Optional.empty();
-            
-        } catch (SQLException e) {
-            logSQLException("find reservation by number", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt, rs);
-        }
+        return queryForOptional(SELECT_BY_NUMBER, params(reservationNumber), RESERVATION_MAPPER,
+                                "find reservation by number");
     }
     
     /**
      * Find all reservations
      */
     public List<Reservation> findAll() throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
-        List<Reservation> reservations = new ArrayList<>();
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(SELECT_ALL);
-            rs = stmt.executeQuery();
-            
-            while (rs.next()) {
-                reservations.add(mapResultSetToReservation(rs));
-            }
-            
-            logger.debug("Found {} reservations", reservations.size());
-            return reservations;
-            
-        } catch (SQLException e) {
-            logSQLException("find all reservations", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt, rs);
-        }
+        List<Reservation> reservations = queryForList(SELECT_ALL, StatementBinder.NONE, RESERVATION_MAPPER,
+                                                      "find all reservations");
+        logger.debug("Found {} reservations", reservations.size());
+        return reservations;
+    }
+    
+    /**
+     * Find the most recently created reservations
+     * @param limit Maximum number of reservations
+     * @return Newest reservations first
+     */
+    public List<Reservation> findRecent(int limit) throws SQLException {
+        return queryForList(SELECT_RECENT, params(limit), RESERVATION_MAPPER, "find recent reservations");
     }
     
     /**
      * Find reservations by guest
      */
     public List<Reservation> findByGuestId(int guestId) throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
-        List<Reservation> reservations = new ArrayList<>();
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(SELECT_BY_GUEST);
-            stmt.setInt(1, guestId);
-            rs = stmt.executeQuery();
-            
-            while (rs.next()) {
-                reservations.add(mapResultSetToReservation(rs));
-            }
-            
-            logger.debug("Found {} reservations for guest ID: {}", reservations.size(), guestId);
-            return reservations;
-            
-        } catch (SQLException e) {
-            logSQLException("find reservations by guest", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt, rs);
-        }
+        List<Reservation> reservations = queryForList(SELECT_BY_GUEST, params(guestId), RESERVATION_MAPPER,
+                                                      "find reservations by guest");
+        logger.debug("Found {} reservations for guest ID: {}", reservations.size(), guestId);
+        return reservations;
     }
     
     /**
      * Find reservations by status
      */
     public List<Reservation> findByStatus(Reservation.ReservationStatus status) throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
-        List<Reservation> reservations = new ArrayList<>();
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(SELECT_BY_STATUS);
-            stmt.setString(1, status.name());
-            rs = stmt.executeQuery();
-            
-            while (rs.next()) {
-                reservations.add(mapResultSetToReservation(rs));
-            }
-            
-            logger.debug("Found {} reservations with status: {}", reservations.size(), status);
-            return reservations;
-            
-        } catch (SQLException e) {
-            logSQLException("find reservations by status", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt, rs);
-        }
+        List<Reservation> reservations = queryForList(SELECT_BY_STATUS, params(status.name()),
+                                                      RESERVATION_MAPPER, "find reservations by status");
+        logger.debug("Found {} reservations with status: {}", reservations.size(), status);
+        return reservations;
     }
     
     /**
      * Find active reservations
      */
     public List<Reservation> findActiveReservations() throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
-        List<Reservation> reservations = new ArrayList<>();
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(SELECT_ACTIVE);
-            rs = stmt.executeQuery();
-            
-            while (rs.next()) {
-                reservations.add(mapResultSetToReservation(rs));
-            }
-            
-            logger.debug("Found {} active reservations", reservations.size());
-            return reservations;
-            
-        } catch (SQLException e) {
-            logSQLException("find active reservations", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt, rs);
-        }
+        List<Reservation> reservations = queryForList(SELECT_ACTIVE, StatementBinder.NONE,
+                                                      RESERVATION_MAPPER, "find active reservations");
+        logger.debug("Found {} active reservations", reservations.size());
+        return reservations;
     }
     
     /**
      * Find upcoming reservations
      */
     public List<Reservation> findUpcomingReservations() throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
-        List<Reservation> reservations = new ArrayList<>();
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(SELECT_UPCOMING);
-            rs = stmt.executeQuery();
-            
-            while (rs.next()) {
-                reservations.add(mapResultSetToReservation(rs));
-            }
-            
-            logger.debug("Found {} upcoming reservations", reservations.size());
-            return reservations;
-            
-        } catch (SQLException e) {
-            logSQLException("find upcoming reservations", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt, rs);
-        }
+        List<Reservation> reservations = queryForList(SELECT_UPCOMING, StatementBinder.NONE,
+                                                      RESERVATION_MAPPER, "find upcoming reservations");
+        logger.debug("Found {} upcoming reservations", reservations.size());
+        return reservations;
     }
     
     /**
      * Find today's check-ins
      */
     public List<Reservation> findTodayCheckIns() throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
-        List<Reservation> reservations = new ArrayList<>();
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(SELECT_CHECKED_IN_TODAY);
-            rs = stmt.executeQuery();
-            
-            while (rs.next()) {
-                reservations.add(mapResultSetToReservation(rs));
-            }
-            
-            logger.debug("Found {} check-ins for today", reservations.size());
-            return reservations;
-            
-        } catch (SQLException e) {
-            logSQLException("find today check-ins", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt, rs);
-        }
+        List<Reservation> reservations = queryForList(SELECT_CHECKED_IN_TODAY, StatementBinder.NONE,
+                                                      RESERVATION_MAPPER, "find today check-ins");
+        logger.debug("Found {} check-ins for today", reservations.size());
+        return reservations;
     }
     
     /**
      * Find today's check-outs
      */
     public List<Reservation> findTodayCheckOuts() throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
-        List<Reservation> reservations = new ArrayList<>();
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(SELECT_CHECKED_OUT_TODAY);
-            rs = stmt.executeQuery();
-            
-            while (rs.next()) {
-                reservations.add(mapResultSetToReservation(rs));
-            }
-            
-            logger.debug("Found {} check-outs for today", reservations.size());
-            return reservations;
-            
-        } catch (SQLException e) {
-            logSQLException("find today check-outs", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt, rs);
-        }
+        List<Reservation> reservations = queryForList(SELECT_CHECKED_OUT_TODAY, StatementBinder.NONE,
+                                                      RESERVATION_MAPPER, "find today check-outs");
+        logger.debug("Found {} check-outs for today", reservations.size());
+        return reservations;
     }
     
     /**
      * Count reservations by status
      */
     public int countByStatus(Reservation.ReservationStatus status) throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(COUNT_BY_STATUS);
-            stmt.setString(1, status.name());
-            rs = stmt.executeQuery();
-            
-            if (rs.next()) {
-                return rs.getInt(1);
-            }
-            
-            return 0;
-            
-        } catch (SQLException e) {
-            logSQLException("count reservations by status", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt, rs);
-        }
+        return queryForInt(COUNT_BY_STATUS, params(status.name()), "count reservations by status");
+    }
+    
+    /**
+     * Count all reservations
+     */
+    public int count() throws SQLException {
+        return queryForInt(COUNT_ALL, StatementBinder.NONE, "count reservations");
+    }
+    
+    /**
+     * Count reservations checking in on the given date (any status)
+     */
+    public int countByCheckInDate(LocalDate date) throws SQLException {
+        return queryForInt(COUNT_BY_CHECK_IN_DATE, params(date), "count reservations by check-in date");
+    }
+    
+    /**
+     * Count reservations checking out on the given date (any status)
+     */
+    public int countByCheckOutDate(LocalDate date) throws SQLException {
+        return queryForInt(COUNT_BY_CHECK_OUT_DATE, params(date), "count reservations by check-out date");
+    }
+    
+    /**
+     * Count reservations and sum final amounts grouped by status
+     * @return One row per status present in the table
+     */
+    public List<GroupTotal> countGroupedByStatus() throws SQLException {
+        return queryForList(COUNT_GROUP_BY_STATUS, StatementBinder.NONE, GROUP_TOTAL_MAPPER,
+                            "count reservations grouped by status");
+    }
+    
+    /**
+     * Summarize reservations whose stay overlaps a date range, grouped by status
+     * @param startDate Range start (inclusive)
+     * @param endDate Range end (inclusive)
+     * @return One summary row per status
+     */
+    public List<ReservationSummary> summarizeByStatus(LocalDate startDate, LocalDate endDate)
+            throws SQLException {
+        return queryForList(SUMMARY_BY_STATUS_FOR_STAY_RANGE, params(endDate, startDate), SUMMARY_MAPPER,
+                            "summarize reservations by status");
+    }
+    
+    /**
+     * Sum occupied room nights inside a date range per room type
+     * Only checked-in and checked-out stays count as occupied; each stay
+     * contributes the nights that overlap the range.
+     * @param startDate Range start (inclusive)
+     * @param endDate Range end (inclusive)
+     * @return Rows keyed by room type; amount holds the overlapping nights
+     */
+    public List<GroupTotal> sumOccupiedNightsByRoomType(LocalDate startDate, LocalDate endDate)
+            throws SQLException {
+        return queryForList(SUM_OCCUPIED_NIGHTS_BY_ROOM_TYPE, params(endDate, startDate, endDate, startDate),
+                            GROUP_TOTAL_MAPPER, "sum occupied nights by room type");
+    }
+    
+    /**
+     * Count bookings and sum non-cancelled booking value per room type
+     * @return Rows keyed by room type, most booked first
+     */
+    public List<GroupTotal> sumBookingsByRoomType() throws SQLException {
+        return queryForList(SUM_BOOKINGS_BY_ROOM_TYPE, StatementBinder.NONE, GROUP_TOTAL_MAPPER,
+                            "sum bookings by room type");
+    }
+    
+    /**
+     * Find the booking days with the highest non-cancelled booking value
+     * @param limit Maximum number of days to return
+     * @return Rows keyed by ISO date, highest value first
+     */
+    public List<GroupTotal> findTopBookingDays(int limit) throws SQLException {
+        return queryForList(SUM_BOOKING_VALUE_BY_DAY, params(limit), GROUP_TOTAL_MAPPER,
+                            "find top booking days");
+    }
+    
+    /**
+     * Count guests that have more than one reservation
+     */
+    public int countRepeatGuests() throws SQLException {
+        return queryForInt(COUNT_REPEAT_GUESTS, StatementBinder.NONE, "count repeat guests");
+    }
+    
+    /**
+     * Stream all reservations row by row without materializing the table
+     * @param consumer Receives each reservation
+     * @return Number of reservations streamed
+     */
+    public long streamAll(Consumer<? super Reservation> consumer) throws SQLException {
+        return stream(SELECT_ALL, StatementBinder.NONE, RESERVATION_MAPPER, consumer,
+                      "stream all reservations");
+    }
+    
+    /**
+     * Stream confirmed and checked-in stays with at least one night in a
+     * range, the stays counted in the room_inventory ledger
+     * @param from First night of the range
+     * @param to Day after the last night of the range
+     * @param consumer Receives each reservation
+     * @return Number of reservations streamed
+     */
+    public long streamBookedStays(LocalDate from, LocalDate to,
+                                  Consumer<? super Reservation> consumer) throws SQLException {
+        return stream(SELECT_BOOKED_IN_RANGE, params(to, from), RESERVATION_MAPPER, consumer,
+                      "stream booked stays");
+    }
+    
+    /**
+     * Stream stays that hold their room (pending, confirmed or checked in)
+     * with at least one night in a range
+     * @param from First night of the range
+     * @param to Day after the last night of the range
+     * @param consumer Receives each reservation
+     * @return Number of reservations streamed
+     */
+    public long streamRoomHolds(LocalDate from, LocalDate to,
+                                Consumer<? super Reservation> consumer) throws SQLException {
+        return stream(SELECT_HOLDING_IN_RANGE, params(to, from), RESERVATION_MAPPER, consumer,
+                      "stream room holds");
+    }
+    
+    /**
+     * Find PENDING reservations created before a cutoff, whose hold on the
+     * room has expired
+     * @param createdBefore Cutoff time
+     * @return Reservation IDs, oldest first
+     */
+    public List<Integer> findExpiredPendingIds(LocalDateTime createdBefore) throws SQLException {
+        return queryForList(SELECT_EXPIRED_PENDING, params(createdBefore), INT_COLUMN,
+                            "find expired pending reservations");
+    }
+    
+    /**
+     * Stream reservations whose stay overlaps a date range
+     * @param startDate Range start (inclusive)
+     * @param endDate Range end (inclusive)
+     * @param consumer Receives each reservation
+     * @return Number of reservations streamed
+     */
+    public long streamByStayRange(LocalDate startDate, LocalDate endDate,
+                                  Consumer<? super Reservation> consumer) throws SQLException {
+        return stream(SELECT_BY_STAY_RANGE, params(endDate, startDate), RESERVATION_MAPPER, consumer,
+                      "stream reservations by stay range");
+    }
+    
+    /**
+     * Find one page of reservations, latest check-in first
+     * @param pageRequest Page size and cursor
+     * @return Page of reservations
+     */
+    public Page<Reservation> findPage(PageRequest pageRequest) throws SQLException {
+        return queryPage(SELECT_PAGE, null, PAGE_KEYSET, pageRequest, RESERVATION_MAPPER,
+                         "find reservations page");
+    }
+    
+    private static String statusList(Predicate<Reservation.ReservationStatus> included) {
+        return Arrays.stream(Reservation.ReservationStatus.values())
+            .filter(included)
+            .map(status -> "'" + status.name() + "'")
+            .collect(Collectors.joining(", ", "(", ")"));
     }
     
     /**
-     * Map ResultSet to Reservation object
-     */
-    private Reservation mapResultSetToReservation(ResultSet rs) throws SQLException {
-        Reservation reservation = new Reservation();
-        reservation.setReservationId(rs.getInt("reservation_id"));
-        reservation.setReservationNumber(rs.getString("reservation_number"));
-        reservation.setGuestId(rs.getInt("guest_id"));
-        reservation.setRoomId(rs.getInt("room_id"));
-        reservation.setCheckInDate(rs.getDate("check_in_date").toLocalDate());
-        reservation.setCheckOutDate(rs.getDate("check_out_date").toLocalDate());
-        reservation.setNumberOfGuests(rs.getInt("number_of_guests"));
-        reservation.setNumberOfNights(rs.getInt("number_of_nights"));
-        reservation.setTotalAmount(rs.getBigDecimal("total_amount"));
-        reservation.setDiscountAmount(rs.getBigDecimal("discount_amount"));
-        reservation.setTaxAmount(rs.getBigDecimal("tax_amount"));
-        reservation.setFinalAmount(rs.getBigDecimal("final_amount"));
-        reservation.setStatus(Reservation.ReservationStatus.valueOf(rs.getString("status")));
-        reservation.setSpecialRequests(rs.getString("special_requests"));
-        reservation.setCreatedBy(rs.getInt("created_by"));
+     * Maps reservations rows to Reservation objects by column position
+     */
+    private static final class ReservationRowMapper implements RowMapper<Reservation> {
         
-        Timestamp createdAt = rs.getTimestamp("created_at");
-        if (createdAt != null) {
-            reservation.setCreatedAt(createdAt.toLocalDateTime());
-        }
+        private final int reservationId;
+        private final int reservationNumber;
+        private final int guestId;
+        private final int roomId;
+        private final int checkInDate;
+        private final int checkOutDate;
+        private final int numberOfGuests;
+        private final int numberOfNights;
+        private final int totalAmount;
+        private final int discountAmount;
+        private final int taxAmount;
+        private final int finalAmount;
+        private final int status;
+        private final int specialRequests;
+        private final int createdBy;
+        private final int createdAt;
+        private final int updatedAt;
         
-        Timestamp updatedAt = rs.getTimestamp("updated_at");
-        if (updatedAt != null) {
-            reservation.setUpdatedAt(updatedAt.toLocalDateTime());
+        ReservationRowMapper(ResultSet rs) throws SQLException {
+            reservationId = rs.findColumn("reservation_id");
+            reservationNumber = rs.findColumn("reservation_number");
+            guestId = rs.findColumn("guest_id");
+            roomId = rs.findColumn("room_id");
+            checkInDate = rs.findColumn("check_in_date");
+            checkOutDate = rs.findColumn("check_out_date");
+            numberOfGuests = rs.findColumn("number_of_guests");
+            numberOfNights = rs.findColumn("number_of_nights");
+            totalAmount = rs.findColumn("total_amount");
+            discountAmount = rs.findColumn("discount_amount");
+            taxAmount = rs.findColumn("tax_amount");
+            finalAmount = rs.findColumn("final_amount");
+            status = rs.findColumn("status");
+            specialRequests = rs.findColumn("special_requests");
+            createdBy = rs.findColumn("created_by");
+            createdAt = rs.findColumn("created_at");
+            updatedAt = rs.findColumn("updated_at");
         }
         
-        return reservation;
+        @Override
+        public Reservation mapRow(ResultSet rs) throws SQLException {
+            Reservation reservation = new Reservation();
+            reservation.setReservationId(rs.getInt(reservationId));
+            reservation.setReservationNumber(rs.getString(reservationNumber));
+            reservation.setGuestId(rs.getInt(guestId));
+            reservation.setRoomId(rs.getInt(roomId));
+            reservation.setCheckInDate(rs.getDate(checkInDate).toLocalDate());
+            reservation.setCheckOutDate(rs.getDate(checkOutDate).toLocalDate());
+            reservation.setNumberOfGuests(rs.getInt(numberOfGuests));
+            reservation.setNumberOfNights(rs.getInt(numberOfNights));
+            reservation.setTotalAmount(rs.getBigDecimal(totalAmount));
+            reservation.setDiscountAmount(rs.getBigDecimal(discountAmount));
+            reservation.setTaxAmount(rs.getBigDecimal(taxAmount));
+            reservation.setFinalAmount(rs.getBigDecimal(finalAmount));
+            reservation.setStatus(Reservation.ReservationStatus.valueOf(rs.getString(status)));
+            reservation.setSpecialRequests(rs.getString(specialRequests));
+            reservation.setCreatedBy(rs.getInt(createdBy));
+            
+            Timestamp created = rs.getTimestamp(createdAt);
+            if (created != null) {
+                reservation.setCreatedAt(created.toLocalDateTime());
+            }
+            
+            Timestamp updated = rs.getTimestamp(updatedAt);
+            if (updated != null) {
+                reservation.setUpdatedAt(updated.toLocalDateTime());
+            }
+            
+            return reservation;
+        }
     }
 }
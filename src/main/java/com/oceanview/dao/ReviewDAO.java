@@ -1,13 +1,14 @@
 package com.oceanview.dao;
 
+import com.oceanview.config.DatabaseConfig;
 import com.oceanview.model.Review;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.sql.*;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Review DAO - Data Access Object for Review entity
@@ -61,402 +62,217 @@ public class ReviewDAO extends BaseDAO {
     private static final String COUNT_BY_RATING = 
         "SELECT COUNT(*) FROM reviews WHERE rating = ? AND status = 'APPROVED'";
     
+    // Pagination
+    private static final String SELECT_PAGE = "SELECT * FROM reviews";
+    private static final Keyset PAGE_KEYSET = Keyset.byTimestamp("created_at", "review_id");
+    
+    // Row Mapper
+    private static final RowMapper<Review> REVIEW_MAPPER = RowMapper.indexed(ReviewRowMapper::new);
+    
+    /**
+     * Constructor
+     */
+    public ReviewDAO() {
+        super();
+    }
+    
+    /**
+     * Constructor with an explicit database configuration
+     */
+    public ReviewDAO(DatabaseConfig dbConfig) {
+        super(dbConfig);
+    }
+    
     /**
      * Create a new review
      */
     public int create(Review review) throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(INSERT_REVIEW, Statement.RETURN_GENERATED_KEYS);
-            
-            stmt.setInt(1, review.getReservationId());
-            stmt.setInt(2, review.getGuestId());
-            stmt.setInt(3, review.getRating());
-            
-            if (review.getCleanlinessRating() != null) {
-                stmt.setInt(4, review.getCleanlinessRating());
-            } else {
-                stmt.setNull(4, Types.INTEGER);
-            }
-            
-            if (review.getServiceRating() != null) {
-                stmt.setInt(5, review.getServiceRating());
-            } else {
-                stmt.setNull(5, Types.INTEGER);
-            }
-            
-            if (review.getValueRating() != null) {
-                stmt.setInt(6, review.getValueRating());
-            } else {
-                stmt.setNull(6, Types.INTEGER);
-            }
-            
-            stmt.setString(7, review.getComment());
-            stmt.setString(8, review.getStatus().name());
-            
-            int affectedRows = stmt.executeUpdate();
-            
-            if (affectedRows == 0) {
-                throw new SQLException("Creating review failed, no rows affected.");
-            }
-            
-            rs = stmt.getGeneratedKeys();
-            if (rs.next()) {
-                int reviewId = rs.getInt(1);
-                logger.info("Review created successfully with ID: {}", reviewId);
-                return reviewId;
-            } else {
-                throw new SQLException("Creating review failed, no ID obtained.");
-            }
-            
-        } catch (SQLException e) {
-            logSQLException("create review", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt, rs);
-        }
+        int reviewId = insert(INSERT_REVIEW, params(
+                review.getReservationId(), review.getGuestId(), review.getRating(),
+                review.getCleanlinessRating(), review.getServiceRating(), review.getValueRating(),
+                review.getComment(), review.getStatus().name()), "create review");
+        logger.info("Review created successfully with ID: {}", reviewId);
+        return reviewId;
     }
     
     /**
      * Update existing review
      */
     public boolean update(Review review) throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(UPDATE_REVIEW);
-            
-            stmt.setInt(1, review.getRating());
-            
-            if (review.getCleanlinessRating() != null) {
-                stmt.setInt(2, review.getCleanlinessRating());
-            } else {
-                stmt.setNull(2, Types.INTEGER);
-            }
-            
-            if (review.getServiceRating() != null) {
-                stmt.setInt(3, review.getServiceRating());
-            } else {
-                stmt.setNull(3, Types.INTEGER);
-            }
-            
-            if (review.getValueRating() != null) {
-                stmt.setInt(4, review.getValueRating());
-            } else {
-                stmt.setNull(4, Types.INTEGER);
-            }
-            
-            stmt.setString(5, review.getComment());
-            stmt.setString(6, review.getStatus().name());
-            stmt.setInt(7, review.getReviewId());
-            
-            int affectedRows = stmt.executeUpdate();
-            logger.info("Review updated: ID={}, affected rows={}", review.getReviewId(), affectedRows);
-            
-            return affectedRows > 0;
-            
-        } catch (SQLException e) {
-            logSQLException("update review", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt);
-        }
+        int affectedRows = update(UPDATE_REVIEW, params(
+                review.getRating(), review.getCleanlinessRating(), review.getServiceRating(),
+                review.getValueRating(), review.getComment(), review.getStatus().name(),
+                review.getReviewId()), "update review");
+        logger.info("Review updated: ID={}, affected rows={}", review.getReviewId(), affectedRows);
+        return affectedRows > 0;
     }
     
     /**
      * Update review status
      */
     public boolean updateStatus(int reviewId, Review.ReviewStatus status) throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(UPDATE_STATUS);
-            
-            stmt.setString(1, status.name());
-            stmt.setInt(2, reviewId);
-            
-            int affectedRows = stmt.executeUpdate();
-            logger.info("Review status updated: ID={}, status={}", reviewId, status);
-            
-            return affectedRows > 0;
-            
-        } catch (SQLException e) {
-            logSQLException("update review status", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt);
-        }
+        int affectedRows = update(UPDATE_STATUS, params(status.name(), reviewId), "update review status");
+        logger.info("Review status updated: ID={}, status={}", reviewId, status);
+        return affectedRows > 0;
     }
     
     /**
      * Add response to review
      */
     public boolean addResponse(int reviewId, String response) throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(UPDATE_RESPONSE);
-            
-            stmt.setString(1, response);
-            stmt.setInt(2, reviewId);
-            
-            int affectedRows = stmt.executeUpdate();
-            logger.info("Review response added: ID={}", reviewId);
-            
-            return affectedRows > 0;
-            
-        } catch (SQLException e) {
-            logSQLException("add review response", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt);
-        }
+        int affectedRows = update(UPDATE_RESPONSE, params(response, reviewId), "add review response");
+        logger.info("Review response added: ID={}", reviewId);
+        return affectedRows > 0;
     }
     
     /**
      * Delete review
      */
     public boolean delete(int reviewId) throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(DELETE_REVIEW);
-            stmt.setInt(1, reviewId);
-            
-            int affectedRows = stmt.executeUpdate();
-            logger.info("Review deleted: ID={}, affected rows={}", reviewId, affectedRows);
-            
-            return affectedRows > 0;
-            
-        } catch (SQLException e) {
-            logSQLException("delete review", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt);
-        }
+        int affectedRows = update(DELETE_REVIEW, params(reviewId), "delete review");
+        logger.info("Review deleted: ID={}, affected rows={}", reviewId, affectedRows);
+        return affectedRows > 0;
     }
     
     /**
      * Find review by ID
      */
     public Optional<Review> findById(int reviewId) throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(SELECT_BY_ID);
-            stmt.setInt(1, reviewId);
-            
-            rs = stmt.executeQuery();
-            
-            if (rs.next()) {
-                return Optional.of(mapResultSetToReview(rs));
-            }
-            
-            return Optional.empty();
-            
-        } catch (SQLException e) {
-            logSQLException("find review by ID", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt, rs);
-        }
+        return queryForOptional(SELECT_BY_ID, params(reviewId), REVIEW_MAPPER, "find review by ID");
     }
     
     /**
      * Find reviews by guest
      */
     public List<Review> findByGuestId(int guestId) throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
-        List<Review> reviews = new ArrayList<>();
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(SELECT_BY_GUEST);
-            stmt.setInt(1, guestId);
-            rs = stmt.executeQuery();
-            
-            while (rs.next()) {
-                reviews.add(mapResultSetToReview(rs));
-            }
-            
-            logger.debug("Found {} reviews for guest ID: {}", reviews.size(), guestId);
-            return reviews;
-            
-        } catch (SQLException e) {
-            logSQLException("find reviews by guest", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt, rs);
-        }
+        List<Review> reviews = queryForList(SELECT_BY_GUEST, params(guestId), REVIEW_MAPPER,
+                                            "find reviews by guest");
+        logger.debug("Found {} reviews for guest ID: {}", reviews.size(), guestId);
+        return reviews;
     }
     
     /**
      * Find all reviews
      */
     public List<Review> findAll() throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
-        List<Review> reviews = new ArrayList<>();
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(SELECT_ALL);
-            rs = stmt.executeQuery();
-            
-            while (rs.next()) {
-                reviews.add(mapResultSetToReview(rs));
-            }
-            
-            logger.debug("Found {} reviews", reviews.size());
-            return reviews;
-            
-        } catch (SQLException e) {
-            logSQLException("find all reviews", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt, rs);
-        }
+        List<Review> reviews = queryForList(SELECT_ALL, StatementBinder.NONE, REVIEW_MAPPER,
+                                            "find all reviews");
+        logger.debug("Found {} reviews", reviews.size());
+        return reviews;
     }
     
     /**
      * Find approved reviews
      */
     public List<Review> findApprovedReviews(int limit) throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
-        List<Review> reviews = new ArrayList<>();
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(SELECT_APPROVED);
-            stmt.setInt(1, limit);
-            rs = stmt.executeQuery();
-            
-            while (rs.next()) {
-                reviews.add(mapResultSetToReview(rs));
-            }
-            
-            logger.debug("Found {} approved reviews", reviews.size());
-            return reviews;
-            
-        } catch (SQLException e) {
-            logSQLException("find approved reviews", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt, rs);
-        }
+        List<Review> reviews = queryForList(SELECT_APPROVED, params(limit), REVIEW_MAPPER,
+                                            "find approved reviews");
+        logger.debug("Found {} approved reviews", reviews.size());
+        return reviews;
     }
     
     /**
      * Find pending reviews
      */
     public List<Review> findPendingReviews() throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
-        List<Review> reviews = new ArrayList<>();
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(SELECT_BY_STATUS);
-            stmt.setString(1, Review.ReviewStatus.PENDING.name());
-            rs = stmt.executeQuery();
-            
-            while (rs.next()) {
-                reviews.add(mapResultSetToReview(rs));
-            }
-            
-            logger.debug("Found {} pending reviews", reviews.size());
-            return reviews;
-            
-        } catch (SQLException e) {
-            logSQLException("find pending reviews", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt, rs);
-        }
+        List<Review> reviews = queryForList(SELECT_BY_STATUS, params(Review.ReviewStatus.PENDING.name()),
+                                            REVIEW_MAPPER, "find pending reviews");
+        logger.debug("Found {} pending reviews", reviews.size());
+        return reviews;
     }
     
     /**
      * Get average rating
      */
     public double getAverageRating() throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(AVG_RATING);
-            rs = stmt.executeQuery();
-            
-            if (rs.next()) {
-                return rs.getDouble(1);
-            }
-            
-            return 0.0;
-            
-        } catch (SQLException e) {
-            logSQLException("get average rating", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt, rs);
-        }
+        return queryForDouble(AVG_RATING, StatementBinder.NONE, "get average rating");
     }
     
     /**
-     * Map ResultSet to Review object
+     * Stream all reviews row by row without materializing the table
+     * @param consumer Receives each review
+     * @return Number of reviews streamed
      */
-    private Review mapResultSetToReview(ResultSet rs) throws SQLException {
-        Review review = new Review();
-        review.setReviewId(rs.getInt("review_id"));
-        review.setReservationId(rs.getInt("reservation_id"));
-        review.setGuestId(rs.getInt("guest_id"));
-        review.setRating(rs.getInt("rating"));
-        
-        int cleanlinessRating = rs.getInt("cleanliness_rating");
-        if (!rs.wasNull()) {
-            review.setCleanlinessRating(cleanlinessRating);
-        }
+    public long streamAll(Consumer<? super Review> consumer) throws SQLException {
+        return stream(SELECT_ALL, StatementBinder.NONE, REVIEW_MAPPER, consumer, "stream all reviews");
+    }
+    
+    /**
+     * Find one page of reviews with the given status, newest first
+     * @param status Review status
+     * @param pageRequest Page size and cursor
+     * @return Page of reviews
+     */
+    public Page<Review> findPageByStatus(Review.ReviewStatus status, PageRequest pageRequest)
+            throws SQLException {
+        return queryPage(SELECT_PAGE, "status = ?", PAGE_KEYSET, pageRequest,
+                         REVIEW_MAPPER, "find reviews page", status.name());
+    }
+    
+    /**
+     * Maps reviews rows to Review objects by column position
+     */
+    private static final class ReviewRowMapper implements RowMapper<Review> {
         
-        int serviceRating = rs.getInt("service_rating");
-        if (!rs.wasNull()) {
-            review.setServiceRating(serviceRating);
-        }
+        private final int reviewId;
+        private final int reservationId;
+        private final int guestId;
+        private final int rating;
+        private final int cleanlinessRating;
+        private final int serviceRating;
+        private final int valueRating;
+        private final int comment;
+        private final int response;
+        private final int status;
+        private final int createdAt;
         
-        int valueRating = rs.getInt("value_rating");
-        if (!rs.wasNull()) {
-            review.setValueRating(valueRating);
+        ReviewRowMapper(ResultSet rs) throws SQLException {
+            reviewId = rs.findColumn("review_id");
+            reservationId = rs.findColumn("reservation_id");
+            guestId = rs.findColumn("guest_id");
+            rating = rs.findColumn("rating");
+            cleanlinessRating = rs.findColumn("cleanliness_rating");
+            serviceRating = rs.findColumn("service_rating");
+            valueRating = rs.findColumn("value_rating");
+            comment = rs.findColumn("comment");
+            response = rs.findColumn("response");
+            status = rs.findColumn("status");
+            createdAt = rs.findColumn("created_at");
         }
         
-        review.setComment(rs.getString("comment"));
-        review.setResponse(rs.getString("response"));
-        review.setStatus(Review.ReviewStatus.valueOf(rs.getString("status")));
-        
-        Timestamp createdAt = rs.getTimestamp("created_at");
-        if (createdAt != null) {
-            review.setCreatedAt(createdAt.toLocalDateTime());
+        @Override
+        public Review mapRow(ResultSet rs) throws SQLException {
+            Review review = new Review();
+            review.setReviewId(rs.getInt(reviewId));
+            review.setReservationId(rs.getInt(reservationId));
+            review.setGuestId(rs.getInt(guestId));
+            review.setRating(rs.getInt(rating));
+            
+            int cleanliness = rs.getInt(cleanlinessRating);
+            if (!rs.wasNull()) {
+                review.setCleanlinessRating(cleanliness);
+            }
+            
+            int service = rs.getInt(serviceRating);
+            if (!rs.wasNull()) {
+                review.setServiceRating(service);
+            }
+            
+            int value = rs.getInt(valueRating);
+            if (!rs.wasNull()) {
+                review.setValueRating(value);
+            }
+            
+            review.setComment(rs.getString(comment));
+            review.setResponse(rs.getString(response));
+            review.setStatus(Review.ReviewStatus.valueOf(rs.getString(status)));
+            
+            Timestamp created = rs.getTimestamp(createdAt);
+            if (created != null) {
+                review.setCreatedAt(created.toLocalDateTime());
+            }
+            
+            return review;
         }
-        
-        return review;
     }
 }
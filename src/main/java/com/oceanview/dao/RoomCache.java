@@ -0,0 +1,216 @@
+package com.oceanview.dao;
+
+import com.oceanview.config.AppConfig;
+import com.oceanview.model.Room;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Room Cache - Singleton Pattern
+ * Read-through cache of the room catalog in front of RoomDAO.
+ * 
+ * The whole catalog is loaded with one query into an immutable snapshot
+ * indexed by id, room number and type, and the snapshot reference is
+ * swapped atomically, so readers never lock and never see a half-built
+ * catalog. Every room write through RoomDAO bumps a global version, once
+ * straight away and once after its unit of work commits; a snapshot whose
+ * version is out of date is reloaded on the next read. Edits made outside
+ * the application are picked up when the snapshot is older than
+ * roomCache.ttlSeconds. A miss inside a unit of work reads through on the
+ * transaction's connection and is not published, since it may include
+ * uncommitted rows that are later rolled back.
+ * 
+ * Rooms are mutable, so every read returns copies.
+ * 
+ * @author Ocean View Resort Development Team
+ * @version 1.0.0
+ */
+public class RoomCache {
+    
+    private static final Logger logger = LoggerFactory.getLogger(RoomCache.class);
+    private static final AtomicLong version = new AtomicLong();
+    private static RoomCache instance;
+    
+    private final RoomDAO roomDAO;
+    private final LongSupplier clock;
+    private final long ttlMillis;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    
+    private volatile Snapshot snapshot;
+    
+    /**
+     * Constructor
+     * @param roomDAO DAO the catalog is loaded from
+     * @param clock Monotonic clock in milliseconds
+     * @param ttlMillis Maximum age of a snapshot
+     */
+    RoomCache(RoomDAO roomDAO, LongSupplier clock, long ttlMillis) {
+        this.roomDAO = roomDAO;
+        this.clock = clock;
+        this.ttlMillis = ttlMillis;
+    }
+    
+    /**
+     * Get singleton instance
+     * @return RoomCache instance
+     */
+    public static synchronized RoomCache getInstance() {
+        if (instance == null) {
+            instance = new RoomCache(new RoomDAO(), () -> System.nanoTime() / 1_000_000,
+                                     AppConfig.getInstance().getRoomCacheTtlSeconds() * 1000L);
+        }
+        return instance;
+    }
+    
+    /**
+     * Mark every cached catalog out of date after a room write. Called by
+     * RoomDAO; a write inside a unit of work invalidates again after commit
+     * so a reload that raced the transaction is not kept.
+     */
+    static void roomsChanged() {
+        version.incrementAndGet();
+        if (TransactionTemplate.isActive()) {
+            TransactionTemplate.afterCommit(version::incrementAndGet);
+        }
+    }
+    
+    /**
+     * Find room by ID
+     */
+    public Optional<Room> findById(int roomId) throws SQLException {
+        return Optional.ofNullable(current().byId.get(roomId)).map(Room::new);
+    }
+    
+    /**
+     * Find room by room number
+     */
+    public Optional<Room> findByRoomNumber(String roomNumber) throws SQLException {
+        return Optional.ofNullable(current().byNumber.get(roomNumber)).map(Room::new);
+    }
+    
+    /**
+     * Find all rooms, ordered by room number
+     */
+    public List<Room> findAll() throws SQLException {
+        return copies(current().all);
+    }
+    
+    /**
+     * Find rooms by type, ordered by room number
+     */
+    public List<Room> findByType(Room.RoomType roomType) throws SQLException {
+        return copies(current().byType.getOrDefault(roomType, List.of()));
+    }
+    
+    /**
+     * Find rooms whose status is AVAILABLE, ordered by room number
+     */
+    public List<Room> findAvailableRooms() throws SQLException {
+        List<Room> rooms = new ArrayList<>();
+        for (Room room : current().all) {
+            if (room.getStatus() == Room.RoomStatus.AVAILABLE) {
+                rooms.add(new Room(room));
+            }
+        }
+        return rooms;
+    }
+    
+    /**
+     * Drop the current snapshot so the next read reloads the catalog
+     */
+    public void invalidate() {
+        snapshot = null;
+    }
+    
+    /**
+     * @return Reads answered from the snapshot
+     */
+    public long getHits() {
+        return hits.get();
+    }
+    
+    /**
+     * @return Reads that had to reload the catalog
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+    
+    private Snapshot current() throws SQLException {
+        Snapshot current = snapshot;
+        if (isFresh(current)) {
+            hits.incrementAndGet();
+            return current;
+        }
+        if (TransactionTemplate.isActive()) {
+            // Loaded on the unit of work's connection, so it may see writes that later roll back
+            misses.incrementAndGet();
+            return new Snapshot(roomDAO.findAll(), version.get(), clock.getAsLong());
+        }
+        return reload();
+    }
+    
+    private synchronized Snapshot reload() throws SQLException {
+        Snapshot current = snapshot;
+        if (isFresh(current)) {
+            // Another thread reloaded while this one waited
+            hits.incrementAndGet();
+            return current;
+        }
+        misses.incrementAndGet();
+        long loadedVersion = version.get();
+        Snapshot fresh = new Snapshot(roomDAO.findAll(), loadedVersion, clock.getAsLong());
+        snapshot = fresh;
+        logger.debug("Room catalog loaded: {} rooms", fresh.all.size());
+        return fresh;
+    }
+    
+    private boolean isFresh(Snapshot current) {
+        return current != null && current.version == version.get()
+            && clock.getAsLong() - current.loadedAt < ttlMillis;
+    }
+    
+    private static List<Room> copies(List<Room> rooms) {
+        List<Room> copies = new ArrayList<>(rooms.size());
+        for (Room room : rooms) {
+            copies.add(new Room(room));
+        }
+        return copies;
+    }
+    
+    /**
+     * Immutable view of the catalog at one version
+     */
+    private static final class Snapshot {
+        
+        private final List<Room> all;
+        private final Map<Integer, Room> byId = new HashMap<>();
+        private final Map<String, Room> byNumber = new HashMap<>();
+        private final Map<Room.RoomType, List<Room>> byType = new EnumMap<>(Room.RoomType.class);
+        private final long version;
+        private final long loadedAt;
+        
+        Snapshot(List<Room> rooms, long version, long loadedAt) {
+            this.all = Collections.unmodifiableList(rooms);
+            this.version = version;
+            this.loadedAt = loadedAt;
+            for (Room room : rooms) {
+                byId.put(room.getRoomId(), room);
+                byNumber.put(room.getRoomNumber(), room);
+                byType.computeIfAbsent(room.getRoomType(), type -> new ArrayList<>()).add(room);
+            }
+        }
+    }
+}
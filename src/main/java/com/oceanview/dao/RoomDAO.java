@@ -1,5 +1,7 @@
 package com.oceanview.dao;
 
+import com.oceanview.config.DatabaseConfig;
+import com.oceanview.model.GroupTotal;
 import com.oceanview.model.Room;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -7,7 +9,6 @@ import org.slf4j.LoggerFactory;
 import java.math.BigDecimal;
 import java.sql.*;
 import java.time.LocalDate;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -59,7 +60,7 @@ public class RoomDAO extends BaseDAO {
         "SELECT r.* FROM rooms r WHERE r.status = 'AVAILABLE' " +
         "AND r.room_id NOT IN ( " +
         "  SELECT res.room_id FROM reservations res " +
-        "  WHERE res.status IN ('CONFIRMED', 'CHECKED_IN') " +
+        "  WHERE res.status IN " + ReservationDAO.ROOM_HOLDING_STATUSES + " " +
         "  AND (? < res.check_out_date AND ? > res.check_in_date) " +
         ") ORDER BY r.room_number";
     
@@ -67,412 +68,247 @@ public class RoomDAO extends BaseDAO {
         "SELECT r.* FROM rooms r WHERE r.status = 'AVAILABLE' AND r.room_type = ? " +
         "AND r.room_id NOT IN ( " +
         "  SELECT res.room_id FROM reservations res " +
-        "  WHERE res.status IN ('CONFIRMED', 'CHECKED_IN') " +
+        "  WHERE res.status IN " + ReservationDAO.ROOM_HOLDING_STATUSES + " " +
         "  AND (? < res.check_out_date AND ? > res.check_in_date) " +
         ") ORDER BY r.room_number";
     
     private static final String COUNT_BY_STATUS = 
         "SELECT COUNT(*) FROM rooms WHERE status = ?";
     
+    private static final String COUNT_ALL = 
+        "SELECT COUNT(*) FROM rooms";
+    
+    // Aggregate Queries
+    private static final String COUNT_GROUP_BY_STATUS = 
+        "SELECT status AS group_key, COUNT(*) AS row_count, 0 AS amount_total " +
+        "FROM rooms GROUP BY status";
+    
+    private static final String SUM_PRICE_GROUP_BY_TYPE = 
+        "SELECT room_type AS group_key, COUNT(*) AS row_count, " +
+        "COALESCE(SUM(price_per_night), 0) AS amount_total " +
+        "FROM rooms GROUP BY room_type";
+    
+    // Row Mapper
+    private static final RowMapper<Room> ROOM_MAPPER = RowMapper.indexed(RoomRowMapper::new);
+    
+    /**
+     * Constructor
+     */
+    public RoomDAO() {
+        super();
+    }
+    
+    /**
+     * Constructor with an explicit database configuration
+     */
+    public RoomDAO(DatabaseConfig dbConfig) {
+        super(dbConfig);
+    }
+    
     /**
      * Create a new room
      */
     public int create(Room room) throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(INSERT_ROOM, Statement.RETURN_GENERATED_KEYS);
-            
-            stmt.setString(1, room.getRoomNumber());
-            stmt.setString(2, room.getRoomType().name());
-            stmt.setInt(3, room.getFloor());
-            stmt.setInt(4, room.getCapacity());
-            stmt.setBigDecimal(5, room.getPricePerNight());
-            stmt.setString(6, room.getDescription());
-            stmt.setString(7, room.getAmenities());
-            stmt.setString(8, room.getImageUrl());
-            stmt.setString(9, room.getStatus().name());
-            
-            int affectedRows = stmt.executeUpdate();
-            
-            if (affectedRows == 0) {
-                throw new SQLException("Creating room failed, no rows affected.");
-            }
-            
-            rs = stmt.getGeneratedKeys();
-            if (rs.next()) {
-                int roomId = rs.getInt(1);
-                logger.info("Room created successfully with ID: {}", roomId);
-                return roomId;
-            } else {
-                throw new SQLException("Creating room failed, no ID obtained.");
-            }
-            
-        } catch (SQLException e) {
-            logSQLException("create room", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt, rs);
-        }
+        int roomId = insert(INSERT_ROOM, params(
+                room.getRoomNumber(), room.getRoomType().name(), room.getFloor(), room.getCapacity(),
+                room.getPricePerNight(), room.getDescription(), room.getAmenities(), room.getImageUrl(),
+                room.getStatus().name()), "create room");
+        RoomCache.roomsChanged();
+        logger.info("Room created successfully with ID: {}", roomId);
+        return roomId;
     }
     
     /**
      * Update existing room
      */
     public boolean update(Room room) throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(UPDATE_ROOM);
-            
-            stmt.setString(1, room.getRoomNumber());
-            stmt.setString(2, room.getRoomType().name());
-            stmt.setInt(3, room.getFloor());
-            stmt.setInt(4, room.getCapacity());
-            stmt.setBigDecimal(5, room.getPricePerNight());
-            stmt.setString(6, room.getDescription());
-            stmt.setString(7, room.getAmenities());
-            stmt.setString(8, room.getImageUrl());
-            stmt.setString(9, room.getStatus().name());
-            stmt.setInt(10, room.getRoomId());
-            
-            int affectedRows = stmt.executeUpdate();
-            logger.info("Room updated: ID={}, affected rows={}", room.getRoomId(), affectedRows);
-            
-            return affectedRows > 0;
-            
-        } catch (SQLException e) {
-            logSQLException("update room", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt);
-        }
+        int affectedRows = update(UPDATE_ROOM, params(
+                room.getRoomNumber(), room.getRoomType().name(), room.getFloor(), room.getCapacity(),
+                room.getPricePerNight(), room.getDescription(), room.getAmenities(), room.getImageUrl(),
+                room.getStatus().name(), room.getRoomId()), "update room");
+        RoomCache.roomsChanged();
+        logger.info("Room updated: ID={}, affected rows={}", room.getRoomId(), affectedRows);
+        return affectedRows > 0;
     }
     
     /**
      * Update room status
      */
     public boolean updateStatus(int roomId, Room.RoomStatus status) throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(UPDATE_STATUS);
-            
-            stmt.setString(1, status.name());
-            stmt.setInt(2, roomId);
-            
-            int affectedRows = stmt.executeUpdate();
-            logger.info("Room status updated: ID={}, status={}", roomId, status);
-            
-            return affectedRows > 0;
-            
-        } catch (SQLException e) {
-            logSQLException("update room status", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt);
-        }
+        int affectedRows = update(UPDATE_STATUS, params(status.name(), roomId), "update room status");
+        RoomCache.roomsChanged();
+        logger.info("Room status updated: ID={}, status={}", roomId, status);
+        return affectedRows > 0;
     }
     
     /**
      * Delete room
      */
     public boolean delete(int roomId) throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(DELETE_ROOM);
-            stmt.setInt(1, roomId);
-            
-            int affectedRows = stmt.executeUpdate();
-            logger.info("Room deleted: ID={}, affected rows={}", roomId, affectedRows);
-            
-            return affectedRows > 0;
-            
-        } catch (SQLException e) {
-            logSQLException("delete room", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt);
-        }
+        int affectedRows = update(DELETE_ROOM, params(roomId), "delete room");
+        RoomCache.roomsChanged();
+        logger.info("Room deleted: ID={}, affected rows={}", roomId, affectedRows);
+        return affectedRows > 0;
     }
     
     /**
      * Find room by ID
      */
     public Optional<Room> findById(int roomId) throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(SELECT_BY_ID);
-            stmt.setInt(1, roomId);
-            
-            rs = stmt.executeQuery();
-            
-            if (rs.next()) {
-                return Optional.of(mapResultSetToRoom(rs));
-            }
-            
-            return Optional.empty();
-            
-        } catch (SQLException e) {
-            logSQLException("find room by ID", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt, rs);
-        }
+        return queryForOptional(SELECT_BY_ID, params(roomId), ROOM_MAPPER, "find room by ID");
     }
     
     /**
      * Find room by room number
      */
     public Optional<Room> findByRoomNumber(String roomNumber) throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(SELECT_BY_NUMBER);
-            stmt.setString(1, roomNumber);
-            
-            rs = stmt.executeQuery();
-            
-            if (rs.next()) {
-                return Optional.of(mapResultSetToRoom(rs));
-            }
-            
-            return Optional.empty();
-            
-        } catch (SQLException e) {
-            logSQLException("find room by number", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt, rs);
-        }
+        return queryForOptional(SELECT_BY_NUMBER, params(roomNumber), ROOM_MAPPER, "find room by number");
     }
     
     /**
      * Find all rooms
      */
     public List<Room> findAll() throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
-        List<Room> rooms = new ArrayList<>();
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(SELECT_ALL);
-            rs = stmt.executeQuery();
-            
-            while (rs.next()) {
-                rooms.add(mapResultSetToRoom(rs));
-            }
-            
-            logger.debug("Found {} rooms", rooms.size());
-            return rooms;
-            
-        } catch (SQLException e) {
-            logSQLException("find all rooms", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt, rs);
-        }
+        List<Room> rooms = queryForList(SELECT_ALL, StatementBinder.NONE, ROOM_MAPPER, "find all rooms");
+        logger.debug("Found {} rooms", rooms.size());
+        return rooms;
     }
     
     /**
      * Find rooms by type
      */
     public List<Room> findByType(Room.RoomType roomType) throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
-        List<Room> rooms = new ArrayList<>();
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(SELECT_BY_TYPE);
-            stmt.setString(1, roomType.name());
-            rs = stmt.executeQuery();
-            
-            while (rs.next()) {
-                rooms.add(mapResultSetToRoom(rs));
-            }
-            
-            logger.debug("Found {} rooms of type {}", rooms.size(), roomType);
-            return rooms;
-            
-        } catch (SQLException e) {
-            logSQLException("find rooms by type", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt, rs);
-        }
+        List<Room> rooms = queryForList(SELECT_BY_TYPE, params(roomType.name()), ROOM_MAPPER,
+                                        "find rooms by type");
+        logger.debug("Found {} rooms of type {}", rooms.size(), roomType);
+        return rooms;
     }
     
     /**
      * Find available rooms
      */
     public List<Room> findAvailableRooms() throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
-        List<Room> rooms = new ArrayList<>();
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(SELECT_AVAILABLE);
-            rs = stmt.executeQuery();
-            
-            while (rs.next()) {
-                rooms.add(mapResultSetToRoom(rs));
-            }
-            
-            logger.debug("Found {} available rooms", rooms.size());
-            return rooms;
-            
-        } catch (SQLException e) {
-            logSQLException("find available rooms", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt, rs);
-        }
+        List<Room> rooms = queryForList(SELECT_AVAILABLE, StatementBinder.NONE, ROOM_MAPPER,
+                                        "find available rooms");
+        logger.debug("Found {} available rooms", rooms.size());
+        return rooms;
     }
     
     /**
      * Find available rooms for specific dates
      */
     public List<Room> findAvailableRoomsByDate(LocalDate checkIn, LocalDate checkOut) throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
-        List<Room> rooms = new ArrayList<>();
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(SELECT_AVAILABLE_BY_DATE);
-            stmt.setDate(1, Date.valueOf(checkIn));
-            stmt.setDate(2, Date.valueOf(checkOut));
-            rs = stmt.executeQuery();
-            
-            while (rs.next()) {
-                rooms.add(mapResultSetToRoom(rs));
-            }
-            
-            logger.debug("Found {} available rooms for dates {} to {}", 
-                        rooms.size(), checkIn, checkOut);
-            return rooms;
-            
-        } catch (SQLException e) {
-            logSQLException("find available rooms by date", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt, rs);
-        }
+        List<Room> rooms = queryForList(SELECT_AVAILABLE_BY_DATE, params(checkIn, checkOut), ROOM_MAPPER,
+                                        "find available rooms by date");
+        logger.debug("Found {} available rooms for dates {} to {}",
+                    rooms.size(), checkIn, checkOut);
+        return rooms;
     }
     
     /**
      * Find available rooms by type and date
      */
-    public List<Room> findAvailableRoomsByTypeAndDate(Room.RoomType roomType, 
-                                                       LocalDate checkIn, 
+    public List<Room> findAvailableRoomsByTypeAndDate(Room.RoomType roomType,
+                                                       LocalDate checkIn,
                                                        LocalDate checkOut) throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
-        List<Room> rooms = new ArrayList<>();
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(SELECT_AVAILABLE_BY_TYPE_AND_DATE);
-            stmt.setString(1, roomType.name());
-            stmt.setDate(2, Date.valueOf(checkIn));
-            stmt.setDate(3, Date.valueOf(checkOut));
-            rs = stmt.executeQuery();
-            
-            while (rs.next()) {
-                rooms.add(mapResultSetToRoom(rs));
-            }
-            
-            logger.debug("Found {} available {} rooms for dates {} to {}", 
-                        rooms.size(), roomType, checkIn, checkOut);
-            return rooms;
-            
-        } catch (SQLException e) {
-            logSQLException("find available rooms by type and date", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt, rs);
-        }
+        List<Room> rooms = queryForList(SELECT_AVAILABLE_BY_TYPE_AND_DATE,
+                                        params(roomType.name(), checkIn, checkOut), ROOM_MAPPER,
+                                        "find available rooms by type and date");
+        logger.debug("Found {} available {} rooms for dates {} to {}",
+                    rooms.size(), roomType, checkIn, checkOut);
+        return rooms;
     }
     
     /**
      * Count rooms by status
      */
     public int countByStatus(Room.RoomStatus status) throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(COUNT_BY_STATUS);
-            stmt.setString(1, status.name());
-            rs = stmt.executeQuery();
-            
-            if (rs.next()) {
-                return rs.getInt(1);
-            }
-            
-            return 0;
-            
-        } catch (SQLException e) {
-            logSQLException("count rooms by status", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt, rs);
-        }
+        return queryForInt(COUNT_BY_STATUS, params(status.name()), "count rooms by status");
+    }
+    
+    /**
+     * Count all rooms
+     */
+    public int count() throws SQLException {
+        return queryForInt(COUNT_ALL, StatementBinder.NONE, "count rooms");
+    }
+    
+    /**
+     * Count rooms grouped by status
+     * @return Rows keyed by room status
+     */
+    public List<GroupTotal> countGroupedByStatus() throws SQLException {
+        return queryForList(COUNT_GROUP_BY_STATUS, StatementBinder.NONE, GROUP_TOTAL_MAPPER,
+                            "count rooms grouped by status");
+    }
+    
+    /**
+     * Count rooms and sum nightly prices grouped by room type
+     * @return Rows keyed by room type; amount holds the summed price per night
+     */
+    public List<GroupTotal> summarizeByType() throws SQLException {
+        return queryForList(SUM_PRICE_GROUP_BY_TYPE, StatementBinder.NONE, GROUP_TOTAL_MAPPER,
+                            "summarize rooms by type");
     }
     
     /**
-     * Map ResultSet to Room object
+     * Maps rooms rows to Room objects by column position
      */
-    private Room mapResultSetToRoom(ResultSet rs) throws SQLException {
-        Room room = new Room();
-        room.setRoomId(rs.getInt("room_id"));
-        room.setRoomNumber(rs.getString("room_number"));
-        room.setRoomType(Room.RoomType.valueOf(rs.getString("room_type")));
-        room.setFloor(rs.getInt("floor"));
-        room.setCapacity(rs.getInt("capacity"));
-        room.setPricePerNight(rs.getBigDecimal("price_per_night"));
-        room.setDescription(rs.getString("description"));
-        room.setAmenities(rs.getString("amenities"));
-        room.setImageUrl(rs.getString("image_url"));
-        room.setStatus(Room.RoomStatus.valueOf(rs.getString("status")));
+    private static final class RoomRowMapper implements RowMapper<Room> {
         
-        Timestamp createdAt = rs.getTimestamp("created_at");
-        if (createdAt != null) {
-            room.setCreatedAt(createdAt.toLocalDateTime());
-        }
+        private final int roomId;
+        private final int roomNumber;
+        private final int roomType;
+        private final int floor;
+        private final int capacity;
+        private final int pricePerNight;
+        private final int description;
+        private final int amenities;
+        private final int imageUrl;
+        private final int status;
+        private final int createdAt;
+        private final int updatedAt;
         
-        Timestamp updatedAt = rs.getTimestamp("updated_at");
-        if (updatedAt != null) {
-            room.setUpdatedAt(updatedAt.toLocalDateTime());
+        RoomRowMapper(ResultSet rs) throws SQLException {
+            roomId = rs.findColumn("room_id");
+            roomNumber = rs.findColumn("room_number");
+            roomType = rs.findColumn("room_type");
+            floor = rs.findColumn("floor");
+            capacity = rs.findColumn("capacity");
+            pricePerNight = rs.findColumn("price_per_night");
+            description = rs.findColumn("description");
+            amenities = rs.findColumn("amenities");
+            imageUrl = rs.findColumn("image_url");
+            status = rs.findColumn("status");
+            createdAt = rs.findColumn("created_at");
+            updatedAt = rs.findColumn("updated_at");
         }
         
-        return room;
+        @Override
+        public Room mapRow(ResultSet rs) throws SQLException {
+            Room room = new Room();
+            room.setRoomId(rs.getInt(roomId));
+            room.setRoomNumber(rs.getString(roomNumber));
+            room.setRoomType(Room.RoomType.valueOf(rs.getString(roomType)));
+            room.setFloor(rs.getInt(floor));
+            room.setCapacity(rs.getInt(capacity));
+            room.setPricePerNight(rs.getBigDecimal(pricePerNight));
+            room.setDescription(rs.getString(description));
+            room.setAmenities(rs.getString(amenities));
+            room.setImageUrl(rs.getString(imageUrl));
+            room.setStatus(Room.RoomStatus.valueOf(rs.getString(status)));
+            
+            Timestamp created = rs.getTimestamp(createdAt);
+            if (created != null) {
+                room.setCreatedAt(created.toLocalDateTime());
+            }
+            
+            Timestamp updated = rs.getTimestamp(updatedAt);
+            if (updated != null) {
+                room.setUpdatedAt(updated.toLocalDateTime());
+            }
+            
+            return room;
+        }
     }
 }
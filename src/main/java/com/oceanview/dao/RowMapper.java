@@ -0,0 +1,63 @@
+package com.oceanview.dao;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Row Mapper - Maps the current row of a ResultSet to an object
+ * 
+ * @param <T> Mapped type
+ * @author Ocean View Resort Development Team
+ * @version 1.0.0
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+    
+    /**
+     * Map the current row
+     * @param rs ResultSet positioned on a row
+     * @return Mapped object
+     * @throws SQLException if a column cannot be read
+     */
+    T mapRow(ResultSet rs) throws SQLException;
+    
+    /**
+     * Prepare the mapper for a result set before its first row is read.
+     * Mappers that read columns by label return a copy with the column
+     * indexes already resolved, so each row is read by position only.
+     * @param rs ResultSet about to be mapped
+     * @return Mapper to use for every row of this result set
+     * @throws SQLException if a column cannot be found
+     */
+    default RowMapper<T> forResultSet(ResultSet rs) throws SQLException {
+        return this;
+    }
+    
+    /**
+     * Create a mapper that resolves its column indexes once per result set
+     * @param factory Builds a positional mapper from the result set metadata
+     * @return Mapper
+     */
+    static <T> RowMapper<T> indexed(Factory<T> factory) {
+        return new RowMapper<T>() {
+            @Override
+            public T mapRow(ResultSet rs) throws SQLException {
+                // Unprepared use still works, it just resolves the columns for this row
+                return factory.create(rs).mapRow(rs);
+            }
+            
+            @Override
+            public RowMapper<T> forResultSet(ResultSet rs) throws SQLException {
+                return factory.create(rs);
+            }
+        };
+    }
+    
+    /**
+     * Builds a positional mapper for a result set
+     */
+    @FunctionalInterface
+    interface Factory<T> {
+        RowMapper<T> create(ResultSet rs) throws SQLException;
+    }
+}
@@ -0,0 +1,74 @@
+package com.oceanview.dao;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Statement Binder - Binds parameters to a PreparedStatement
+ * 
+ * @author Ocean View Resort Development Team
+ * @version 1.0.0
+ */
+@FunctionalInterface
+public interface StatementBinder {
+    
+    /**
+     * Binder for statements without parameters
+     */
+    StatementBinder NONE = stmt -> { };
+    
+    /**
+     * Bind parameters
+     * @param stmt PreparedStatement to bind
+     * @throws SQLException if binding fails
+     */
+    void bind(PreparedStatement stmt) throws SQLException;
+    
+    /**
+     * Binder for positional parameters.
+     * LocalDate and LocalDateTime are bound as DATE and TIMESTAMP, enums by
+     * name and null as SQL NULL; everything else goes through setObject.
+     * @param values Parameter values in placeholder order
+     * @return Binder
+     */
+    static StatementBinder of(Object... values) {
+        if (values.length == 0) {
+            return NONE;
+        }
+        return stmt -> {
+            for (int i = 0; i < values.length; i++) {
+                setParameter(stmt, i + 1, values[i]);
+            }
+        };
+    }
+    
+    /**
+     * Bind a single parameter value
+     * @param stmt PreparedStatement
+     * @param index Parameter index (1-based)
+     * @param value Value, may be null
+     * @throws SQLException if binding fails
+     */
+    static void setParameter(PreparedStatement stmt, int index, Object value) throws SQLException {
+        if (value == null) {
+            stmt.setNull(index, Types.NULL);
+        } else if (value instanceof String) {
+            stmt.setString(index, (String) value);
+        } else if (value instanceof Integer) {
+            stmt.setInt(index, (Integer) value);
+        } else if (value instanceof LocalDate) {
+            stmt.setDate(index, Date.valueOf((LocalDate) value));
+        } else if (value instanceof LocalDateTime) {
+            stmt.setTimestamp(index, Timestamp.valueOf((LocalDateTime) value));
+        } else if (value instanceof Enum) {
+            stmt.setString(index, ((Enum<?>) value).name());
+        } else {
+            stmt.setObject(index, value);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.oceanview.dao;
+
+import java.sql.SQLException;
+
+/**
+ * Statement Listener - Receives timing for every statement run through BaseDAO
+ * Listeners are called on the request thread after the statement finished,
+ * so implementations must be fast and thread-safe.
+ * 
+ * @author Ocean View Resort Development Team
+ * @version 1.0.0
+ */
+@FunctionalInterface
+public interface StatementListener {
+    
+    /**
+     * Called once per executed statement
+     * @param operation Operation name, as used for error logging
+     * @param sql SQL text
+     * @param elapsedNanos Wall time from borrowing the connection to the last row
+     * @param rows Rows returned or affected
+     * @param failure Exception thrown by the statement, or null on success
+     */
+    void statementExecuted(String operation, String sql, long elapsedNanos, long rows, SQLException failure);
+}
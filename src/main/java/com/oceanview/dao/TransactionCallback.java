@@ -0,0 +1,23 @@
+package com.oceanview.dao;
+
+import java.sql.SQLException;
+
+/**
+ * Transaction Callback - Work run inside a {@link TransactionTemplate}
+ * Every DAO call made from the callback on the same thread joins the
+ * template's connection and transaction.
+ * 
+ * @param <T> Result type
+ * @author Ocean View Resort Development Team
+ * @version 1.0.0
+ */
+@FunctionalInterface
+public interface TransactionCallback<T> {
+    
+    /**
+     * Do the transactional work
+     * @return Result handed back by {@link TransactionTemplate#execute}
+     * @throws SQLException to roll the transaction back
+     */
+    T doInTransaction() throws SQLException;
+}
@@ -0,0 +1,174 @@
+package com.oceanview.dao;
+
+import com.oceanview.config.DatabaseConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Transaction Template - Unit of work spanning several DAO calls
+ * Borrows one pooled connection, binds it to the current thread and runs
+ * the callback in a single transaction. BaseDAO hands the bound connection
+ * to every DAO using the same DatabaseConfig and leaves closing, committing
+ * and rolling back to the template. The work is committed when the callback
+ * returns and rolled back when it throws. A nested execute on the same
+ * thread joins the outer unit of work. Work that must only happen once the
+ * data is durable, such as updating in-memory caches, is registered with
+ * {@link #afterCommit} and runs after the outermost commit.
+ * 
+ * @author Ocean View Resort Development Team
+ * @version 1.0.0
+ */
+public class TransactionTemplate {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TransactionTemplate.class);
+    private static final ThreadLocal<UnitOfWork> currentUnit = new ThreadLocal<>();
+    
+    private final DatabaseConfig dbConfig;
+    
+    /**
+     * Constructor
+     */
+    public TransactionTemplate() {
+        this(DatabaseConfig.getInstance());
+    }
+    
+    /**
+     * Constructor with an explicit database configuration
+     * @param dbConfig Database configuration
+     */
+    public TransactionTemplate(DatabaseConfig dbConfig) {
+        this.dbConfig = dbConfig;
+    }
+    
+    /**
+     * Run the callback as one unit of work
+     * @param callback Transactional work
+     * @return Callback result
+     * @throws SQLException if the callback, the commit or the connection fails
+     */
+    public <T> T execute(TransactionCallback<T> callback) throws SQLException {
+        UnitOfWork outer = currentUnit.get();
+        if (outer != null) {
+            if (outer.dbConfig != dbConfig) {
+                throw new IllegalStateException("A unit of work on another database is already active");
+            }
+            return callback.doInTransaction();
+        }
+        
+        Connection conn = dbConfig.getConnection();
+        UnitOfWork unit = new UnitOfWork(dbConfig, conn);
+        currentUnit.set(unit);
+        T result;
+        try {
+            conn.setAutoCommit(false);
+            result = callback.doInTransaction();
+            conn.commit();
+            logger.debug("Unit of work committed");
+        
+        } catch (Throwable t) {
+            rollback(conn);
+            throw t;
+        } finally {
+            currentUnit.remove();
+            release(conn);
+        }
+        unit.runAfterCommit();
+        return result;
+    }
+    
+    /**
+     * Run an action once the current unit of work has committed. Outside a
+     * unit of work the action runs immediately; if the unit rolls back it
+     * never runs. A failing action is logged and does not affect the others.
+     * @param action Action to run after commit
+     */
+    public static void afterCommit(Runnable action) {
+        UnitOfWork unit = currentUnit.get();
+        if (unit == null) {
+            runSafely(action);
+        } else {
+            unit.afterCommit.add(action);
+        }
+    }
+    
+    /**
+     * Whether a unit of work is active on the current thread
+     * @return true inside {@link #execute}
+     */
+    public static boolean isActive() {
+        return currentUnit.get() != null;
+    }
+    
+    /**
+     * Connection bound to the current thread for the given configuration
+     * @return Bound connection, or null outside a unit of work
+     */
+    static Connection boundConnection(DatabaseConfig dbConfig) {
+        UnitOfWork unit = currentUnit.get();
+        return unit != null && unit.dbConfig == dbConfig ? unit.connection : null;
+    }
+    
+    /**
+     * Whether the connection belongs to the current thread's unit of work
+     */
+    static boolean isBound(Connection conn) {
+        UnitOfWork unit = currentUnit.get();
+        return unit != null && unit.connection == conn;
+    }
+    
+    private static void runSafely(Runnable action) {
+        try {
+            action.run();
+        } catch (RuntimeException e) {
+            logger.error("After-commit action failed", e);
+        }
+    }
+    
+    private void rollback(Connection conn) {
+        try {
+            conn.rollback();
+            logger.debug("Unit of work rolled back");
+        } catch (SQLException e) {
+            logger.error("Error rolling back unit of work", e);
+        }
+    }
+    
+    private void release(Connection conn) {
+        try {
+            conn.setAutoCommit(true);
+        } catch (SQLException e) {
+            logger.warn("Could not restore auto-commit", e);
+        }
+        try {
+            conn.close();
+        } catch (SQLException e) {
+            logger.error("Error closing connection", e);
+        }
+    }
+    
+    /**
+     * Connection and configuration of an active unit of work
+     */
+    private static final class UnitOfWork {
+        
+        private final DatabaseConfig dbConfig;
+        private final Connection connection;
+        private final List<Runnable> afterCommit = new ArrayList<>();
+        
+        UnitOfWork(DatabaseConfig dbConfig, Connection connection) {
+            this.dbConfig = dbConfig;
+            this.connection = connection;
+        }
+        
+        void runAfterCommit() {
+            for (Runnable action : afterCommit) {
+                runSafely(action);
+            }
+        }
+    }
+}
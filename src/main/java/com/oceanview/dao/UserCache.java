@@ -0,0 +1,329 @@
+package com.oceanview.dao;
+
+import com.oceanview.config.AppConfig;
+import com.oceanview.model.User;
+import com.oceanview.model.UserPrincipal;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * User Cache - Singleton Pattern
+ * Bounded read-through cache of users for the login and request filter path.
+ * 
+ * Entries are keyed by user ID and reachable by username or email. Hits are
+ * served from concurrent maps without taking a lock; only inserts, eviction
+ * and invalidation lock the cache. Recency is approximate: a hit marks the
+ * entry with the current insert generation, and once the cache grows beyond
+ * userCache.maxEntries the least recently used tenth is dropped in one pass.
+ * An entry is served for at most userCache.ttlSeconds, which bounds how long
+ * edits made outside the application can go unnoticed. UserDAO.update,
+ * updatePassword and delete stamp the user as changed (again after commit
+ * inside a unit of work); an entry loaded before the stamp is never served.
+ * A stamp is kept for one TTL, after which every entry it could apply to
+ * has expired anyway. Logins that match no user are not cached, and
+ * neither are users loaded inside a unit of work, whose connection may
+ * see changes that are later rolled back.
+ * 
+ * Every read returns a copy, or the immutable principal.
+ * 
+ * @author Ocean View Resort Development Team
+ * @version 1.0.0
+ */
+public class UserCache {
+    
+    private static final Logger logger = LoggerFactory.getLogger(UserCache.class);
+    private static final AtomicLong sequence = new AtomicLong();
+    private static final Set<UserCache> caches = Collections.newSetFromMap(new WeakHashMap<>());
+    private static UserCache instance;
+    
+    private final UserDAO userDAO;
+    private final LongSupplier clock;
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final AtomicLong generation = new AtomicLong();
+    private final ConcurrentMap<Integer, Change> changes = new ConcurrentHashMap<>();
+    
+    // Read without locking, written under this
+    private final ConcurrentMap<Integer, CachedUser> entries = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Integer> logins = new ConcurrentHashMap<>();
+    
+    /**
+     * Loads one user row on a miss
+     */
+    @FunctionalInterface
+    private interface Loader {
+        Optional<User> load() throws SQLException;
+    }
+    
+    /**
+     * Constructor
+     * @param userDAO DAO users are loaded from
+     * @param clock Monotonic clock in milliseconds
+     * @param ttlMillis Maximum age of an entry
+     * @param maxEntries Maximum number of cached users
+     */
+    UserCache(UserDAO userDAO, LongSupplier clock, long ttlMillis, int maxEntries) {
+        this.userDAO = userDAO;
+        this.clock = clock;
+        this.ttlMillis = ttlMillis;
+        this.maxEntries = Math.max(1, maxEntries);
+        synchronized (caches) {
+            caches.add(this);
+        }
+    }
+    
+    /**
+     * Get singleton instance
+     * @return UserCache instance
+     */
+    public static synchronized UserCache getInstance() {
+        if (instance == null) {
+            AppConfig config = AppConfig.getInstance();
+            instance = new UserCache(new UserDAO(), () -> System.nanoTime() / 1_000_000,
+                                     config.getUserCacheTtlSeconds() * 1000L,
+                                     config.getUserCacheMaxEntries());
+        }
+        return instance;
+    }
+    
+    /**
+     * Mark a user as changed so no cache serves an entry loaded before now.
+     * Called by UserDAO; inside a unit of work the user is marked again
+     * after commit so a reload that raced the transaction is not kept.
+     * @param userId Changed user
+     */
+    static void userChanged(int userId) {
+        stamp(userId);
+        if (TransactionTemplate.isActive()) {
+            TransactionTemplate.afterCommit(() -> stamp(userId));
+        }
+    }
+    
+    private static void stamp(int userId) {
+        long stamped = sequence.incrementAndGet();
+        synchronized (caches) {
+            for (UserCache cache : caches) {
+                cache.changed(userId, stamped);
+            }
+        }
+    }
+    
+    /**
+     * Role and status of a user, for per-request authorization
+     * @param userId User ID
+     * @return Principal, or empty if the user no longer exists
+     */
+    public Optional<UserPrincipal> findPrincipal(int userId) throws SQLException {
+        CachedUser entry = lookup(userId);
+        if (entry != null) {
+            return Optional.of(entry.principal);
+        }
+        return load(() -> userDAO.findById(userId)).map(loaded -> loaded.principal);
+    }
+    
+    /**
+     * Find a user by username, or by email when no username matches
+     * @param login Username or email address
+     * @return Copy of the user including the password hash
+     */
+    public Optional<User> findByLogin(String login) throws SQLException {
+        Integer userId = logins.get(login.toLowerCase(Locale.ROOT));
+        CachedUser entry = userId != null ? lookup(userId) : null;
+        if (entry != null && entry.matches(login)) {
+            return Optional.of(new User(entry.user));
+        }
+        
+        Optional<CachedUser> loaded = load(() -> userDAO.findByUsername(login));
+        if (loaded.isEmpty()) {
+            loaded = load(() -> userDAO.findByEmail(login));
+        }
+        return loaded.map(found -> new User(found.user));
+    }
+    
+    /**
+     * Drop a user from this cache
+     * @param userId User ID
+     */
+    public synchronized void invalidate(int userId) {
+        CachedUser entry = entries.remove(userId);
+        if (entry != null) {
+            unindex(entry);
+        }
+    }
+    
+    /**
+     * @return Reads answered from the cache
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+    
+    /**
+     * @return Reads that went to the database
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+    
+    /**
+     * @return Number of cached users
+     */
+    public int size() {
+        return entries.size();
+    }
+    
+    /**
+     * @return Number of change stamps still kept
+     */
+    int trackedChanges() {
+        return changes.size();
+    }
+    
+    private void changed(int userId, long stamped) {
+        long now = clock.getAsLong();
+        changes.put(userId, new Change(stamped, now));
+        changes.values().removeIf(change -> now - change.changedAt >= ttlMillis);
+    }
+    
+    private CachedUser lookup(int userId) {
+        CachedUser entry = entries.get(userId);
+        if (entry == null) {
+            return null;
+        }
+        Change change = changes.get(userId);
+        if (clock.getAsLong() - entry.loadedAt >= ttlMillis
+                || change != null && change.sequence > entry.version) {
+            synchronized (this) {
+                if (entries.remove(userId, entry)) {
+                    unindex(entry);
+                }
+            }
+            return null;
+        }
+        // Only write when the generation moved on, so hot entries are not written on every hit
+        long current = generation.get();
+        if (entry.lastUsed != current) {
+            entry.lastUsed = current;
+        }
+        hits.increment();
+        return entry;
+    }
+    
+    private Optional<CachedUser> load(Loader loader) throws SQLException {
+        long version = sequence.get();
+        Optional<User> user = loader.load();
+        misses.increment();
+        if (user.isEmpty()) {
+            return Optional.empty();
+        }
+        CachedUser entry = new CachedUser(user.get(), version, clock.getAsLong());
+        if (TransactionTemplate.isActive()) {
+            return Optional.of(entry);
+        }
+        synchronized (this) {
+            entry.lastUsed = generation.getAndIncrement();
+            CachedUser previous = entries.put(entry.principal.getUserId(), entry);
+            if (previous != null) {
+                unindex(previous);
+            }
+            index(entry);
+            if (entries.size() > maxEntries) {
+                evict();
+            }
+        }
+        logger.debug("User cached: ID={}", entry.principal.getUserId());
+        return Optional.of(entry);
+    }
+    
+    /**
+     * Drop the least recently used entries, a tenth of the capacity beyond
+     * the excess, so a full cache sorts its entries once per batch of
+     * inserts rather than on every one. Entries last used in the same
+     * generation are equally recent and dropped in any order.
+     */
+    private void evict() {
+        List<CachedUser> byLastUse = new ArrayList<>(entries.values());
+        byLastUse.sort(Comparator.comparingLong(entry -> entry.lastUsed));
+        int count = Math.min(byLastUse.size(), entries.size() - maxEntries + maxEntries / 10);
+        for (CachedUser entry : byLastUse.subList(0, count)) {
+            if (entries.remove(entry.principal.getUserId(), entry)) {
+                unindex(entry);
+            }
+        }
+        logger.debug("Evicted {} cached users", count);
+    }
+    
+    private void index(CachedUser entry) {
+        if (entry.user.getUsername() != null) {
+            logins.put(entry.user.getUsername().toLowerCase(Locale.ROOT), entry.principal.getUserId());
+        }
+        if (entry.user.getEmail() != null) {
+            logins.put(entry.user.getEmail().toLowerCase(Locale.ROOT), entry.principal.getUserId());
+        }
+    }
+    
+    private void unindex(CachedUser entry) {
+        Integer userId = entry.principal.getUserId();
+        if (entry.user.getUsername() != null) {
+            logins.remove(entry.user.getUsername().toLowerCase(Locale.ROOT), userId);
+        }
+        if (entry.user.getEmail() != null) {
+            logins.remove(entry.user.getEmail().toLowerCase(Locale.ROOT), userId);
+        }
+    }
+    
+    /**
+     * When a user last changed
+     */
+    private static final class Change {
+        
+        private final long sequence;
+        private final long changedAt;
+        
+        Change(long sequence, long changedAt) {
+            this.sequence = sequence;
+            this.changedAt = changedAt;
+        }
+    }
+    
+    /**
+     * One cached user row
+     */
+    private static final class CachedUser {
+        
+        private final User user;
+        private final UserPrincipal principal;
+        private final long version;
+        private final long loadedAt;
+        // Insert generation of the last hit; racy updates only blur the eviction order
+        private volatile long lastUsed;
+        
+        CachedUser(User user, long version, long loadedAt) {
+            this.user = user;
+            this.principal = UserPrincipal.of(user);
+            this.version = version;
+            this.loadedAt = loadedAt;
+        }
+        
+        boolean matches(String login) {
+            return login.equalsIgnoreCase(user.getUsername()) || login.equalsIgnoreCase(user.getEmail());
+        }
+    }
+}
@@ -1,12 +1,16 @@
 package com.oceanview.dao;
 
+import com.oceanview.config.DatabaseConfig;
+import com.oceanview.model.GroupTotal;
 import com.oceanview.model.User;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.sql.*;
-import java.util.ArrayList;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -35,6 +39,9 @@ public class UserDAO extends BaseDAO {
     private static final String UPDATE_LAST_LOGIN = 
         "UPDATE users SET last_login = CURRENT_TIMESTAMP WHERE user_id = ?";
     
+    private static final String UPDATE_LAST_LOGIN_AT = 
+        "UPDATE users SET last_login = ? WHERE user_id = ?";
+    
     private static final String DELETE_USER = 
         "DELETE FROM users WHERE user_id = ?";
     
@@ -62,6 +69,35 @@ public class UserDAO extends BaseDAO {
     private static final String COUNT_BY_EMAIL = 
         "SELECT COUNT(*) FROM users WHERE email = ?";
     
+    private static final String COUNT_BY_ROLE_SINCE = 
+        "SELECT COUNT(*) FROM users WHERE role = ? AND created_at >= ?";
+    
+    private static final String COUNT_GROUP_BY_ROLE = 
+        "SELECT role AS group_key, COUNT(*) AS row_count, 0 AS amount_total " +
+        "FROM users GROUP BY role";
+    
+    // Pagination
+    private static final String SELECT_PAGE = "SELECT * FROM users";
+    private static final Keyset PAGE_KEYSET = Keyset.byTimestamp("created_at", "user_id");
+    
+    // Row Mapper
+    private static final RowMapper<User> USER_MAPPER = RowMapper.indexed(UserRowMapper::new);
+    
+    /**
+     * Constructor
+     */
+    public UserDAO() {
+        super();
+    }
+    
+    /**
+     * Constructor with an explicit database configuration
+     * @param dbConfig Database configuration
+     */
+    public UserDAO(DatabaseConfig dbConfig) {
+        super(dbConfig);
+    }
+    
     /**
      * Create a new user
      * @param user User object
@@ -69,43 +105,11 @@ public class UserDAO extends BaseDAO {
      * @throws SQLException if operation fails
      */
     public int create(User user) throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(INSERT_USER, Statement.RETURN_GENERATED_KEYS);
-            
-            stmt.setString(1, user.getUsername());
-            stmt.setString(2, user.getPassword());
-            stmt.setString(3, user.getEmail());
-            stmt.setString(4, user.getFullName());
-            stmt.setString(5, user.getPhone());
-            stmt.setString(6, user.getRole().name());
-            stmt.setString(7, user.getStatus().name());
-            
-            int affectedRows = stmt.executeUpdate();
-            
-            if (affectedRows == 0) {
-                throw new SQLException("Creating user failed, no rows affected.");
-            }
-            
-            rs = stmt.getGeneratedKeys();
-            if (rs.next()) {
-                int userId = rs.getInt(1);
-                logger.info("User created successfully with ID: {}", userId);
-                return userId;
-            } else {
-                throw new SQLException("Creating user failed, no ID obtained.");
-            }
-            
-        } catch (SQLException e) {
-            logSQLException("create user", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt, rs);
-        }
+        int userId = insert(INSERT_USER, params(
+                user.getUsername(), user.getPassword(), user.getEmail(), user.getFullName(),
+                user.getPhone(), user.getRole().name(), user.getStatus().name()), "create user");
+        logger.info("User created successfully with ID: {}", userId);
+        return userId;
     }
     
     /**
@@ -115,32 +119,12 @@ public class UserDAO extends BaseDAO {
      * @throws SQLException if operation fails
      */
     public boolean update(User user) throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(UPDATE_USER);
-            
-            stmt.setString(1, user.getUsername());
-            stmt.setString(2, user.getEmail());
-            stmt.setString(3, user.getFullName());
-            stmt.setString(4, user.getPhone());
-            stmt.setString(5, user.getRole().name());
-            stmt.setString(6, user.getStatus().name());
-            stmt.setInt(7, user.getUserId());
-            
-            int affectedRows = stmt.executeUpdate();
-            logger.info("User updated: ID={}, affected rows={}", user.getUserId(), affectedRows);
-            
-            return affectedRows > 0;
-            
-        } catch (SQLException e) {
-            logSQLException("update user", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt);
-        }
+        int affectedRows = update(UPDATE_USER, params(
+                user.getUsername(), user.getEmail(), user.getFullName(), user.getPhone(),
+                user.getRole().name(), user.getStatus().name(), user.getUserId()), "update user");
+        UserCache.userChanged(user.getUserId());
+        logger.info("User updated: ID={}, affected rows={}", user.getUserId(), affectedRows);
+        return affectedRows > 0;
     }
     
     /**
@@ -151,27 +135,10 @@ public class UserDAO extends BaseDAO {
      * @throws SQLException if operation fails
      */
     public boolean updatePassword(int userId, String hashedPassword) throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(UPDATE_PASSWORD);
-            
-            stmt.setString(1, hashedPassword);
-            stmt.setInt(2, userId);
-            
-            int affectedRows = stmt.executeUpdate();
-            logger.info("Password updated for user ID: {}", userId);
-            
-            return affectedRows > 0;
-            
-        } catch (SQLException e) {
-            logSQLException("update password", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt);
-        }
+        int affectedRows = update(UPDATE_PASSWORD, params(hashedPassword, userId), "update password");
+        UserCache.userChanged(userId);
+        logger.info("Password updated for user ID: {}", userId);
+        return affectedRows > 0;
     }
     
     /**
@@ -180,23 +147,19 @@ public class UserDAO extends BaseDAO {
      * @throws SQLException if operation fails
      */
     public void updateLastLogin(int userId) throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(UPDATE_LAST_LOGIN);
-            stmt.setInt(1, userId);
-            stmt.executeUpdate();
-            
-            logger.debug("Last login updated for user ID: {}", userId);
-            
-        } catch (SQLException e) {
-            logSQLException("update last login", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt);
-        }
+        update(UPDATE_LAST_LOGIN, params(userId), "update last login");
+        logger.debug("Last login updated for user ID: {}", userId);
+    }
+    
+    /**
+     * Write many last login timestamps in one batch
+     * @param lastLogins Login time keyed by user ID
+     * @throws SQLException if operation fails
+     */
+    public void updateLastLogins(Map<Integer, LocalDateTime> lastLogins) throws SQLException {
+        batchUpdate(UPDATE_LAST_LOGIN_AT, lastLogins.entrySet(),
+                    login -> params(login.getValue(), login.getKey()), "update last logins");
+        logger.debug("Last login updated for {} users", lastLogins.size());
     }
     
     /**
@@ -206,25 +169,10 @@ public class UserDAO extends BaseDAO {
      * @throws SQLException if operation fails
      */
     public boolean delete(int userId) throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(DELETE_USER);
-            stmt.setInt(1, userId);
-            
-            int affectedRows = stmt.executeUpdate();
-            logger.info("User deleted: ID={}, affected rows={}", userId, affectedRows);
-            
-            return affectedRows > 0;
-            
-        } catch (SQLException e) {
-            logSQLException("delete user", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt);
-        }
+        int affectedRows = update(DELETE_USER, params(userId), "delete user");
+        UserCache.userChanged(userId);
+        logger.info("User deleted: ID={}, affected rows={}", userId, affectedRows);
+        return affectedRows > 0;
     }
     
     /**
@@ -234,29 +182,7 @@ public class UserDAO extends BaseDAO {
      * @throws SQLException if operation fails
      */
     public Optional<User> findById(int userId) throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(SELECT_BY_ID);
-            stmt.setInt(1, userId);
-            
-            rs = stmt.executeQuery();
-            
-            if (rs.next()) {
-                return Optional.of(mapResultSetToUser(rs));
-            }
-            
-            return Optional.empty();
-            
-        } catch (SQLException e) {
-            logSQLException("find user by ID", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt, rs);
-        }
+        return queryForOptional(SELECT_BY_ID, params(userId), USER_MAPPER, "find user by ID");
     }
     
     /**
@@ -266,29 +192,7 @@ public class UserDAO extends BaseDAO {
      * @throws SQLException if operation fails
      */
     public Optional<User> findByUsername(String username) throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(SELECT_BY_USERNAME);
-            stmt.setString(1, username);
-            
-            rs = stmt.executeQuery();
-            
-            if (rs.next()) {
-                return Optional.of(mapResultSetToUser(rs));
-            }
-            
-            return Optional.empty();
-            
-        } catch (SQLException e) {
-            logSQLException("find user by username", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt, rs);
-        }
+        return queryForOptional(SELECT_BY_USERNAME, params(username), USER_MAPPER, "find user by username");
     }
     
     /**
@@ -298,29 +202,7 @@ public class UserDAO extends BaseDAO {
      * @throws SQLException if operation fails
      */
     public Optional<User> findByEmail(String email) throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(SELECT_BY_EMAIL);
-            stmt.setString(1, email);
-            
-            rs = stmt.executeQuery();
-            
-            if (rs.next()) {
-                return Optional.of(mapResultSetToUser(rs));
-            }
-            
-            return Optional.empty();
-            
-        } catch (SQLException e) {
-            logSQLException("find user by email", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt, rs);
-        }
+        return queryForOptional(SELECT_BY_EMAIL, params(email), USER_MAPPER, "find user by email");
     }
     
     /**
@@ -329,29 +211,9 @@ public class UserDAO extends BaseDAO {
      * @throws SQLException if operation fails
      */
     public List<User> findAll() throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
-        List<User> users = new ArrayList<>();
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(SELECT_ALL);
-            rs = stmt.executeQuery();
-            
-            while (rs.next()) {
-                users.add(mapResultSetToUser(rs));
-            }
-            
-            logger.debug("Found {} users", users.size());
-            return users;
-            
-        } catch (SQLException e) {
-            logSQLException("find all users", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt, rs);
-        }
+        List<User> users = queryForList(SELECT_ALL, StatementBinder.NONE, USER_MAPPER, "find all users");
+        logger.debug("Found {} users", users.size());
+        return users;
     }
     
     /**
@@ -361,30 +223,9 @@ public class UserDAO extends BaseDAO {
      * @throws SQLException if operation fails
      */
     public List<User> findByRole(User.Role role) throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
-        List<User> users = new ArrayList<>();
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(SELECT_BY_ROLE);
-            stmt.setString(1, role.name());
-            rs = stmt.executeQuery();
-            
-            while (rs.next()) {
-                users.add(mapResultSetToUser(rs));
-            }
-            
-            logger.debug("Found {} users with role {}", users.size(), role);
-            return users;
-            
-        } catch (SQLException e) {
-            logSQLException("find users by role", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt, rs);
-        }
+        List<User> users = queryForList(SELECT_BY_ROLE, params(role.name()), USER_MAPPER, "find users by role");
+        logger.debug("Found {} users with role {}", users.size(), role);
+        return users;
     }
     
     /**
@@ -394,28 +235,7 @@ public class UserDAO extends BaseDAO {
      * @throws SQLException if operation fails
      */
     public boolean existsByUsername(String username) throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(COUNT_BY_USERNAME);
-            stmt.setString(1, username);
-            rs = stmt.executeQuery();
-            
-            if (rs.next()) {
-                return rs.getInt(1) > 0;
-            }
-            
-            return false;
-            
-        } catch (SQLException e) {
-            logSQLException("check username exists", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt, rs);
-        }
+        return queryForInt(COUNT_BY_USERNAME, params(username), "check username exists") > 0;
     }
     
     /**
@@ -425,62 +245,100 @@ public class UserDAO extends BaseDAO {
      * @throws SQLException if operation fails
      */
     public boolean existsByEmail(String email) throws SQLException {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
-        
-        try {
-            conn = getConnection();
-            stmt = conn.prepareStatement(COUNT_BY_EMAIL);
-            stmt.setString(1, email);
-            rs = stmt.executeQuery();
-            
-            if (rs.next()) {
-                return rs.getInt(1) > 0;
-            }
-            
-            return false;
-            
-        } catch (SQLException e) {
-            logSQLException("check email exists", e);
-            throw e;
-        } finally {
-            closeResources(conn, stmt, rs);
-        }
+        return queryForInt(COUNT_BY_EMAIL, params(email), "check email exists") > 0;
     }
     
     /**
-     * Map ResultSet to User object
-     * @param rs ResultSet
-     * @return User object
-     * @throws SQLException if mapping fails
+     * Count users grouped by role
+     * @return Rows keyed by role name
+     * @throws SQLException if operation fails
      */
-    private User mapResultSetToUser(ResultSet rs) throws SQLException {
-        User user = new User();
-        user.setUserId(rs.getInt("user_id"));
-        user.setUsername(rs.getString("username"));
-        user.setPassword(rs.getString("password"));
-        user.setEmail(rs.getString("email"));
-        user.setFullName(rs.getString("full_name"));
-        user.setPhone(rs.getString("phone"));
-        user.setRole(User.Role.valueOf(rs.getString("role")));
-        user.setStatus(User.Status.valueOf(rs.getString("status")));
+    public List<GroupTotal> countGroupedByRole() throws SQLException {
+        return queryForList(COUNT_GROUP_BY_ROLE, StatementBinder.NONE, GROUP_TOTAL_MAPPER,
+                            "count users grouped by role");
+    }
+    
+    /**
+     * Count users of a role created on or after a date
+     * @param role User role
+     * @param since First day to include
+     * @return Number of matching users
+     * @throws SQLException if operation fails
+     */
+    public int countByRoleSince(User.Role role, LocalDate since) throws SQLException {
+        return queryForInt(COUNT_BY_ROLE_SINCE, params(role.name(), startOfDay(since)),
+                           "count users by role since date");
+    }
+    
+    /**
+     * Find one page of users, newest first
+     * @param pageRequest Page size and cursor
+     * @return Page of users
+     * @throws SQLException if operation fails
+     */
+    public Page<User> findPage(PageRequest pageRequest) throws SQLException {
+        return queryPage(SELECT_PAGE, null, PAGE_KEYSET, pageRequest, USER_MAPPER, "find users page");
+    }
+    
+    /**
+     * Maps users rows to User objects by column position
+     */
+    private static final class UserRowMapper implements RowMapper<User> {
         
-        Timestamp createdAt = rs.getTimestamp("created_at");
-        if (createdAt != null) {
-            user.setCreatedAt(createdAt.toLocalDateTime());
-        }
+        private final int userId;
+        private final int username;
+        private final int password;
+        private final int email;
+        private final int fullName;
+        private final int phone;
+        private final int role;
+        private final int status;
+        private final int createdAt;
+        private final int updatedAt;
+        private final int lastLogin;
         
-        Timestamp updatedAt = rs.getTimestamp("updated_at");
-        if (updatedAt != null) {
-            user.setUpdatedAt(updatedAt.toLocalDateTime());
+        UserRowMapper(ResultSet rs) throws SQLException {
+            userId = rs.findColumn("user_id");
+            username = rs.findColumn("username");
+            password = rs.findColumn("password");
+            email = rs.findColumn("email");
+            fullName = rs.findColumn("full_name");
+            phone = rs.findColumn("phone");
+            role = rs.findColumn("role");
+            status = rs.findColumn("status");
+            createdAt = rs.findColumn("created_at");
+            updatedAt = rs.findColumn("updated_at");
+            lastLogin = rs.findColumn("last_login");
         }
         
-        Timestamp lastLogin = rs.getTimestamp("last_login");
-        if (lastLogin != null) {
-            user.setLastLogin(lastLogin.toLocalDateTime());
+        @Override
+        public User mapRow(ResultSet rs) throws SQLException {
+            User user = new User();
+            user.setUserId(rs.getInt(userId));
+            user.setUsername(rs.getString(username));
+            user.setPassword(rs.getString(password));
+            user.setEmail(rs.getString(email));
+            user.setFullName(rs.getString(fullName));
+            user.setPhone(rs.getString(phone));
+            user.setRole(User.Role.valueOf(rs.getString(role)));
+            user.setStatus(User.Status.valueOf(rs.getString(status)));
+            
+            Timestamp created = rs.getTimestamp(createdAt);
+            if (created != null) {
+                user.setCreatedAt(created.toLocalDateTime());
+            }
+            
+            Timestamp updated = rs.getTimestamp(updatedAt);
+            if (updated != null) {
+                user.setUpdatedAt(updated.toLocalDateTime());
+            }
+            
+            Timestamp login = rs.getTimestamp(lastLogin);
+            if (login != null) {
+                user.setLastLogin(login.toLocalDateTime());
+            }
+            
+            return user;
         }
-        
-        return user;
     }
 }
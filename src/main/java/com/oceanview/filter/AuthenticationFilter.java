@@ -1,5 +1,10 @@
 package com.oceanview.filter;
 
+import com.oceanview.dao.UserCache;
+import com.oceanview.model.User;
+import com.oceanview.model.UserPrincipal;
+import com.oceanview.tracing.Span;
+import com.oceanview.tracing.Tracer;
 import com.oceanview.util.Constants;
 import jakarta.servlet.*;
 import jakarta.servlet.http.HttpServletRequest;
@@ -9,27 +14,45 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.sql.SQLException;
+import java.util.Optional;
 
 /**
  * Authentication Filter
  * Checks if user is logged in before accessing protected resources
  * URL Patterns: /admin/*, /staff/*, /guest/* (configured in web.xml)
  * 
+ * The session user is revalidated against the user cache on every request:
+ * a deleted or deactivated account is logged out, and a role change is
+ * copied into the session before AuthorizationFilter reads it.
+ * 
  * @author Ocean View Resort Development Team
  * @version 1.0.0
  */
 public class AuthenticationFilter implements Filter {
     
     private static final Logger logger = LoggerFactory.getLogger(AuthenticationFilter.class);
+    private UserCache userCache;
     
     @Override
     public void init(FilterConfig filterConfig) throws ServletException {
+        userCache = UserCache.getInstance();
         logger.info("AuthenticationFilter initialized");
     }
     
     @Override
     public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
             throws IOException, ServletException {
+        Span span = Tracer.span("AuthenticationFilter");
+        try {
+            filter(request, response, chain);
+        } finally {
+            span.close();
+        }
+    }
+    
+    private void filter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
         
         HttpServletRequest httpRequest = (HttpServletRequest) request;
         HttpServletResponse httpResponse = (HttpServletResponse) response;
@@ -40,7 +63,14 @@ public class AuthenticationFilter implements Filter {
         // Check if user is logged in
         boolean isLoggedIn = (session != null && session.getAttribute(Constants.SESSION_USER) != null);
         
-        if (isLoggedIn) {
+        if (isLoggedIn && !refreshPrincipal(session)) {
+            // Account was removed or deactivated since login
+            logger.warn("Session ended for inactive user on URI: {}", requestURI);
+            session.invalidate();
+            session = httpRequest.getSession(true);
+            session.setAttribute(Constants.ATTR_ERROR, Constants.MSG_SESSION_EXPIRED);
+            httpResponse.sendRedirect(httpRequest.getContextPath() + "/login");
+        } else if (isLoggedIn) {
             // User is authenticated, continue
             logger.debug("User authenticated for URI: {}", requestURI);
             chain.doFilter(request, response);
@@ -61,6 +91,40 @@ public class AuthenticationFilter implements Filter {
         }
     }
     
+    /**
+     * Bring the session user in line with the current user row
+     * @param session Logged in session
+     * @return false if the user no longer exists or is not active
+     */
+    private boolean refreshPrincipal(HttpSession session) {
+        User user = (User) session.getAttribute(Constants.SESSION_USER);
+        Optional<UserPrincipal> principal;
+        try {
+            principal = userCache.findPrincipal(user.getUserId());
+        } catch (SQLException e) {
+            // Keep serving from the session while the database is unreachable
+            logger.warn("Could not revalidate user ID: {}", user.getUserId(), e);
+            return true;
+        }
+        if (principal.isEmpty() || !principal.get().isActive()) {
+            return false;
+        }
+        
+        UserPrincipal current = principal.get();
+        if (current.getRole() != user.getRole() || current.getStatus() != user.getStatus()
+                || !current.getUsername().equals(user.getUsername())) {
+            logger.info("Session refreshed for user ID: {}, role={}", current.getUserId(), current.getRole());
+            user.setRole(current.getRole());
+            user.setStatus(current.getStatus());
+            user.setUsername(current.getUsername());
+            user.setEmail(current.getEmail());
+            session.setAttribute(Constants.SESSION_USER, user);
+            session.setAttribute(Constants.SESSION_USERNAME, current.getUsername());
+            session.setAttribute(Constants.SESSION_USER_ROLE, current.getRole().name());
+        }
+        return true;
+    }
+    
     @Override
     public void destroy() {
         logger.info("AuthenticationFilter destroyed");
@@ -1,6 +1,8 @@
 package com.oceanview.filter;
 
 import com.oceanview.model.User;
+import com.oceanview.tracing.Span;
+import com.oceanview.tracing.Tracer;
 import com.oceanview.util.Constants;
 import jakarta.servlet.*;
 import jakarta.servlet.http.HttpServletRequest;
@@ -31,6 +33,16 @@ public class AuthorizationFilter implements Filter {
     @Override
     public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
             throws IOException, ServletException {
+        Span span = Tracer.span("AuthorizationFilter");
+        try {
+            filter(request, response, chain);
+        } finally {
+            span.close();
+        }
+    }
+    
+    private void filter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
         
         HttpServletRequest httpRequest = (HttpServletRequest) request;
         HttpServletResponse httpResponse = (HttpServletResponse) response;
@@ -1,18 +1,30 @@
 package com.oceanview.filter;
 
+import com.oceanview.config.AppConfig;
+import com.oceanview.metrics.HttpMetrics;
+import com.oceanview.model.AuditLog;
 import com.oceanview.model.User;
+import com.oceanview.service.AuditLogWriter;
+import com.oceanview.tracing.Span;
+import com.oceanview.tracing.Tracer;
 import com.oceanview.util.Constants;
 import jakarta.servlet.*;
+import jakarta.servlet.http.HttpServletMapping;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Logging Filter
- * Logs all HTTP requests for monitoring and audit purposes
+ * Logs all HTTP requests for monitoring and audit purposes, and records
+ * their latency and status in HttpMetrics for /metrics
+ * Runs first so each request's trace covers the other filters: the trace
+ * id is put in the log MDC and returned in the X-Trace-Id header.
  * URL Pattern: /* (configured in web.xml)
  * 
  * @author Ocean View Resort Development Team
@@ -21,9 +33,15 @@ import java.io.IOException;
 public class LoggingFilter implements Filter {
     
     private static final Logger logger = LoggerFactory.getLogger(LoggingFilter.class);
+    private AuditLogWriter auditLogWriter;
+    private boolean auditToDatabase;
+    private HttpMetrics httpMetrics;
     
     @Override
     public void init(FilterConfig filterConfig) throws ServletException {
+        auditLogWriter = AuditLogWriter.getInstance();
+        auditToDatabase = AppConfig.getInstance().isAuditLoggingEnabled();
+        httpMetrics = AppConfig.getInstance().isMetricsEnabled() ? HttpMetrics.getInstance() : null;
         logger.info("LoggingFilter initialized");
     }
     
@@ -39,16 +57,43 @@ public class LoggingFilter implements Filter {
         String queryString = httpRequest.getQueryString();
         String ipAddress = getClientIP(httpRequest);
         
-        // Log request
-        long startTime = System.currentTimeMillis();
+        // Start the request trace and log request
+        long startTime = System.nanoTime();
+        Span trace = Tracer.startTrace(method + " " + uri);
+        if (trace.getTraceId() != null) {
+            ((HttpServletResponse) response).setHeader("X-Trace-Id", trace.getTraceId());
+        }
         logger.info("Request: {} {} from IP: {}", method, uri, ipAddress);
         
         // Process request
-        chain.doFilter(request, response);
-        
-        // Log response time
-        long duration = System.currentTimeMillis() - startTime;
-        logger.info("Response: {} {} completed in {}ms", method, uri, duration);
+        boolean failed = true;
+        if (httpMetrics != null) {
+            httpMetrics.requestStarted();
+        }
+        try {
+            chain.doFilter(request, response);
+            failed = false;
+        } finally {
+            try {
+                long elapsedNanos = System.nanoTime() - startTime;
+                trace.tag("status", failed ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR
+                                           : ((HttpServletResponse) response).getStatus());
+                if (failed) {
+                    trace.tag("error", "true");
+                }
+                if (httpMetrics != null) {
+                    recordMetrics(httpRequest, (HttpServletResponse) response, elapsedNanos, failed);
+                }
+                if (!failed) {
+                    // Log response time
+                    logger.info("Response: {} {} completed in {}ms", method, uri,
+                                TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+                }
+            } finally {
+                // Always end the trace so the pooled thread does not carry it into the next request
+                trace.close();
+            }
+        }
         
         // Create audit log for important actions
         if (shouldAudit(uri)) {
@@ -56,6 +101,19 @@ public class LoggingFilter implements Filter {
         }
     }
     
+    /**
+     * Record latency and status for the servlet and action that handled the
+     * request. The action is read after the chain so a form body is only
+     * parsed by the servlet itself.
+     */
+    private void recordMetrics(HttpServletRequest request, HttpServletResponse response,
+                               long elapsedNanos, boolean failed) {
+        HttpServletMapping mapping = request.getHttpServletMapping();
+        String servlet = mapping != null ? mapping.getServletName() : null;
+        int status = failed ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : response.getStatus();
+        httpMetrics.record(servlet, request.getParameter("action"), status, elapsedNanos, failed);
+    }
+    
     /**
      * Get client IP address
      */
@@ -85,8 +143,8 @@ public class LoggingFilter implements Filter {
     
     /**
      * Create audit log entry
-     * Note: This creates audit logs in database. Currently logs to SLF4J only.
-     * Uncomment database code once AuditLogDAO is available.
+     * Logs to SLF4J and, with features.audit.logging, queues the entry for
+     * the background AuditLogWriter so the request does not wait on the insert
      */
     private void createAuditLog(HttpServletRequest request, String uri, String ipAddress) {
         try {
@@ -108,20 +166,17 @@ public class LoggingFilter implements Filter {
             logger.info("AUDIT: User={}, Action={}, URI={}, Method={}, IP={}", 
                        username, action, uri, request.getMethod(), ipAddress);
             
-            // TODO: Enable database audit logging once database is set up
-            // Uncomment below to enable database audit logs:
-            /*
-            AuditLogDAO auditLogDAO = new AuditLogDAO();
-            AuditLog log = new AuditLog();
-            if (user != null) {
-                log.setUserId(user.getUserId());
+            if (auditToDatabase) {
+                AuditLog log = new AuditLog();
+                if (user != null) {
+                    log.setUserId(user.getUserId());
+                }
+                log.setAction(action);
+                log.setEntityType("HTTP_REQUEST");
+                log.setDetails(String.format("URI: %s, Method: %s", uri, request.getMethod()));
+                log.setIpAddress(ipAddress);
+                auditLogWriter.submit(log);
             }
-            log.setAction(action);
-            log.setEntityType("HTTP_REQUEST");
-            log.setDetails(String.format("URI: %s, Method: %s", uri, request.getMethod()));
-            log.setIpAddress(ipAddress);
-            auditLogDAO.create(log);
-            */
             
         } catch (Exception e) {
             logger.error("Error creating audit log", e);
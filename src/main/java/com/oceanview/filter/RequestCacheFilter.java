@@ -0,0 +1,65 @@
+package com.oceanview.filter;
+
+import com.oceanview.tracing.Span;
+import com.oceanview.tracing.Tracer;
+import com.oceanview.util.RequestCache;
+import jakarta.servlet.*;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+
+/**
+ * Request Cache Filter
+ * Opens a {@link RequestCache} for each request so repeated service reads
+ * while building one page hit memory instead of the database. The cache is
+ * discarded when the request completes.
+ * The cache is exposed as the request attribute "requestCache"; its hit
+ * count is the number of database calls the request saved.
+ * URL Pattern: /* (configured in web.xml)
+ * 
+ * @author Ocean View Resort Development Team
+ * @version 1.0.0
+ */
+public class RequestCacheFilter implements Filter {
+    
+    public static final String ATTR_REQUEST_CACHE = "requestCache";
+    
+    private static final Logger logger = LoggerFactory.getLogger(RequestCacheFilter.class);
+    
+    @Override
+    public void init(FilterConfig filterConfig) throws ServletException {
+        logger.info("RequestCacheFilter initialized");
+    }
+    
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        
+        RequestCache cache = RequestCache.open();
+        if (cache == null) {
+            // Already inside a request cache (e.g. an async or nested dispatch)
+            chain.doFilter(request, response);
+            return;
+        }
+        
+        request.setAttribute(ATTR_REQUEST_CACHE, cache);
+        Span span = Tracer.span("RequestCacheFilter");
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            span.tag("cacheHits", cache.getHits()).close();
+            RequestCache.close(cache);
+            if (cache.getHits() > 0) {
+                logger.debug("Request cache saved {} of {} database reads for {}", cache.getHits(),
+                             cache.getHits() + cache.getMisses(), ((HttpServletRequest) request).getRequestURI());
+            }
+        }
+    }
+    
+    @Override
+    public void destroy() {
+        logger.info("RequestCacheFilter destroyed");
+    }
+}
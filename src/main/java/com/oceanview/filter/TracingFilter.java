@@ -0,0 +1,78 @@
+package com.oceanview.filter;
+
+import com.oceanview.metrics.HttpMetrics;
+import com.oceanview.tracing.Span;
+import com.oceanview.tracing.Tracer;
+import jakarta.servlet.*;
+import jakarta.servlet.http.HttpServletMapping;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+
+/**
+ * Tracing Filter
+ * Adds spans to the request trace started by LoggingFilter: one for the
+ * servlet, named after it and the action it handled, and one for each JSP
+ * it forwards to or includes, so page rendering shows apart from the
+ * servlet's own work.
+ * URL Pattern: /* for REQUEST, FORWARD and INCLUDE, mapped after the other
+ * filters (configured in web.xml)
+ * 
+ * @author Ocean View Resort Development Team
+ * @version 1.0.0
+ */
+public class TracingFilter implements Filter {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TracingFilter.class);
+    
+    @Override
+    public void init(FilterConfig filterConfig) throws ServletException {
+        logger.info("TracingFilter initialized");
+    }
+    
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        
+        if (Tracer.current() == Span.NOOP) {
+            chain.doFilter(request, response);
+            return;
+        }
+        
+        HttpServletRequest httpRequest = (HttpServletRequest) request;
+        try (Span span = Tracer.span(spanName(httpRequest))) {
+            try {
+                chain.doFilter(request, response);
+            } catch (IOException | ServletException | RuntimeException e) {
+                span.error(e);
+                throw e;
+            }
+            if (request.getDispatcherType() == DispatcherType.REQUEST) {
+                // Read after the chain so a form body is only parsed by the servlet itself
+                String action = HttpMetrics.labelFor(request.getParameter("action"));
+                if (!action.isEmpty()) {
+                    span.rename(span.getName() + " " + action);
+                }
+            }
+        }
+    }
+    
+    private String spanName(HttpServletRequest request) {
+        switch (request.getDispatcherType()) {
+            case FORWARD:
+                return "render " + request.getServletPath();
+            case INCLUDE:
+                return "include " + request.getAttribute(RequestDispatcher.INCLUDE_SERVLET_PATH);
+            default:
+                HttpServletMapping mapping = request.getHttpServletMapping();
+                return mapping != null ? mapping.getServletName() : "servlet";
+        }
+    }
+    
+    @Override
+    public void destroy() {
+        logger.info("TracingFilter destroyed");
+    }
+}
@@ -0,0 +1,400 @@
+package com.oceanview.jdbc;
+
+import com.oceanview.metrics.MetricsCollector;
+import com.oceanview.metrics.MetricsWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import javax.sql.DataSource;
+
+/**
+ * Connection Leak Detector
+ * Tags a sample of borrowed connections with the application frames that
+ * borrowed them, and flags any still open after db.leakDetection.thresholdMillis.
+ * Each suspect is logged once with its borrow-site stack and holding thread,
+ * and counted against its borrow site (the first two application frames
+ * outside the DAO and pool plumbing) for /admin/database. A flagged
+ * connection that is closed later is logged again with the time it was held.
+ * 
+ * Only db.leakDetection.sampleRate of borrows pay for the stack walk and the
+ * close-tracking proxy; the rest are returned untouched, so the detector can
+ * stay on in production and still find a leaking code path after enough
+ * requests go through it.
+ * 
+ * @author Ocean View Resort Development Team
+ * @version 1.0.0
+ */
+public class ConnectionLeakDetector implements MetricsCollector {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ConnectionLeakDetector.class);
+    private static final StackWalker WALKER = StackWalker.getInstance();
+    private static final int STACK_DEPTH = 12;
+    private static final int SITE_FRAMES = 2;
+    private static final int MAX_SITES = 200;
+    static final String OTHER = "(other)";
+    private static final Set<String> PLUMBING = Set.of(ConnectionLeakDetector.class.getName(),
+                                                       InstrumentedDataSource.class.getName(),
+                                                       "com.oceanview.config.DatabaseConfig",
+                                                       "com.oceanview.dao.BaseDAO");
+    
+    private final boolean enabled;
+    private final double sampleRate;
+    private final long thresholdNanos;
+    private final Map<Borrow, Boolean> open = new ConcurrentHashMap<>();
+    private final Map<String, SiteStats> sites = new ConcurrentHashMap<>();
+    private final LongAdder suspects = new LongAdder();
+    private ScheduledExecutorService scheduler;
+    
+    /**
+     * Constructor
+     * @param enabled Whether borrows are tracked at all
+     * @param sampleRate Fraction of borrows to track, 0 to 1
+     * @param thresholdMillis Time a connection may be held before it is flagged
+     */
+    public ConnectionLeakDetector(boolean enabled, double sampleRate, long thresholdMillis) {
+        this.enabled = enabled && sampleRate > 0;
+        this.sampleRate = Math.min(1, Math.max(0, sampleRate));
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, thresholdMillis));
+    }
+    
+    /**
+     * Wrap a data source so the connections it hands out are tracked.
+     * Wrapping the pool itself, under any other proxies, keeps
+     * Statement.getConnection() returning the connection the caller holds.
+     * @param target Pooled data source
+     * @return Tracking data source, or the target when detection is off
+     */
+    public DataSource wrap(DataSource target) {
+        if (!enabled) {
+            return target;
+        }
+        InvocationHandler handler = (proxy, method, args) -> {
+            Object result = invoke(target, method, args);
+            return result instanceof Connection ? track((Connection) result) : result;
+        };
+        return (DataSource) Proxy.newProxyInstance(ConnectionLeakDetector.class.getClassLoader(),
+                                                   new Class<?>[]{DataSource.class}, handler);
+    }
+    
+    /**
+     * Track a borrowed connection if it falls in the sample
+     * @param connection Connection just borrowed
+     * @return The connection, or a proxy that reports its close
+     */
+    public Connection track(Connection connection) {
+        if (!enabled || (sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate)) {
+            return connection;
+        }
+        List<String> stack = WALKER.walk(frames -> frames
+            .filter(frame -> isApplicationFrame(frame.getClassName()))
+            .limit(STACK_DEPTH)
+            .map(StackWalker.StackFrame::toStackTraceElement)
+            .map(StackTraceElement::toString)
+            .collect(Collectors.toList()));
+        SiteStats site = site(stack);
+        site.sampled.increment();
+        Borrow borrow = new Borrow(site, stack, Thread.currentThread().getName(), System.nanoTime());
+        open.put(borrow, Boolean.TRUE);
+        return (Connection) Proxy.newProxyInstance(ConnectionLeakDetector.class.getClassLoader(),
+                                                   new Class<?>[]{Connection.class},
+                                                   new TrackedConnection(connection, borrow));
+    }
+    
+    /**
+     * Check tracked connections every quarter of the threshold
+     */
+    public synchronized void start() {
+        if (!enabled || scheduler != null) {
+            return;
+        }
+        long periodMillis = Math.min(30_000, Math.max(1_000, TimeUnit.NANOSECONDS.toMillis(thresholdNanos) / 4));
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "db-leak-detector");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::scanQuietly, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+        logger.info("Connection leak detection started: {}% of borrows, threshold {} ms",
+                    sampleRate * 100, TimeUnit.NANOSECONDS.toMillis(thresholdNanos));
+    }
+    
+    /**
+     * Stop checking; tracked connections still report their close
+     */
+    public synchronized void stop() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdownNow();
+        scheduler = null;
+        logger.info("Connection leak detection stopped");
+    }
+    
+    /**
+     * Flag tracked connections held past the threshold
+     * @return Connections newly flagged
+     */
+    int scan() {
+        long now = System.nanoTime();
+        int flagged = 0;
+        for (Borrow borrow : open.keySet()) {
+            if (!borrow.flagged && now - borrow.startNanos >= thresholdNanos) {
+                borrow.flagged = true;
+                borrow.site.leaks.increment();
+                borrow.site.openSuspects.incrementAndGet();
+                suspects.increment();
+                flagged++;
+                logger.warn("Possible connection leak: held {} ms by thread {} since borrowed at\n\t{}",
+                            TimeUnit.NANOSECONDS.toMillis(now - borrow.startNanos), borrow.thread,
+                            String.join("\n\t", borrow.stack));
+            }
+        }
+        return flagged;
+    }
+    
+    /**
+     * @return true if borrows are being sampled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    /**
+     * @return Fraction of borrows tracked
+     */
+    public double getSampleRate() {
+        return sampleRate;
+    }
+    
+    /**
+     * @return Time a connection may be held before it is flagged
+     */
+    public long getThresholdMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(thresholdNanos);
+    }
+    
+    /**
+     * @return Connections flagged since startup
+     */
+    public long getSuspectCount() {
+        return suspects.sum();
+    }
+    
+    /**
+     * @return Flagged connections that have not been closed yet
+     */
+    public int getOpenSuspectCount() {
+        int count = 0;
+        for (Borrow borrow : open.keySet()) {
+            if (borrow.flagged) {
+                count++;
+            }
+        }
+        return count;
+    }
+    
+    /**
+     * @return Borrow sites, most flagged first
+     */
+    public List<SiteStats> getSites() {
+        List<SiteStats> result = new ArrayList<>(sites.values());
+        result.sort(Comparator.comparingLong(SiteStats::getLeaks)
+                        .thenComparingLong(SiteStats::getMaxHeldMillis).reversed());
+        return result;
+    }
+    
+    /**
+     * Forget per-site counts; connections still open stay tracked
+     */
+    public void reset() {
+        sites.clear();
+    }
+    
+    @Override
+    public void collect(MetricsWriter out) throws IOException {
+        out.family("oceanview_db_leak_suspects_total", "counter",
+                   "Sampled connections held longer than db.leakDetection.thresholdMillis");
+        out.sample("oceanview_db_leak_suspects_total", suspects.sum());
+        out.family("oceanview_db_leak_suspects_open", "gauge", "Flagged connections not closed yet");
+        out.sample("oceanview_db_leak_suspects_open", getOpenSuspectCount());
+        out.family("oceanview_db_leak_tracked", "gauge", "Sampled connections currently borrowed");
+        out.sample("oceanview_db_leak_tracked", open.size());
+    }
+    
+    private SiteStats site(List<String> stack) {
+        String key = stack.isEmpty() ? "(unknown)"
+            : String.join(" < ", stack.subList(0, Math.min(SITE_FRAMES, stack.size())));
+        SiteStats site = sites.get(key);
+        if (site != null) {
+            return site;
+        }
+        if (sites.size() >= MAX_SITES) {
+            key = OTHER;
+        }
+        return sites.computeIfAbsent(key, SiteStats::new);
+    }
+    
+    private void closed(Borrow borrow) {
+        if (open.remove(borrow) == null) {
+            return;
+        }
+        long held = System.nanoTime() - borrow.startNanos;
+        borrow.site.maxHeldNanos.accumulateAndGet(held, Math::max);
+        if (borrow.flagged) {
+            borrow.site.openSuspects.decrementAndGet();
+            logger.info("Connection flagged as a possible leak was closed after {} ms by thread {}: {}",
+                        TimeUnit.NANOSECONDS.toMillis(held), Thread.currentThread().getName(), borrow.site.site);
+        }
+    }
+    
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+    
+    private void scanQuietly() {
+        try {
+            scan();
+        } catch (RuntimeException e) {
+            logger.error("Connection leak scan failed", e);
+        }
+    }
+    
+    /**
+     * Application frames, leaving out the pool plumbing and the DAO base
+     * class; the JDBC proxies between them are not application classes
+     */
+    private static boolean isApplicationFrame(String className) {
+        if (!className.startsWith("com.oceanview.")) {
+            return false;
+        }
+        int nested = className.indexOf('$');
+        return !PLUMBING.contains(nested < 0 ? className : className.substring(0, nested));
+    }
+    
+    /**
+     * One tracked borrow; compared by identity
+     */
+    private static final class Borrow {
+        
+        private final SiteStats site;
+        private final List<String> stack;
+        private final String thread;
+        private final long startNanos;
+        private volatile boolean flagged;
+        
+        Borrow(SiteStats site, List<String> stack, String thread, long startNanos) {
+            this.site = site;
+            this.stack = stack;
+            this.thread = thread;
+            this.startNanos = startNanos;
+        }
+    }
+    
+    private final class TrackedConnection implements InvocationHandler {
+        
+        private final Connection connection;
+        private final Borrow borrow;
+        
+        TrackedConnection(Connection connection, Borrow borrow) {
+            this.connection = connection;
+            this.borrow = borrow;
+        }
+        
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    closed(borrow);
+                    break;
+                case "equals":
+                    if (method.getParameterCount() == 1) {
+                        return proxy == args[0];
+                    }
+                    break;
+                case "hashCode":
+                    if (method.getParameterCount() == 0) {
+                        return System.identityHashCode(proxy);
+                    }
+                    break;
+                default:
+                    break;
+            }
+            return ConnectionLeakDetector.invoke(connection, method, args);
+        }
+    }
+    
+    /**
+     * Counts for one borrow site
+     */
+    public static final class SiteStats {
+        
+        private final String site;
+        private final LongAdder sampled = new LongAdder();
+        private final LongAdder leaks = new LongAdder();
+        private final AtomicLong maxHeldNanos = new AtomicLong();
+        private final AtomicInteger openSuspects = new AtomicInteger();
+        
+        SiteStats(String site) {
+            this.site = site;
+        }
+        
+        /**
+         * @return Borrowing frame and its caller, innermost first
+         */
+        public String getSite() {
+            return site;
+        }
+        
+        /**
+         * @return Borrows from this site that were tracked
+         */
+        public long getSampled() {
+            return sampled.sum();
+        }
+        
+        /**
+         * @return Tracked borrows flagged as possible leaks
+         */
+        public long getLeaks() {
+            return leaks.sum();
+        }
+        
+        /**
+         * @return Connections from this site held past the threshold right now
+         */
+        public int getOpenNow() {
+            return openSuspects.get();
+        }
+        
+        /**
+         * @return Longest a tracked connection from this site was held before closing
+         */
+        public long getMaxHeldMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(maxHeldNanos.get());
+        }
+    }
+}
@@ -0,0 +1,361 @@
+package com.oceanview.jdbc;
+
+import com.oceanview.tracing.Span;
+import com.oceanview.tracing.Tracer;
+
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Logger;
+import javax.sql.DataSource;
+
+/**
+ * Instrumented Data Source
+ * Wraps the pool so every connection, statement and result set handed to
+ * the DAOs is a thin proxy that reports to SqlStatistics:
+ * - the time getConnection() took, charged to the first statement run on
+ *   the connection
+ * - the time of each execute call, per SQL fingerprint
+ * - rows affected by updates and batches, and rows read through next()
+ * - the types of bound parameters, for the slow query log
+ * 
+ * Every other call is passed straight to the pooled object.
+ * 
+ * @author Ocean View Resort Development Team
+ * @version 1.0.0
+ */
+public class InstrumentedDataSource implements DataSource {
+    
+    private static final ClassLoader LOADER = InstrumentedDataSource.class.getClassLoader();
+    
+    private final DataSource target;
+    private final SqlStatistics statistics;
+    
+    /**
+     * Constructor
+     * @param target Pooled data source
+     * @param statistics Statistics to report to
+     */
+    public InstrumentedDataSource(DataSource target, SqlStatistics statistics) {
+        this.target = target;
+        this.statistics = statistics;
+    }
+    
+    @Override
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        Connection connection = target.getConnection();
+        return wrap(connection, System.nanoTime() - start);
+    }
+    
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        long start = System.nanoTime();
+        Connection connection = target.getConnection(username, password);
+        return wrap(connection, System.nanoTime() - start);
+    }
+    
+    /**
+     * @return Statistics this data source reports to
+     */
+    public SqlStatistics getStatistics() {
+        return statistics;
+    }
+    
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return target.getLogWriter();
+    }
+    
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        target.setLogWriter(out);
+    }
+    
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        target.setLoginTimeout(seconds);
+    }
+    
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return target.getLoginTimeout();
+    }
+    
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return target.getParentLogger();
+    }
+    
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return iface.isInstance(target) ? iface.cast(target) : target.unwrap(iface);
+    }
+    
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(target) || target.isWrapperFor(iface);
+    }
+    
+    private Connection wrap(Connection connection, long waitNanos) {
+        return (Connection) Proxy.newProxyInstance(LOADER, new Class<?>[]{Connection.class},
+                                                   new ConnectionHandler(connection, waitNanos));
+    }
+    
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+    
+    /**
+     * Handles equals and hashCode on a proxy by identity
+     * @return Result, or null if the method is not one of them
+     */
+    private static Object identity(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "equals":
+                return args != null && args.length == 1 && method.getParameterTypes()[0] == Object.class
+                    ? proxy == args[0] : null;
+            case "hashCode":
+                return method.getParameterCount() == 0 ? System.identityHashCode(proxy) : null;
+            default:
+                return null;
+        }
+    }
+    
+    private final class ConnectionHandler implements InvocationHandler {
+        
+        private final Connection connection;
+        private long waitNanos;
+        
+        ConnectionHandler(Connection connection, long waitNanos) {
+            this.connection = connection;
+            this.waitNanos = waitNanos;
+        }
+        
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object same = identity(proxy, method, args);
+            if (same != null) {
+                return same;
+            }
+            String name = method.getName();
+            if (("prepareStatement".equals(name) || "prepareCall".equals(name)) && args != null
+                    && args[0] instanceof String) {
+                PreparedStatement statement = (PreparedStatement) InstrumentedDataSource.invoke(connection, method, args);
+                SqlStatistics.StatementStats stats = statistics.forSql((String) args[0]);
+                Class<?> type = "prepareCall".equals(name) ? CallableStatement.class : PreparedStatement.class;
+                return Proxy.newProxyInstance(LOADER, new Class<?>[]{type},
+                                              new StatementHandler(statement, (Connection) proxy, stats, claimWait()));
+            }
+            if ("createStatement".equals(name)) {
+                Statement statement = (Statement) InstrumentedDataSource.invoke(connection, method, args);
+                return Proxy.newProxyInstance(LOADER, new Class<?>[]{Statement.class},
+                                              new StatementHandler(statement, (Connection) proxy, null, claimWait()));
+            }
+            if ("toString".equals(name)) {
+                return "Instrumented" + connection;
+            }
+            return InstrumentedDataSource.invoke(connection, method, args);
+        }
+        
+        private long claimWait() {
+            long claimed = waitNanos;
+            waitNanos = 0;
+            return claimed;
+        }
+    }
+    
+    private final class StatementHandler implements InvocationHandler {
+        
+        private final Statement statement;
+        private final Connection connection;
+        private final SqlStatistics.StatementStats preparedStats;
+        private long waitNanos;
+        private List<String> parameterTypes;
+        private SqlStatistics.StatementStats lastStats;
+        private ResultSetHandler openResults;
+        
+        StatementHandler(Statement statement, Connection connection, SqlStatistics.StatementStats preparedStats,
+                         long waitNanos) {
+            this.statement = statement;
+            this.connection = connection;
+            this.preparedStats = preparedStats;
+            this.waitNanos = waitNanos;
+            if (preparedStats != null && waitNanos > 0) {
+                statistics.waited(preparedStats, waitNanos);
+            }
+        }
+        
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object same = identity(proxy, method, args);
+            if (same != null) {
+                return same;
+            }
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                return execute(proxy, method, args, name);
+            }
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer
+                    && statement instanceof PreparedStatement) {
+                bound((Integer) args[0], args[1] == null ? "NULL" : name.substring(3));
+            } else if ("clearParameters".equals(name)) {
+                parameterTypes = null;
+            } else if ("getResultSet".equals(name)) {
+                ResultSet resultSet = (ResultSet) InstrumentedDataSource.invoke(statement, method, args);
+                return resultSet == null ? null : wrap(resultSet, proxy, lastStats);
+            } else if ("getConnection".equals(name)) {
+                return connection;
+            } else if ("close".equals(name) && openResults != null) {
+                // Closing the statement closes its result set without a call through the proxy
+                openResults.report();
+            }
+            return InstrumentedDataSource.invoke(statement, method, args);
+        }
+        
+        private Object execute(Object proxy, Method method, Object[] args, String name) throws Throwable {
+            SqlStatistics.StatementStats stats = preparedStats;
+            if (args != null && args.length > 0 && args[0] instanceof String) {
+                stats = statistics.forSql((String) args[0]);
+                if (waitNanos > 0) {
+                    statistics.waited(stats, waitNanos);
+                }
+            }
+            if (stats == null) {
+                return InstrumentedDataSource.invoke(statement, method, args);
+            }
+            lastStats = stats;
+            long wait = waitNanos;
+            waitNanos = 0;
+            Span span = Tracer.span("sql " + stats.getId());
+            long start = System.nanoTime();
+            try {
+                Object result;
+                try {
+                    result = InstrumentedDataSource.invoke(statement, method, args);
+                } catch (SQLException e) {
+                    statistics.executed(stats, System.nanoTime() - start, 0, wait, parameterTypes(), e);
+                    span.error(e);
+                    throw e;
+                } catch (RuntimeException | Error e) {
+                    span.error(e);
+                    throw e;
+                }
+                long elapsed = System.nanoTime() - start;
+                long rows = rowsAffected(result);
+                statistics.executed(stats, elapsed, rows, wait, parameterTypes(), null);
+                span.tag("sql", stats.getSql()).tag("rows", rows);
+                if (result instanceof ResultSet) {
+                    return wrap((ResultSet) result, proxy, stats);
+                }
+                return result;
+            } finally {
+                span.close();
+            }
+        }
+        
+        private long rowsAffected(Object result) {
+            if (result instanceof Integer || result instanceof Long) {
+                return ((Number) result).longValue();
+            }
+            long rows = 0;
+            if (result instanceof int[]) {
+                for (int count : (int[]) result) {
+                    rows += Math.max(0, count);
+                }
+            } else if (result instanceof long[]) {
+                for (long count : (long[]) result) {
+                    rows += Math.max(0, count);
+                }
+            }
+            return rows;
+        }
+        
+        private void bound(int index, String type) {
+            if (parameterTypes == null) {
+                parameterTypes = new ArrayList<>();
+            }
+            while (parameterTypes.size() < index) {
+                parameterTypes.add("?");
+            }
+            parameterTypes.set(index - 1, type);
+        }
+        
+        private List<String> parameterTypes() {
+            return parameterTypes == null ? Collections.emptyList() : parameterTypes;
+        }
+        
+        private ResultSet wrap(ResultSet resultSet, Object statementProxy, SqlStatistics.StatementStats stats) {
+            if (stats == null) {
+                return resultSet;
+            }
+            if (openResults != null) {
+                openResults.report();
+            }
+            openResults = new ResultSetHandler(resultSet, statementProxy, stats);
+            return (ResultSet) Proxy.newProxyInstance(LOADER, new Class<?>[]{ResultSet.class}, openResults);
+        }
+    }
+    
+    private final class ResultSetHandler implements InvocationHandler {
+        
+        private final ResultSet resultSet;
+        private final Object statement;
+        private final SqlStatistics.StatementStats stats;
+        private long rows;
+        private boolean reported;
+        
+        ResultSetHandler(ResultSet resultSet, Object statement, SqlStatistics.StatementStats stats) {
+            this.resultSet = resultSet;
+            this.statement = statement;
+            this.stats = stats;
+        }
+        
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if ("next".equals(name)) {
+                boolean more = resultSet.next();
+                if (more) {
+                    rows++;
+                } else {
+                    report();
+                }
+                return more;
+            }
+            Object same = identity(proxy, method, args);
+            if (same != null) {
+                return same;
+            }
+            if ("close".equals(name)) {
+                report();
+            } else if ("getStatement".equals(name)) {
+                return statement;
+            }
+            return InstrumentedDataSource.invoke(resultSet, method, args);
+        }
+        
+        private void report() {
+            if (!reported) {
+                reported = true;
+                statistics.fetched(stats, rows);
+            }
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.oceanview.jdbc;
+
+import org.apache.commons.dbcp2.BasicDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pool Size Controller
+ * Grows or shrinks the pool's maxTotal between db.pool.adaptive.minTotal
+ * and db.pool.adaptive.maxTotal from the borrow waits PoolTelemetry saw
+ * over the last interval:
+ * - grow by one step when borrows timed out, or the 95th percentile wait
+ *   was above db.pool.adaptive.targetWaitMillis, while every connection was
+ *   in use; waiting with idle connections left is not a pool size problem
+ * - shrink by one step when the 95th percentile wait was at most half the
+ *   target and the peak left more than a step of connections unused
+ * 
+ * One step per interval keeps the pool from swinging on a single burst.
+ * Connections above a smaller maxTotal are not closed; they are released
+ * as they go idle.
+ * 
+ * @author Ocean View Resort Development Team
+ * @version 1.0.0
+ */
+public class PoolSizeController {
+    
+    private static final Logger logger = LoggerFactory.getLogger(PoolSizeController.class);
+    
+    private final BasicDataSource pool;
+    private final PoolTelemetry telemetry;
+    private final boolean enabled;
+    private final int minTotal;
+    private final int maxTotal;
+    private final double targetWaitMillis;
+    private final int step;
+    private final long intervalSeconds;
+    private final int baseMaxIdle;
+    
+    private ScheduledExecutorService scheduler;
+    
+    /**
+     * Constructor
+     * @param pool Pool to resize
+     * @param telemetry Borrow figures for the pool
+     * @param enabled Whether start() schedules adjustments
+     * @param minTotal Smallest maxTotal to set
+     * @param maxTotal Largest maxTotal to set
+     * @param targetWaitMillis 95th percentile borrow wait to stay under
+     * @param step Connections added or removed per adjustment
+     * @param intervalSeconds Seconds between adjustments
+     */
+    public PoolSizeController(BasicDataSource pool, PoolTelemetry telemetry, boolean enabled, int minTotal,
+                              int maxTotal, long targetWaitMillis, int step, long intervalSeconds) {
+        this.pool = pool;
+        this.telemetry = telemetry;
+        this.enabled = enabled;
+        this.minTotal = Math.max(1, minTotal);
+        this.maxTotal = Math.max(this.minTotal, maxTotal);
+        this.targetWaitMillis = Math.max(1, targetWaitMillis);
+        this.step = Math.max(1, step);
+        this.intervalSeconds = Math.max(1, intervalSeconds);
+        this.baseMaxIdle = pool.getMaxIdle();
+    }
+    
+    /**
+     * Adjust the pool every interval, if db.pool.adaptive.enabled
+     */
+    public synchronized void start() {
+        if (!enabled || scheduler != null) {
+            return;
+        }
+        int current = pool.getMaxTotal();
+        int clamped = Math.min(maxTotal, Math.max(minTotal, current));
+        if (clamped != current) {
+            resize(current, clamped);
+        }
+        telemetry.drainWindow();
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "db-pool-sizing");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::adjustQuietly, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+        logger.info("Adaptive pool sizing started: {}-{} connections, target wait {} ms, every {} s",
+                    minTotal, maxTotal, targetWaitMillis, intervalSeconds);
+    }
+    
+    /**
+     * Stop adjusting; the pool keeps its current size
+     */
+    public synchronized void stop() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdownNow();
+        scheduler = null;
+        logger.info("Adaptive pool sizing stopped at maxTotal {}", pool.getMaxTotal());
+    }
+    
+    /**
+     * Drain the telemetry window and resize the pool if it calls for it
+     * @return maxTotal after the adjustment
+     */
+    int adjust() {
+        PoolTelemetry.Window window = telemetry.drainWindow();
+        int current = pool.getMaxTotal();
+        int target = target(window, current);
+        if (target != current) {
+            logger.info("Resizing connection pool {} -> {}: {} borrows, p95 wait {} ms, {} timeouts, peak {} active",
+                        current, target, window.getBorrows(), String.format("%.1f", window.getP95WaitMillis()),
+                        window.getTimeouts(), window.getPeakActive());
+            resize(current, target);
+        }
+        return target;
+    }
+    
+    private int target(PoolTelemetry.Window window, int current) {
+        double p95 = window.getP95WaitMillis();
+        boolean saturated = window.getPeakActive() >= current;
+        if (saturated && (window.getTimeouts() > 0 || p95 > targetWaitMillis)) {
+            return Math.min(maxTotal, current + step);
+        }
+        if (window.getTimeouts() == 0 && p95 <= targetWaitMillis / 2
+                && window.getPeakActive() + step < current) {
+            return Math.max(minTotal, current - step);
+        }
+        return current;
+    }
+    
+    private void resize(int current, int target) {
+        // Keep grown connections around between bursts instead of closing
+        // everything above the configured maxIdle on return
+        pool.setMaxIdle(Math.max(baseMaxIdle, target));
+        pool.setMaxTotal(target);
+        telemetry.resized();
+    }
+    
+    private void adjustQuietly() {
+        try {
+            adjust();
+        } catch (RuntimeException e) {
+            logger.error("Connection pool adjustment failed", e);
+        }
+    }
+}
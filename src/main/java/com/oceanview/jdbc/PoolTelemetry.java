@@ -0,0 +1,173 @@
+package com.oceanview.jdbc;
+
+import com.oceanview.metrics.LatencyHistogram;
+import com.oceanview.metrics.MetricsCollector;
+import com.oceanview.metrics.MetricsWriter;
+import org.apache.commons.dbcp2.BasicDataSource;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pool Telemetry
+ * How long callers wait to borrow a pooled connection, how often the wait
+ * ends in a timeout and how many connections were in use at the peak.
+ * DatabaseConfig reports every borrow, whether or not statement
+ * instrumentation is on.
+ * 
+ * Besides the totals since startup, a window of the same figures is kept
+ * for PoolSizeController, which drains it on every adjustment.
+ * 
+ * @author Ocean View Resort Development Team
+ * @version 1.0.0
+ */
+public class PoolTelemetry implements MetricsCollector {
+    
+    private final BasicDataSource pool;
+    private final LatencyHistogram borrowWait = new LatencyHistogram();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder resizes = new LongAdder();
+    private final AtomicInteger peakActive = new AtomicInteger();
+    
+    private final AtomicReference<LatencyHistogram> windowWait = new AtomicReference<>(new LatencyHistogram());
+    private final LongAdder windowTimeouts = new LongAdder();
+    private final AtomicInteger windowPeakActive = new AtomicInteger();
+    
+    /**
+     * Constructor
+     * @param pool Pool being measured
+     */
+    public PoolTelemetry(BasicDataSource pool) {
+        this.pool = pool;
+    }
+    
+    /**
+     * Record a successful borrow
+     * @param waitNanos Time getConnection() took
+     */
+    public void borrowed(long waitNanos) {
+        borrowWait.record(waitNanos);
+        windowWait.get().record(waitNanos);
+        int active = pool.getNumActive();
+        peakActive.accumulateAndGet(active, Math::max);
+        windowPeakActive.accumulateAndGet(active, Math::max);
+    }
+    
+    /**
+     * Record a borrow that threw
+     * @param waitNanos Time getConnection() took
+     * @param failure Exception thrown; only pool exhaustion counts as a timeout
+     */
+    public void failed(long waitNanos, SQLException failure) {
+        if (isTimeout(failure)) {
+            borrowWait.record(waitNanos);
+            windowWait.get().record(waitNanos);
+            timeouts.increment();
+            windowTimeouts.increment();
+        }
+    }
+    
+    /**
+     * Record a change of the pool's maximum size
+     */
+    void resized() {
+        resizes.increment();
+    }
+    
+    /**
+     * Take the figures collected since the last call and start a new window
+     * @return Window just closed
+     */
+    Window drainWindow() {
+        LatencyHistogram.Snapshot wait = windowWait.getAndSet(new LatencyHistogram()).snapshot();
+        long timeoutCount = windowTimeouts.sumThenReset();
+        int peak = windowPeakActive.getAndSet(pool.getNumActive());
+        return new Window(wait, timeoutCount, peak);
+    }
+    
+    /**
+     * @return Borrow wait times since startup
+     */
+    public LatencyHistogram.Snapshot getBorrowWait() {
+        return borrowWait.snapshot();
+    }
+    
+    /**
+     * @return Borrows that gave up after db.pool.maxWait
+     */
+    public long getTimeoutCount() {
+        return timeouts.sum();
+    }
+    
+    /**
+     * @return Most connections in use at once since startup
+     */
+    public int getPeakActive() {
+        return peakActive.get();
+    }
+    
+    /**
+     * @return Changes made to the pool's maximum size
+     */
+    public long getResizeCount() {
+        return resizes.sum();
+    }
+    
+    @Override
+    public void collect(MetricsWriter out) throws IOException {
+        out.family("oceanview_db_pool_borrow_wait_seconds", "histogram", "Time taken to borrow a pooled connection");
+        out.histogram("oceanview_db_pool_borrow_wait_seconds", borrowWait.snapshot());
+        out.family("oceanview_db_pool_timeouts_total", "counter", "Borrows that timed out waiting for a connection");
+        out.sample("oceanview_db_pool_timeouts_total", timeouts.sum());
+        out.family("oceanview_db_pool_active_peak", "gauge", "Most pooled connections in use at once");
+        out.sample("oceanview_db_pool_active_peak", peakActive.get());
+        out.family("oceanview_db_pool_max_total", "gauge", "Current maximum pool size");
+        out.sample("oceanview_db_pool_max_total", pool.getMaxTotal());
+        out.family("oceanview_db_pool_resizes_total", "counter", "Changes made to the maximum pool size");
+        out.sample("oceanview_db_pool_resizes_total", resizes.sum());
+    }
+    
+    /**
+     * DBCP reports an exhausted pool as a SQLException caused by the
+     * NoSuchElementException from the object pool
+     */
+    private static boolean isTimeout(SQLException failure) {
+        return failure.getCause() instanceof NoSuchElementException;
+    }
+    
+    /**
+     * Borrow figures for one adjustment interval
+     */
+    static final class Window {
+        
+        private final LatencyHistogram.Snapshot wait;
+        private final long timeouts;
+        private final int peakActive;
+        
+        Window(LatencyHistogram.Snapshot wait, long timeouts, int peakActive) {
+            this.wait = wait;
+            this.timeouts = timeouts;
+            this.peakActive = peakActive;
+        }
+        
+        long getBorrows() {
+            return wait.getCount();
+        }
+        
+        double getP95WaitMillis() {
+            return wait.getQuantileSeconds(0.95) * 1000;
+        }
+        
+        long getTimeouts() {
+            return timeouts;
+        }
+        
+        int getPeakActive() {
+            return peakActive;
+        }
+    }
+}
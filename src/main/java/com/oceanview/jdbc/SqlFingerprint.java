@@ -0,0 +1,122 @@
+package com.oceanview.jdbc;
+
+/**
+ * SQL Fingerprint
+ * Normalises SQL text so every execution of the same statement shape is
+ * counted together: whitespace is collapsed, string and number literals
+ * become ?, and placeholder lists such as IN (?, ?, ?) become IN (?, ...).
+ * The result never contains literal values, so it is safe to log.
+ * 
+ * @author Ocean View Resort Development Team
+ * @version 1.0.0
+ */
+public final class SqlFingerprint {
+    
+    private SqlFingerprint() {
+    }
+    
+    /**
+     * Normalise a SQL statement
+     * @param sql SQL text
+     * @return Fingerprint
+     */
+    public static String of(String sql) {
+        StringBuilder out = new StringBuilder(sql.length());
+        int length = sql.length();
+        int i = 0;
+        while (i < length) {
+            char c = sql.charAt(i);
+            if (c == '\'') {
+                // String literal, '' is an escaped quote
+                i++;
+                while (i < length) {
+                    if (sql.charAt(i) == '\'') {
+                        if (i + 1 < length && sql.charAt(i + 1) == '\'') {
+                            i += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    i++;
+                }
+                i++;
+                out.append('?');
+            } else if (Character.isWhitespace(c)) {
+                while (i < length && Character.isWhitespace(sql.charAt(i))) {
+                    i++;
+                }
+                if (out.length() > 0) {
+                    out.append(' ');
+                }
+            } else if (Character.isDigit(c) && !continuesIdentifier(out)) {
+                while (i < length && (Character.isDigit(sql.charAt(i)) || sql.charAt(i) == '.')) {
+                    i++;
+                }
+                out.append('?');
+            } else {
+                out.append(c);
+                i++;
+            }
+        }
+        int end = out.length();
+        while (end > 0 && (out.charAt(end - 1) == ' ' || out.charAt(end - 1) == ';')) {
+            end--;
+        }
+        out.setLength(end);
+        return collapseLists(out.toString());
+    }
+    
+    private static boolean continuesIdentifier(StringBuilder out) {
+        if (out.length() == 0) {
+            return false;
+        }
+        char previous = out.charAt(out.length() - 1);
+        return Character.isLetterOrDigit(previous) || previous == '_' || previous == '`';
+    }
+    
+    /**
+     * Replace (?, ?, ?) and (?,?) with (?, ...)
+     */
+    private static String collapseLists(String sql) {
+        if (sql.indexOf("?,") < 0 && sql.indexOf("?, ") < 0) {
+            return sql;
+        }
+        StringBuilder out = new StringBuilder(sql.length());
+        int i = 0;
+        while (i < sql.length()) {
+            int end = placeholderListEnd(sql, i);
+            if (end > 0) {
+                out.append("(?, ...)");
+                i = end;
+            } else {
+                out.append(sql.charAt(i));
+                i++;
+            }
+        }
+        return out.toString();
+    }
+    
+    /**
+     * @return Index after the closing parenthesis if a list of two or more
+     *         placeholders starts at i, otherwise -1
+     */
+    private static int placeholderListEnd(String sql, int i) {
+        if (sql.charAt(i) != '(') {
+            return -1;
+        }
+        int placeholders = 0;
+        int j = i + 1;
+        while (j < sql.length()) {
+            char c = sql.charAt(j);
+            if (c == '?') {
+                placeholders++;
+            } else if (c == ')') {
+                return placeholders >= 2 ? j + 1 : -1;
+            } else if (c != ',' && c != ' ') {
+                return -1;
+            }
+            j++;
+        }
+        return -1;
+    }
+}
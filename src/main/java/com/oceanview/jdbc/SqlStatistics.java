@@ -0,0 +1,261 @@
+package com.oceanview.jdbc;
+
+import com.oceanview.metrics.LatencyHistogram;
+import com.oceanview.metrics.MetricsCollector;
+import com.oceanview.metrics.MetricsWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * SQL Statistics
+ * Execution time, rows and connection wait per SQL fingerprint, collected by
+ * InstrumentedDataSource. Statements at or above the slow threshold are
+ * written to the com.oceanview.jdbc.SlowQueryLog logger with their
+ * fingerprint and parameter types; bound values are never logged.
+ * 
+ * Raw SQL strings are mapped to their fingerprint once and then looked up
+ * without normalising again. At most maxStatements fingerprints are
+ * tracked; further ones are counted under a single "(other)" entry.
+ * 
+ * @author Ocean View Resort Development Team
+ * @version 1.0.0
+ */
+public class SqlStatistics implements MetricsCollector {
+    
+    private static final Logger slowQueryLog = LoggerFactory.getLogger("com.oceanview.jdbc.SlowQueryLog");
+    static final String OTHER = "(other)";
+    
+    private final long slowNanos;
+    private final int maxStatements;
+    private final Map<String, StatementStats> bySql = new ConcurrentHashMap<>();
+    private final Map<String, StatementStats> byFingerprint = new ConcurrentHashMap<>();
+    
+    /**
+     * Constructor
+     * @param slowMillis Executions at or above this are logged as slow
+     * @param maxStatements Most fingerprints tracked separately
+     */
+    public SqlStatistics(long slowMillis, int maxStatements) {
+        this.slowNanos = TimeUnit.MILLISECONDS.toNanos(slowMillis);
+        this.maxStatements = Math.max(1, maxStatements);
+    }
+    
+    /**
+     * Statistics entry for a SQL string
+     * @param sql SQL text as prepared
+     * @return Entry for its fingerprint
+     */
+    StatementStats forSql(String sql) {
+        StatementStats stats = bySql.get(sql);
+        if (stats != null) {
+            return stats;
+        }
+        String fingerprint = SqlFingerprint.of(sql);
+        if (byFingerprint.size() >= maxStatements && !byFingerprint.containsKey(fingerprint)) {
+            fingerprint = OTHER;
+        }
+        stats = byFingerprint.computeIfAbsent(fingerprint, StatementStats::new);
+        if (bySql.size() < maxStatements * 4) {
+            bySql.put(sql, stats);
+        }
+        return stats;
+    }
+    
+    /**
+     * Record one execution
+     * @param stats Statement entry
+     * @param elapsedNanos Time spent in the execute call
+     * @param rows Rows affected, or 0 for queries (fetched rows are added later)
+     * @param waitNanos Time the connection took to borrow, if this statement borrowed it
+     * @param parameterTypes Types bound to the statement, for the slow query log
+     * @param failure Exception thrown, or null
+     */
+    void executed(StatementStats stats, long elapsedNanos, long rows, long waitNanos,
+                  List<String> parameterTypes, SQLException failure) {
+        stats.executions.increment();
+        stats.totalNanos.add(elapsedNanos);
+        stats.latency.record(elapsedNanos);
+        stats.maxNanos.accumulateAndGet(elapsedNanos, Math::max);
+        if (rows > 0) {
+            stats.rows.add(rows);
+        }
+        if (failure != null) {
+            stats.errors.increment();
+        }
+        if (elapsedNanos >= slowNanos) {
+            stats.slow.increment();
+            if (slowQueryLog.isWarnEnabled()) {
+                slowQueryLog.warn("Slow SQL {} ms{}{}: {} params={}",
+                                  TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                                  waitNanos > 0 ? " after waiting " + TimeUnit.NANOSECONDS.toMillis(waitNanos)
+                                      + " ms for a connection" : "",
+                                  failure != null ? " (failed: " + failure.getSQLState() + ")" : "",
+                                  stats.sql, parameterTypes);
+            }
+        }
+    }
+    
+    /**
+     * Record rows read from a result set
+     */
+    void fetched(StatementStats stats, long rows) {
+        stats.rows.add(rows);
+    }
+    
+    /**
+     * Record the time a connection took to borrow, charged to the first
+     * statement run on it
+     */
+    void waited(StatementStats stats, long waitNanos) {
+        stats.waitNanos.add(waitNanos);
+    }
+    
+    /**
+     * @return Tracked statements, most total execution time first
+     */
+    public List<StatementStats> getStatements() {
+        List<StatementStats> statements = new ArrayList<>(byFingerprint.values());
+        statements.sort(Comparator.comparingLong(StatementStats::getTotalNanos).reversed());
+        return statements;
+    }
+    
+    /**
+     * @return Slow executions across all statements
+     */
+    public long getSlowCount() {
+        long slow = 0;
+        for (StatementStats stats : byFingerprint.values()) {
+            slow += stats.slow.sum();
+        }
+        return slow;
+    }
+    
+    /**
+     * Forget everything collected so far
+     */
+    public void reset() {
+        bySql.clear();
+        byFingerprint.clear();
+    }
+    
+    @Override
+    public void collect(MetricsWriter out) throws IOException {
+        List<StatementStats> statements = getStatements();
+        
+        out.family("oceanview_sql_statement_info", "gauge", "SQL text of each statement id");
+        for (StatementStats stats : statements) {
+            out.sample("oceanview_sql_statement_info", 1, "statement", stats.id, "sql", stats.sql);
+        }
+        out.family("oceanview_sql_statement_duration_seconds", "histogram", "Statement execution time");
+        for (StatementStats stats : statements) {
+            out.histogram("oceanview_sql_statement_duration_seconds", stats.latency.snapshot(),
+                          "statement", stats.id);
+        }
+        out.family("oceanview_sql_rows_total", "counter", "Rows fetched or affected");
+        for (StatementStats stats : statements) {
+            out.sample("oceanview_sql_rows_total", stats.getRows(), "statement", stats.id);
+        }
+        out.family("oceanview_sql_errors_total", "counter", "Executions that threw an exception");
+        for (StatementStats stats : statements) {
+            out.sample("oceanview_sql_errors_total", stats.getErrors(), "statement", stats.id);
+        }
+        out.family("oceanview_sql_slow_total", "counter", "Executions at or above db.slowStatementMillis");
+        for (StatementStats stats : statements) {
+            out.sample("oceanview_sql_slow_total", stats.getSlowCount(), "statement", stats.id);
+        }
+        out.family("oceanview_sql_connection_wait_seconds_total", "counter",
+                   "Time spent borrowing the connection a statement ran on first");
+        for (StatementStats stats : statements) {
+            out.sample("oceanview_sql_connection_wait_seconds_total", stats.waitNanos.sum() / 1e9,
+                       "statement", stats.id);
+        }
+    }
+    
+    /**
+     * Counters for one SQL fingerprint
+     */
+    public static final class StatementStats {
+        
+        private final String sql;
+        private final String id;
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder executions = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder slow = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAdder waitNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        
+        StatementStats(String sql) {
+            this.sql = sql;
+            this.id = String.format("%08x", sql.hashCode());
+        }
+        
+        /**
+         * @return Fingerprint, with literals replaced by ?
+         */
+        public String getSql() {
+            return sql;
+        }
+        
+        /**
+         * @return Short stable id used as the metrics label
+         */
+        public String getId() {
+            return id;
+        }
+        
+        public long getExecutions() {
+            return executions.sum();
+        }
+        
+        public long getErrors() {
+            return errors.sum();
+        }
+        
+        public long getSlowCount() {
+            return slow.sum();
+        }
+        
+        public long getRows() {
+            return rows.sum();
+        }
+        
+        public long getTotalNanos() {
+            return totalNanos.sum();
+        }
+        
+        public double getTotalMillis() {
+            return totalNanos.sum() / 1e6;
+        }
+        
+        public double getMeanMillis() {
+            long count = executions.sum();
+            return count == 0 ? 0 : totalNanos.sum() / 1e6 / count;
+        }
+        
+        public double getMaxMillis() {
+            return maxNanos.get() / 1e6;
+        }
+        
+        public double getP99Millis() {
+            return latency.snapshot().getQuantileSeconds(0.99) * 1000;
+        }
+        
+        public double getWaitMillis() {
+            return waitNanos.sum() / 1e6;
+        }
+    }
+}
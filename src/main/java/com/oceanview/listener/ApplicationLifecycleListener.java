@@ -0,0 +1,71 @@
+package com.oceanview.listener;
+
+import com.oceanview.config.DatabaseConfig;
+import com.oceanview.metrics.ApplicationMetrics;
+import com.oceanview.metrics.MetricsRegistry;
+import com.oceanview.service.AuditLogWriter;
+import com.oceanview.service.AuditRetentionJob;
+import com.oceanview.service.AvailabilityIndex;
+import com.oceanview.service.DashboardStatsService;
+import com.oceanview.service.EmailOutboxWorker;
+import com.oceanview.service.InventoryReconciler;
+import com.oceanview.service.LastLoginRecorder;
+import com.oceanview.service.PdfRenderService;
+import com.oceanview.service.PendingReservationExpiry;
+import com.oceanview.tracing.TraceExporter;
+import com.oceanview.util.IdGenerator;
+import jakarta.servlet.ServletContextEvent;
+import jakarta.servlet.ServletContextListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Application Lifecycle Listener
+ * Starts background services and registers their metrics when the
+ * application is deployed, and stops them when it is undeployed
+ * Registered in web.xml
+ * 
+ * @author Ocean View Resort Development Team
+ * @version 1.0.0
+ */
+public class ApplicationLifecycleListener implements ServletContextListener {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ApplicationLifecycleListener.class);
+    
+    @Override
+    public void contextInitialized(ServletContextEvent event) {
+        // Fails fast on a multi-node setup without app.nodeId
+        IdGenerator.getInstance();
+        TraceExporter.getInstance().start();
+        DashboardStatsService.getInstance().start();
+        AvailabilityIndex.getInstance().start();
+        InventoryReconciler.getInstance().start();
+        PendingReservationExpiry.getInstance().start();
+        LastLoginRecorder.getInstance().start();
+        AuditLogWriter.getInstance().start();
+        AuditRetentionJob.getInstance().start();
+        EmailOutboxWorker.getInstance().start();
+        PdfRenderService.getInstance().start();
+        DatabaseConfig.getInstance().getPoolSizeController().start();
+        DatabaseConfig.getInstance().getLeakDetector().start();
+        ApplicationMetrics.register(MetricsRegistry.getInstance());
+        logger.info("Application background services started");
+    }
+    
+    @Override
+    public void contextDestroyed(ServletContextEvent event) {
+        DatabaseConfig.getInstance().getLeakDetector().stop();
+        DatabaseConfig.getInstance().getPoolSizeController().stop();
+        PdfRenderService.getInstance().stop();
+        EmailOutboxWorker.getInstance().stop();
+        AuditRetentionJob.getInstance().stop();
+        AuditLogWriter.getInstance().stop();
+        LastLoginRecorder.getInstance().stop();
+        PendingReservationExpiry.getInstance().stop();
+        InventoryReconciler.getInstance().stop();
+        AvailabilityIndex.getInstance().stop();
+        DashboardStatsService.getInstance().stop();
+        TraceExporter.getInstance().stop();
+        logger.info("Application background services stopped");
+    }
+}
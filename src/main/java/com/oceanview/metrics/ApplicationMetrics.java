@@ -0,0 +1,89 @@
+package com.oceanview.metrics;
+
+import com.oceanview.config.DatabaseConfig;
+import com.oceanview.dao.RoomCache;
+import com.oceanview.dao.UserCache;
+import com.oceanview.service.AuditLogWriter;
+import com.oceanview.service.EmailOutboxWorker;
+import com.oceanview.service.PdfRenderService;
+import com.oceanview.tracing.TraceExporter;
+
+/**
+ * Application Metrics
+ * Registers the HTTP metrics, the connection pool telemetry and leak
+ * detector, the per-statement SQL statistics and the counters the
+ * application's caches, background writers and connection pool already
+ * keep, so they show up on /metrics next to the request latencies.
+ * 
+ * @author Ocean View Resort Development Team
+ * @version 1.0.0
+ */
+public final class ApplicationMetrics {
+    
+    private ApplicationMetrics() {
+    }
+    
+    /**
+     * Register all application metrics
+     * @param registry Registry to register with
+     */
+    public static void register(MetricsRegistry registry) {
+        registry.register("http", HttpMetrics.getInstance());
+        
+        DatabaseConfig database = DatabaseConfig.getInstance();
+        registry.gauge("oceanview_db_connections_active", "Pooled connections in use",
+                       database::getActiveConnections);
+        registry.gauge("oceanview_db_connections_idle", "Pooled connections idle",
+                       database::getIdleConnections);
+        registry.register("pool", database.getPoolTelemetry());
+        registry.register("leaks", database.getLeakDetector());
+        if (database.getSqlStatistics() != null) {
+            registry.register("sql", database.getSqlStatistics());
+        }
+        
+        RoomCache roomCache = RoomCache.getInstance();
+        registry.counter("oceanview_room_cache_hits_total", "Room reads answered from the cache",
+                         roomCache::getHits);
+        registry.counter("oceanview_room_cache_misses_total", "Room catalog reloads",
+                         roomCache::getMisses);
+        UserCache userCache = UserCache.getInstance();
+        registry.counter("oceanview_user_cache_hits_total", "User lookups answered from the cache",
+                         userCache::getHits);
+        registry.counter("oceanview_user_cache_misses_total", "User lookups that went to the database",
+                         userCache::getMisses);
+        
+        AuditLogWriter auditLogWriter = AuditLogWriter.getInstance();
+        registry.gauge("oceanview_audit_queue_depth", "Audit log entries waiting to be written",
+                       auditLogWriter::getQueueDepth);
+        registry.counter("oceanview_audit_written_total", "Audit log entries written",
+                         auditLogWriter::getWrittenCount);
+        registry.counter("oceanview_audit_dropped_total", "Audit log entries dropped because the queue was full",
+                         auditLogWriter::getDroppedCount);
+        registry.counter("oceanview_audit_failed_total", "Audit log entries lost to write failures",
+                         auditLogWriter::getFailedCount);
+        
+        EmailOutboxWorker emailOutboxWorker = EmailOutboxWorker.getInstance();
+        registry.counter("oceanview_email_sent_total", "Emails delivered from the outbox",
+                         emailOutboxWorker::getSentCount);
+        registry.counter("oceanview_email_retried_total", "Email deliveries scheduled for retry",
+                         emailOutboxWorker::getRetriedCount);
+        registry.counter("oceanview_email_dead_total", "Emails given up on after the last attempt",
+                         emailOutboxWorker::getDeadLetteredCount);
+        
+        PdfRenderService pdfRenderService = PdfRenderService.getInstance();
+        registry.counter("oceanview_pdf_renders_total", "PDF documents rendered",
+                         pdfRenderService::getRenderCount);
+        registry.counter("oceanview_pdf_cache_hits_total", "PDF downloads served from the disk cache",
+                         pdfRenderService::getCacheHits);
+        registry.counter("oceanview_pdf_rejected_total", "PDF downloads refused while the render pool was busy",
+                         pdfRenderService::getRejectedCount);
+        registry.gauge("oceanview_pdf_queue_depth", "PDF renders waiting for a thread",
+                       pdfRenderService::getQueueDepth);
+        
+        TraceExporter traceExporter = TraceExporter.getInstance();
+        registry.counter("oceanview_traces_exported_total", "Slow request traces written to the trace file",
+                         traceExporter::getExportedCount);
+        registry.counter("oceanview_traces_dropped_total", "Slow request traces dropped because the queue was full",
+                         traceExporter::getDroppedCount);
+    }
+}
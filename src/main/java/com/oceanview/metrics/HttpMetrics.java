@@ -0,0 +1,173 @@
+package com.oceanview.metrics;
+
+import com.oceanview.config.AppConfig;
+
+import java.io.IOException;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * HTTP Metrics - Singleton Pattern
+ * Request latency, status codes and errors per servlet and action parameter,
+ * recorded by LoggingFilter and written to /metrics.
+ * 
+ * Each servlet/action pair gets a LatencyHistogram and per-status counters,
+ * created on first use and then updated without locks. The action value
+ * comes from the client, so it is only used as a label when it looks like an
+ * action name, and at most metrics.maxSeries pairs are tracked; anything
+ * beyond that is counted under action="other".
+ * 
+ * @author Ocean View Resort Development Team
+ * @version 1.0.0
+ */
+public class HttpMetrics implements MetricsCollector {
+    
+    static final String OTHER = "other";
+    private static final int MAX_ACTION_LENGTH = 40;
+    private static HttpMetrics instance;
+    
+    private final int maxSeries;
+    private final Map<String, Map<String, Endpoint>> endpoints = new ConcurrentHashMap<>();
+    private final AtomicInteger series = new AtomicInteger();
+    private final LongAdder inFlight = new LongAdder();
+    
+    /**
+     * Constructor
+     * @param maxSeries Most servlet/action pairs tracked separately
+     */
+    HttpMetrics(int maxSeries) {
+        this.maxSeries = Math.max(1, maxSeries);
+    }
+    
+    /**
+     * Get singleton instance
+     * @return HttpMetrics instance
+     */
+    public static synchronized HttpMetrics getInstance() {
+        if (instance == null) {
+            instance = new HttpMetrics(AppConfig.getInstance().getMetricsMaxSeries());
+        }
+        return instance;
+    }
+    
+    /**
+     * Mark a request as started; every call must be followed by record()
+     */
+    public void requestStarted() {
+        inFlight.increment();
+    }
+    
+    /**
+     * Record a finished request
+     * @param servlet Servlet name the request was mapped to
+     * @param action Value of the action parameter, may be null
+     * @param status Response status
+     * @param elapsedNanos Time spent in the filter chain
+     * @param failed Whether the chain threw an exception
+     */
+    public void record(String servlet, String action, int status, long elapsedNanos, boolean failed) {
+        inFlight.decrement();
+        Endpoint endpoint = endpoint(servlet != null ? servlet : "", labelFor(action));
+        endpoint.latency.record(elapsedNanos);
+        endpoint.statuses.computeIfAbsent(status, code -> new LongAdder()).increment();
+        if (failed) {
+            endpoint.errors.increment();
+        }
+    }
+    
+    @Override
+    public void collect(MetricsWriter out) throws IOException {
+        Map<String, Map<String, Endpoint>> sorted = new TreeMap<>();
+        endpoints.forEach((servlet, actions) -> sorted.put(servlet, new TreeMap<>(actions)));
+        Map<Endpoint, LatencyHistogram.Snapshot> snapshots = new IdentityHashMap<>();
+        
+        out.family("oceanview_http_request_duration_seconds", "histogram",
+                   "Time from the first filter to the end of the response");
+        for (Map.Entry<String, Map<String, Endpoint>> servlet : sorted.entrySet()) {
+            for (Map.Entry<String, Endpoint> action : servlet.getValue().entrySet()) {
+                LatencyHistogram.Snapshot snapshot = action.getValue().latency.snapshot();
+                snapshots.put(action.getValue(), snapshot);
+                out.histogram("oceanview_http_request_duration_seconds", snapshot,
+                              "servlet", servlet.getKey(), "action", action.getKey());
+            }
+        }
+        
+        out.family("oceanview_http_request_duration_quantile_seconds", "gauge",
+                   "Request latency quantiles since startup, to about 3% precision");
+        for (Map.Entry<String, Map<String, Endpoint>> servlet : sorted.entrySet()) {
+            for (Map.Entry<String, Endpoint> action : servlet.getValue().entrySet()) {
+                out.quantiles("oceanview_http_request_duration_quantile_seconds", snapshots.get(action.getValue()),
+                              "servlet", servlet.getKey(), "action", action.getKey());
+            }
+        }
+        
+        out.family("oceanview_http_responses_total", "counter", "Responses by status code");
+        for (Map.Entry<String, Map<String, Endpoint>> servlet : sorted.entrySet()) {
+            for (Map.Entry<String, Endpoint> action : servlet.getValue().entrySet()) {
+                for (Map.Entry<Integer, LongAdder> status : new TreeMap<>(action.getValue().statuses).entrySet()) {
+                    out.sample("oceanview_http_responses_total", status.getValue().sum(),
+                               "servlet", servlet.getKey(), "action", action.getKey(),
+                               "status", Integer.toString(status.getKey()));
+                }
+            }
+        }
+        
+        out.family("oceanview_http_request_errors_total", "counter", "Requests that ended in an exception");
+        for (Map.Entry<String, Map<String, Endpoint>> servlet : sorted.entrySet()) {
+            for (Map.Entry<String, Endpoint> action : servlet.getValue().entrySet()) {
+                out.sample("oceanview_http_request_errors_total", action.getValue().errors.sum(),
+                           "servlet", servlet.getKey(), "action", action.getKey());
+            }
+        }
+        
+        out.family("oceanview_http_requests_in_flight", "gauge", "Requests currently being processed");
+        out.sample("oceanview_http_requests_in_flight", inFlight.sum());
+    }
+    
+    private Endpoint endpoint(String servlet, String action) {
+        Map<String, Endpoint> actions = endpoints.get(servlet);
+        if (actions != null) {
+            Endpoint endpoint = actions.get(action);
+            if (endpoint != null) {
+                return endpoint;
+            }
+        }
+        String label = series.get() >= maxSeries ? OTHER : action;
+        return endpoints.computeIfAbsent(servlet, key -> new ConcurrentHashMap<>())
+            .computeIfAbsent(label, key -> {
+                series.incrementAndGet();
+                return new Endpoint();
+            });
+    }
+    
+    /**
+     * Action label for a parameter value: empty when absent, "other" when it
+     * does not look like an action name. Also names servlet spans in request
+     * traces.
+     */
+    public static String labelFor(String action) {
+        if (action == null || action.isEmpty()) {
+            return "";
+        }
+        if (action.length() > MAX_ACTION_LENGTH) {
+            return OTHER;
+        }
+        for (int i = 0; i < action.length(); i++) {
+            char c = action.charAt(i);
+            if (!(c >= 'a' && c <= 'z') && !(c >= 'A' && c <= 'Z') && !(c >= '0' && c <= '9') && c != '_' && c != '-') {
+                return OTHER;
+            }
+        }
+        return action;
+    }
+    
+    private static final class Endpoint {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+        private final LongAdder errors = new LongAdder();
+    }
+}
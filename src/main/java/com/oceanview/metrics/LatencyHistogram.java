@@ -0,0 +1,138 @@
+package com.oceanview.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency Histogram - lock-free log-linear histogram of durations
+ * Durations are recorded in microseconds into buckets laid out like an
+ * HdrHistogram: every power of two is split into 32 equal sub-buckets, so
+ * any recorded value is known to within about 3% over the whole range from
+ * 1 microsecond to roughly 38 hours. Recording is one array increment and
+ * one adder update with no locks and no allocation, so it can stay on for
+ * every request.
+ * 
+ * Counts only grow; quantiles and Prometheus buckets are computed from a
+ * point-in-time read of the counters.
+ * 
+ * @author Ocean View Resort Development Team
+ * @version 1.0.0
+ */
+public final class LatencyHistogram {
+    
+    private static final int SUB_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int MAX_EXPONENT = 37;
+    private static final long MAX_MICROS = (1L << (MAX_EXPONENT + 1)) - 1;
+    static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BITS + 2) * SUB_BUCKETS;
+    
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder sumMicros = new LongAdder();
+    
+    /**
+     * Record one duration
+     * @param nanos Duration in nanoseconds; negative values count as zero
+     */
+    public void record(long nanos) {
+        long micros = Math.min(MAX_MICROS, Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos)));
+        counts.incrementAndGet(bucketIndex(micros));
+        sumMicros.add(micros);
+    }
+    
+    /**
+     * Read the current counts
+     * @return Snapshot
+     */
+    public Snapshot snapshot() {
+        long[] buckets = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets[i] = counts.get(i);
+            total += buckets[i];
+        }
+        return new Snapshot(buckets, total, sumMicros.sum());
+    }
+    
+    static int bucketIndex(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        int subBucket = (int) (micros >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+    
+    /**
+     * Largest value that lands in a bucket
+     */
+    static long bucketUpperMicros(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKETS + SUB_BITS - 1;
+        long width = 1L << (exponent - SUB_BITS);
+        return (SUB_BUCKETS + index % SUB_BUCKETS) * width + width - 1;
+    }
+    
+    /**
+     * Histogram counts at one point in time
+     */
+    public static final class Snapshot {
+        
+        private final long[] buckets;
+        private final long count;
+        private final long sumMicros;
+        
+        Snapshot(long[] buckets, long count, long sumMicros) {
+            this.buckets = buckets;
+            this.count = count;
+            this.sumMicros = sumMicros;
+        }
+        
+        public long getCount() {
+            return count;
+        }
+        
+        /**
+         * @return Sum of all recorded durations in seconds
+         */
+        public double getSumSeconds() {
+            return sumMicros / 1_000_000.0;
+        }
+        
+        /**
+         * Duration below which the given fraction of values fall
+         * @param quantile Fraction between 0 and 1, e.g. 0.99
+         * @return Upper bound of the bucket holding the quantile, in seconds; 0 when empty
+         */
+        public double getQuantileSeconds(double quantile) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(quantile * count));
+            long seen = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                seen += buckets[i];
+                if (seen >= rank) {
+                    return bucketUpperMicros(i) / 1_000_000.0;
+                }
+            }
+            return MAX_MICROS / 1_000_000.0;
+        }
+        
+        /**
+         * Number of values known to be at or below a bound
+         * @param seconds Upper bound in seconds
+         * @return Cumulative count, as used for a Prometheus le bucket
+         */
+        public long getCountAtOrBelow(double seconds) {
+            long bound = (long) (seconds * 1_000_000);
+            long cumulative = 0;
+            for (int i = 0; i < buckets.length && bucketUpperMicros(i) <= bound; i++) {
+                cumulative += buckets[i];
+            }
+            return cumulative;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.oceanview.metrics;
+
+import java.io.IOException;
+
+/**
+ * Metrics Collector - writes a group of metric families on every scrape
+ * Collectors read their counters when called, so they must be thread-safe
+ * and cheap; nothing is sampled between scrapes.
+ * 
+ * @author Ocean View Resort Development Team
+ * @version 1.0.0
+ */
+@FunctionalInterface
+public interface MetricsCollector {
+    
+    /**
+     * Write the collector's metric families
+     * @param out Destination
+     * @throws IOException if writing fails
+     */
+    void collect(MetricsWriter out) throws IOException;
+}
@@ -0,0 +1,103 @@
+package com.oceanview.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * Metrics Registry - Singleton Pattern
+ * Holds the collectors written by the /metrics endpoint. Components keep
+ * their own counters and register a collector, gauge or counter that reads
+ * them at scrape time, so recording never goes through the registry.
+ * 
+ * Registering again under the same key replaces the earlier collector, so
+ * redeploying or re-initialising a component does not duplicate metrics.
+ * 
+ * @author Ocean View Resort Development Team
+ * @version 1.0.0
+ */
+public class MetricsRegistry {
+    
+    private static final Logger logger = LoggerFactory.getLogger(MetricsRegistry.class);
+    private static MetricsRegistry instance;
+    
+    private final Map<String, MetricsCollector> collectors = new LinkedHashMap<>();
+    
+    MetricsRegistry() {
+    }
+    
+    /**
+     * Get singleton instance
+     * @return MetricsRegistry instance
+     */
+    public static synchronized MetricsRegistry getInstance() {
+        if (instance == null) {
+            instance = new MetricsRegistry();
+        }
+        return instance;
+    }
+    
+    /**
+     * Register a collector
+     * @param key Unique key, replaces an earlier collector with the same key
+     * @param collector Collector
+     */
+    public synchronized void register(String key, MetricsCollector collector) {
+        collectors.put(key, collector);
+    }
+    
+    /**
+     * Register a gauge read from a supplier
+     * @param name Metric name, also the registration key
+     * @param help Description
+     * @param value Current value
+     */
+    public void gauge(String name, String help, DoubleSupplier value) {
+        register(name, out -> {
+            out.family(name, "gauge", help);
+            out.sample(name, value.getAsDouble());
+        });
+    }
+    
+    /**
+     * Register a counter read from a supplier
+     * @param name Metric name ending in _total, also the registration key
+     * @param help Description
+     * @param value Current count, never decreasing
+     */
+    public void counter(String name, String help, LongSupplier value) {
+        register(name, out -> {
+            out.family(name, "counter", help);
+            out.sample(name, value.getAsLong());
+        });
+    }
+    
+    /**
+     * Write every registered metric. A collector that fails is logged and
+     * skipped so one broken component does not hide the rest.
+     * @param writer Destination
+     * @throws IOException if writing fails
+     */
+    public void scrape(Writer writer) throws IOException {
+        List<Map.Entry<String, MetricsCollector>> snapshot;
+        synchronized (this) {
+            snapshot = new ArrayList<>(collectors.entrySet());
+        }
+        MetricsWriter out = new MetricsWriter(writer);
+        for (Map.Entry<String, MetricsCollector> entry : snapshot) {
+            try {
+                entry.getValue().collect(out);
+            } catch (RuntimeException e) {
+                logger.warn("Metrics collector {} failed", entry.getKey(), e);
+            }
+        }
+    }
+}
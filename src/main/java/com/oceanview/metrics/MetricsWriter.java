@@ -0,0 +1,148 @@
+package com.oceanview.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Metrics Writer - writes samples in the Prometheus text exposition format
+ * (version 0.0.4). Metric names are written as given; label values are
+ * escaped. Labels are passed as alternating name/value strings.
+ * 
+ * @author Ocean View Resort Development Team
+ * @version 1.0.0
+ */
+public final class MetricsWriter {
+    
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    
+    /**
+     * Bucket bounds in seconds written for every latency histogram
+     */
+    private static final double[] LATENCY_BUCKETS = {
+        0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10
+    };
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+    
+    private final Writer out;
+    
+    public MetricsWriter(Writer out) {
+        this.out = out;
+    }
+    
+    /**
+     * Write the HELP and TYPE lines that start a metric family
+     * @param name Metric name
+     * @param type counter, gauge or histogram
+     * @param help Description
+     */
+    public void family(String name, String type, String help) throws IOException {
+        out.write("# HELP ");
+        out.write(name);
+        out.write(' ');
+        out.write(help.replace("\\", "\\\\").replace("\n", "\\n"));
+        out.write("\n# TYPE ");
+        out.write(name);
+        out.write(' ');
+        out.write(type);
+        out.write('\n');
+    }
+    
+    /**
+     * Write one sample
+     * @param name Metric name
+     * @param value Value
+     * @param labels Alternating label names and values
+     */
+    public void sample(String name, double value, String... labels) throws IOException {
+        out.write(name);
+        writeLabels(labels, null, null);
+        out.write(' ');
+        out.write(format(value));
+        out.write('\n');
+    }
+    
+    /**
+     * Write the buckets, sum and count of a latency histogram
+     * @param name Histogram family name; samples get _bucket, _sum and _count
+     * @param snapshot Histogram counts
+     * @param labels Alternating label names and values
+     */
+    public void histogram(String name, LatencyHistogram.Snapshot snapshot, String... labels) throws IOException {
+        String bucket = name + "_bucket";
+        for (double bound : LATENCY_BUCKETS) {
+            out.write(bucket);
+            writeLabels(labels, "le", format(bound));
+            out.write(' ');
+            out.write(Long.toString(snapshot.getCountAtOrBelow(bound)));
+            out.write('\n');
+        }
+        out.write(bucket);
+        writeLabels(labels, "le", "+Inf");
+        out.write(' ');
+        out.write(Long.toString(snapshot.getCount()));
+        out.write('\n');
+        sample(name + "_sum", snapshot.getSumSeconds(), labels);
+        sample(name + "_count", snapshot.getCount(), labels);
+    }
+    
+    /**
+     * Write p50, p90, p99 and p99.9 of a histogram as gauges with a quantile
+     * label. Kept in a separate family because a Prometheus histogram cannot
+     * carry quantiles itself.
+     * @param name Gauge family name
+     * @param snapshot Histogram counts
+     * @param labels Alternating label names and values
+     */
+    public void quantiles(String name, LatencyHistogram.Snapshot snapshot, String... labels) throws IOException {
+        for (double quantile : QUANTILES) {
+            out.write(name);
+            writeLabels(labels, "quantile", format(quantile));
+            out.write(' ');
+            out.write(format(snapshot.getQuantileSeconds(quantile)));
+            out.write('\n');
+        }
+    }
+    
+    private void writeLabels(String[] labels, String extraName, String extraValue) throws IOException {
+        if (labels.length == 0 && extraName == null) {
+            return;
+        }
+        out.write('{');
+        boolean first = true;
+        for (int i = 0; i + 1 < labels.length; i += 2) {
+            first = writeLabel(labels[i], labels[i + 1], first);
+        }
+        if (extraName != null) {
+            writeLabel(extraName, extraValue, first);
+        }
+        out.write('}');
+    }
+    
+    private boolean writeLabel(String name, String value, boolean first) throws IOException {
+        if (!first) {
+            out.write(',');
+        }
+        out.write(name);
+        out.write("=\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' || c == '"') {
+                out.write('\\');
+                out.write(c);
+            } else if (c == '\n') {
+                out.write("\\n");
+            } else {
+                out.write(c);
+            }
+        }
+        out.write('"');
+        return false;
+    }
+    
+    private static String format(double value) {
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return Double.toString(value);
+    }
+}
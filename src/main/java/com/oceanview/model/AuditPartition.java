@@ -0,0 +1,81 @@
+package com.oceanview.model;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * AuditPartition - Immutable description of one range partition of audit_logs
+ * Holds the partition name, the exclusive upper bound of its timestamps and
+ * the row count estimated by the database
+ *
+ * @author Ocean View Resort Development Team
+ * @version 1.0.0
+ */
+public final class AuditPartition implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    // Fields
+    private final String name;
+    private final LocalDateTime upperBound;
+    private final long estimatedRows;
+
+    // Constructor
+    public AuditPartition(String name, LocalDateTime upperBound, long estimatedRows) {
+        this.name = name;
+        this.upperBound = upperBound;
+        this.estimatedRows = estimatedRows;
+    }
+
+    // Getters
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return First timestamp not in this partition, or null for the MAXVALUE partition
+     */
+    public LocalDateTime getUpperBound() {
+        return upperBound;
+    }
+
+    public long getEstimatedRows() {
+        return estimatedRows;
+    }
+
+    /**
+     * Whether every row of the partition is older than a cutoff
+     * @param cutoff Oldest timestamp to keep
+     * @return true if the partition can be dropped as a whole
+     */
+    public boolean isOlderThan(LocalDateTime cutoff) {
+        return upperBound != null && !upperBound.isAfter(cutoff);
+    }
+
+    // equals and hashCode
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        AuditPartition that = (AuditPartition) o;
+        return estimatedRows == that.estimatedRows &&
+               Objects.equals(name, that.name) &&
+               Objects.equals(upperBound, that.upperBound);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, upperBound, estimatedRows);
+    }
+
+    // toString
+    @Override
+    public String toString() {
+        return "AuditPartition{" +
+                "name='" + name + '\'' +
+                ", upperBound=" + upperBound +
+                ", estimatedRows=" + estimatedRows +
+                '}';
+    }
+}
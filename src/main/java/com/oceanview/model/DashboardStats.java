@@ -0,0 +1,320 @@
+package com.oceanview.model;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * DashboardStats - Immutable snapshot of the admin dashboard counters
+ * Loaded by one combined aggregate query and shared by every dashboard
+ * request until the next refresh
+ * 
+ * @author Ocean View Resort Development Team
+ * @version 1.0.0
+ */
+public final class DashboardStats implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
+    
+    // User statistics
+    private final int totalUsers;
+    private final int activeUsers;
+    private final int guestUsers;
+    private final int staffUsers;
+    private final int totalGuests;
+    
+    // Reservation statistics
+    private final int totalReservations;
+    private final int pendingReservations;
+    private final int confirmedReservations;
+    private final int checkedInReservations;
+    private final int todayCheckIns;
+    private final int todayCheckOuts;
+    
+    // Room statistics
+    private final int totalRooms;
+    private final int availableRooms;
+    private final int occupiedRooms;
+    private final int reservedRooms;
+    private final int maintenanceRooms;
+    
+    // Review statistics
+    private final int totalReviews;
+    private final int pendingReviews;
+    private final double averageRating;
+    
+    // Revenue statistics (completed payments)
+    private final double todayRevenue;
+    private final double monthlyRevenue;
+    private final double yearlyRevenue;
+    private final double totalRevenue;
+    
+    private final List<Reservation> recentReservations;
+    private final long generatedAt;
+    
+    private DashboardStats(Builder builder) {
+        this.totalUsers = builder.totalUsers;
+        this.activeUsers = builder.activeUsers;
+        this.guestUsers = builder.guestUsers;
+        this.staffUsers = builder.staffUsers;
+        this.totalGuests = builder.totalGuests;
+        this.totalReservations = builder.totalReservations;
+        this.pendingReservations = builder.pendingReservations;
+        this.confirmedReservations = builder.confirmedReservations;
+        this.checkedInReservations = builder.checkedInReservations;
+        this.todayCheckIns = builder.todayCheckIns;
+        this.todayCheckOuts = builder.todayCheckOuts;
+        this.totalRooms = builder.totalRooms;
+        this.availableRooms = builder.availableRooms;
+        this.occupiedRooms = builder.occupiedRooms;
+        this.reservedRooms = builder.reservedRooms;
+        this.maintenanceRooms = builder.maintenanceRooms;
+        this.totalReviews = builder.totalReviews;
+        this.pendingReviews = builder.pendingReviews;
+        this.averageRating = builder.averageRating;
+        this.todayRevenue = builder.todayRevenue;
+        this.monthlyRevenue = builder.monthlyRevenue;
+        this.yearlyRevenue = builder.yearlyRevenue;
+        this.totalRevenue = builder.totalRevenue;
+        this.recentReservations = List.copyOf(builder.recentReservations);
+        this.generatedAt = builder.generatedAt;
+    }
+    
+    public static Builder builder() {
+        return new Builder();
+    }
+    
+    // Getters
+    public int getTotalUsers() {
+        return totalUsers;
+    }
+    
+    public int getActiveUsers() {
+        return activeUsers;
+    }
+    
+    public int getGuestUsers() {
+        return guestUsers;
+    }
+    
+    public int getStaffUsers() {
+        return staffUsers;
+    }
+    
+    public int getTotalGuests() {
+        return totalGuests;
+    }
+    
+    public int getTotalReservations() {
+        return totalReservations;
+    }
+    
+    public int getPendingReservations() {
+        return pendingReservations;
+    }
+    
+    public int getConfirmedReservations() {
+        return confirmedReservations;
+    }
+    
+    public int getCheckedInReservations() {
+        return checkedInReservations;
+    }
+    
+    public int getTodayCheckIns() {
+        return todayCheckIns;
+    }
+    
+    public int getTodayCheckOuts() {
+        return todayCheckOuts;
+    }
+    
+    public int getTotalRooms() {
+        return totalRooms;
+    }
+    
+    public int getAvailableRooms() {
+        return availableRooms;
+    }
+    
+    public int getOccupiedRooms() {
+        return occupiedRooms;
+    }
+    
+    public int getReservedRooms() {
+        return reservedRooms;
+    }
+    
+    public int getMaintenanceRooms() {
+        return maintenanceRooms;
+    }
+    
+    public int getTotalReviews() {
+        return totalReviews;
+    }
+    
+    public int getPendingReviews() {
+        return pendingReviews;
+    }
+    
+    public double getAverageRating() {
+        return averageRating;
+    }
+    
+    public double getTodayRevenue() {
+        return todayRevenue;
+    }
+    
+    public double getMonthlyRevenue() {
+        return monthlyRevenue;
+    }
+    
+    public double getYearlyRevenue() {
+        return yearlyRevenue;
+    }
+    
+    public double getTotalRevenue() {
+        return totalRevenue;
+    }
+    
+    public List<Reservation> getRecentReservations() {
+        return recentReservations;
+    }
+    
+    /**
+     * @return Time the snapshot was loaded, in epoch milliseconds
+     */
+    public long getGeneratedAt() {
+        return generatedAt;
+    }
+    
+    // Derived values
+    public int getActiveReservations() {
+        return confirmedReservations + checkedInReservations;
+    }
+    
+    public double getOccupancyRate() {
+        return totalRooms == 0 ? 0.0 : (occupiedRooms * 100.0) / totalRooms;
+    }
+    
+    /**
+     * Age of the snapshot
+     * @param now Current time in epoch milliseconds
+     * @return Milliseconds since the snapshot was loaded
+     */
+    public long getAgeMillis(long now) {
+        return Math.max(0, now - generatedAt);
+    }
+    
+    @Override
+    public String toString() {
+        return "DashboardStats{" +
+                "totalUsers=" + totalUsers +
+                ", totalReservations=" + totalReservations +
+                ", totalRooms=" + totalRooms +
+                ", occupiedRooms=" + occupiedRooms +
+                ", pendingReviews=" + pendingReviews +
+                ", monthlyRevenue=" + monthlyRevenue +
+                ", generatedAt=" + generatedAt +
+                '}';
+    }
+    
+    /**
+     * Builder for DashboardStats
+     */
+    public static final class Builder {
+        
+        private int totalUsers;
+        private int activeUsers;
+        private int guestUsers;
+        private int staffUsers;
+        private int totalGuests;
+        private int totalReservations;
+        private int pendingReservations;
+        private int confirmedReservations;
+        private int checkedInReservations;
+        private int todayCheckIns;
+        private int todayCheckOuts;
+        private int totalRooms;
+        private int availableRooms;
+        private int occupiedRooms;
+        private int reservedRooms;
+        private int maintenanceRooms;
+        private int totalReviews;
+        private int pendingReviews;
+        private double averageRating;
+        private double todayRevenue;
+        private double monthlyRevenue;
+        private double yearlyRevenue;
+        private double totalRevenue;
+        private List<Reservation> recentReservations = List.of();
+        private long generatedAt;
+        
+        private Builder() {
+        }
+        
+        public Builder users(int total, int active, int guests, int staff) {
+            this.totalUsers = total;
+            this.activeUsers = active;
+            this.guestUsers = guests;
+            this.staffUsers = staff;
+            return this;
+        }
+        
+        public Builder totalGuests(int totalGuests) {
+            this.totalGuests = totalGuests;
+            return this;
+        }
+        
+        public Builder reservations(int total, int pending, int confirmed, int checkedIn) {
+            this.totalReservations = total;
+            this.pendingReservations = pending;
+            this.confirmedReservations = confirmed;
+            this.checkedInReservations = checkedIn;
+            return this;
+        }
+        
+        public Builder todayMovements(int checkIns, int checkOuts) {
+            this.todayCheckIns = checkIns;
+            this.todayCheckOuts = checkOuts;
+            return this;
+        }
+        
+        public Builder rooms(int total, int available, int occupied, int reserved, int maintenance) {
+            this.totalRooms = total;
+            this.availableRooms = available;
+            this.occupiedRooms = occupied;
+            this.reservedRooms = reserved;
+            this.maintenanceRooms = maintenance;
+            return this;
+        }
+        
+        public Builder reviews(int total, int pending, double averageRating) {
+            this.totalReviews = total;
+            this.pendingReviews = pending;
+            this.averageRating = averageRating;
+            return this;
+        }
+        
+        public Builder revenue(double today, double monthly, double yearly, double total) {
+            this.todayRevenue = today;
+            this.monthlyRevenue = monthly;
+            this.yearlyRevenue = yearly;
+            this.totalRevenue = total;
+            return this;
+        }
+        
+        public Builder recentReservations(List<Reservation> recentReservations) {
+            this.recentReservations = recentReservations;
+            return this;
+        }
+        
+        public Builder generatedAt(long generatedAt) {
+            this.generatedAt = generatedAt;
+            return this;
+        }
+        
+        public DashboardStats build() {
+            return new DashboardStats(this);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.oceanview.model;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * GroupTotal - Immutable result row of a GROUP BY aggregate query
+ * Holds the group key together with the row count and summed amount
+ *
+ * @author Ocean View Resort Development Team
+ * @version 1.0.0
+ */
+public final class GroupTotal implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    // Fields
+    private final String key;
+    private final long count;
+    private final double amount;
+
+    // Constructor
+    public GroupTotal(String key, long count, double amount) {
+        this.key = key;
+        this.count = count;
+        this.amount = amount;
+    }
+
+    // Getters
+    public String getKey() {
+        return key;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getAmount() {
+        return amount;
+    }
+
+    /**
+     * Average amount per row in this group
+     * @return amount / count, or 0 for an empty group
+     */
+    public double getAverage() {
+        return count > 0 ? amount / count : 0.0;
+    }
+
+    // equals and hashCode
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        GroupTotal that = (GroupTotal) o;
+        return count == that.count &&
+               Double.compare(that.amount, amount) == 0 &&
+               Objects.equals(key, that.key);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(key, count, amount);
+    }
+
+    // toString
+    @Override
+    public String toString() {
+        return "GroupTotal{" +
+                "key='" + key + '\'' +
+                ", count=" + count +
+                ", amount=" + amount +
+                '}';
+    }
+}
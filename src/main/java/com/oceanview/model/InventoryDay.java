@@ -0,0 +1,84 @@
+package com.oceanview.model;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * InventoryDay - Immutable row of the room_inventory ledger
+ * Holds how many rooms of one type exist and how many are booked for one night
+ *
+ * @author Ocean View Resort Development Team
+ * @version 1.0.0
+ */
+public final class InventoryDay implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    // Fields
+    private final Room.RoomType roomType;
+    private final LocalDate stayDate;
+    private final int total;
+    private final int booked;
+
+    // Constructor
+    public InventoryDay(Room.RoomType roomType, LocalDate stayDate, int total, int booked) {
+        this.roomType = roomType;
+        this.stayDate = stayDate;
+        this.total = total;
+        this.booked = booked;
+    }
+
+    // Getters
+    public Room.RoomType getRoomType() {
+        return roomType;
+    }
+
+    public LocalDate getStayDate() {
+        return stayDate;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public int getBooked() {
+        return booked;
+    }
+
+    /**
+     * Rooms of this type still free for the night
+     * @return total - booked, never negative
+     */
+    public int getFree() {
+        return Math.max(0, total - booked);
+    }
+
+    // equals and hashCode
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        InventoryDay that = (InventoryDay) o;
+        return total == that.total &&
+               booked == that.booked &&
+               roomType == that.roomType &&
+               Objects.equals(stayDate, that.stayDate);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(roomType, stayDate, total, booked);
+    }
+
+    // toString
+    @Override
+    public String toString() {
+        return "InventoryDay{" +
+                "roomType=" + roomType +
+                ", stayDate=" + stayDate +
+                ", total=" + total +
+                ", booked=" + booked +
+                '}';
+    }
+}
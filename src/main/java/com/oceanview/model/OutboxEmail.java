@@ -0,0 +1,85 @@
+package com.oceanview.model;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * OutboxEmail - Immutable email claimed from the email_outbox table
+ * Holds what the sender needs to deliver one message and decide on a retry
+ *
+ * @author Ocean View Resort Development Team
+ * @version 1.0.0
+ */
+public final class OutboxEmail implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    // Fields
+    private final long outboxId;
+    private final String recipient;
+    private final String subject;
+    private final String body;
+    private final int attempts;
+
+    // Constructor
+    public OutboxEmail(long outboxId, String recipient, String subject, String body, int attempts) {
+        this.outboxId = outboxId;
+        this.recipient = recipient;
+        this.subject = subject;
+        this.body = body;
+        this.attempts = attempts;
+    }
+
+    // Getters
+    public long getOutboxId() {
+        return outboxId;
+    }
+
+    public String getRecipient() {
+        return recipient;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    /**
+     * @return Delivery attempts so far, including the current one
+     */
+    public int getAttempts() {
+        return attempts;
+    }
+
+    // equals and hashCode
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        OutboxEmail that = (OutboxEmail) o;
+        return outboxId == that.outboxId &&
+               attempts == that.attempts &&
+               Objects.equals(recipient, that.recipient) &&
+               Objects.equals(subject, that.subject) &&
+               Objects.equals(body, that.body);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(outboxId, recipient, subject, body, attempts);
+    }
+
+    // toString
+    @Override
+    public String toString() {
+        return "OutboxEmail{" +
+                "outboxId=" + outboxId +
+                ", recipient='" + recipient + '\'' +
+                ", subject='" + subject + '\'' +
+                ", attempts=" + attempts +
+                '}';
+    }
+}
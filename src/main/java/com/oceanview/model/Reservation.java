@@ -19,7 +19,25 @@ public class Reservation implements Serializable {
     
     // Reservation Status Enum
     public enum ReservationStatus {
-        PENDING, CONFIRMED, CHECKED_IN, CHECKED_OUT, CANCELLED
+        PENDING, CONFIRMED, CHECKED_IN, CHECKED_OUT, CANCELLED;
+        
+        /**
+         * Whether a reservation in this status keeps its room from being
+         * booked again or offered in search. A PENDING booking holds its
+         * room until it is confirmed, cancelled or expires after
+         * reservation.pendingHoldMinutes.
+         */
+        public boolean holdsRoom() {
+            return this == PENDING || this == CONFIRMED || this == CHECKED_IN;
+        }
+        
+        /**
+         * Whether the stay is counted in the room_inventory ledger, which
+         * takes nights at confirmation
+         */
+        public boolean isBooked() {
+            return this == CONFIRMED || this == CHECKED_IN;
+        }
     }
     
     // Fields
@@ -0,0 +1,119 @@
+package com.oceanview.model;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * ReservationSummary - Immutable per-status aggregate of reservations
+ * Produced by a single GROUP BY status query over a stay date range
+ *
+ * @author Ocean View Resort Development Team
+ * @version 1.0.0
+ */
+public final class ReservationSummary implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    // Fields
+    private final Reservation.ReservationStatus status;
+    private final long reservationCount;
+    private final double bookingValue;
+    private final long guestCount;
+    private final long nightCount;
+    private final long leadTimeDays;
+    private final long leadTimeSamples;
+
+    // Constructor
+    public ReservationSummary(Reservation.ReservationStatus status, long reservationCount,
+                              double bookingValue, long guestCount, long nightCount,
+                              long leadTimeDays, long leadTimeSamples) {
+        this.status = status;
+        this.reservationCount = reservationCount;
+        this.bookingValue = bookingValue;
+        this.guestCount = guestCount;
+        this.nightCount = nightCount;
+        this.leadTimeDays = leadTimeDays;
+        this.leadTimeSamples = leadTimeSamples;
+    }
+
+    // Getters
+    public Reservation.ReservationStatus getStatus() {
+        return status;
+    }
+
+    public long getReservationCount() {
+        return reservationCount;
+    }
+
+    /**
+     * Sum of final amounts
+     */
+    public double getBookingValue() {
+        return bookingValue;
+    }
+
+    /**
+     * Sum of number of guests
+     */
+    public long getGuestCount() {
+        return guestCount;
+    }
+
+    /**
+     * Sum of number of nights
+     */
+    public long getNightCount() {
+        return nightCount;
+    }
+
+    /**
+     * Sum of days between booking creation and check-in
+     */
+    public long getLeadTimeDays() {
+        return leadTimeDays;
+    }
+
+    /**
+     * Number of reservations that contributed to the lead time sum
+     */
+    public long getLeadTimeSamples() {
+        return leadTimeSamples;
+    }
+
+    public boolean isCancelled() {
+        return Reservation.ReservationStatus.CANCELLED.equals(status);
+    }
+
+    // equals and hashCode
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ReservationSummary that = (ReservationSummary) o;
+        return reservationCount == that.reservationCount &&
+               Double.compare(that.bookingValue, bookingValue) == 0 &&
+               guestCount == that.guestCount &&
+               nightCount == that.nightCount &&
+               leadTimeDays == that.leadTimeDays &&
+               leadTimeSamples == that.leadTimeSamples &&
+               status == that.status;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(status, reservationCount, bookingValue, guestCount,
+                          nightCount, leadTimeDays, leadTimeSamples);
+    }
+
+    // toString
+    @Override
+    public String toString() {
+        return "ReservationSummary{" +
+                "status=" + status +
+                ", reservationCount=" + reservationCount +
+                ", bookingValue=" + bookingValue +
+                ", guestCount=" + guestCount +
+                ", nightCount=" + nightCount +
+                '}';
+    }
+}
@@ -57,6 +57,26 @@ public class Room implements Serializable {
         this.pricePerNight = pricePerNight;
     }
     
+    /**
+     * Copy constructor, for handing out copies of cached rooms
+     * @param other Room to copy
+     */
+    public Room(Room other) {
+        this.roomId = other.roomId;
+        this.roomNumber = other.roomNumber;
+        this.roomType = other.roomType;
+        this.floor = other.floor;
+        this.capacity = other.capacity;
+        this.pricePerNight = other.pricePerNight;
+        this.size = other.size;
+        this.description = other.description;
+        this.amenities = other.amenities;
+        this.imageUrl = other.imageUrl;
+        this.status = other.status;
+        this.createdAt = other.createdAt;
+        this.updatedAt = other.updatedAt;
+    }
+    
     // Getters and Setters
     public Integer getRoomId() {
         return roomId;
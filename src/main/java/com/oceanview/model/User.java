@@ -56,6 +56,26 @@ public class User implements Serializable {
         this.role = role;
     }
     
+    /**
+     * Copy constructor, for handing out copies of cached users
+     * @param other User to copy
+     */
+    public User(User other) {
+        this.userId = other.userId;
+        this.username = other.username;
+        this.password = other.password;
+        this.email = other.email;
+        this.fullName = other.fullName;
+        this.firstName = other.firstName;
+        this.lastName = other.lastName;
+        this.phone = other.phone;
+        this.role = other.role;
+        this.status = other.status;
+        this.createdAt = other.createdAt;
+        this.updatedAt = other.updatedAt;
+        this.lastLogin = other.lastLogin;
+    }
+    
     // Getters and Setters
     public Integer getUserId() {
         return userId;
@@ -0,0 +1,97 @@
+package com.oceanview.model;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * UserPrincipal - Immutable identity, role and status of a user
+ * What the request filters need to authorize a request, without the
+ * password hash or profile fields of a full User
+ *
+ * @author Ocean View Resort Development Team
+ * @version 1.0.0
+ */
+public final class UserPrincipal implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    // Fields
+    private final int userId;
+    private final String username;
+    private final String email;
+    private final User.Role role;
+    private final User.Status status;
+
+    // Constructor
+    public UserPrincipal(int userId, String username, String email, User.Role role, User.Status status) {
+        this.userId = userId;
+        this.username = username;
+        this.email = email;
+        this.role = role;
+        this.status = status;
+    }
+
+    /**
+     * Principal of a user row
+     * @param user User with ID, role and status set
+     * @return Principal
+     */
+    public static UserPrincipal of(User user) {
+        return new UserPrincipal(user.getUserId(), user.getUsername(), user.getEmail(),
+                                 user.getRole(), user.getStatus());
+    }
+
+    // Getters
+    public int getUserId() {
+        return userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public User.Role getRole() {
+        return role;
+    }
+
+    public User.Status getStatus() {
+        return status;
+    }
+
+    public boolean isActive() {
+        return status == User.Status.ACTIVE;
+    }
+
+    // equals and hashCode
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        UserPrincipal that = (UserPrincipal) o;
+        return userId == that.userId &&
+               Objects.equals(username, that.username) &&
+               Objects.equals(email, that.email) &&
+               role == that.role &&
+               status == that.status;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(userId, username, email, role, status);
+    }
+
+    // toString
+    @Override
+    public String toString() {
+        return "UserPrincipal{" +
+                "userId=" + userId +
+                ", username='" + username + '\'' +
+                ", role=" + role +
+                ", status=" + status +
+                '}';
+    }
+}
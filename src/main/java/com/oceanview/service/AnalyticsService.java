@@ -4,23 +4,25 @@ import com.oceanview.dao.PaymentDAO;
 import com.oceanview.dao.ReservationDAO;
 import com.oceanview.dao.RoomDAO;
 import com.oceanview.dao.UserDAO;
+import com.oceanview.model.GroupTotal;
 import com.oceanview.model.Payment;
 import com.oceanview.model.Reservation;
+import com.oceanview.model.ReservationSummary;
 import com.oceanview.model.Room;
 import com.oceanview.model.User;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.math.BigDecimal;
 import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Analytics Service
- * Provides business intelligence and analytics for the hotel management system
+ * Provides business intelligence and analytics for the hotel management system.
+ * All figures are computed by GROUP BY / SUM / COUNT queries in the database,
+ * so the cost of a report follows the number of output rows, not the table size.
  * 
  * @author Ocean View Resort Development Team
  * @version 1.0.0
@@ -52,31 +54,38 @@ public class AnalyticsService {
         Map<String, Object> stats = new HashMap<>();
         
         try {
+            LocalDate today = LocalDate.now();
+            
             // Reservation Statistics
-            List<Reservation> allReservations = reservationDAO.findAll();
-            stats.put("totalReservations", allReservations.size());
-            stats.put("activeReservations", getActiveReservationsCount(allReservations));
-            stats.put("pendingReservations", getPendingReservationsCount(allReservations));
-            stats.put("todayCheckIns", getTodayCheckIns(allReservations).size());
-            stats.put("todayCheckOuts", getTodayCheckOuts(allReservations).size());
+            List<GroupTotal> reservationsByStatus = reservationDAO.countGroupedByStatus();
+            stats.put("totalReservations", (int) sumCounts(reservationsByStatus));
+            stats.put("activeReservations", (int) (
+                countFor(reservationsByStatus, Reservation.ReservationStatus.CONFIRMED.name()) +
+                countFor(reservationsByStatus, Reservation.ReservationStatus.CHECKED_IN.name())));
+            stats.put("pendingReservations", 
+                (int) countFor(reservationsByStatus, Reservation.ReservationStatus.PENDING.name()));
+            stats.put("todayCheckIns", reservationDAO.countByCheckInDate(today));
+            stats.put("todayCheckOuts", reservationDAO.countByCheckOutDate(today));
             
             // Room Statistics
-            List<Room> allRooms = roomDAO.findAll();
-            stats.put("totalRooms", allRooms.size());
-            stats.put("availableRooms", getAvailableRoomsCount(allRooms));
-            stats.put("occupiedRooms", getOccupiedRoomsCount(allRooms));
-            stats.put("occupancyRate", calculateOccupancyRate(allRooms));
+            List<GroupTotal> roomsByStatus = roomDAO.countGroupedByStatus();
+            long totalRooms = sumCounts(roomsByStatus);
+            long occupiedRooms = countFor(roomsByStatus, Room.RoomStatus.OCCUPIED.name());
+            stats.put("totalRooms", (int) totalRooms);
+            stats.put("availableRooms", (int) countFor(roomsByStatus, Room.RoomStatus.AVAILABLE.name()));
+            stats.put("occupiedRooms", (int) occupiedRooms);
+            stats.put("occupancyRate", percentage(occupiedRooms, totalRooms));
             
             // Revenue Statistics
             double totalRevenue = paymentDAO.getTotalRevenue();
             stats.put("totalRevenue", totalRevenue);
-            stats.put("monthlyRevenue", getMonthlyRevenue());
-            stats.put("todayRevenue", getTodayRevenue());
+            stats.put("monthlyRevenue", paymentDAO.getRevenueBetween(today.withDayOfMonth(1), today));
+            stats.put("todayRevenue", paymentDAO.getRevenueBetween(today, today));
             
             // User Statistics
-            int totalUsers = userDAO.findAll().size();
-            stats.put("totalUsers", totalUsers);
-            stats.put("totalGuests", getUsersByRole(User.Role.GUEST).size());
+            List<GroupTotal> usersByRole = userDAO.countGroupedByRole();
+            stats.put("totalUsers", (int) sumCounts(usersByRole));
+            stats.put("totalGuests", (int) countFor(usersByRole, User.Role.GUEST.name()));
             
             logger.info("Dashboard statistics generated successfully");
             
@@ -97,51 +106,35 @@ public class AnalyticsService {
         Map<String, Object> analytics = new HashMap<>();
         
         try {
-            List<Payment> payments = paymentDAO.findAll();
-            
-            // Filter by date range
-            List<Payment> filteredPayments = payments.stream()
-                .filter(p -> p.getPaymentDate() != null)
-                .filter(p -> {
-                    LocalDate paymentDate = p.getPaymentDate().toLocalDate();
-                    return !paymentDate.isBefore(startDate) && !paymentDate.isAfter(endDate);
-                })
-                .collect(Collectors.toList());
+            List<GroupTotal> byStatus = paymentDAO.sumGroupedByStatus(startDate, endDate);
             
             // Total revenue
-            double totalRevenue = filteredPayments.stream()
-                .filter(Payment::isCompleted)
-                .mapToDouble(p -> p.getAmount().doubleValue())
-                .sum();
+            long totalTransactions = sumCounts(byStatus);
+            double totalRevenue = amountFor(byStatus, Payment.PaymentStatus.COMPLETED.name());
             
             analytics.put("totalRevenue", totalRevenue);
-            analytics.put("totalTransactions", filteredPayments.size());
+            analytics.put("totalTransactions", (int) totalTransactions);
             analytics.put("averageTransactionValue", 
-                         filteredPayments.isEmpty() ? 0 : totalRevenue / filteredPayments.size());
+                         totalTransactions == 0 ? 0 : totalRevenue / totalTransactions);
             
             // Revenue by payment method
-            Map<String, Double> revenueByMethod = filteredPayments.stream()
-                .filter(Payment::isCompleted)
-                .collect(Collectors.groupingBy(
-                    p -> p.getPaymentMethod().name(),
-                    Collectors.summingDouble(p -> p.getAmount().doubleValue())
-                ));
+            Map<String, Double> revenueByMethod = new HashMap<>();
+            for (GroupTotal row : paymentDAO.sumGroupedByMethod(
+                    Payment.PaymentStatus.COMPLETED, startDate, endDate)) {
+                revenueByMethod.put(row.getKey(), row.getAmount());
+            }
             analytics.put("revenueByPaymentMethod", revenueByMethod);
             
             // Revenue by day
-            Map<LocalDate, Double> revenueByDay = filteredPayments.stream()
-                .filter(Payment::isCompleted)
-                .collect(Collectors.groupingBy(
-                    p -> p.getPaymentDate().toLocalDate(),
-                    Collectors.summingDouble(p -> p.getAmount().doubleValue())
-                ));
+            Map<LocalDate, Double> revenueByDay = new HashMap<>();
+            for (GroupTotal row : paymentDAO.sumGroupedByDay(
+                    Payment.PaymentStatus.COMPLETED, startDate, endDate)) {
+                revenueByDay.put(LocalDate.parse(row.getKey()), row.getAmount());
+            }
             analytics.put("revenueByDay", revenueByDay);
             
             // Refunds
-            double totalRefunds = filteredPayments.stream()
-                .filter(Payment::isRefunded)
-                .mapToDouble(p -> p.getAmount().doubleValue())
-                .sum();
+            double totalRefunds = amountFor(byStatus, Payment.PaymentStatus.REFUNDED.name());
             analytics.put("totalRefunds", totalRefunds);
             analytics.put("netRevenue", totalRevenue - totalRefunds);
             
@@ -164,41 +157,40 @@ public class AnalyticsService {
         Map<String, Object> analytics = new HashMap<>();
         
         try {
-            List<Room> allRooms = roomDAO.findAll();
-            List<Reservation> allReservations = reservationDAO.findAll();
+            List<GroupTotal> roomsByType = roomDAO.summarizeByType();
+            List<GroupTotal> occupiedByType = 
+                reservationDAO.sumOccupiedNightsByRoomType(startDate, endDate);
             
             // Calculate total room nights available
+            long totalRooms = sumCounts(roomsByType);
             long daysBetween = ChronoUnit.DAYS.between(startDate, endDate) + 1;
-            long totalRoomNights = allRooms.size() * daysBetween;
+            long totalRoomNights = totalRooms * daysBetween;
             
             // Calculate occupied room nights
-            long occupiedRoomNights = allReservations.stream()
-                .filter(r -> r.getStatus() == Reservation.ReservationStatus.CHECKED_IN ||
-                           r.getStatus() == Reservation.ReservationStatus.CHECKED_OUT)
-                .filter(r -> isReservationInDateRange(r, startDate, endDate))
-                .mapToLong(r -> calculateOverlapNights(r, startDate, endDate))
-                .sum();
+            long occupiedRoomNights = (long) sumAmounts(occupiedByType);
             
-            double occupancyRate = totalRoomNights > 0 ? 
-                (double) occupiedRoomNights / totalRoomNights * 100 : 0;
-            
-            analytics.put("totalRooms", allRooms.size());
+            analytics.put("totalRooms", (int) totalRooms);
             analytics.put("totalRoomNights", totalRoomNights);
             analytics.put("occupiedRoomNights", occupiedRoomNights);
-            analytics.put("occupancyRate", occupancyRate);
+            analytics.put("occupancyRate", percentage(occupiedRoomNights, totalRoomNights));
             
             // Occupancy by room type
-            Map<String, Double> occupancyByType = calculateOccupancyByRoomType(
-                allRooms, allReservations, startDate, endDate);
+            Map<String, Double> occupancyByType = new HashMap<>();
+            for (GroupTotal type : roomsByType) {
+                long typeRoomNights = type.getCount() * daysBetween;
+                long typeOccupied = (long) amountFor(occupiedByType, type.getKey());
+                occupancyByType.put(type.getKey(), percentage(typeOccupied, typeRoomNights));
+            }
             analytics.put("occupancyByRoomType", occupancyByType);
             
             // Average length of stay
-            double avgLengthOfStay = allReservations.stream()
-                .filter(r -> isReservationInDateRange(r, startDate, endDate))
-                .mapToInt(Reservation::getNumberOfNights)
-                .average()
-                .orElse(0.0);
-            analytics.put("averageLengthOfStay", avgLengthOfStay);
+            long stays = 0;
+            long nights = 0;
+            for (ReservationSummary summary : reservationDAO.summarizeByStatus(startDate, endDate)) {
+                stays += summary.getReservationCount();
+                nights += summary.getNightCount();
+            }
+            analytics.put("averageLengthOfStay", stays > 0 ? (double) nights / stays : 0.0);
             
             logger.info("Occupancy analytics generated for {} to {}", startDate, endDate);
             
@@ -219,62 +211,51 @@ public class AnalyticsService {
         Map<String, Object> analytics = new HashMap<>();
         
         try {
-            List<Reservation> reservations = reservationDAO.findAll();
-            
-            // Filter by date range
-            List<Reservation> filteredReservations = reservations.stream()
-                .filter(r -> isReservationInDateRange(r, startDate, endDate))
-                .collect(Collectors.toList());
+            List<ReservationSummary> summaries = reservationDAO.summarizeByStatus(startDate, endDate);
+            
+            long totalReservations = 0;
+            long cancelledCount = 0;
+            long keptCount = 0;
+            double totalBookingValue = 0;
+            long totalGuests = 0;
+            long leadTimeDays = 0;
+            long leadTimeSamples = 0;
+            Map<String, Long> reservationsByStatus = new HashMap<>();
+            
+            for (ReservationSummary summary : summaries) {
+                totalReservations += summary.getReservationCount();
+                totalGuests += summary.getGuestCount();
+                leadTimeDays += summary.getLeadTimeDays();
+                leadTimeSamples += summary.getLeadTimeSamples();
+                reservationsByStatus.put(summary.getStatus().name(), summary.getReservationCount());
+                
+                if (summary.isCancelled()) {
+                    cancelledCount += summary.getReservationCount();
+                } else {
+                    keptCount += summary.getReservationCount();
+                    totalBookingValue += summary.getBookingValue();
+                }
+            }
             
-            analytics.put("totalReservations", filteredReservations.size());
+            analytics.put("totalReservations", (int) totalReservations);
             
             // Reservations by status
-            Map<String, Long> reservationsByStatus = filteredReservations.stream()
-                .collect(Collectors.groupingBy(
-                    r -> r.getStatus().name(),
-                    Collectors.counting()
-                ));
             analytics.put("reservationsByStatus", reservationsByStatus);
             
             // Cancellation rate
-            long cancelledCount = filteredReservations.stream()
-                .filter(Reservation::isCancelled)
-                .count();
-            double cancellationRate = filteredReservations.isEmpty() ? 0 : 
-                (double) cancelledCount / filteredReservations.size() * 100;
-            analytics.put("cancellationRate", cancellationRate);
-            
-            // Average booking value
-            double avgBookingValue = filteredReservations.stream()
-                .filter(r -> !r.isCancelled())
-                .mapToDouble(r -> r.getFinalAmount().doubleValue())
-                .average()
-                .orElse(0.0);
-            analytics.put("averageBookingValue", avgBookingValue);
-            
-            // Total booking value
-            double totalBookingValue = filteredReservations.stream()
-                .filter(r -> !r.isCancelled())
-                .mapToDouble(r -> r.getFinalAmount().doubleValue())
-                .sum();
+            analytics.put("cancellationRate", percentage(cancelledCount, totalReservations));
+            
+            // Average and total booking value
+            analytics.put("averageBookingValue", keptCount > 0 ? totalBookingValue / keptCount : 0.0);
             analytics.put("totalBookingValue", totalBookingValue);
             
             // Average guests per reservation
-            double avgGuests = filteredReservations.stream()
-                .mapToInt(Reservation::getNumberOfGuests)
-                .average()
-                .orElse(0.0);
-            analytics.put("averageGuestsPerReservation", avgGuests);
+            analytics.put("averageGuestsPerReservation", 
+                         totalReservations > 0 ? (double) totalGuests / totalReservations : 0.0);
             
             // Booking lead time (days between booking and check-in)
-            double avgLeadTime = filteredReservations.stream()
-                .filter(r -> r.getCreatedAt() != null && r.getCheckInDate() != null)
-                .mapToLong(r -> ChronoUnit.DAYS.between(
-                    r.getCreatedAt().toLocalDate(), 
-                    r.getCheckInDate()))
-                .average()
-                .orElse(0.0);
-            analytics.put("averageBookingLeadTime", avgLeadTime);
+            analytics.put("averageBookingLeadTime", 
+                         leadTimeSamples > 0 ? (double) leadTimeDays / leadTimeSamples : 0.0);
             
             logger.info("Reservation analytics generated for {} to {}", startDate, endDate);
             
@@ -293,41 +274,24 @@ public class AnalyticsService {
         Map<String, Object> analytics = new HashMap<>();
         
         try {
-            List<Room> rooms = roomDAO.findAll();
-            List<Reservation> reservations = reservationDAO.findAll();
-            
-            // Most booked room types
-            Map<String, Long> bookingsByRoomType = reservations.stream()
-                .filter(r -> r.getRoom() != null)
-                .collect(Collectors.groupingBy(
-                    r -> r.getRoom().getRoomType().name(),
-                    Collectors.counting()
-                ));
+            // Most booked room types and revenue by room type
+            Map<String, Long> bookingsByRoomType = new HashMap<>();
+            Map<String, Double> revenueByRoomType = new HashMap<>();
+            for (GroupTotal row : reservationDAO.sumBookingsByRoomType()) {
+                bookingsByRoomType.put(row.getKey(), row.getCount());
+                revenueByRoomType.put(row.getKey(), row.getAmount());
+            }
             analytics.put("bookingsByRoomType", bookingsByRoomType);
-            
-            // Revenue by room type
-            Map<String, Double> revenueByRoomType = reservations.stream()
-                .filter(r -> r.getRoom() != null && !r.isCancelled())
-                .collect(Collectors.groupingBy(
-                    r -> r.getRoom().getRoomType().name(),
-                    Collectors.summingDouble(r -> r.getFinalAmount().doubleValue())
-                ));
             analytics.put("revenueByRoomType", revenueByRoomType);
             
-            // Average price by room type
-            Map<String, Double> avgPriceByType = rooms.stream()
-                .collect(Collectors.groupingBy(
-                    r -> r.getRoomType().name(),
-                    Collectors.averagingDouble(r -> r.getPricePerNight().doubleValue())
-                ));
+            // Average price and distribution by room type
+            Map<String, Double> avgPriceByType = new HashMap<>();
+            Map<String, Long> roomTypeDistribution = new HashMap<>();
+            for (GroupTotal row : roomDAO.summarizeByType()) {
+                avgPriceByType.put(row.getKey(), row.getAverage());
+                roomTypeDistribution.put(row.getKey(), row.getCount());
+            }
             analytics.put("averagePriceByRoomType", avgPriceByType);
-            
-            // Room type distribution
-            Map<String, Long> roomTypeDistribution = rooms.stream()
-                .collect(Collectors.groupingBy(
-                    r -> r.getRoomType().name(),
-                    Collectors.counting()
-                ));
             analytics.put("roomTypeDistribution", roomTypeDistribution);
             
             logger.info("Room performance analytics generated");
@@ -347,43 +311,24 @@ public class AnalyticsService {
         Map<String, Object> analytics = new HashMap<>();
         
         try {
-            List<User> allUsers = userDAO.findAll();
-            List<Reservation> allReservations = reservationDAO.findAll();
-            
             // Total customers
-            long totalGuests = allUsers.stream()
-                .filter(User::isGuest)
-                .count();
+            long totalGuests = countFor(userDAO.countGroupedByRole(), User.Role.GUEST.name());
             analytics.put("totalCustomers", totalGuests);
             
             // New customers this month
             LocalDate monthStart = LocalDate.now().withDayOfMonth(1);
-            long newCustomersThisMonth = allUsers.stream()
-                .filter(User::isGuest)
-                .filter(u -> u.getCreatedAt() != null)
-                .filter(u -> !u.getCreatedAt().toLocalDate().isBefore(monthStart))
-                .count();
+            long newCustomersThisMonth = userDAO.countByRoleSince(User.Role.GUEST, monthStart);
             analytics.put("newCustomersThisMonth", newCustomersThisMonth);
             
             // Repeat customers (customers with more than one reservation)
-            Map<Integer, Long> reservationsByGuest = allReservations.stream()
-                .collect(Collectors.groupingBy(
-                    Reservation::getGuestId,
-                    Collectors.counting()
-                ));
-            
-            long repeatCustomers = reservationsByGuest.values().stream()
-                .filter(count -> count > 1)
-                .count();
+            long repeatCustomers = reservationDAO.countRepeatGuests();
             analytics.put("repeatCustomers", repeatCustomers);
-            
-            double repeatCustomerRate = totalGuests > 0 ? 
-                (double) repeatCustomers / totalGuests * 100 : 0;
-            analytics.put("repeatCustomerRate", repeatCustomerRate);
+            analytics.put("repeatCustomerRate", percentage(repeatCustomers, totalGuests));
             
             // Average reservations per customer
+            long totalReservations = reservationDAO.count();
             double avgReservationsPerCustomer = totalGuests > 0 ? 
-                (double) allReservations.size() / totalGuests : 0;
+                (double) totalReservations / totalGuests : 0;
             analytics.put("averageReservationsPerCustomer", avgReservationsPerCustomer);
             
             logger.info("Customer analytics generated");
@@ -403,41 +348,20 @@ public class AnalyticsService {
         Map<String, Object> metrics = new HashMap<>();
         
         try {
-            List<Reservation> reservations = reservationDAO.findAll();
-            
             // Best revenue day
-            Map<LocalDate, Double> revenueByDay = reservations.stream()
-                .filter(r -> !r.isCancelled())
-                .filter(r -> r.getCreatedAt() != null)
-                .collect(Collectors.groupingBy(
-                    r -> r.getCreatedAt().toLocalDate(),
-                    Collectors.summingDouble(r -> r.getFinalAmount().doubleValue())
-                ));
-            
-            if (!revenueByDay.isEmpty()) {
-                LocalDate bestDay = revenueByDay.entrySet().stream()
-                    .max(Map.Entry.comparingByValue())
-                    .map(Map.Entry::getKey)
-                    .orElse(null);
-                metrics.put("bestRevenueDay", bestDay);
-                metrics.put("bestRevenueDayAmount", revenueByDay.get(bestDay));
+            List<GroupTotal> topDays = reservationDAO.findTopBookingDays(1);
+            if (!topDays.isEmpty()) {
+                GroupTotal bestDay = topDays.get(0);
+                metrics.put("bestRevenueDay", LocalDate.parse(bestDay.getKey()));
+                metrics.put("bestRevenueDayAmount", bestDay.getAmount());
             }
             
-            // Most popular room type
-            Map<String, Long> bookingsByType = reservations.stream()
-                .filter(r -> r.getRoom() != null)
-                .collect(Collectors.groupingBy(
-                    r -> r.getRoom().getRoomType().name(),
-                    Collectors.counting()
-                ));
-            
+            // Most popular room type (rows come back most booked first)
+            List<GroupTotal> bookingsByType = reservationDAO.sumBookingsByRoomType();
             if (!bookingsByType.isEmpty()) {
-                String mostPopularType = bookingsByType.entrySet().stream()
-                    .max(Map.Entry.comparingByValue())
-                    .map(Map.Entry::getKey)
-                    .orElse(null);
-                metrics.put("mostPopularRoomType", mostPopularType);
-                metrics.put("mostPopularRoomTypeBookings", bookingsByType.get(mostPopularType));
+                GroupTotal mostPopular = bookingsByType.get(0);
+                metrics.put("mostPopularRoomType", mostPopular.getKey());
+                metrics.put("mostPopularRoomTypeBookings", mostPopular.getCount());
             }
             
             logger.info("Top performing metrics generated");
@@ -451,128 +375,41 @@ public class AnalyticsService {
     
     // Helper Methods
     
-    private int getActiveReservationsCount(List<Reservation> reservations) {
-        return (int) reservations.stream()
-            .filter(Reservation::isActive)
-            .count();
-    }
-    
-    private int getPendingReservationsCount(List<Reservation> reservations) {
-        return (int) reservations.stream()
-            .filter(Reservation::isPending)
-            .count();
-    }
-    
-    private List<Reservation> getTodayCheckIns(List<Reservation> reservations) {
-        LocalDate today = LocalDate.now();
-        return reservations.stream()
-            .filter(r -> r.getCheckInDate() != null)
-            .filter(r -> r.getCheckInDate().equals(today))
-            .collect(Collectors.toList());
-    }
-    
-    private List<Reservation> getTodayCheckOuts(List<Reservation> reservations) {
-        LocalDate today = LocalDate.now();
-        return reservations.stream()
-            .filter(r -> r.getCheckOutDate() != null)
-            .filter(r -> r.getCheckOutDate().equals(today))
-            .collect(Collectors.toList());
-    }
-    
-    private int getAvailableRoomsCount(List<Room> rooms) {
-        return (int) rooms.stream()
-            .filter(Room::isAvailable)
-            .count();
-    }
-    
-    private int getOccupiedRoomsCount(List<Room> rooms) {
-        return (int) rooms.stream()
-            .filter(Room::isOccupied)
-            .count();
-    }
-    
-    private double calculateOccupancyRate(List<Room> rooms) {
-        if (rooms.isEmpty()) return 0.0;
-        long occupied = rooms.stream().filter(Room::isOccupied).count();
-        return (double) occupied / rooms.size() * 100;
-    }
-    
-    private double getMonthlyRevenue() throws SQLException {
-        List<Payment> payments = paymentDAO.findAll();
-        LocalDate monthStart = LocalDate.now().withDayOfMonth(1);
-        
-        return payments.stream()
-            .filter(p -> p.getPaymentDate() != null)
-            .filter(p -> !p.getPaymentDate().toLocalDate().isBefore(monthStart))
-            .filter(Payment::isCompleted)
-            .mapToDouble(p -> p.getAmount().doubleValue())
-            .sum();
-    }
-    
-    private double getTodayRevenue() throws SQLException {
-        List<Payment> payments = paymentDAO.findAll();
-        LocalDate today = LocalDate.now();
-        
-        return payments.stream()
-            .filter(p -> p.getPaymentDate() != null)
-            .filter(p -> p.getPaymentDate().toLocalDate().equals(today))
-            .filter(Payment::isCompleted)
-            .mapToDouble(p -> p.getAmount().doubleValue())
-            .sum();
+    private long sumCounts(List<GroupTotal> rows) {
+        long total = 0;
+        for (GroupTotal row : rows) {
+            total += row.getCount();
+        }
+        return total;
     }
     
-    private List<User> getUsersByRole(User.Role role) throws SQLException {
-        return userDAO.findAll().stream()
-            .filter(u -> u.getRole() == role)
-            .collect(Collectors.toList());
+    private double sumAmounts(List<GroupTotal> rows) {
+        double total = 0;
+        for (GroupTotal row : rows) {
+            total += row.getAmount();
+        }
+        return total;
     }
     
-    private boolean isReservationInDateRange(Reservation r, LocalDate start, LocalDate end) {
-        if (r.getCheckInDate() == null || r.getCheckOutDate() == null) {
-            return false;
+    private long countFor(List<GroupTotal> rows, String key) {
+        for (GroupTotal row : rows) {
+            if (key.equals(row.getKey())) {
+                return row.getCount();
+            }
         }
-        return !r.getCheckOutDate().isBefore(start) && !r.getCheckInDate().isAfter(end);
+        return 0;
     }
     
-    private long calculateOverlapNights(Reservation r, LocalDate start, LocalDate end) {
-        LocalDate overlapStart = r.getCheckInDate().isBefore(start) ? start : r.getCheckInDate();
-        LocalDate overlapEnd = r.getCheckOutDate().isAfter(end) ? end : r.getCheckOutDate();
-        
-        long nights = ChronoUnit.DAYS.between(overlapStart, overlapEnd);
-        return Math.max(0, nights);
+    private double amountFor(List<GroupTotal> rows, String key) {
+        for (GroupTotal row : rows) {
+            if (key.equals(row.getKey())) {
+                return row.getAmount();
+            }
+        }
+        return 0.0;
     }
     
-    private Map<String, Double> calculateOccupancyByRoomType(
-            List<Room> rooms, List<Reservation> reservations, 
-            LocalDate startDate, LocalDate endDate) {
-        
-        Map<String, Double> occupancyByType = new HashMap<>();
-        
-        for (Room.RoomType type : Room.RoomType.values()) {
-            long roomsOfType = rooms.stream()
-                .filter(r -> r.getRoomType() == type)
-                .count();
-            
-            if (roomsOfType == 0) continue;
-            
-            long daysBetween = ChronoUnit.DAYS.between(startDate, endDate) + 1;
-            long totalRoomNights = roomsOfType * daysBetween;
-            
-            long occupiedNights = reservations.stream()
-                .filter(r -> r.getRoom() != null)
-                .filter(r -> r.getRoom().getRoomType() == type)
-                .filter(r -> r.getStatus() == Reservation.ReservationStatus.CHECKED_IN ||
-                           r.getStatus() == Reservation.ReservationStatus.CHECKED_OUT)
-                .filter(r -> isReservationInDateRange(r, startDate, endDate))
-                .mapToLong(r -> calculateOverlapNights(r, startDate, endDate))
-                .sum();
-            
-            double occupancyRate = totalRoomNights > 0 ? 
-                (double) occupiedNights / totalRoomNights * 100 : 0;
-            
-            occupancyByType.put(type.name(), occupancyRate);
-        }
-        
-        return occupancyByType;
+    private double percentage(long part, long whole) {
+        return whole > 0 ? (double) part / whole * 100 : 0.0;
     }
 }
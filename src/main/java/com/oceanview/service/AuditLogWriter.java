@@ -0,0 +1,333 @@
+package com.oceanview.service;
+
+import com.oceanview.config.AppConfig;
+import com.oceanview.dao.AuditLogDAO;
+import com.oceanview.dao.BatchResult;
+import com.oceanview.model.AuditLog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Audit Log Writer - Singleton Pattern
+ * Writes audit logs in the background so recording one costs the request
+ * an enqueue instead of a database round trip.
+ * 
+ * Entries go into a bounded lock-free queue of audit.queueCapacity. A
+ * writer thread drains it in JDBC batches of audit.batchSize, every
+ * audit.flushMillis or as soon as a full batch is waiting. When the queue
+ * is full the audit.overflowPolicy applies:
+ * DROP discards the new entry; SAMPLE also keeps only one entry in
+ * audit.sampleRate once the queue is half full, shedding load before it
+ * fills; BLOCK makes the caller wait up to audit.blockMillis for room, then
+ * drops. Entries queued before start() are written by the first flush, and
+ * stop() writes whatever is left.
+ * 
+ * A batch the database rejects as a whole (connection lost, failover) is
+ * kept and retried first, after a pause that doubles from audit.flushMillis
+ * up to a minute. Only as much of it as still fits the queue is kept, and it
+ * is given up after MAX_RETRIES attempts. Rows rejected one by one are
+ * reported by AuditLogDAO.createAll and are not retried.
+ * 
+ * @author Ocean View Resort Development Team
+ * @version 1.0.0
+ */
+public class AuditLogWriter {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AuditLogWriter.class);
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final int MAX_RETRIES = 5;
+    private static final long MAX_BACKOFF_MILLIS = 60_000;
+    private static AuditLogWriter instance;
+    
+    /**
+     * What happens to an entry submitted while the queue is full
+     */
+    public enum OverflowPolicy {
+        DROP, SAMPLE, BLOCK
+    }
+    
+    private final AuditLogDAO auditLogDAO;
+    private final int capacity;
+    private final int batchSize;
+    private final long flushMillis;
+    private final OverflowPolicy overflowPolicy;
+    private final int sampleRate;
+    private final long blockMillis;
+    
+    private final Queue<AuditLog> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger depth = new AtomicInteger();
+    private final AtomicLong sampleCounter = new AtomicLong();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final Object flushLock = new Object();
+    
+    // Guarded by flushLock
+    private final List<AuditLog> retry = new ArrayList<>();
+    private int retryAttempts;
+    private long retryAtNanos;
+    
+    private volatile ScheduledExecutorService scheduler;
+    
+    /**
+     * Constructor
+     * @param auditLogDAO DAO the batches are written through
+     * @param capacity Maximum number of queued entries
+     * @param batchSize Entries per batch insert
+     * @param flushMillis Maximum time an entry waits in the queue
+     * @param overflowPolicy Behaviour when the queue is full
+     * @param sampleRate One in this many entries is kept under SAMPLE pressure
+     * @param blockMillis Longest wait for room under BLOCK
+     */
+    AuditLogWriter(AuditLogDAO auditLogDAO, int capacity, int batchSize, long flushMillis,
+                   OverflowPolicy overflowPolicy, int sampleRate, long blockMillis) {
+        this.auditLogDAO = auditLogDAO;
+        this.capacity = Math.max(1, capacity);
+        this.batchSize = Math.max(1, batchSize);
+        this.flushMillis = Math.max(1, flushMillis);
+        this.overflowPolicy = overflowPolicy;
+        this.sampleRate = Math.max(1, sampleRate);
+        this.blockMillis = Math.max(0, blockMillis);
+    }
+    
+    /**
+     * Get singleton instance
+     * @return AuditLogWriter instance
+     */
+    public static synchronized AuditLogWriter getInstance() {
+        if (instance == null) {
+            AppConfig config = AppConfig.getInstance();
+            instance = new AuditLogWriter(new AuditLogDAO(), config.getAuditQueueCapacity(),
+                                          config.getAuditBatchSize(), config.getAuditFlushMillis(),
+                                          parsePolicy(config.getAuditOverflowPolicy()),
+                                          config.getAuditSampleRate(),
+                                          config.getAuditBlockMillis());
+        }
+        return instance;
+    }
+    
+    /**
+     * Start the background writer
+     */
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "audit-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, 0, flushMillis, TimeUnit.MILLISECONDS);
+        logger.info("Audit log writer started: capacity {}, batches of {} every {} ms, overflow {}",
+                    capacity, batchSize, flushMillis, overflowPolicy);
+    }
+    
+    /**
+     * Stop the background writer and write what is still queued
+     */
+    public synchronized void stop() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        scheduler = null;
+        synchronized (flushLock) {
+            // One last attempt, without waiting out the backoff
+            retryAtNanos = System.nanoTime();
+        }
+        flushQuietly();
+        logger.info("Audit log writer stopped: {} written, {} dropped, {} failed",
+                    written.get(), dropped.get(), failed.get());
+    }
+    
+    /**
+     * Queue an audit log for writing
+     * @param auditLog Entry to write
+     * @return false if the entry was dropped
+     */
+    public boolean submit(AuditLog auditLog) {
+        if (overflowPolicy == OverflowPolicy.SAMPLE && depth.get() >= capacity / 2
+                && sampleCounter.incrementAndGet() % sampleRate != 0) {
+            dropped.incrementAndGet();
+            return false;
+        }
+        if (!reserveSlot()) {
+            dropped.incrementAndGet();
+            logger.debug("Audit log dropped, queue full: {}", auditLog.getAction());
+            return false;
+        }
+        queue.offer(auditLog);
+        if (depth.get() >= batchSize) {
+            requestFlush();
+        }
+        return true;
+    }
+    
+    /**
+     * Write everything queued, in batches. While a failed batch is backing
+     * off nothing is written.
+     * @return Number of entries written
+     * @throws SQLException if a batch could not be written; it is kept for a
+     *         retry, or counted as failed once the retries are used up
+     */
+    public int flush() throws SQLException {
+        synchronized (flushLock) {
+            if (retryAttempts > 0 && System.nanoTime() - retryAtNanos < 0) {
+                return 0;
+            }
+            int total = 0;
+            List<AuditLog> batch = new ArrayList<>(batchSize);
+            while (true) {
+                batch.clear();
+                batch.addAll(retry);
+                depth.addAndGet(-retry.size());
+                retry.clear();
+                AuditLog next;
+                while (batch.size() < batchSize && (next = queue.poll()) != null) {
+                    depth.decrementAndGet();
+                    batch.add(next);
+                }
+                if (batch.isEmpty()) {
+                    return total;
+                }
+                try {
+                    BatchResult<AuditLog> result = auditLogDAO.createAll(batch);
+                    written.addAndGet(result.getInsertedCount());
+                    failed.addAndGet(result.getFailedCount());
+                    total += result.getInsertedCount();
+                    retryAttempts = 0;
+                } catch (SQLException e) {
+                    keepForRetry(batch);
+                    throw e;
+                }
+            }
+        }
+    }
+    
+    /**
+     * @return Number of entries waiting to be written
+     */
+    public int getQueueDepth() {
+        return depth.get();
+    }
+    
+    /**
+     * @return Entries written since startup
+     */
+    public long getWrittenCount() {
+        return written.get();
+    }
+    
+    /**
+     * @return Entries discarded by the overflow policy since startup
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+    
+    /**
+     * @return Entries lost to database errors since startup
+     */
+    public long getFailedCount() {
+        return failed.get();
+    }
+    
+    /**
+     * Hold on to a batch the database rejected, within the queue capacity
+     */
+    private void keepForRetry(List<AuditLog> batch) {
+        retryAttempts++;
+        if (retryAttempts > MAX_RETRIES) {
+            failed.addAndGet(batch.size());
+            retryAttempts = 0;
+            return;
+        }
+        for (AuditLog auditLog : batch) {
+            int current;
+            do {
+                current = depth.get();
+            } while (current < capacity && !depth.compareAndSet(current, current + 1));
+            if (current >= capacity) {
+                break;
+            }
+            retry.add(auditLog);
+        }
+        // Entries that no longer fit are lost
+        failed.addAndGet(batch.size() - retry.size());
+        long backoff = Math.min(MAX_BACKOFF_MILLIS, flushMillis << Math.min(retryAttempts, 20));
+        retryAtNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(backoff);
+    }
+    
+    private boolean reserveSlot() {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(blockMillis);
+        while (true) {
+            int current = depth.get();
+            if (current < capacity) {
+                if (depth.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+                continue;
+            }
+            if (overflowPolicy != OverflowPolicy.BLOCK || System.nanoTime() >= deadline) {
+                return false;
+            }
+            requestFlush();
+            LockSupport.parkNanos(BLOCK_PARK_NANOS);
+        }
+    }
+    
+    private void requestFlush() {
+        ScheduledExecutorService current = scheduler;
+        if (current != null && flushScheduled.compareAndSet(false, true)) {
+            try {
+                current.execute(this::flushQuietly);
+            } catch (RuntimeException e) {
+                // Shutting down; stop() writes the rest
+                flushScheduled.set(false);
+            }
+        }
+    }
+    
+    private void flushQuietly() {
+        flushScheduled.set(false);
+        try {
+            int count = flush();
+            if (count > 0) {
+                logger.debug("Audit logs written: {}", count);
+            }
+        } catch (SQLException e) {
+            logger.error("Error writing audit logs, {} queued, {} entries lost so far",
+                         depth.get(), failed.get(), e);
+        }
+    }
+    
+    private static OverflowPolicy parsePolicy(String name) {
+        try {
+            return OverflowPolicy.valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            logger.warn("Unknown audit overflow policy: {}, using DROP", name);
+            return OverflowPolicy.DROP;
+        }
+    }
+}
@@ -0,0 +1,326 @@
+package com.oceanview.service;
+
+import com.oceanview.config.AppConfig;
+import com.oceanview.dao.AuditLogDAO;
+import com.oceanview.model.AuditLog;
+import com.oceanview.model.AuditPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Audit Retention Job - Singleton Pattern
+ * Removes audit logs older than audit.retention.days, once an hour after
+ * startup and then every audit.retention.intervalHours.
+ * 
+ * With audit.retention.partitioned the audit_logs table is expected to be
+ * range partitioned by month (migration_partition_audit_logs.sql): whole
+ * partitions past the cutoff are dropped, which is a metadata change rather
+ * than a row-by-row delete, and partitions for the next
+ * audit.retention.monthsAhead months are split off p_future. Rows are then
+ * kept for up to one month beyond the retention period. If
+ * audit.retention.archiveDir is set, each partition is first written there
+ * as gzipped CSV and is only dropped once the file is complete.
+ * 
+ * Without partitioning the rows are deleted audit.retention.chunkSize at a
+ * time, each chunk in its own transaction, pausing audit.retention.pauseMillis
+ * between chunks so the job never holds locks for long or competes with
+ * request traffic.
+ * 
+ * @author Ocean View Resort Development Team
+ * @version 1.0.0
+ */
+public class AuditRetentionJob {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AuditRetentionJob.class);
+    private static final DateTimeFormatter PARTITION_FORMAT = DateTimeFormatter.ofPattern("'p'yyyyMM");
+    private static final int PROGRESS_LOG_CHUNKS = 20;
+    private static AuditRetentionJob instance;
+    
+    private final AuditLogDAO auditLogDAO;
+    private final Supplier<LocalDateTime> now;
+    private final int retentionDays;
+    private final int chunkSize;
+    private final long pauseMillis;
+    private final boolean partitioned;
+    private final int monthsAhead;
+    private final Path archiveDir;
+    private final long intervalHours;
+    
+    private final Object runLock = new Object();
+    private ScheduledExecutorService scheduler;
+    
+    // Progress of the current or last run
+    private volatile boolean running;
+    private volatile long rowsRemoved;
+    private volatile int partitionsDropped;
+    private volatile LocalDateTime lastFinishedAt;
+    
+    /**
+     * Constructor
+     * @param auditLogDAO DAO for audit_logs
+     * @param now Current time
+     * @param retentionDays Days of audit logs to keep
+     * @param chunkSize Rows per delete when not partitioned
+     * @param pauseMillis Pause between delete chunks
+     * @param partitioned Whether audit_logs is partitioned by month
+     * @param monthsAhead Months of partitions to keep ready
+     * @param archiveDir Directory for archived partitions, or null
+     * @param intervalHours Hours between runs
+     */
+    AuditRetentionJob(AuditLogDAO auditLogDAO, Supplier<LocalDateTime> now, int retentionDays,
+                      int chunkSize, long pauseMillis, boolean partitioned, int monthsAhead,
+                      Path archiveDir, long intervalHours) {
+        this.auditLogDAO = auditLogDAO;
+        this.now = now;
+        this.retentionDays = Math.max(1, retentionDays);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.pauseMillis = Math.max(0, pauseMillis);
+        this.partitioned = partitioned;
+        this.monthsAhead = Math.max(1, monthsAhead);
+        this.archiveDir = archiveDir;
+        this.intervalHours = Math.max(1, intervalHours);
+    }
+    
+    /**
+     * Get singleton instance
+     * @return AuditRetentionJob instance
+     */
+    public static synchronized AuditRetentionJob getInstance() {
+        if (instance == null) {
+            AppConfig config = AppConfig.getInstance();
+            String archiveDir = config.getAuditArchiveDir();
+            instance = new AuditRetentionJob(new AuditLogDAO(), LocalDateTime::now,
+                                             config.getAuditRetentionDays(),
+                                             config.getAuditRetentionChunkSize(),
+                                             config.getAuditRetentionPauseMillis(),
+                                             config.isAuditPartitioned(),
+                                             config.getAuditPartitionMonthsAhead(),
+                                             archiveDir.isBlank() ? null : Paths.get(archiveDir),
+                                             config.getAuditRetentionIntervalHours());
+        }
+        return instance;
+    }
+    
+    /**
+     * Run retention on a schedule, first an hour after startup
+     */
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "audit-retention");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::runQuietly, 1, intervalHours, TimeUnit.HOURS);
+        logger.info("Audit retention started: keep {} days, {}, every {} h", retentionDays,
+                    partitioned ? "monthly partitions" : "chunks of " + chunkSize, intervalHours);
+    }
+    
+    /**
+     * Stop the schedule; a chunked run in progress stops after its current chunk
+     */
+    public synchronized void stop() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdownNow();
+        scheduler = null;
+        logger.info("Audit retention stopped");
+    }
+    
+    /**
+     * Remove audit logs older than the retention period
+     * @return Rows removed; for dropped partitions the database's row estimate
+     * @throws SQLException if the database fails; work done so far is kept
+     */
+    public long run() throws SQLException {
+        synchronized (runLock) {
+            LocalDateTime cutoff = now.get().minusDays(retentionDays);
+            running = true;
+            rowsRemoved = 0;
+            partitionsDropped = 0;
+            try {
+                if (partitioned) {
+                    dropPartitions(cutoff);
+                    addPartitions();
+                } else {
+                    deleteChunks(cutoff);
+                }
+                lastFinishedAt = now.get();
+                logger.info("Audit retention finished: {} rows removed, {} partitions dropped, cutoff {}",
+                            rowsRemoved, partitionsDropped, cutoff);
+                return rowsRemoved;
+            } finally {
+                running = false;
+            }
+        }
+    }
+    
+    /**
+     * @return true while a run is in progress
+     */
+    public boolean isRunning() {
+        return running;
+    }
+    
+    /**
+     * @return Rows removed by the current or last run
+     */
+    public long getRowsRemoved() {
+        return rowsRemoved;
+    }
+    
+    /**
+     * @return Partitions dropped by the current or last run
+     */
+    public int getPartitionsDropped() {
+        return partitionsDropped;
+    }
+    
+    /**
+     * @return When the last run finished, or null if none has
+     */
+    public LocalDateTime getLastFinishedAt() {
+        return lastFinishedAt;
+    }
+    
+    private void runQuietly() {
+        try {
+            run();
+        } catch (SQLException e) {
+            logger.error("Audit retention failed after removing {} rows", rowsRemoved, e);
+        } catch (RuntimeException e) {
+            logger.error("Audit retention failed", e);
+        }
+    }
+    
+    private void deleteChunks(LocalDateTime cutoff) throws SQLException {
+        int chunks = 0;
+        int deleted;
+        while ((deleted = auditLogDAO.deleteChunkOlderThan(cutoff, chunkSize)) > 0) {
+            rowsRemoved += deleted;
+            if (++chunks % PROGRESS_LOG_CHUNKS == 0) {
+                logger.info("Audit retention in progress: {} rows deleted in {} chunks", rowsRemoved, chunks);
+            }
+            if (deleted < chunkSize || !pause()) {
+                return;
+            }
+        }
+    }
+    
+    private boolean pause() {
+        if (pauseMillis == 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(pauseMillis);
+            return true;
+        } catch (InterruptedException e) {
+            // Stopped; the remaining rows go on the next run
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+    
+    private void dropPartitions(LocalDateTime cutoff) throws SQLException {
+        LocalDateTime lowerBound = LocalDateTime.of(1970, 1, 1, 0, 0);
+        for (AuditPartition partition : auditLogDAO.findPartitions()) {
+            if (!partition.isOlderThan(cutoff)) {
+                break;
+            }
+            if (archiveDir != null) {
+                archive(partition, lowerBound);
+            }
+            auditLogDAO.dropPartition(partition.getName());
+            rowsRemoved += partition.getEstimatedRows();
+            partitionsDropped++;
+            lowerBound = partition.getUpperBound();
+        }
+    }
+    
+    private void addPartitions() throws SQLException {
+        List<AuditPartition> partitions = auditLogDAO.findPartitions();
+        LocalDateTime last = null;
+        for (AuditPartition partition : partitions) {
+            if (partition.getUpperBound() != null) {
+                last = partition.getUpperBound();
+            }
+        }
+        YearMonth target = YearMonth.from(now.get()).plusMonths(monthsAhead);
+        YearMonth month = last != null ? YearMonth.from(last) : YearMonth.from(now.get());
+        while (!month.isAfter(target)) {
+            LocalDateTime upperBound = month.plusMonths(1).atDay(1).atStartOfDay();
+            if (last == null || upperBound.isAfter(last)) {
+                auditLogDAO.addPartition(PARTITION_FORMAT.format(month), upperBound);
+                last = upperBound;
+            }
+            month = month.plusMonths(1);
+        }
+    }
+    
+    /**
+     * Write one partition's rows to archiveDir/audit_logs_NAME.csv.gz. The
+     * file is written under a temporary name and renamed when complete.
+     */
+    private void archive(AuditPartition partition, LocalDateTime lowerBound) throws SQLException {
+        Path target = archiveDir.resolve("audit_logs_" + partition.getName() + ".csv.gz");
+        Path partial = archiveDir.resolve(target.getFileName() + ".part");
+        try {
+            Files.createDirectories(archiveDir);
+            long rows;
+            try (Writer out = new BufferedWriter(new OutputStreamWriter(
+                    new GZIPOutputStream(Files.newOutputStream(partial)), StandardCharsets.UTF_8))) {
+                out.write("log_id,user_id,action,entity_type,entity_id,details,ip_address,timestamp\n");
+                rows = auditLogDAO.streamByPeriod(lowerBound, partition.getUpperBound(), log -> writeRow(out, log));
+            }
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            logger.info("Audit log partition {} archived: {} rows to {}", partition.getName(), rows, target);
+        } catch (IOException | UncheckedIOException e) {
+            throw new SQLException("Could not archive audit log partition " + partition.getName(), e);
+        }
+    }
+    
+    private static void writeRow(Writer out, AuditLog log) {
+        try {
+            out.write(log.getLogId() + "," + csv(log.getUserId()) + "," + csv(log.getAction()) + ","
+                      + csv(log.getEntityType()) + "," + csv(log.getEntityId()) + "," + csv(log.getDetails()) + ","
+                      + csv(log.getIpAddress()) + "," + csv(log.getTimestamp()) + "\n");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private static String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.contains(",") || text.contains("\"") || text.contains("\n") || text.contains("\r")) {
+            return "\"" + text.replace("\"", "\"\"") + "\"";
+        }
+        return text;
+    }
+}
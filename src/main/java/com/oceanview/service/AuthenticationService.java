@@ -1,7 +1,10 @@
 package com.oceanview.service;
 
+import com.oceanview.dao.UserCache;
 import com.oceanview.dao.UserDAO;
 import com.oceanview.model.User;
+import com.oceanview.tracing.Span;
+import com.oceanview.tracing.Tracer;
 import com.oceanview.util.PasswordUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -20,12 +23,16 @@ public class AuthenticationService {
     
     private static final Logger logger = LoggerFactory.getLogger(AuthenticationService.class);
     private final UserDAO userDAO;
+    private final UserCache userCache;
+    private final LastLoginRecorder lastLoginRecorder;
     
     /**
      * Constructor
      */
     public AuthenticationService() {
         this.userDAO = new UserDAO();
+        this.userCache = UserCache.getInstance();
+        this.lastLoginRecorder = LastLoginRecorder.getInstance();
     }
     
     /**
@@ -35,14 +42,9 @@ public class AuthenticationService {
      * @return Optional User if authentication successful
      */
     public Optional<User> authenticate(String usernameOrEmail, String password) {
-        try {
-            // Find user by username first
-            Optional<User> userOpt = userDAO.findByUsername(usernameOrEmail);
-            
-            // If not found by username, try email
-            if (userOpt.isEmpty()) {
-                userOpt = userDAO.findByEmail(usernameOrEmail);
-            }
+        try (Span span = Tracer.span("AuthenticationService.authenticate")) {
+            // Find user by username first, then by email
+            Optional<User> userOpt = userCache.findByLogin(usernameOrEmail);
             
             if (userOpt.isEmpty()) {
                 logger.warn("Authentication failed: User not found - {}", usernameOrEmail);
@@ -50,6 +52,7 @@ public class AuthenticationService {
             }
             
             User user = userOpt.get();
+            span.tag("userId", user.getUserId());
             
             // Check if user is active
             if (!user.isActive()) {
@@ -59,8 +62,8 @@ public class AuthenticationService {
             
             // Verify password
             if (PasswordUtil.verifyPassword(password, user.getPassword())) {
-                // Update last login timestamp
-                userDAO.updateLastLogin(user.getUserId());
+                // Update last login timestamp, batched in the background
+                lastLoginRecorder.record(user.getUserId());
                 logger.info("Authentication successful for user: {}", usernameOrEmail);
                 return Optional.of(user);
             } else {
@@ -80,7 +83,8 @@ public class AuthenticationService {
      * @return User ID if successful, -1 if failed
      */
     public int register(User user) {
-        try {
+        try (Span span = Tracer.span("AuthenticationService.register")) {
+            span.tag("role", user.getRole());
             // Check if username already exists
             if (userDAO.existsByUsername(user.getUsername())) {
                 logger.warn("Registration failed: Username already exists - {}", user.getUsername());
@@ -117,7 +121,8 @@ public class AuthenticationService {
      * @return true if successful
      */
     public boolean changePassword(int userId, String oldPassword, String newPassword) {
-        try {
+        try (Span span = Tracer.span("AuthenticationService.changePassword")) {
+            span.tag("userId", userId);
             // Get user
             Optional<User> userOpt = userDAO.findById(userId);
             
@@ -0,0 +1,330 @@
+package com.oceanview.service;
+
+import com.oceanview.config.AppConfig;
+import com.oceanview.dao.ReservationDAO;
+import com.oceanview.dao.RoomDAO;
+import com.oceanview.model.Reservation;
+import com.oceanview.model.Room;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Availability Index - Singleton Pattern
+ * In-memory booking calendar that answers "which rooms are free from D1 to
+ * D2" without a database round trip.
+ * 
+ * Every room has a bitmap of booked nights covering a rolling window of
+ * availability.windowDays days from the day the index was loaded: bit i is
+ * set when a stay that holds the room (pending, confirmed or checked in, see
+ * ReservationStatus.holdsRoom) covers night windowStart + i. A room is free
+ * for a stay when no bit in [checkIn, checkOut) is set, which is a single
+ * nextSetBit call. The rules are the same as RoomDAO.findAvailableRoomsByDate
+ * and the booking check in ReservationDAO: the room must currently be
+ * AVAILABLE and have no overlapping reservation that holds it.
+ * 
+ * The database stays the source of truth. ReservationService and
+ * RoomService apply their changes here after they commit, and the whole
+ * index is rebuilt from the database every availability.reconcileMinutes,
+ * which also moves the window forward. Changes applied while a rebuild is
+ * loading are replayed onto the new index before it is published. Searches
+ * the index cannot answer (not loaded yet, or dates outside the window)
+ * return empty so the caller falls back to SQL.
+ * 
+ * @author Ocean View Resort Development Team
+ * @version 1.0.0
+ */
+public class AvailabilityIndex {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AvailabilityIndex.class);
+    private static AvailabilityIndex instance;
+    
+    private final RoomDAO roomDAO;
+    private final ReservationDAO reservationDAO;
+    private final Supplier<LocalDate> today;
+    private final int windowDays;
+    private final long reconcileMinutes;
+    
+    private final Object writeLock = new Object();
+    private volatile Calendar calendar;
+    private List<Consumer<Calendar>> pendingChanges;
+    private ScheduledExecutorService scheduler;
+    
+    /**
+     * Constructor
+     * @param roomDAO DAO for loading rooms
+     * @param reservationDAO DAO for loading booked stays
+     * @param today Current business date
+     * @param windowDays Number of nights covered by the index
+     * @param reconcileMinutes Minutes between rebuilds from the database
+     */
+    AvailabilityIndex(RoomDAO roomDAO, ReservationDAO reservationDAO, Supplier<LocalDate> today,
+                      int windowDays, long reconcileMinutes) {
+        this.roomDAO = roomDAO;
+        this.reservationDAO = reservationDAO;
+        this.today = today;
+        this.windowDays = Math.max(1, windowDays);
+        this.reconcileMinutes = Math.max(1, reconcileMinutes);
+    }
+    
+    /**
+     * Get singleton instance
+     * @return AvailabilityIndex instance
+     */
+    public static synchronized AvailabilityIndex getInstance() {
+        if (instance == null) {
+            AppConfig config = AppConfig.getInstance();
+            instance = new AvailabilityIndex(new RoomDAO(), new ReservationDAO(), LocalDate::now,
+                                             config.getAvailabilityWindowDays(),
+                                             config.getAvailabilityReconcileMinutes());
+        }
+        return instance;
+    }
+    
+    /**
+     * Load the index now and rebuild it on a schedule
+     */
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "availability-reconcile");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::reconcileQuietly, 0, reconcileMinutes, TimeUnit.MINUTES);
+        logger.info("Availability index started, {} day window, reconciled every {} min",
+                    windowDays, reconcileMinutes);
+    }
+    
+    /**
+     * Stop the scheduled rebuilds
+     */
+    public synchronized void stop() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdownNow();
+        scheduler = null;
+        logger.info("Availability index stopped");
+    }
+    
+    /**
+     * Whether the index has been loaded and can answer searches
+     */
+    public boolean isLoaded() {
+        return calendar != null;
+    }
+    
+    /**
+     * Rebuild the index from the database and publish it
+     * @throws SQLException if loading fails; the previous index stays in use
+     */
+    public void reconcile() throws SQLException {
+        synchronized (writeLock) {
+            pendingChanges = new ArrayList<>();
+        }
+        Calendar fresh;
+        try {
+            fresh = load(today.get());
+        } catch (SQLException | RuntimeException e) {
+            synchronized (writeLock) {
+                pendingChanges = null;
+            }
+            throw e;
+        }
+        synchronized (writeLock) {
+            for (Consumer<Calendar> change : pendingChanges) {
+                change.accept(fresh);
+            }
+            pendingChanges = null;
+            calendar = fresh;
+        }
+        logger.debug("Availability index rebuilt: {} rooms from {}", fresh.rooms.size(), fresh.windowStart);
+    }
+    
+    /**
+     * Rooms that are available for a whole stay
+     * @param roomType Room type, or null for any type
+     * @param checkIn Check-in date
+     * @param checkOut Check-out date
+     * @return Free rooms ordered by room number, or empty if the index
+     *         cannot answer and the caller should query the database
+     */
+    public Optional<List<Room>> findAvailableRooms(Room.RoomType roomType, LocalDate checkIn, LocalDate checkOut) {
+        Calendar current = calendar;
+        if (current == null) {
+            return Optional.empty();
+        }
+        int from = current.nightIndex(checkIn);
+        int to = current.nightIndex(checkOut);
+        if (from < 0 || to > current.days || to <= from) {
+            return Optional.empty();
+        }
+        
+        List<Room> rooms = new ArrayList<>();
+        for (RoomNights entry : current.rooms.values()) {
+            Room room = entry.room;
+            if (room.getStatus() != Room.RoomStatus.AVAILABLE
+                    || (roomType != null && room.getRoomType() != roomType)) {
+                continue;
+            }
+            int booked = entry.nights.nextSetBit(from);
+            if (booked < 0 || booked >= to) {
+                rooms.add(new Room(room));
+            }
+        }
+        rooms.sort(Comparator.comparing(Room::getRoomNumber));
+        return Optional.of(rooms);
+    }
+    
+    /**
+     * Whether a reservation status takes its room off the market for search
+     */
+    public static boolean blocksRoom(Reservation.ReservationStatus status) {
+        return status != null && status.holdsRoom();
+    }
+    
+    /**
+     * A stay now holds its room (e.g. the reservation was confirmed)
+     */
+    public void stayBooked(int roomId, LocalDate checkIn, LocalDate checkOut) {
+        apply(current -> current.markNights(roomId, checkIn, checkOut, true));
+    }
+    
+    /**
+     * A stay no longer holds its room (cancelled or checked out)
+     */
+    public void stayReleased(int roomId, LocalDate checkIn, LocalDate checkOut) {
+        apply(current -> current.markNights(roomId, checkIn, checkOut, false));
+    }
+    
+    /**
+     * A room was created or edited
+     */
+    public void roomChanged(Room room) {
+        Room copy = new Room(room);
+        apply(current -> current.putRoom(copy));
+    }
+    
+    /**
+     * A room's status changed
+     */
+    public void roomStatusChanged(int roomId, Room.RoomStatus status) {
+        apply(current -> current.rooms.computeIfPresent(roomId, (id, entry) -> entry.withStatus(status)));
+    }
+    
+    /**
+     * A room was deleted
+     */
+    public void roomRemoved(int roomId) {
+        apply(current -> current.rooms.remove(roomId));
+    }
+    
+    private void apply(Consumer<Calendar> change) {
+        synchronized (writeLock) {
+            Calendar current = calendar;
+            if (current != null) {
+                change.accept(current);
+            }
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+            }
+        }
+    }
+    
+    private Calendar load(LocalDate windowStart) throws SQLException {
+        Calendar fresh = new Calendar(windowStart, windowDays);
+        for (Room room : roomDAO.findAll()) {
+            fresh.putRoom(room);
+        }
+        long stays = reservationDAO.streamRoomHolds(windowStart, windowStart.plusDays(windowDays),
+            reservation -> fresh.markNights(reservation.getRoomId(), reservation.getCheckInDate(),
+                                            reservation.getCheckOutDate(), true));
+        logger.info("Availability index loaded: {} rooms, {} booked stays", fresh.rooms.size(), stays);
+        return fresh;
+    }
+    
+    private void reconcileQuietly() {
+        try {
+            reconcile();
+        } catch (SQLException | RuntimeException e) {
+            logger.error("Error rebuilding availability index, keeping previous index", e);
+        }
+    }
+    
+    /**
+     * One room and its booked nights. Never modified once published;
+     * changes replace the entry.
+     */
+    private static final class RoomNights {
+        
+        private final Room room;
+        private final BitSet nights;
+        
+        RoomNights(Room room, BitSet nights) {
+            this.room = room;
+            this.nights = nights;
+        }
+        
+        RoomNights withNights(int from, int to, boolean booked) {
+            BitSet copy = (BitSet) nights.clone();
+            copy.set(from, to, booked);
+            return new RoomNights(room, copy);
+        }
+        
+        RoomNights withStatus(Room.RoomStatus status) {
+            Room copy = new Room(room);
+            copy.setStatus(status);
+            return new RoomNights(copy, nights);
+        }
+    }
+    
+    /**
+     * All rooms over one window
+     */
+    private static final class Calendar {
+        
+        private final LocalDate windowStart;
+        private final int days;
+        private final ConcurrentMap<Integer, RoomNights> rooms = new ConcurrentHashMap<>();
+        
+        Calendar(LocalDate windowStart, int days) {
+            this.windowStart = windowStart;
+            this.days = days;
+        }
+        
+        int nightIndex(LocalDate date) {
+            return (int) ChronoUnit.DAYS.between(windowStart, date);
+        }
+        
+        void putRoom(Room room) {
+            rooms.compute(room.getRoomId(), (id, entry) ->
+                new RoomNights(room, entry != null ? entry.nights : new BitSet(days)));
+        }
+        
+        void markNights(int roomId, LocalDate checkIn, LocalDate checkOut, boolean booked) {
+            int from = Math.max(0, nightIndex(checkIn));
+            int to = Math.min(days, nightIndex(checkOut));
+            if (from < to) {
+                rooms.computeIfPresent(roomId, (id, entry) -> entry.withNights(from, to, booked));
+            }
+        }
+    }
+}
@@ -1,19 +1,33 @@
 package com.oceanview.service;
 
+import com.itextpdf.text.DocumentException;
 import com.oceanview.config.AppConfig;
+import com.oceanview.dao.GuestDAO;
 import com.oceanview.dao.PaymentDAO;
 import com.oceanview.dao.ReservationDAO;
+import com.oceanview.dao.TransactionTemplate;
+import com.oceanview.dao.UserDAO;
+import com.oceanview.model.GroupTotal;
+import com.oceanview.model.Guest;
 import com.oceanview.model.Payment;
 import com.oceanview.model.Reservation;
+import com.oceanview.model.User;
+import com.oceanview.tracing.Span;
+import com.oceanview.tracing.Tracer;
+import com.oceanview.util.DateUtil;
+import com.oceanview.util.IdGenerator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.sql.SQLException;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Billing Service
@@ -27,6 +41,11 @@ public class BillingService {
     private static final Logger logger = LoggerFactory.getLogger(BillingService.class);
     private final PaymentDAO paymentDAO;
     private final ReservationDAO reservationDAO;
+    private final GuestDAO guestDAO;
+    private final UserDAO userDAO;
+    private final PDFService pdfService;
+    private final PdfRenderService pdfRenderService;
+    private final TransactionTemplate transactionTemplate;
     private final AppConfig config;
     
     /**
@@ -35,6 +54,11 @@ public class BillingService {
     public BillingService() {
         this.paymentDAO = new PaymentDAO();
         this.reservationDAO = new ReservationDAO();
+        this.guestDAO = new GuestDAO();
+        this.userDAO = new UserDAO();
+        this.pdfService = PDFService.getInstance();
+        this.pdfRenderService = PdfRenderService.getInstance();
+        this.transactionTemplate = new TransactionTemplate();
         this.config = AppConfig.getInstance();
     }
     
@@ -46,42 +70,45 @@ public class BillingService {
      * @return Payment ID if successful, -1 if failed
      */
     public int processPayment(int reservationId, Payment.PaymentMethod paymentMethod, String transactionId) {
-        try {
-            // Get reservation
-            Optional<Reservation> resOpt = reservationDAO.findById(reservationId);
-            
-            if (resOpt.isEmpty()) {
-                logger.warn("Payment processing failed: Reservation not found - ID: {}", reservationId);
-                return -1;
-            }
-            
-            Reservation reservation = resOpt.get();
-            
-            // Check if reservation can be paid
-            if (reservation.isCancelled()) {
-                logger.warn("Payment processing failed: Reservation is cancelled - ID: {}", reservationId);
-                return -2;
-            }
-            
-            // Create payment
-            Payment payment = new Payment();
-            payment.setReservationId(reservationId);
-            payment.setPaymentNumber(generatePaymentNumber());
-            payment.setAmount(reservation.getFinalAmount());
-            payment.setPaymentMethod(paymentMethod);
-            payment.setPaymentStatus(Payment.PaymentStatus.COMPLETED);
-            payment.setTransactionId(transactionId);
-            payment.setPaymentDate(LocalDateTime.now());
-            
-            int paymentId = paymentDAO.create(payment);
-            
-            if (paymentId > 0) {
-                logger.info("Payment processed successfully: Payment ID={}, Reservation ID={}", 
-                           paymentId, reservationId);
-            }
-            
-            return paymentId;
-            
+        try (Span span = Tracer.span("BillingService.processPayment")) {
+            span.tag("reservationId", reservationId);
+            return transactionTemplate.execute(() -> {
+                // Get reservation
+                Optional<Reservation> resOpt = reservationDAO.findById(reservationId);
+                
+                if (resOpt.isEmpty()) {
+                    logger.warn("Payment processing failed: Reservation not found - ID: {}", reservationId);
+                    return -1;
+                }
+                
+                Reservation reservation = resOpt.get();
+                
+                // Check if reservation can be paid
+                if (reservation.isCancelled()) {
+                    logger.warn("Payment processing failed: Reservation is cancelled - ID: {}", reservationId);
+                    return -2;
+                }
+                
+                // Create payment
+                Payment payment = new Payment();
+                payment.setReservationId(reservationId);
+                payment.setPaymentNumber(generatePaymentNumber());
+                payment.setAmount(reservation.getFinalAmount());
+                payment.setPaymentMethod(paymentMethod);
+                payment.setPaymentStatus(Payment.PaymentStatus.COMPLETED);
+                payment.setTransactionId(transactionId);
+                payment.setPaymentDate(LocalDateTime.now());
+                
+                int paymentId = paymentDAO.create(payment);
+                
+                if (paymentId > 0) {
+                    logger.info("Payment processed successfully: Payment ID={}, Reservation ID={}", 
+                               paymentId, reservationId);
+                }
+                
+                return paymentId;
+            });
+        
         } catch (SQLException e) {
             logger.error("Error processing payment for reservation ID: {}", reservationId, e);
             return -3;
@@ -107,7 +134,7 @@ public class BillingService {
             }
             
             return paymentId;
-            
+        
         } catch (SQLException e) {
             logger.error("Error creating payment", e);
             return -1;
@@ -125,11 +152,12 @@ public class BillingService {
             boolean success = paymentDAO.updateStatus(paymentId, status);
             
             if (success) {
+                pdfRenderService.invalidatePayment(paymentId);
                 logger.info("Payment status updated: ID={}, status={}", paymentId, status);
             }
             
             return success;
-            
+        
         } catch (SQLException e) {
             logger.error("Error updating payment status: ID={}", paymentId, e);
             return false;
@@ -190,13 +218,73 @@ public class BillingService {
         }
     }
     
+    /**
+     * Write the revenue report PDF for a period straight to a stream
+     * Payments are streamed from the database into the document, so the
+     * report is never held in memory as a whole
+     * @param startDate Start date (inclusive)
+     * @param endDate End date (inclusive)
+     * @param out Destination, e.g. the servlet response
+     * @return true if the report was written completely
+     */
+    public boolean writeRevenueReportPDF(LocalDate startDate, LocalDate endDate, OutputStream out) {
+        try (Span span = Tracer.span("BillingService.writeRevenueReportPDF")) {
+            span.tag("from", startDate).tag("to", endDate);
+            long transactions = 0;
+            for (GroupTotal total : paymentDAO.sumGroupedByStatus(startDate, endDate)) {
+                transactions += total.getCount();
+            }
+            double revenue = paymentDAO.getRevenueBetween(startDate, endDate);
+            pdfService.writeRevenueReportPDF(DateUtil.formatDateForDisplay(startDate),
+                                             DateUtil.formatDateForDisplay(endDate), transactions, revenue,
+                                             consumer -> paymentDAO.streamByDateRange(startDate, endDate, consumer),
+                                             out);
+            return true;
+        } catch (SQLException | DocumentException e) {
+            logger.error("Error writing revenue report PDF from {} to {}", startDate, endDate, e);
+            return false;
+        }
+    }
+    
+    /**
+     * Get the invoice PDF for a payment, rendered or from the PDF cache
+     * @param paymentId Payment ID
+     * @return Invoice, or empty if the payment, its reservation or the
+     *         guest's account was not found, or rendering failed
+     * @throws RejectedExecutionException if the render pool is saturated
+     */
+    public Optional<PdfRenderService.CachedPdf> getInvoicePDF(int paymentId) {
+        try (Span span = Tracer.span("BillingService.getInvoicePDF")) {
+            span.tag("paymentId", paymentId);
+            Optional<Payment> payment = paymentDAO.findById(paymentId);
+            Optional<Reservation> reservation = payment.isPresent()
+                ? reservationDAO.findById(payment.get().getReservationId()) : Optional.empty();
+            Optional<Guest> guest = reservation.isPresent()
+                ? guestDAO.findById(reservation.get().getGuestId()) : Optional.empty();
+            Optional<User> user = guest.isPresent() && guest.get().getUserId() != null
+                ? userDAO.findById(guest.get().getUserId()) : Optional.empty();
+            if (user.isEmpty()) {
+                logger.warn("Invoice not available for payment ID: {}", paymentId);
+                return Optional.empty();
+            }
+            return Optional.of(pdfRenderService.get(
+                "invoice-r" + reservation.get().getReservationId() + "-p" + paymentId,
+                pdfService.invoiceFingerprint(reservation.get(), payment.get(), user.get()),
+                out -> pdfService.writeInvoicePDF(reservation.get(), payment.get(), user.get(), out)));
+        } catch (SQLException | IOException e) {
+            logger.error("Error getting invoice PDF for payment ID: {}", paymentId, e);
+            return Optional.empty();
+        }
+    }
+    
     /**
      * Calculate bill for a reservation
      * @param reservationId Reservation ID
      * @return Reservation with calculated amounts
      */
     public Optional<Reservation> calculateBill(int reservationId) {
-        try {
+        try (Span span = Tracer.span("BillingService.calculateBill")) {
+            span.tag("reservationId", reservationId);
             Optional<Reservation> resOpt = reservationDAO.findById(reservationId);
             
             if (resOpt.isPresent()) {
@@ -206,7 +294,7 @@ public class BillingService {
             }
             
             return Optional.empty();
-            
+        
         } catch (SQLException e) {
             logger.error("Error calculating bill for reservation ID: {}", reservationId, e);
             return Optional.empty();
@@ -215,13 +303,11 @@ public class BillingService {
     
     /**
      * Generate unique payment number
-     * Format: PAY-YYYY-XXXX
+     * Format: PAY- followed by a 13-character base32 ID
      * @return Payment number
      */
     private String generatePaymentNumber() {
-        String year = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy"));
-        long timestamp = System.currentTimeMillis() % 10000;
-        return String.format("PAY-%s-%04d", year, timestamp);
+        return IdGenerator.getInstance().nextNumber("PAY-");
     }
     
     /**
@@ -230,7 +316,8 @@ public class BillingService {
      * @return true if successful
      */
     public boolean refundPayment(int paymentId) {
-        try {
+        try (Span span = Tracer.span("BillingService.refundPayment")) {
+            span.tag("paymentId", paymentId);
             Optional<Payment> paymentOpt = paymentDAO.findById(paymentId);
             
             if (paymentOpt.isEmpty()) {
@@ -248,11 +335,12 @@ public class BillingService {
             boolean success = paymentDAO.updateStatus(paymentId, Payment.PaymentStatus.REFUNDED);
             
             if (success) {
+                pdfRenderService.invalidatePayment(paymentId);
                 logger.info("Payment refunded: ID={}", paymentId);
             }
             
             return success;
-            
+        
         } catch (SQLException e) {
             logger.error("Error refunding payment: ID={}", paymentId, e);
             return false;
@@ -0,0 +1,166 @@
+package com.oceanview.service;
+
+import com.oceanview.dao.InventoryDAO;
+import com.oceanview.dao.ReservationDAO;
+import com.oceanview.dao.RoomDAO;
+import com.oceanview.dao.TransactionTemplate;
+import com.oceanview.model.Reservation;
+import com.oceanview.model.Room;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.util.Optional;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Booking Engine - Singleton Pattern
+ * Runs the availability check and the insert of a new reservation as one
+ * atomic step so a room can never be booked twice for overlapping dates.
+ * 
+ * Bookings take an in-JVM lock striped by room id before touching the
+ * database. Requests for the same room queue here instead of piling up on
+ * the database row lock, while bookings for different rooms use different
+ * stripes and run fully in parallel. The database transaction
+ * ({@link ReservationDAO#createIfAvailable}) locks the room row as well, so
+ * correctness does not depend on a single application node.
+ * 
+ * Changes to an existing stay ({@link #reschedule}) take the stripe and the
+ * row lock of the target room the same way, and also move the stay's nights
+ * in the inventory ledger in the same unit of work as the row update.
+ * 
+ * @author Ocean View Resort Development Team
+ * @version 1.0.0
+ */
+public class BookingEngine {
+    
+    private static final Logger logger = LoggerFactory.getLogger(BookingEngine.class);
+    private static final int DEFAULT_STRIPES = 64;
+    private static BookingEngine instance;
+    
+    private final ReservationDAO reservationDAO;
+    private final RoomDAO roomDAO;
+    private final InventoryDAO inventoryDAO;
+    private final TransactionTemplate transactionTemplate;
+    private final Lock[] stripes;
+    private final int mask;
+    
+    /**
+     * Constructor
+     * @param reservationDAO DAO used for the transactional insert and update
+     * @param roomDAO DAO used to look up the room type of a stay
+     * @param inventoryDAO Inventory ledger of booked nights
+     * @param transactionTemplate Unit of work shared by the DAOs
+     * @param stripeCount Number of lock stripes, rounded up to a power of two
+     */
+    BookingEngine(ReservationDAO reservationDAO, RoomDAO roomDAO, InventoryDAO inventoryDAO,
+                  TransactionTemplate transactionTemplate, int stripeCount) {
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        this.reservationDAO = reservationDAO;
+        this.roomDAO = roomDAO;
+        this.inventoryDAO = inventoryDAO;
+        this.transactionTemplate = transactionTemplate;
+        this.stripes = new Lock[size];
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+    
+    /**
+     * Get singleton instance
+     * @return BookingEngine instance
+     */
+    public static synchronized BookingEngine getInstance() {
+        if (instance == null) {
+            instance = new BookingEngine(new ReservationDAO(), new RoomDAO(), new InventoryDAO(),
+                                         new TransactionTemplate(), DEFAULT_STRIPES);
+        }
+        return instance;
+    }
+    
+    /**
+     * Book a room if it is free for the whole stay
+     * @param reservation Reservation with room, dates and amounts set
+     * @return Reservation ID, or 0 if the room is not available
+     * @throws SQLException if the database transaction fails
+     */
+    public int book(Reservation reservation) throws SQLException {
+        Lock lock = stripeFor(reservation.getRoomId());
+        lock.lock();
+        try {
+            int reservationId = reservationDAO.createIfAvailable(reservation);
+            if (reservationId == 0) {
+                logger.debug("Booking rejected, room {} already taken", reservation.getRoomId());
+            }
+            return reservationId;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Save a changed reservation (room, dates, status or amounts) and move its
+     * nights in the inventory ledger. A stay that holds its room after the
+     * change is checked against the other stays of the target room under that
+     * room's stripe and row lock, like a new booking. The old stay is released
+     * and the new one booked before the row is updated, because nights the
+     * ledger adds while booking are counted from the reservations table and
+     * must not see this reservation on its new dates yet.
+     * @param reservation Reservation with its new values
+     * @return Reservation as it was before the change, or empty if it does not
+     *         exist or the target room is taken for the new dates
+     * @throws SQLException if the new stay would oversell its room type; nothing is changed
+     */
+    public Optional<Reservation> reschedule(Reservation reservation) throws SQLException {
+        Lock lock = stripeFor(reservation.getRoomId());
+        lock.lock();
+        try {
+            return transactionTemplate.execute(() -> {
+                Optional<Reservation> before = reservationDAO.findByIdForUpdate(reservation.getReservationId());
+                if (before.isEmpty()) {
+                    return before;
+                }
+                if (reservation.getStatus().holdsRoom()
+                        && !reservationDAO.lockRoomIfFree(reservation.getRoomId(), reservation.getCheckInDate(),
+                                                          reservation.getCheckOutDate(),
+                                                          reservation.getReservationId())) {
+                    logger.debug("Change rejected, room {} already taken", reservation.getRoomId());
+                    return Optional.<Reservation>empty();
+                }
+                Reservation old = before.get();
+                if (old.getStatus().isBooked()) {
+                    Optional<Room.RoomType> oldType = roomType(old.getRoomId());
+                    if (oldType.isPresent()) {
+                        inventoryDAO.release(oldType.get(), old.getCheckInDate(), old.getCheckOutDate());
+                    }
+                }
+                if (reservation.getStatus().isBooked()) {
+                    Optional<Room.RoomType> newType = roomType(reservation.getRoomId());
+                    if (newType.isPresent() && !inventoryDAO.book(newType.get(), reservation.getCheckInDate(),
+                                                                  reservation.getCheckOutDate())) {
+                        // Roll back the release as well
+                        throw new SQLException("No " + newType.get() + " rooms left from " +
+                                               reservation.getCheckInDate() + " to " + reservation.getCheckOutDate());
+                    }
+                }
+                return reservationDAO.update(reservation) ? before : Optional.<Reservation>empty();
+            });
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private Optional<Room.RoomType> roomType(int roomId) throws SQLException {
+        return roomDAO.findById(roomId).map(Room::getRoomType);
+    }
+    
+    /**
+     * Lock stripe guarding a room
+     */
+    Lock stripeFor(int roomId) {
+        int h = roomId * 0x9E3779B9;
+        return stripes[(h ^ (h >>> 16)) & mask];
+    }
+}
@@ -0,0 +1,166 @@
+package com.oceanview.service;
+
+import com.oceanview.config.AppConfig;
+import com.oceanview.dao.DashboardDAO;
+import com.oceanview.dao.ReservationDAO;
+import com.oceanview.dao.TransactionTemplate;
+import com.oceanview.model.DashboardStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Dashboard Stats Service - Singleton Pattern
+ * Keeps the admin dashboard counters as an immutable snapshot that a
+ * background thread reloads every few seconds (dashboard.refreshSeconds).
+ * 
+ * A refresh is two statements on one connection: the combined aggregate
+ * query from {@link DashboardDAO} and the recent reservations list. Page
+ * loads only read the volatile snapshot and never touch the database, so
+ * the cost of the dashboard no longer grows with the number of admins
+ * looking at it. The snapshot records when it was loaded so pages can show
+ * how old the numbers are.
+ * 
+ * @author Ocean View Resort Development Team
+ * @version 1.0.0
+ */
+public class DashboardStatsService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(DashboardStatsService.class);
+    private static final int RECENT_RESERVATIONS = 10;
+    private static DashboardStatsService instance;
+    
+    private final DashboardDAO dashboardDAO;
+    private final ReservationDAO reservationDAO;
+    private final TransactionTemplate transactionTemplate;
+    private final LongSupplier clock;
+    private final long refreshSeconds;
+    
+    private volatile DashboardStats snapshot;
+    private ScheduledExecutorService scheduler;
+    
+    /**
+     * Constructor
+     * @param dashboardDAO DAO for the combined counters query
+     * @param reservationDAO DAO for the recent reservations list
+     * @param transactionTemplate Unit of work the two queries share
+     * @param clock Wall clock in epoch milliseconds
+     * @param refreshSeconds Seconds between background refreshes
+     */
+    DashboardStatsService(DashboardDAO dashboardDAO, ReservationDAO reservationDAO,
+                          TransactionTemplate transactionTemplate, LongSupplier clock, long refreshSeconds) {
+        this.dashboardDAO = dashboardDAO;
+        this.reservationDAO = reservationDAO;
+        this.transactionTemplate = transactionTemplate;
+        this.clock = clock;
+        this.refreshSeconds = Math.max(1, refreshSeconds);
+    }
+    
+    /**
+     * Get singleton instance
+     * @return DashboardStatsService instance
+     */
+    public static synchronized DashboardStatsService getInstance() {
+        if (instance == null) {
+            instance = new DashboardStatsService(new DashboardDAO(), new ReservationDAO(),
+                                                 new TransactionTemplate(),
+                                                 System::currentTimeMillis,
+                                                 AppConfig.getInstance().getDashboardRefreshSeconds());
+        }
+        return instance;
+    }
+    
+    /**
+     * Start the background refresh. The first load runs immediately.
+     */
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "dashboard-stats-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::refreshQuietly, 0, refreshSeconds, TimeUnit.SECONDS);
+        logger.info("Dashboard stats refresh started, every {} s", refreshSeconds);
+    }
+    
+    /**
+     * Stop the background refresh
+     */
+    public synchronized void stop() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdownNow();
+        scheduler = null;
+        logger.info("Dashboard stats refresh stopped");
+    }
+    
+    /**
+     * Current snapshot, without touching the database once one is loaded.
+     * Before the first refresh has finished the snapshot is loaded here.
+     * @return Latest snapshot, or empty if none could be loaded yet
+     */
+    public Optional<DashboardStats> getSnapshot() {
+        DashboardStats current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    refresh();
+                }
+                current = snapshot;
+            }
+        }
+        return Optional.ofNullable(current);
+    }
+    
+    /**
+     * Reload the snapshot now. A failed reload keeps the previous snapshot.
+     * @return true if the snapshot was replaced
+     */
+    public boolean refresh() {
+        try {
+            long started = clock.getAsLong();
+            DashboardStats loaded = transactionTemplate.execute(() ->
+                dashboardDAO.loadCounters(LocalDate.now())
+                    .recentReservations(reservationDAO.findRecent(RECENT_RESERVATIONS))
+                    .generatedAt(started)
+                    .build());
+            snapshot = loaded;
+            logger.debug("Dashboard stats refreshed in {} ms", clock.getAsLong() - started);
+            return true;
+        } catch (SQLException e) {
+            logger.error("Error refreshing dashboard stats, keeping previous snapshot", e);
+            return false;
+        }
+    }
+    
+    /**
+     * Age of a snapshot in whole seconds
+     * @param stats Snapshot
+     * @return Seconds since the snapshot was loaded
+     */
+    public long getAgeSeconds(DashboardStats stats) {
+        return TimeUnit.MILLISECONDS.toSeconds(stats.getAgeMillis(clock.getAsLong()));
+    }
+    
+    /**
+     * Scheduled refresh; an exception escaping here would cancel the schedule
+     */
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            logger.error("Unexpected error refreshing dashboard stats", e);
+        }
+    }
+}
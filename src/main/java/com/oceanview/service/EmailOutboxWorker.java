@@ -0,0 +1,323 @@
+package com.oceanview.service;
+
+import com.oceanview.config.AppConfig;
+import com.oceanview.dao.EmailOutboxDAO;
+import com.oceanview.model.OutboxEmail;
+import com.oceanview.tracing.Span;
+import com.oceanview.tracing.Tracer;
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.AddressException;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Email Outbox Worker - Singleton Pattern
+ * Delivers the emails EmailService writes to email_outbox.
+ * 
+ * A poller claims up to email.outbox.batchSize due emails every
+ * email.outbox.pollMillis and hands them to email.outbox.workers sender
+ * threads, which send over SMTP connections kept open in a
+ * SmtpTransportPool. A failed send is retried after
+ * email.outbox.backoffSeconds, doubled per attempt up to
+ * email.outbox.maxBackoffSeconds; after email.outbox.maxAttempts, or at
+ * once for a recipient the server rejects, the email is marked DEAD.
+ * Claims carry a lease, so emails held by a crashed sender are picked up
+ * again by the next poll after it expires.
+ * 
+ * @author Ocean View Resort Development Team
+ * @version 1.0.0
+ */
+public class EmailOutboxWorker {
+    
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxWorker.class);
+    private static final long LEASE_SECONDS = 300;
+    private static EmailOutboxWorker instance;
+    
+    private final EmailOutboxDAO outboxDAO;
+    private final Session session;
+    private final String from;
+    private final Supplier<LocalDateTime> now;
+    private final int workers;
+    private final int batchSize;
+    private final long pollMillis;
+    private final long backoffSeconds;
+    private final long maxBackoffSeconds;
+    private final int maxAttempts;
+    private final SmtpTransportPool transports;
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+    private final AtomicLong deadLettered = new AtomicLong();
+    
+    private ScheduledExecutorService poller;
+    private ExecutorService senders;
+    
+    /**
+     * Constructor
+     * @param outboxDAO DAO for email_outbox
+     * @param session Mail session for the SMTP server
+     * @param from Sender address
+     * @param now Current time
+     * @param workers Sender threads and pooled SMTP connections
+     * @param batchSize Emails claimed per poll
+     * @param pollMillis Time between polls
+     * @param backoffSeconds Delay before the first retry
+     * @param maxBackoffSeconds Longest delay between retries
+     * @param maxAttempts Attempts before an email is dead-lettered
+     */
+    EmailOutboxWorker(EmailOutboxDAO outboxDAO, Session session, String from, Supplier<LocalDateTime> now,
+                      int workers, int batchSize, long pollMillis, long backoffSeconds,
+                      long maxBackoffSeconds, int maxAttempts) {
+        this.outboxDAO = outboxDAO;
+        this.session = session;
+        this.from = from;
+        this.now = now;
+        this.workers = Math.max(1, workers);
+        this.batchSize = Math.max(1, batchSize);
+        this.pollMillis = Math.max(1, pollMillis);
+        this.backoffSeconds = Math.max(1, backoffSeconds);
+        this.maxBackoffSeconds = Math.max(this.backoffSeconds, maxBackoffSeconds);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.transports = new SmtpTransportPool(session, this.workers);
+    }
+    
+    /**
+     * Get singleton instance
+     * @return EmailOutboxWorker instance
+     */
+    public static synchronized EmailOutboxWorker getInstance() {
+        if (instance == null) {
+            AppConfig config = AppConfig.getInstance();
+            instance = new EmailOutboxWorker(new EmailOutboxDAO(), EmailService.getInstance().getMailSession(),
+                                             config.getEmailFrom(), LocalDateTime::now,
+                                             config.getEmailOutboxWorkers(), config.getEmailOutboxBatchSize(),
+                                             config.getEmailOutboxPollMillis(),
+                                             config.getEmailOutboxBackoffSeconds(),
+                                             config.getEmailOutboxMaxBackoffSeconds(),
+                                             config.getEmailOutboxMaxAttempts());
+        }
+        return instance;
+    }
+    
+    /**
+     * Start polling the outbox
+     */
+    public synchronized void start() {
+        if (poller != null) {
+            return;
+        }
+        if (session == null) {
+            logger.info("Email disabled, outbox worker not started");
+            return;
+        }
+        AtomicInteger senderNumber = new AtomicInteger();
+        senders = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "email-sender-" + senderNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "email-outbox-poll");
+            thread.setDaemon(true);
+            return thread;
+        });
+        poller.scheduleWithFixedDelay(this::pollQuietly, 0, pollMillis, TimeUnit.MILLISECONDS);
+        logger.info("Email outbox worker started: {} senders, polling every {} ms", workers, pollMillis);
+    }
+    
+    /**
+     * Stop polling, let sends in progress finish and close the SMTP connections
+     */
+    public synchronized void stop() {
+        if (poller == null) {
+            return;
+        }
+        poller.shutdown();
+        senders.shutdown();
+        try {
+            poller.awaitTermination(30, TimeUnit.SECONDS);
+            senders.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        poller = null;
+        senders = null;
+        transports.close();
+        logger.info("Email outbox worker stopped: {} sent, {} retried, {} dead",
+                    sent.get(), retried.get(), deadLettered.get());
+    }
+    
+    /**
+     * Claim one batch of due emails and send it
+     * @return Number of emails sent
+     * @throws SQLException if the outbox cannot be read
+     */
+    public int processBatch() throws SQLException {
+        try (Span trace = Tracer.startTrace("email outbox batch")) {
+            LocalDateTime current = now.get();
+            List<OutboxEmail> batch = outboxDAO.claimDue(current, current.plusSeconds(LEASE_SECONDS), batchSize);
+            trace.tag("claimed", batch.size());
+            return batch.isEmpty() ? 0 : send(batch);
+        }
+    }
+    
+    /**
+     * Send a claimed batch, in parallel when the sender pool is running
+     */
+    private int send(List<OutboxEmail> batch) throws SQLException {
+        ExecutorService executor = senders;
+        if (executor == null) {
+            int count = 0;
+            for (OutboxEmail email : batch) {
+                count += deliver(email) ? 1 : 0;
+            }
+            return count;
+        }
+        
+        List<Future<Boolean>> results = new ArrayList<>(batch.size());
+        for (OutboxEmail email : batch) {
+            results.add(executor.submit(Tracer.wrap(() -> deliver(email))));
+        }
+        int count = 0;
+        for (Future<Boolean> result : results) {
+            try {
+                count += result.get() ? 1 : 0;
+            } catch (ExecutionException e) {
+                logger.error("Email sender failed", e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return count;
+    }
+    
+    /**
+     * @return Emails sent since startup
+     */
+    public long getSentCount() {
+        return sent.get();
+    }
+    
+    /**
+     * @return Failed attempts rescheduled since startup
+     */
+    public long getRetriedCount() {
+        return retried.get();
+    }
+    
+    /**
+     * @return Emails dead-lettered since startup
+     */
+    public long getDeadLetteredCount() {
+        return deadLettered.get();
+    }
+    
+    /**
+     * @return SMTP connections opened since startup
+     */
+    public long getConnectCount() {
+        return transports.getConnectCount();
+    }
+    
+    private void pollQuietly() {
+        try {
+            // Keep going while full batches come back
+            while (processBatch() >= batchSize) {
+                logger.debug("Email outbox backlog, polling again");
+            }
+        } catch (SQLException e) {
+            logger.error("Error reading email outbox", e);
+        } catch (RuntimeException e) {
+            logger.error("Email outbox poll failed", e);
+        }
+    }
+    
+    /**
+     * Send one email and record the outcome in the outbox
+     * @return true if the email was sent
+     */
+    private boolean deliver(OutboxEmail email) throws SQLException {
+        Transport transport = null;
+        try (Span span = Tracer.span("email deliver")) {
+            span.tag("outboxId", email.getOutboxId()).tag("attempt", email.getAttempts());
+            MimeMessage message = new MimeMessage(session);
+            message.setFrom(new InternetAddress(from));
+            message.setRecipients(Message.RecipientType.TO, InternetAddress.parse(email.getRecipient()));
+            message.setSubject(email.getSubject());
+            message.setContent(email.getBody(), "text/html; charset=utf-8");
+            message.saveChanges();
+            
+            try (Span send = Tracer.span("smtp send")) {
+                send.tag("recipients", message.getAllRecipients().length);
+                transport = transports.borrow();
+                transport.sendMessage(message, message.getAllRecipients());
+                transports.release(transport);
+            }
+            
+            outboxDAO.markSent(email.getOutboxId(), now.get());
+            sent.incrementAndGet();
+            logger.info("Email sent successfully to: {}", email.getRecipient());
+            return true;
+        
+        } catch (MessagingException e) {
+            if (transport != null) {
+                transports.invalidate(transport);
+            }
+            String error = e.getClass().getSimpleName() + ": " + e.getMessage();
+            if (isPermanent(e) || email.getAttempts() >= maxAttempts) {
+                outboxDAO.markDead(email.getOutboxId(), error);
+                deadLettered.incrementAndGet();
+            } else {
+                LocalDateTime retryAt = now.get().plusSeconds(backoffFor(email.getAttempts()));
+                outboxDAO.markRetry(email.getOutboxId(), retryAt, error);
+                retried.incrementAndGet();
+                logger.warn("Failed to send email to: {}, attempt {} of {}, retry at {}",
+                            email.getRecipient(), email.getAttempts(), maxAttempts, retryAt, e);
+            }
+            return false;
+        }
+    }
+    
+    /**
+     * Delay before the next attempt: backoffSeconds * 2^(attempts - 1), capped
+     */
+    long backoffFor(int attempts) {
+        long delay = backoffSeconds;
+        for (int i = 1; i < attempts && delay < maxBackoffSeconds; i++) {
+            delay *= 2;
+        }
+        return Math.min(delay, maxBackoffSeconds);
+    }
+    
+    private static boolean isPermanent(MessagingException e) {
+        if (e instanceof AddressException) {
+            return true;
+        }
+        // Rejected recipients, with nothing left that could still be delivered
+        return e instanceof SendFailedException
+            && ((SendFailedException) e).getInvalidAddresses() != null
+            && ((SendFailedException) e).getInvalidAddresses().length > 0
+            && (((SendFailedException) e).getValidUnsentAddresses() == null
+                || ((SendFailedException) e).getValidUnsentAddresses().length == 0);
+    }
+}
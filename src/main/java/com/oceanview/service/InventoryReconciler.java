@@ -0,0 +1,135 @@
+package com.oceanview.service;
+
+import com.oceanview.config.AppConfig;
+import com.oceanview.dao.InventoryDAO;
+import com.oceanview.model.Room;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Inventory Reconciler - Singleton Pattern
+ * Rebuilds the room_inventory ledger from rooms and reservations for the
+ * next inventory.horizonDays nights, on startup and then every
+ * inventory.reconcileMinutes.
+ * 
+ * ReservationService keeps the ledger current as stays are confirmed,
+ * cancelled and checked out; the rebuild repairs anything that changed
+ * outside it (manual SQL, room type edits) and adds the nights that enter
+ * the horizon as days pass. Each room type is rebuilt a month of nights at
+ * a time in a short unit of work that locks only those rows and writes
+ * only the ones that are missing or wrong, so confirmations wait on at
+ * most one such slice.
+ * 
+ * @author Ocean View Resort Development Team
+ * @version 1.0.0
+ */
+public class InventoryReconciler {
+    
+    private static final Logger logger = LoggerFactory.getLogger(InventoryReconciler.class);
+    private static final int SLICE_NIGHTS = 31;
+    private static InventoryReconciler instance;
+    
+    private final InventoryDAO inventoryDAO;
+    private final Supplier<LocalDate> today;
+    private final int horizonDays;
+    private final long reconcileMinutes;
+    
+    private ScheduledExecutorService scheduler;
+    
+    /**
+     * Constructor
+     * @param inventoryDAO DAO for the ledger
+     * @param today Current business date
+     * @param horizonDays Number of nights rebuilt
+     * @param reconcileMinutes Minutes between rebuilds
+     */
+    InventoryReconciler(InventoryDAO inventoryDAO, Supplier<LocalDate> today, int horizonDays,
+                        long reconcileMinutes) {
+        this.inventoryDAO = inventoryDAO;
+        this.today = today;
+        this.horizonDays = Math.max(1, horizonDays);
+        this.reconcileMinutes = Math.max(1, reconcileMinutes);
+    }
+    
+    /**
+     * Get singleton instance
+     * @return InventoryReconciler instance
+     */
+    public static synchronized InventoryReconciler getInstance() {
+        if (instance == null) {
+            AppConfig config = AppConfig.getInstance();
+            instance = new InventoryReconciler(new InventoryDAO(), LocalDate::now,
+                                               config.getInventoryHorizonDays(),
+                                               config.getInventoryReconcileMinutes());
+        }
+        return instance;
+    }
+    
+    /**
+     * Rebuild the ledger now and then on a schedule
+     */
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "inventory-reconcile");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::reconcileQuietly, 0, reconcileMinutes, TimeUnit.MINUTES);
+        logger.info("Inventory reconciler started, {} night horizon, every {} min",
+                    horizonDays, reconcileMinutes);
+    }
+    
+    /**
+     * Stop the scheduled rebuilds
+     */
+    public synchronized void stop() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdownNow();
+        scheduler = null;
+        logger.info("Inventory reconciler stopped");
+    }
+    
+    /**
+     * Recompute the ledger for the horizon from rooms and reservations
+     * @return Number of ledger rows that were missing or wrong
+     * @throws SQLException if a slice fails; slices already rebuilt are kept
+     */
+    public int reconcile() throws SQLException {
+        LocalDate from = today.get();
+        int corrected = 0;
+        for (Room.RoomType type : Room.RoomType.values()) {
+            for (int night = 0; night < horizonDays; night += SLICE_NIGHTS) {
+                LocalDate first = from.plusDays(night);
+                corrected += inventoryDAO.reconcile(type, first,
+                                                    first.plusDays(Math.min(SLICE_NIGHTS, horizonDays - night)));
+            }
+        }
+        if (corrected > 0) {
+            logger.warn("Inventory ledger reconciled: {} of {} rows corrected", corrected,
+                        horizonDays * Room.RoomType.values().length);
+        } else {
+            logger.debug("Inventory ledger reconciled: no differences");
+        }
+        return corrected;
+    }
+    
+    private void reconcileQuietly() {
+        try {
+            reconcile();
+        } catch (SQLException | RuntimeException e) {
+            logger.error("Error reconciling inventory ledger", e);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.oceanview.service;
+
+import com.oceanview.config.AppConfig;
+import com.oceanview.dao.UserDAO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Last Login Recorder - Singleton Pattern
+ * Takes the last_login write off the login request.
+ * 
+ * Logins are collected in memory, one pending time per user so repeated
+ * logins collapse into one row update, and written in a single batch every
+ * auth.lastLoginFlushSeconds. A failed batch stays pending for the next
+ * flush. Before start() and after stop() the time is written straight away.
+ * 
+ * @author Ocean View Resort Development Team
+ * @version 1.0.0
+ */
+public class LastLoginRecorder {
+    
+    private static final Logger logger = LoggerFactory.getLogger(LastLoginRecorder.class);
+    private static LastLoginRecorder instance;
+    
+    private final UserDAO userDAO;
+    private final Supplier<LocalDateTime> now;
+    private final long flushSeconds;
+    private final ConcurrentMap<Integer, LocalDateTime> pending = new ConcurrentHashMap<>();
+    
+    private volatile ScheduledExecutorService scheduler;
+    
+    /**
+     * Constructor
+     * @param userDAO DAO the login times are written through
+     * @param now Current time
+     * @param flushSeconds Seconds between batched writes
+     */
+    LastLoginRecorder(UserDAO userDAO, Supplier<LocalDateTime> now, long flushSeconds) {
+        this.userDAO = userDAO;
+        this.now = now;
+        this.flushSeconds = Math.max(1, flushSeconds);
+    }
+    
+    /**
+     * Get singleton instance
+     * @return LastLoginRecorder instance
+     */
+    public static synchronized LastLoginRecorder getInstance() {
+        if (instance == null) {
+            instance = new LastLoginRecorder(new UserDAO(), LocalDateTime::now,
+                                             AppConfig.getInstance().getLastLoginFlushSeconds());
+        }
+        return instance;
+    }
+    
+    /**
+     * Start writing pending logins on a schedule
+     */
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "last-login-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::flush, flushSeconds, flushSeconds, TimeUnit.SECONDS);
+        logger.info("Last login recorder started, flushing every {} s", flushSeconds);
+    }
+    
+    /**
+     * Stop the schedule and write what is still pending
+     */
+    public synchronized void stop() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdownNow();
+        scheduler = null;
+        flush();
+        logger.info("Last login recorder stopped");
+    }
+    
+    /**
+     * Record a successful login
+     * @param userId User ID
+     */
+    public void record(int userId) {
+        LocalDateTime loginTime = now.get();
+        if (scheduler == null) {
+            try {
+                userDAO.updateLastLogins(Map.of(userId, loginTime));
+            } catch (SQLException e) {
+                logger.error("Error recording last login for user ID: {}", userId, e);
+            }
+            return;
+        }
+        pending.merge(userId, loginTime, (previous, current) -> current.isAfter(previous) ? current : previous);
+    }
+    
+    /**
+     * Write all pending logins in one batch
+     * @return Number of users written
+     */
+    public int flush() {
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        Map<Integer, LocalDateTime> batch = new HashMap<>(pending);
+        try {
+            userDAO.updateLastLogins(batch);
+        } catch (SQLException e) {
+            logger.error("Error writing last login for {} users, will retry", batch.size(), e);
+            return 0;
+        }
+        // A login recorded during the write keeps its newer time pending
+        batch.forEach(pending::remove);
+        logger.debug("Last login written for {} users", batch.size());
+        return batch.size();
+    }
+    
+    /**
+     * @return Number of users whose last login is not yet written
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+}
@@ -16,8 +16,11 @@ import org.slf4j.LoggerFactory;
 import java.io.ByteArrayOutputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * PDF Service - Singleton Pattern
@@ -32,11 +35,20 @@ public class PDFService {
     private static PDFService instance;
     
     // PDF Configuration
+    private static final int TABLE_FLUSH_ROWS = 500;
     private static final Font TITLE_FONT = new Font(Font.FontFamily.TIMES_ROMAN, 20, Font.BOLD, BaseColor.BLUE);
     private static final Font HEADER_FONT = new Font(Font.FontFamily.TIMES_ROMAN, 14, Font.BOLD);
     private static final Font NORMAL_FONT = new Font(Font.FontFamily.TIMES_ROMAN, 12, Font.NORMAL);
     private static final Font SMALL_FONT = new Font(Font.FontFamily.TIMES_ROMAN, 10, Font.NORMAL);
     
+    /**
+     * Supplies the rows of a report one at a time, e.g. from a DAO stream
+     */
+    @FunctionalInterface
+    public interface PaymentSource {
+        void forEach(Consumer<? super Payment> consumer) throws SQLException;
+    }
+    
     /**
      * Private constructor for Singleton
      */
@@ -63,65 +75,72 @@ public class PDFService {
      */
     public byte[] generateBookingConfirmationPDF(Reservation reservation, User user) {
         try {
-            Document document = new Document(PageSize.A4);
             ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            PdfWriter.getInstance(document, baos);
-            
-            document.open();
-            
-            // Header
-            addHeader(document, "BOOKING CONFIRMATION");
-            
-            // Hotel Information
-            addHotelInfo(document);
-            
-            document.add(new Paragraph(" "));
-            
-            // Guest Information
-            addSectionTitle(document, "Guest Information");
-            addKeyValue(document, "Name:", user.getFullName());
-            addKeyValue(document, "Email:", user.getEmail());
-            if (user.getPhone() != null) {
-                addKeyValue(document, "Phone:", user.getPhone());
-            }
-            
-            document.add(new Paragraph(" "));
-            
-            // Reservation Details
-            addSectionTitle(document, "Reservation Details");
-            addKeyValue(document, "Reservation Number:", reservation.getReservationNumber());
-            addKeyValue(document, "Check-in Date:", DateUtil.formatDateForDisplay(reservation.getCheckInDate()));
-            addKeyValue(document, "Check-out Date:", DateUtil.formatDateForDisplay(reservation.getCheckOutDate()));
-            addKeyValue(document, "Number of Nights:", String.valueOf(reservation.getNumberOfNights()));
-            addKeyValue(document, "Number of Guests:", String.valueOf(reservation.getNumberOfGuests()));
-            addKeyValue(document, "Status:", reservation.getStatus().name());
-            
-            document.add(new Paragraph(" "));
-            
-            // Billing Information
-            addBillingTable(document, reservation);
-            
-            document.add(new Paragraph(" "));
-            
-            // Terms and Conditions
-            addTermsAndConditions(document);
-            
-            // Footer
-            addFooter(document);
-            
-            document.close();
-            
-            logger.info("Booking confirmation PDF generated for reservation: {}", 
-                       reservation.getReservationNumber());
-            
+            writeBookingConfirmationPDF(reservation, user, baos);
             return baos.toByteArray();
-            
         } catch (DocumentException e) {
             logger.error("Error generating booking confirmation PDF", e);
             return null;
         }
     }
     
+    /**
+     * Write booking confirmation PDF to a stream, e.g. a servlet response
+     * @param reservation Reservation details
+     * @param user User details
+     * @param out Destination; flushed but not closed
+     * @throws DocumentException if the document cannot be written
+     */
+    public void writeBookingConfirmationPDF(Reservation reservation, User user, OutputStream out)
+            throws DocumentException {
+        Document document = openDocument(PageSize.A4, out);
+        
+        // Header
+        addHeader(document, "BOOKING CONFIRMATION");
+        
+        // Hotel Information
+        addHotelInfo(document);
+        
+        document.add(new Paragraph(" "));
+        
+        // Guest Information
+        addSectionTitle(document, "Guest Information");
+        addKeyValue(document, "Name:", user.getFullName());
+        addKeyValue(document, "Email:", user.getEmail());
+        if (user.getPhone() != null) {
+            addKeyValue(document, "Phone:", user.getPhone());
+        }
+        
+        document.add(new Paragraph(" "));
+        
+        // Reservation Details
+        addSectionTitle(document, "Reservation Details");
+        addKeyValue(document, "Reservation Number:", reservation.getReservationNumber());
+        addKeyValue(document, "Check-in Date:", DateUtil.formatDateForDisplay(reservation.getCheckInDate()));
+        addKeyValue(document, "Check-out Date:", DateUtil.formatDateForDisplay(reservation.getCheckOutDate()));
+        addKeyValue(document, "Number of Nights:", String.valueOf(reservation.getNumberOfNights()));
+        addKeyValue(document, "Number of Guests:", String.valueOf(reservation.getNumberOfGuests()));
+        addKeyValue(document, "Status:", reservation.getStatus().name());
+        
+        document.add(new Paragraph(" "));
+        
+        // Billing Information
+        addBillingTable(document, reservation);
+        
+        document.add(new Paragraph(" "));
+        
+        // Terms and Conditions
+        addTermsAndConditions(document);
+        
+        // Footer
+        addFooter(document);
+        
+        document.close();
+        
+        logger.info("Booking confirmation PDF generated for reservation: {}", 
+                   reservation.getReservationNumber());
+    }
+    
     /**
      * Generate invoice PDF
      * @param reservation Reservation details
@@ -131,85 +150,93 @@ public class PDFService {
      */
     public byte[] generateInvoicePDF(Reservation reservation, Payment payment, User user) {
         try {
-            Document document = new Document(PageSize.A4);
             ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            PdfWriter.getInstance(document, baos);
-            
-            document.open();
-            
-            // Header
-            addHeader(document, "INVOICE");
-            
-            // Hotel Information
-            addHotelInfo(document);
-            
-            document.add(new Paragraph(" "));
-            
-            // Invoice Information
-            addSectionTitle(document, "Invoice Information");
-            addKeyValue(document, "Invoice Number:", payment.getPaymentNumber());
-            addKeyValue(document, "Invoice Date:", DateUtil.formatDateTimeForDisplay(payment.getPaymentDate()));
-            addKeyValue(document, "Payment Method:", payment.getPaymentMethod().name());
-            addKeyValue(document, "Payment Status:", payment.getPaymentStatus().name());
-            if (payment.getTransactionId() != null) {
-                addKeyValue(document, "Transaction ID:", payment.getTransactionId());
-            }
-            
-            document.add(new Paragraph(" "));
-            
-            // Bill To
-            addSectionTitle(document, "Bill To");
-            addKeyValue(document, "Name:", user.getFullName());
-            addKeyValue(document, "Email:", user.getEmail());
-            if (user.getPhone() != null) {
-                addKeyValue(document, "Phone:", user.getPhone());
-            }
-            
-            document.add(new Paragraph(" "));
-            
-            // Reservation Details
-            addSectionTitle(document, "Reservation Details");
-            addKeyValue(document, "Reservation Number:", reservation.getReservationNumber());
-            addKeyValue(document, "Check-in Date:", DateUtil.formatDateForDisplay(reservation.getCheckInDate()));
-            addKeyValue(document, "Check-out Date:", DateUtil.formatDateForDisplay(reservation.getCheckOutDate()));
-            addKeyValue(document, "Number of Nights:", String.valueOf(reservation.getNumberOfNights()));
-            
-            document.add(new Paragraph(" "));
-            
-            // Billing Table
-            addInvoiceTable(document, reservation, payment);
-            
-            document.add(new Paragraph(" "));
-            
-            // Payment Information
-            Paragraph paymentInfo = new Paragraph("Payment Received: " + 
-                                                 NumberUtil.formatCurrency(payment.getAmount()), 
-                                                 HEADER_FONT);
-            paymentInfo.setAlignment(Element.ALIGN_RIGHT);
-            document.add(paymentInfo);
-            
-            document.add(new Paragraph(" "));
-            
-            // Thank You Note
-            Paragraph thankYou = new Paragraph("Thank you for choosing Ocean View Resort!", NORMAL_FONT);
-            thankYou.setAlignment(Element.ALIGN_CENTER);
-            document.add(thankYou);
-            
-            // Footer
-            addFooter(document);
-            
-            document.close();
-            
-            logger.info("Invoice PDF generated for payment: {}", payment.getPaymentNumber());
-            
+            writeInvoicePDF(reservation, payment, user, baos);
             return baos.toByteArray();
-            
         } catch (DocumentException e) {
             logger.error("Error generating invoice PDF", e);
             return null;
         }
     }
     
+    /**
+     * Write invoice PDF to a stream, e.g. a servlet response
+     * @param reservation Reservation details
+     * @param payment Payment details
+     * @param user User details
+     * @param out Destination; flushed but not closed
+     * @throws DocumentException if the document cannot be written
+     */
+    public void writeInvoicePDF(Reservation reservation, Payment payment, User user, OutputStream out)
+            throws DocumentException {
+        Document document = openDocument(PageSize.A4, out);
+        
+        // Header
+        addHeader(document, "INVOICE");
+        
+        // Hotel Information
+        addHotelInfo(document);
+        
+        document.add(new Paragraph(" "));
+        
+        // Invoice Information
+        addSectionTitle(document, "Invoice Information");
+        addKeyValue(document, "Invoice Number:", payment.getPaymentNumber());
+        addKeyValue(document, "Invoice Date:", DateUtil.formatDateTimeForDisplay(payment.getPaymentDate()));
+        addKeyValue(document, "Payment Method:", payment.getPaymentMethod().name());
+        addKeyValue(document, "Payment Status:", payment.getPaymentStatus().name());
+        if (payment.getTransactionId() != null) {
+            addKeyValue(document, "Transaction ID:", payment.getTransactionId());
+        }
+        
+        document.add(new Paragraph(" "));
+        
+        // Bill To
+        addSectionTitle(document, "Bill To");
+        addKeyValue(document, "Name:", user.getFullName());
+        addKeyValue(document, "Email:", user.getEmail());
+        if (user.getPhone() != null) {
+            addKeyValue(document, "Phone:", user.getPhone());
+        }
+        
+        document.add(new Paragraph(" "));
+        
+        // Reservation Details
+        addSectionTitle(document, "Reservation Details");
+        addKeyValue(document, "Reservation Number:", reservation.getReservationNumber());
+        addKeyValue(document, "Check-in Date:", DateUtil.formatDateForDisplay(reservation.getCheckInDate()));
+        addKeyValue(document, "Check-out Date:", DateUtil.formatDateForDisplay(reservation.getCheckOutDate()));
+        addKeyValue(document, "Number of Nights:", String.valueOf(reservation.getNumberOfNights()));
+        
+        document.add(new Paragraph(" "));
+        
+        // Billing Table
+        addInvoiceTable(document, reservation, payment);
+        
+        document.add(new Paragraph(" "));
+        
+        // Payment Information
+        Paragraph paymentInfo = new Paragraph("Payment Received: " + 
+                                             NumberUtil.formatCurrency(payment.getAmount()), 
+                                             HEADER_FONT);
+        paymentInfo.setAlignment(Element.ALIGN_RIGHT);
+        document.add(paymentInfo);
+        
+        document.add(new Paragraph(" "));
+        
+        // Thank You Note
+        Paragraph thankYou = new Paragraph("Thank you for choosing Ocean View Resort!", NORMAL_FONT);
+        thankYou.setAlignment(Element.ALIGN_CENTER);
+        document.add(thankYou);
+        
+        // Footer
+        addFooter(document);
+        
+        document.close();
+        
+        logger.info("Invoice PDF generated for payment: {}", payment.getPaymentNumber());
+    }
+    
     /**
      * Generate revenue report PDF
      * @param startDate Start date
@@ -221,81 +248,130 @@ public class PDFService {
     public byte[] generateRevenueReportPDF(String startDate, String endDate, 
                                           List<Payment> payments, double totalRevenue) {
         try {
-            Document document = new Document(PageSize.A4.rotate()); // Landscape
             ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            PdfWriter.getInstance(document, baos);
-            
-            document.open();
-            
-            // Header
-            addHeader(document, "REVENUE REPORT");
-            
-            // Report Period
-            Paragraph period = new Paragraph("Period: " + startDate + " to " + endDate, NORMAL_FONT);
-            period.setAlignment(Element.ALIGN_CENTER);
-            document.add(period);
-            
-            Paragraph generated = new Paragraph("Generated: " + 
-                                              DateUtil.formatDateTimeForDisplay(LocalDateTime.now()), 
-                                              SMALL_FONT);
-            generated.setAlignment(Element.ALIGN_CENTER);
-            document.add(generated);
-            
-            document.add(new Paragraph(" "));
-            
-            // Revenue Summary
-            addSectionTitle(document, "Revenue Summary");
-            addKeyValue(document, "Total Transactions:", String.valueOf(payments.size()));
-            addKeyValue(document, "Total Revenue:", NumberUtil.formatCurrency(totalRevenue));
-            
-            document.add(new Paragraph(" "));
-            
-            // Payment Table
-            PdfPTable table = new PdfPTable(6);
-            table.setWidthPercentage(100);
-            table.setWidths(new float[]{2, 2, 2, 2, 2, 2});
-            
-            // Table Headers
-            addTableHeader(table, "Payment #");
-            addTableHeader(table, "Date");
-            addTableHeader(table, "Reservation #");
-            addTableHeader(table, "Method");
-            addTableHeader(table, "Status");
-            addTableHeader(table, "Amount");
-            
-            // Table Data
-            for (Payment payment : payments) {
-                table.addCell(new PdfPCell(new Phrase(payment.getPaymentNumber(), SMALL_FONT)));
-                table.addCell(new PdfPCell(new Phrase(
-                    DateUtil.formatDateForDisplay(payment.getPaymentDate().toLocalDate()), SMALL_FONT)));
-                table.addCell(new PdfPCell(new Phrase(
-                    String.valueOf(payment.getReservationId()), SMALL_FONT)));
-                table.addCell(new PdfPCell(new Phrase(payment.getPaymentMethod().name(), SMALL_FONT)));
-                table.addCell(new PdfPCell(new Phrase(payment.getPaymentStatus().name(), SMALL_FONT)));
-                
-                PdfPCell amountCell = new PdfPCell(new Phrase(
-                    NumberUtil.formatCurrency(payment.getAmount()), SMALL_FONT));
-                amountCell.setHorizontalAlignment(Element.ALIGN_RIGHT);
-                table.addCell(amountCell);
-            }
-            
-            document.add(table);
-            
-            // Footer
-            addFooter(document);
-            
-            document.close();
-            
-            logger.info("Revenue report PDF generated with {} transactions", payments.size());
-            
+            writeRevenueReportPDF(startDate, endDate, payments.size(), totalRevenue, payments::forEach, baos);
             return baos.toByteArray();
-            
-        } catch (DocumentException e) {
+        } catch (DocumentException | SQLException e) {
             logger.error("Error generating revenue report PDF", e);
             return null;
         }
     }
     
+    /**
+     * Write revenue report PDF to a stream, e.g. a servlet response
+     * The payment table is written incrementally: every TABLE_FLUSH_ROWS rows
+     * the finished rows are laid out, written to the stream and dropped, so
+     * memory stays bounded however many payments the report covers.
+     * @param startDate Start date
+     * @param endDate End date
+     * @param transactionCount Number of payments the source will deliver
+     * @param totalRevenue Total revenue
+     * @param payments Source of the payments, read once
+     * @param out Destination; flushed but not closed
+     * @return Number of payment rows written
+     * @throws DocumentException if the document cannot be written
+     * @throws SQLException if the payment source fails part way
+     */
+    public long writeRevenueReportPDF(String startDate, String endDate, long transactionCount,
+                                      double totalRevenue, PaymentSource payments, OutputStream out)
+            throws DocumentException, SQLException {
+        Document document = openDocument(PageSize.A4.rotate(), out); // Landscape
+        
+        // Header
+        addHeader(document, "REVENUE REPORT");
+        
+        // Report Period
+        Paragraph period = new Paragraph("Period: " + startDate + " to " + endDate, NORMAL_FONT);
+        period.setAlignment(Element.ALIGN_CENTER);
+        document.add(period);
+        
+        Paragraph generated = new Paragraph("Generated: " + 
+                                          DateUtil.formatDateTimeForDisplay(LocalDateTime.now()), 
+                                          SMALL_FONT);
+        generated.setAlignment(Element.ALIGN_CENTER);
+        document.add(generated);
+        
+        document.add(new Paragraph(" "));
+        
+        // Revenue Summary
+        addSectionTitle(document, "Revenue Summary");
+        addKeyValue(document, "Total Transactions:", String.valueOf(transactionCount));
+        addKeyValue(document, "Total Revenue:", NumberUtil.formatCurrency(totalRevenue));
+        
+        document.add(new Paragraph(" "));
+        
+        // Payment Table, repeated header row on every page
+        PdfPTable table = new PdfPTable(6);
+        table.setWidthPercentage(100);
+        table.setWidths(new float[]{2, 2, 2, 2, 2, 2});
+        table.setHeaderRows(1);
+        table.setComplete(false);
+        
+        // Table Headers
+        addTableHeader(table, "Payment #");
+        addTableHeader(table, "Date");
+        addTableHeader(table, "Reservation #");
+        addTableHeader(table, "Method");
+        addTableHeader(table, "Status");
+        addTableHeader(table, "Amount");
+        
+        // Table Data
+        long[] rows = {0};
+        try {
+            payments.forEach(payment -> {
+                addPaymentRow(table, payment);
+                if (++rows[0] % TABLE_FLUSH_ROWS == 0) {
+                    try {
+                        document.add(table);
+                    } catch (DocumentException e) {
+                        throw new ExceptionConverter(e);
+                    }
+                }
+            });
+        } catch (ExceptionConverter e) {
+            if (e.getException() instanceof DocumentException) {
+                throw (DocumentException) e.getException();
+            }
+            throw e;
+        }
+        
+        table.setComplete(true);
+        document.add(table);
+        
+        // Footer
+        addFooter(document);
+        
+        document.close();
+        
+        logger.info("Revenue report PDF generated with {} transactions", rows[0]);
+        return rows[0];
+    }
+    
+    /**
+     * Everything a booking confirmation shows, for PdfRenderService's cache key
+     * @param reservation Reservation details
+     * @param user User details
+     * @return One value per line
+     */
+    public String confirmationFingerprint(Reservation reservation, User user) {
+        return String.join("\n", "confirmation", userFields(user), reservationFields(reservation),
+                           String.valueOf(reservation.getNumberOfGuests()), String.valueOf(reservation.getStatus()));
+    }
+    
+    /**
+     * Everything an invoice shows, for PdfRenderService's cache key
+     * @param reservation Reservation details
+     * @param payment Payment details
+     * @param user User details
+     * @return One value per line
+     */
+    public String invoiceFingerprint(Reservation reservation, Payment payment, User user) {
+        return String.join("\n", "invoice", userFields(user), reservationFields(reservation),
+                           payment.getPaymentNumber(), String.valueOf(payment.getPaymentDate()),
+                           String.valueOf(payment.getPaymentMethod()), String.valueOf(payment.getPaymentStatus()),
+                           String.valueOf(payment.getTransactionId()), String.valueOf(payment.getAmount()));
+    }
+    
     /**
      * Save PDF to file
      * @param pdfData PDF byte array
@@ -320,6 +396,45 @@ public class PDFService {
     
     // Helper Methods
     
+    private static String userFields(User user) {
+        return String.join("\n", user.getFullName(), user.getEmail(), String.valueOf(user.getPhone()));
+    }
+    
+    private static String reservationFields(Reservation reservation) {
+        return String.join("\n", reservation.getReservationNumber(),
+                           String.valueOf(reservation.getCheckInDate()), String.valueOf(reservation.getCheckOutDate()),
+                           String.valueOf(reservation.getNumberOfNights()), String.valueOf(reservation.getTotalAmount()),
+                           String.valueOf(reservation.getDiscountAmount()), String.valueOf(reservation.getTaxAmount()),
+                           String.valueOf(reservation.getFinalAmount()));
+    }
+    
+    /**
+     * Open a document writing to out; closing the document flushes out but
+     * leaves it open for the caller
+     */
+    private Document openDocument(Rectangle pageSize, OutputStream out) throws DocumentException {
+        Document document = new Document(pageSize);
+        PdfWriter writer = PdfWriter.getInstance(document, out);
+        writer.setCloseStream(false);
+        document.open();
+        return document;
+    }
+    
+    private void addPaymentRow(PdfPTable table, Payment payment) {
+        table.addCell(new PdfPCell(new Phrase(payment.getPaymentNumber(), SMALL_FONT)));
+        table.addCell(new PdfPCell(new Phrase(
+            DateUtil.formatDateForDisplay(payment.getPaymentDate().toLocalDate()), SMALL_FONT)));
+        table.addCell(new PdfPCell(new Phrase(
+            String.valueOf(payment.getReservationId()), SMALL_FONT)));
+        table.addCell(new PdfPCell(new Phrase(payment.getPaymentMethod().name(), SMALL_FONT)));
+        table.addCell(new PdfPCell(new Phrase(payment.getPaymentStatus().name(), SMALL_FONT)));
+        
+        PdfPCell amountCell = new PdfPCell(new Phrase(
+            NumberUtil.formatCurrency(payment.getAmount()), SMALL_FONT));
+        amountCell.setHorizontalAlignment(Element.ALIGN_RIGHT);
+        table.addCell(amountCell);
+    }
+    
     private void addHeader(Document document, String title) throws DocumentException {
         Paragraph header = new Paragraph(title, TITLE_FONT);
         header.setAlignment(Element.ALIGN_CENTER);
@@ -0,0 +1,367 @@
+package com.oceanview.service;
+
+import com.itextpdf.text.DocumentException;
+import com.oceanview.config.AppConfig;
+import com.oceanview.tracing.Span;
+import com.oceanview.tracing.Tracer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * PDF Render Service - Singleton Pattern
+ * Renders invoices and confirmations on a fixed pool of pdf.renderThreads
+ * threads and keeps the results on disk under pdf.cacheDir.
+ * 
+ * A document is cached as NAME-HASH.pdf, where NAME identifies the entities
+ * (e.g. invoice-r12-p34) and HASH is a digest of everything the document
+ * shows. A change to the reservation or payment changes the hash, so a
+ * stale file is never served; the hash doubles as the HTTP ETag. Older
+ * versions are deleted when a new one is written, and the services delete
+ * a reservation's or payment's files as soon as it changes.
+ * 
+ * At most pdf.queueCapacity renders wait for a thread. Beyond that, or when
+ * a render takes longer than pdf.renderTimeoutSeconds, callers get a
+ * RejectedExecutionException so a burst of downloads cannot tie up every
+ * servlet thread. Concurrent requests for the same document share one render.
+ * Until start() is called, renders run on the calling thread.
+ * 
+ * @author Ocean View Resort Development Team
+ * @version 1.0.0
+ */
+public class PdfRenderService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(PdfRenderService.class);
+    
+    /**
+     * Bump when document layouts change, so cached files are rendered again
+     */
+    private static final String RENDER_VERSION = "1";
+    private static PdfRenderService instance;
+    
+    /**
+     * Writes one document
+     */
+    @FunctionalInterface
+    public interface Renderer {
+        void render(OutputStream out) throws DocumentException, IOException;
+    }
+    
+    /**
+     * A rendered document on disk
+     */
+    public static final class CachedPdf {
+        
+        private final Path path;
+        private final String etag;
+        private final long size;
+        
+        CachedPdf(Path path, String etag, long size) {
+            this.path = path;
+            this.etag = etag;
+            this.size = size;
+        }
+        
+        public Path getPath() {
+            return path;
+        }
+        
+        /**
+         * @return Content hash, unquoted
+         */
+        public String getEtag() {
+            return etag;
+        }
+        
+        public long getSize() {
+            return size;
+        }
+        
+        /**
+         * Copy the document to a stream
+         * @param out Destination, not closed
+         * @throws IOException if the file was removed or the stream fails
+         */
+        public void writeTo(OutputStream out) throws IOException {
+            Files.copy(path, out);
+        }
+    }
+    
+    private final Path cacheDir;
+    private final int threads;
+    private final int queueCapacity;
+    private final long timeoutSeconds;
+    private final Map<Path, Future<CachedPdf>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong renders = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    
+    private volatile ThreadPoolExecutor pool;
+    
+    /**
+     * Constructor
+     * @param cacheDir Directory for rendered documents
+     * @param threads Render threads
+     * @param queueCapacity Renders allowed to wait for a thread
+     * @param timeoutSeconds Longest a caller waits for a render
+     */
+    PdfRenderService(Path cacheDir, int threads, int queueCapacity, long timeoutSeconds) {
+        this.cacheDir = cacheDir;
+        this.threads = Math.max(1, threads);
+        this.queueCapacity = Math.max(1, queueCapacity);
+        this.timeoutSeconds = Math.max(1, timeoutSeconds);
+    }
+    
+    /**
+     * Get singleton instance
+     * @return PdfRenderService instance
+     */
+    public static synchronized PdfRenderService getInstance() {
+        if (instance == null) {
+            AppConfig config = AppConfig.getInstance();
+            instance = new PdfRenderService(Paths.get(config.getPdfCacheDir()),
+                                            config.getPdfRenderThreads(), config.getPdfQueueCapacity(),
+                                            config.getPdfRenderTimeoutSeconds());
+        }
+        return instance;
+    }
+    
+    /**
+     * Start the render pool
+     */
+    public synchronized void start() {
+        if (pool != null) {
+            return;
+        }
+        AtomicInteger threadNumber = new AtomicInteger();
+        pool = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                                      new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "pdf-render-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            createCacheDir();
+        } catch (IOException e) {
+            logger.error("Cannot create PDF cache directory {}", cacheDir, e);
+        }
+        logger.info("PDF render pool started: {} threads, {} queued, cache in {}", threads, queueCapacity, cacheDir);
+    }
+    
+    /**
+     * Stop the render pool, letting renders in progress finish
+     */
+    public synchronized void stop() {
+        if (pool == null) {
+            return;
+        }
+        pool.shutdown();
+        try {
+            pool.awaitTermination(timeoutSeconds, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        pool = null;
+        logger.info("PDF render pool stopped: {} renders, {} cache hits, {} rejected",
+                    renders.get(), hits.get(), rejected.get());
+    }
+    
+    /**
+     * Get a document from the cache, rendering it if this version is not there
+     * @param name Entity part of the file name, e.g. invoice-r12-p34
+     * @param fingerprint Everything the document shows, one value per line
+     * @param renderer Renders the document on a cache miss
+     * @return Cached document
+     * @throws IOException if rendering or writing the file fails
+     * @throws RejectedExecutionException if the pool is saturated or the render timed out
+     */
+    public CachedPdf get(String name, String fingerprint, Renderer renderer) throws IOException {
+        try (Span span = Tracer.span("pdf " + name)) {
+            String etag = hash(RENDER_VERSION + "\n" + fingerprint);
+            Path file = cacheDir.resolve(name + "-" + etag + ".pdf");
+            boolean cached = Files.exists(file);
+            span.tag("cache", cached ? "hit" : "miss");
+            if (cached) {
+                hits.incrementAndGet();
+                return new CachedPdf(file, etag, Files.size(file));
+            }
+            return renderOnPool(name, file, etag, renderer);
+        }
+    }
+    
+    /**
+     * Render on the pool, sharing a render already in flight for the same file
+     */
+    private CachedPdf renderOnPool(String name, Path file, String etag, Renderer renderer) throws IOException {
+        ThreadPoolExecutor executor = pool;
+        if (executor == null) {
+            return render(name, file, etag, renderer);
+        }
+        Future<CachedPdf> render;
+        try {
+            render = inFlight.computeIfAbsent(file, key ->
+                executor.submit(Tracer.wrap(() -> render(name, file, etag, renderer))));
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            throw e;
+        }
+        try {
+            return render.get(timeoutSeconds, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            rejected.incrementAndGet();
+            throw new RejectedExecutionException("PDF render timed out: " + name);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof IOException
+                ? (IOException) e.getCause() : new IOException("PDF render failed: " + name, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted waiting for PDF render: " + name, e);
+        } finally {
+            inFlight.remove(file, render);
+        }
+    }
+    
+    /**
+     * Delete every cached document of a reservation
+     * @param reservationId Reservation ID
+     */
+    public void invalidateReservation(int reservationId) {
+        delete("*-r" + reservationId + "-*.pdf");
+    }
+    
+    /**
+     * Delete every cached document of a payment
+     * @param paymentId Payment ID
+     */
+    public void invalidatePayment(int paymentId) {
+        delete("*-p" + paymentId + "-*.pdf");
+    }
+    
+    /**
+     * @return Downloads served from an already rendered file
+     */
+    public long getCacheHits() {
+        return hits.get();
+    }
+    
+    /**
+     * @return Documents rendered since startup
+     */
+    public long getRenderCount() {
+        return renders.get();
+    }
+    
+    /**
+     * @return Downloads refused because the pool was saturated or too slow
+     */
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+    
+    /**
+     * @return Renders waiting for a thread
+     */
+    public int getQueueDepth() {
+        ThreadPoolExecutor executor = pool;
+        return executor != null ? executor.getQueue().size() : 0;
+    }
+    
+    /**
+     * Create the cache directory, or tighten an existing one, so only the
+     * application's user can read it. Rendered files are created by
+     * createTempFile and are owner-only already.
+     */
+    private void createCacheDir() throws IOException {
+        if (!FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+            Files.createDirectories(cacheDir);
+            return;
+        }
+        Set<PosixFilePermission> ownerOnly = PosixFilePermissions.fromString("rwx------");
+        if (!Files.isDirectory(cacheDir)) {
+            Files.createDirectories(cacheDir, PosixFilePermissions.asFileAttribute(ownerOnly));
+        }
+        if (!Files.getPosixFilePermissions(cacheDir).equals(ownerOnly)) {
+            Files.setPosixFilePermissions(cacheDir, ownerOnly);
+        }
+    }
+    
+    /**
+     * Render to a temporary file, move it into place and delete older versions
+     */
+    private CachedPdf render(String name, Path file, String etag, Renderer renderer) throws IOException {
+        createCacheDir();
+        Path partial = Files.createTempFile(cacheDir, name + "-", ".part");
+        try (Span span = Tracer.span("pdf render")) {
+            span.tag("document", name);
+            try (OutputStream out = Files.newOutputStream(partial)) {
+                renderer.render(out);
+            }
+            Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (DocumentException e) {
+            throw new IOException("Could not render " + name, e);
+        } finally {
+            Files.deleteIfExists(partial);
+        }
+        renders.incrementAndGet();
+        try (DirectoryStream<Path> older = Files.newDirectoryStream(cacheDir, name + "-*.pdf")) {
+            for (Path old : older) {
+                if (!old.equals(file)) {
+                    Files.deleteIfExists(old);
+                }
+            }
+        }
+        logger.debug("PDF rendered: {}", file.getFileName());
+        return new CachedPdf(file, etag, Files.size(file));
+    }
+    
+    private void delete(String glob) {
+        if (!Files.isDirectory(cacheDir)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(cacheDir, glob)) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            logger.warn("Could not clear cached PDFs matching {}", glob, e);
+        }
+    }
+    
+    private static String hash(String text) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(32);
+            for (int i = 0; i < 16; i++) {
+                hex.append(Character.forDigit((digest[i] >> 4) & 0xF, 16)).append(Character.forDigit(digest[i] & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.oceanview.service;
+
+import com.oceanview.config.AppConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Pending Reservation Expiry - Singleton Pattern
+ * A PENDING reservation holds its room against other bookings and search
+ * until staff confirm it. Bookings left unconfirmed for
+ * reservation.pendingHoldMinutes are cancelled every
+ * reservation.expiryCheckMinutes, so an abandoned booking does not keep a
+ * room off the market.
+ * 
+ * @author Ocean View Resort Development Team
+ * @version 1.0.0
+ */
+public class PendingReservationExpiry {
+    
+    private static final Logger logger = LoggerFactory.getLogger(PendingReservationExpiry.class);
+    private static PendingReservationExpiry instance;
+    
+    private final ReservationService reservationService;
+    private final Supplier<LocalDateTime> now;
+    private final long holdMinutes;
+    private final long checkMinutes;
+    
+    private ScheduledExecutorService scheduler;
+    
+    /**
+     * Constructor
+     * @param reservationService Service that cancels the reservations
+     * @param now Current time
+     * @param holdMinutes Minutes a pending reservation holds its room
+     * @param checkMinutes Minutes between checks
+     */
+    PendingReservationExpiry(ReservationService reservationService, Supplier<LocalDateTime> now,
+                             long holdMinutes, long checkMinutes) {
+        this.reservationService = reservationService;
+        this.now = now;
+        this.holdMinutes = Math.max(1, holdMinutes);
+        this.checkMinutes = Math.max(1, checkMinutes);
+    }
+    
+    /**
+     * Get singleton instance
+     * @return PendingReservationExpiry instance
+     */
+    public static synchronized PendingReservationExpiry getInstance() {
+        if (instance == null) {
+            AppConfig config = AppConfig.getInstance();
+            instance = new PendingReservationExpiry(new ReservationService(), LocalDateTime::now,
+                                                    config.getPendingHoldMinutes(),
+                                                    config.getPendingExpiryCheckMinutes());
+        }
+        return instance;
+    }
+    
+    /**
+     * Start checking for expired holds
+     */
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "pending-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::expireQuietly, checkMinutes, checkMinutes, TimeUnit.MINUTES);
+        logger.info("Pending reservation expiry started, {} min hold, checked every {} min",
+                    holdMinutes, checkMinutes);
+    }
+    
+    /**
+     * Stop the scheduled checks
+     */
+    public synchronized void stop() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdownNow();
+        scheduler = null;
+        logger.info("Pending reservation expiry stopped");
+    }
+    
+    /**
+     * Cancel pending reservations older than the hold time
+     * @return Number of reservations expired
+     */
+    public int expire() {
+        int expired = reservationService.expirePendingReservations(now.get().minusMinutes(holdMinutes));
+        if (expired > 0) {
+            logger.info("Expired {} pending reservations not confirmed within {} min", expired, holdMinutes);
+        }
+        return expired;
+    }
+    
+    private void expireQuietly() {
+        try {
+            expire();
+        } catch (RuntimeException e) {
+            logger.error("Pending reservation expiry failed", e);
+        }
+    }
+}
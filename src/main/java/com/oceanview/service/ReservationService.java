@@ -1,19 +1,35 @@
 package com.oceanview.service;
 
 import com.oceanview.config.AppConfig;
+import com.oceanview.dao.GuestDAO;
+import com.oceanview.dao.InventoryDAO;
+import com.oceanview.dao.Page;
+import com.oceanview.dao.PageRequest;
 import com.oceanview.dao.ReservationDAO;
+import com.oceanview.dao.RoomCache;
 import com.oceanview.dao.RoomDAO;
+import com.oceanview.dao.TransactionTemplate;
+import com.oceanview.dao.UserDAO;
+import com.oceanview.model.AuditLog;
+import com.oceanview.model.Guest;
 import com.oceanview.model.Reservation;
 import com.oceanview.model.Room;
+import com.oceanview.model.User;
+import com.oceanview.tracing.Span;
+import com.oceanview.tracing.Tracer;
+import com.oceanview.util.IdGenerator;
+import com.oceanview.util.RequestCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.sql.SQLException;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Reservation Service
@@ -27,6 +43,17 @@ public class ReservationService {
     private static final Logger logger = LoggerFactory.getLogger(ReservationService.class);
     private final ReservationDAO reservationDAO;
     private final RoomDAO roomDAO;
+    private final RoomCache roomCache;
+    private final InventoryDAO inventoryDAO;
+    private final BookingEngine bookingEngine;
+    private final AvailabilityIndex availabilityIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final AuditLogWriter auditLogWriter;
+    private final GuestDAO guestDAO;
+    private final UserDAO userDAO;
+    private final EmailService emailService;
+    private final PDFService pdfService;
+    private final PdfRenderService pdfRenderService;
     private final AppConfig config;
     
     /**
@@ -35,16 +62,29 @@ public class ReservationService {
     public ReservationService() {
         this.reservationDAO = new ReservationDAO();
         this.roomDAO = new RoomDAO();
+        this.roomCache = RoomCache.getInstance();
+        this.inventoryDAO = new InventoryDAO();
+        this.bookingEngine = BookingEngine.getInstance();
+        this.availabilityIndex = AvailabilityIndex.getInstance();
+        this.transactionTemplate = new TransactionTemplate();
+        this.auditLogWriter = AuditLogWriter.getInstance();
+        this.guestDAO = new GuestDAO();
+        this.userDAO = new UserDAO();
+        this.emailService = EmailService.getInstance();
+        this.pdfService = PDFService.getInstance();
+        this.pdfRenderService = PdfRenderService.getInstance();
         this.config = AppConfig.getInstance();
     }
     
     /**
      * Create a new reservation
      * @param reservation Reservation object
-     * @return Reservation ID if successful, -1 if failed
+     * @return Reservation ID if successful; -1 past check-in, -2 invalid date range,
+     *         -3 room not found, -4 database error, -5 room not available
      */
     public int createReservation(Reservation reservation) {
-        try {
+        try (Span span = Tracer.span("ReservationService.createReservation")) {
+            span.tag("roomId", reservation.getRoomId());
             // Validate dates
             if (reservation.getCheckInDate().isBefore(LocalDate.now())) {
                 logger.warn("Reservation creation failed: Check-in date is in the past");
@@ -57,7 +97,7 @@ public class ReservationService {
             }
             
             // Check room availability
-            Optional<Room> roomOpt = roomDAO.findById(reservation.getRoomId());
+            Optional<Room> roomOpt = roomCache.findById(reservation.getRoomId());
             if (roomOpt.isEmpty()) {
                 logger.warn("Reservation creation failed: Room not found - ID: {}", 
                            reservation.getRoomId());
@@ -66,6 +106,15 @@ public class ReservationService {
             
             Room room = roomOpt.get();
             
+            // Reject early when every room of the type is taken for some night
+            Optional<Integer> freeRooms = inventoryDAO.findMinFree(room.getRoomType(), reservation.getCheckInDate(),
+                                                                   reservation.getCheckOutDate());
+            if (freeRooms.isPresent() && freeRooms.get() == 0) {
+                logger.warn("Reservation creation failed: No {} rooms left from {} to {}", room.getRoomType(),
+                           reservation.getCheckInDate(), reservation.getCheckOutDate());
+                return -5;
+            }
+            
             // Calculate amounts
             double taxPercentage = config.getTaxPercentage();
             double serviceCharge = config.getServiceChargePercentage();
@@ -78,15 +127,24 @@ public class ReservationService {
             // Set initial status
             reservation.setStatus(Reservation.ReservationStatus.PENDING);
             
-            // Create reservation
-            int reservationId = reservationDAO.create(reservation);
+            // Check availability and create reservation atomically
+            int reservationId = bookingEngine.book(reservation);
             
-            if (reservationId > 0) {
-                logger.info("Reservation created successfully: {}", reservationNumber);
+            if (reservationId == 0) {
+                logger.warn("Reservation creation failed: Room not available - ID: {}, {} to {}",
+                           reservation.getRoomId(), reservation.getCheckInDate(),
+                           reservation.getCheckOutDate());
+                return -5;
             }
             
+            // A pending booking holds its room until it is confirmed, cancelled or expires
+            TransactionTemplate.afterCommit(() ->
+                availabilityIndex.stayBooked(reservation.getRoomId(), reservation.getCheckInDate(),
+                                             reservation.getCheckOutDate()));
+            logger.info("Reservation created successfully: {}", reservationNumber);
+            audit("RESERVATION_CREATED", reservationId, reservation.getCreatedBy());
             return reservationId;
-            
+        
         } catch (SQLException e) {
             logger.error("Error creating reservation", e);
             return -4;
@@ -99,9 +157,10 @@ public class ReservationService {
      * @return true if successful
      */
     public boolean updateReservation(Reservation reservation) {
-        try {
+        try (Span span = Tracer.span("ReservationService.updateReservation")) {
+            span.tag("reservationId", reservation.getReservationId());
             // Recalculate amounts
-            Optional<Room> roomOpt = roomDAO.findById(reservation.getRoomId());
+            Optional<Room> roomOpt = roomCache.findById(reservation.getRoomId());
             if (roomOpt.isPresent()) {
                 Room room = roomOpt.get();
                 double taxPercentage = config.getTaxPercentage();
@@ -109,14 +168,25 @@ public class ReservationService {
                 reservation.calculateAmounts(room.getPricePerNight(), taxPercentage, serviceCharge);
             }
             
-            boolean success = reservationDAO.update(reservation);
-            
-            if (success) {
-                logger.info("Reservation updated successfully: ID={}", reservation.getReservationId());
+            Optional<Reservation> before = bookingEngine.reschedule(reservation);
+            if (before.isEmpty()) {
+                return false;
             }
             
-            return success;
-            
+            Optional<Reservation> released = before.filter(old -> AvailabilityIndex.blocksRoom(old.getStatus()));
+            boolean held = AvailabilityIndex.blocksRoom(reservation.getStatus());
+            documentsChanged(reservation.getReservationId());
+            TransactionTemplate.afterCommit(() -> {
+                released.ifPresent(old -> availabilityIndex.stayReleased(old.getRoomId(), old.getCheckInDate(),
+                                                                         old.getCheckOutDate()));
+                if (held) {
+                    availabilityIndex.stayBooked(reservation.getRoomId(), reservation.getCheckInDate(),
+                                                 reservation.getCheckOutDate());
+                }
+            });
+            logger.info("Reservation updated successfully: ID={}", reservation.getReservationId());
+            return true;
+        
         } catch (SQLException e) {
             logger.error("Error updating reservation: ID={}", reservation.getReservationId(), e);
             return false;
@@ -126,35 +196,57 @@ public class ReservationService {
     /**
      * Confirm a reservation
      * @param reservationId Reservation ID
+     * @param actingUserId User making the change, recorded in the audit log
      * @return true if successful
      */
-    public boolean confirmReservation(int reservationId) {
-        try {
-            Optional<Reservation> resOpt = reservationDAO.findById(reservationId);
-            
-            if (resOpt.isEmpty()) {
-                logger.warn("Confirm failed: Reservation not found - ID: {}", reservationId);
-                return false;
-            }
-            
-            Reservation reservation = resOpt.get();
-            
-            if (!reservation.isPending()) {
-                logger.warn("Confirm failed: Reservation not in PENDING status - ID: {}", reservationId);
-                return false;
-            }
-            
-            // Update reservation status
-            boolean success = reservationDAO.updateStatus(reservationId, 
-                                                          Reservation.ReservationStatus.CONFIRMED);
-            
-            if (success) {
-                // Update room status
-                roomDAO.updateStatus(reservation.getRoomId(), Room.RoomStatus.RESERVED);
-                logger.info("Reservation confirmed: ID={}", reservationId);
-            }
-            
-            return success;
+    public boolean confirmReservation(int reservationId, int actingUserId) {
+        try (Span span = Tracer.span("ReservationService.confirmReservation")) {
+            span.tag("reservationId", reservationId);
+            return transactionTemplate.execute(() -> {
+                Optional<Reservation> resOpt = reservationDAO.findByIdForUpdate(reservationId);
+                
+                if (resOpt.isEmpty()) {
+                    logger.warn("Confirm failed: Reservation not found - ID: {}", reservationId);
+                    return false;
+                }
+                
+                Reservation reservation = resOpt.get();
+                
+                if (!reservation.isPending()) {
+                    logger.warn("Confirm failed: Reservation not in PENDING status - ID: {}", reservationId);
+                    return false;
+                }
+                
+                // Take the nights from the inventory ledger; its rows lock out concurrent confirmations
+                Optional<Room> roomOpt = roomCache.findById(reservation.getRoomId());
+                if (roomOpt.isPresent() && !inventoryDAO.book(roomOpt.get().getRoomType(),
+                                                              reservation.getCheckInDate(),
+                                                              reservation.getCheckOutDate())) {
+                    logger.warn("Confirm failed: No {} rooms left - ID: {}", roomOpt.get().getRoomType(),
+                               reservationId);
+                    return false;
+                }
+                
+                // Update reservation status
+                boolean success = reservationDAO.updateStatus(reservationId, 
+                                                              Reservation.ReservationStatus.CONFIRMED);
+                
+                if (success) {
+                    // Update room status
+                    roomDAO.updateStatus(reservation.getRoomId(), Room.RoomStatus.RESERVED);
+                    TransactionTemplate.afterCommit(() -> {
+                        availabilityIndex.stayBooked(reservation.getRoomId(), reservation.getCheckInDate(),
+                                                     reservation.getCheckOutDate());
+                        availabilityIndex.roomStatusChanged(reservation.getRoomId(), Room.RoomStatus.RESERVED);
+                    });
+                    audit("RESERVATION_CONFIRMED", reservationId, actingUserId);
+                    documentsChanged(reservationId);
+                    notifyGuest(reservation, true);
+                    logger.info("Reservation confirmed: ID={}", reservationId);
+                }
+                
+                return success;
+            });
             
         } catch (SQLException e) {
             logger.error("Error confirming reservation: ID={}", reservationId, e);
@@ -165,35 +257,43 @@ public class ReservationService {
     /**
      * Check-in a reservation
      * @param reservationId Reservation ID
+     * @param actingUserId User making the change, recorded in the audit log
      * @return true if successful
      */
-    public boolean checkInReservation(int reservationId) {
-        try {
-            Optional<Reservation> resOpt = reservationDAO.findById(reservationId);
-            
-            if (resOpt.isEmpty()) {
-                logger.warn("Check-in failed: Reservation not found - ID: {}", reservationId);
-                return false;
-            }
-            
-            Reservation reservation = resOpt.get();
-            
-            if (!reservation.canCheckIn()) {
-                logger.warn("Check-in failed: Reservation cannot be checked in - ID: {}", reservationId);
-                return false;
-            }
-            
-            // Update reservation status
-            boolean success = reservationDAO.updateStatus(reservationId, 
-                                                          Reservation.ReservationStatus.CHECKED_IN);
-            
-            if (success) {
-                // Update room status
-                roomDAO.updateStatus(reservation.getRoomId(), Room.RoomStatus.OCCUPIED);
-                logger.info("Reservation checked in: ID={}", reservationId);
-            }
-            
-            return success;
+    public boolean checkInReservation(int reservationId, int actingUserId) {
+        try (Span span = Tracer.span("ReservationService.checkInReservation")) {
+            span.tag("reservationId", reservationId);
+            return transactionTemplate.execute(() -> {
+                Optional<Reservation> resOpt = reservationDAO.findByIdForUpdate(reservationId);
+                
+                if (resOpt.isEmpty()) {
+                    logger.warn("Check-in failed: Reservation not found - ID: {}", reservationId);
+                    return false;
+                }
+                
+                Reservation reservation = resOpt.get();
+                
+                if (!reservation.canCheckIn()) {
+                    logger.warn("Check-in failed: Reservation cannot be checked in - ID: {}", reservationId);
+                    return false;
+                }
+                
+                // Update reservation status
+                boolean success = reservationDAO.updateStatus(reservationId, 
+                                                              Reservation.ReservationStatus.CHECKED_IN);
+                
+                if (success) {
+                    // Update room status
+                    roomDAO.updateStatus(reservation.getRoomId(), Room.RoomStatus.OCCUPIED);
+                    TransactionTemplate.afterCommit(() ->
+                        availabilityIndex.roomStatusChanged(reservation.getRoomId(), Room.RoomStatus.OCCUPIED));
+                    audit("RESERVATION_CHECKED_IN", reservationId, actingUserId);
+                    documentsChanged(reservationId);
+                    logger.info("Reservation checked in: ID={}", reservationId);
+                }
+                
+                return success;
+            });
             
         } catch (SQLException e) {
             logger.error("Error checking in reservation: ID={}", reservationId, e);
@@ -204,35 +304,47 @@ public class ReservationService {
     /**
      * Check-out a reservation
      * @param reservationId Reservation ID
+     * @param actingUserId User making the change, recorded in the audit log
      * @return true if successful
      */
-    public boolean checkOutReservation(int reservationId) {
-        try {
-            Optional<Reservation> resOpt = reservationDAO.findById(reservationId);
-            
-            if (resOpt.isEmpty()) {
-                logger.warn("Check-out failed: Reservation not found - ID: {}", reservationId);
-                return false;
-            }
-            
-            Reservation reservation = resOpt.get();
-            
-            if (!reservation.canCheckOut()) {
-                logger.warn("Check-out failed: Reservation cannot be checked out - ID: {}", reservationId);
-                return false;
-            }
-            
-            // Update reservation status
-            boolean success = reservationDAO.updateStatus(reservationId, 
-                                                          Reservation.ReservationStatus.CHECKED_OUT);
-            
-            if (success) {
-                // Update room status
-                roomDAO.updateStatus(reservation.getRoomId(), Room.RoomStatus.AVAILABLE);
-                logger.info("Reservation checked out: ID={}", reservationId);
-            }
-            
-            return success;
+    public boolean checkOutReservation(int reservationId, int actingUserId) {
+        try (Span span = Tracer.span("ReservationService.checkOutReservation")) {
+            span.tag("reservationId", reservationId);
+            return transactionTemplate.execute(() -> {
+                Optional<Reservation> resOpt = reservationDAO.findByIdForUpdate(reservationId);
+                
+                if (resOpt.isEmpty()) {
+                    logger.warn("Check-out failed: Reservation not found - ID: {}", reservationId);
+                    return false;
+                }
+                
+                Reservation reservation = resOpt.get();
+                
+                if (!reservation.canCheckOut()) {
+                    logger.warn("Check-out failed: Reservation cannot be checked out - ID: {}", reservationId);
+                    return false;
+                }
+                
+                // Update reservation status
+                boolean success = reservationDAO.updateStatus(reservationId, 
+                                                              Reservation.ReservationStatus.CHECKED_OUT);
+                
+                if (success) {
+                    // Update room status
+                    roomDAO.updateStatus(reservation.getRoomId(), Room.RoomStatus.AVAILABLE);
+                    releaseInventory(reservation);
+                    TransactionTemplate.afterCommit(() -> {
+                        availabilityIndex.stayReleased(reservation.getRoomId(), reservation.getCheckInDate(),
+                                                       reservation.getCheckOutDate());
+                        availabilityIndex.roomStatusChanged(reservation.getRoomId(), Room.RoomStatus.AVAILABLE);
+                    });
+                    audit("RESERVATION_CHECKED_OUT", reservationId, actingUserId);
+                    documentsChanged(reservationId);
+                    logger.info("Reservation checked out: ID={}", reservationId);
+                }
+                
+                return success;
+            });
             
         } catch (SQLException e) {
             logger.error("Error checking out reservation: ID={}", reservationId, e);
@@ -243,11 +355,53 @@ public class ReservationService {
     /**
      * Cancel a reservation
      * @param reservationId Reservation ID
+     * @param actingUserId User making the change, recorded in the audit log
      * @return true if successful
      */
-    public boolean cancelReservation(int reservationId) {
-        try {
-            Optional<Reservation> resOpt = reservationDAO.findById(reservationId);
+    public boolean cancelReservation(int reservationId, int actingUserId) {
+        try (Span span = Tracer.span("ReservationService.cancelReservation")) {
+            span.tag("reservationId", reservationId);
+            return cancel(reservationId, actingUserId, false);
+            
+        } catch (SQLException e) {
+            logger.error("Error cancelling reservation: ID={}", reservationId, e);
+            return false;
+        }
+    }
+    
+    /**
+     * Cancel PENDING reservations that were never confirmed, so they stop
+     * holding their rooms
+     * @param createdBefore Pending reservations created before this expire
+     * @return Number of reservations expired
+     */
+    public int expirePendingReservations(LocalDateTime createdBefore) {
+        int expired = 0;
+        try (Span span = Tracer.span("ReservationService.expirePendingReservations")) {
+            span.tag("createdBefore", createdBefore);
+            for (int reservationId : reservationDAO.findExpiredPendingIds(createdBefore)) {
+                try {
+                    expired += cancel(reservationId, null, true) ? 1 : 0;
+                } catch (SQLException e) {
+                    logger.error("Error expiring pending reservation: ID={}", reservationId, e);
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Error finding expired pending reservations", e);
+        }
+        return expired;
+    }
+    
+    /**
+     * Cancel a reservation and give its nights back
+     * @param reservationId Reservation ID
+     * @param actingUserId User cancelling, or null when the system expires it
+     * @param expiring true to cancel only if the reservation is still PENDING
+     * @return true if the reservation was cancelled
+     */
+    private boolean cancel(int reservationId, Integer actingUserId, boolean expiring) throws SQLException {
+        return transactionTemplate.execute(() -> {
+            Optional<Reservation> resOpt = reservationDAO.findByIdForUpdate(reservationId);
             
             if (resOpt.isEmpty()) {
                 logger.warn("Cancel failed: Reservation not found - ID: {}", reservationId);
@@ -256,7 +410,8 @@ public class ReservationService {
             
             Reservation reservation = resOpt.get();
             
-            if (!reservation.canCancel()) {
+            if (expiring ? !reservation.isPending() : !reservation.canCancel()) {
+                // An expiring booking may have been confirmed since it was selected
                 logger.warn("Cancel failed: Reservation cannot be cancelled - ID: {}", reservationId);
                 return false;
             }
@@ -266,19 +421,26 @@ public class ReservationService {
                                                           Reservation.ReservationStatus.CANCELLED);
             
             if (success) {
-                // Update room status if it was reserved
+                // Update room status and the ledger if it was reserved
                 if (reservation.isConfirmed()) {
                     roomDAO.updateStatus(reservation.getRoomId(), Room.RoomStatus.AVAILABLE);
+                    releaseInventory(reservation);
                 }
-                logger.info("Reservation cancelled: ID={}", reservationId);
+                TransactionTemplate.afterCommit(() -> {
+                    availabilityIndex.stayReleased(reservation.getRoomId(), reservation.getCheckInDate(),
+                                                   reservation.getCheckOutDate());
+                    if (reservation.isConfirmed()) {
+                        availabilityIndex.roomStatusChanged(reservation.getRoomId(), Room.RoomStatus.AVAILABLE);
+                    }
+                });
+                audit(expiring ? "RESERVATION_EXPIRED" : "RESERVATION_CANCELLED", reservationId, actingUserId);
+                documentsChanged(reservationId);
+                notifyGuest(reservation, false);
+                logger.info("Reservation {}: ID={}", expiring ? "expired" : "cancelled", reservationId);
             }
             
             return success;
-            
-        } catch (SQLException e) {
-            logger.error("Error cancelling reservation: ID={}", reservationId, e);
-            return false;
-        }
+        });
     }
     
     /**
@@ -288,13 +450,69 @@ public class ReservationService {
      */
     public Optional<Reservation> getReservationById(int reservationId) {
         try {
-            return reservationDAO.findById(reservationId);
+            return RequestCache.memoize(() -> reservationDAO.findById(reservationId),
+                                        "ReservationService.getReservationById", reservationId);
         } catch (SQLException e) {
             logger.error("Error getting reservation by ID: {}", reservationId, e);
             return Optional.empty();
         }
     }
     
+    /**
+     * Check whether a user may see a reservation and its documents: staff
+     * and admins see every reservation, a guest only their own
+     * @param user Logged-in user
+     * @param reservationId Reservation ID
+     * @return true if the user may see it; false for another guest's or a
+     *         missing reservation
+     */
+    public boolean canAccess(User user, int reservationId) {
+        if (user.isAdmin() || user.isStaff()) {
+            return true;
+        }
+        try {
+            Optional<Reservation> reservation = getReservationById(reservationId);
+            if (reservation.isEmpty()) {
+                return false;
+            }
+            Optional<Guest> guest = guestDAO.findById(reservation.get().getGuestId());
+            return guest.isPresent() && guest.get().getUserId() != null
+                && guest.get().getUserId().equals(user.getUserId());
+        } catch (SQLException e) {
+            logger.error("Error checking access to reservation ID: {}", reservationId, e);
+            return false;
+        }
+    }
+    
+    /**
+     * Get the booking confirmation PDF, rendered or from the PDF cache
+     * @param reservationId Reservation ID
+     * @return Confirmation, or empty if the reservation or the guest's
+     *         account was not found, or rendering failed
+     * @throws RejectedExecutionException if the render pool is saturated
+     */
+    public Optional<PdfRenderService.CachedPdf> getConfirmationPDF(int reservationId) {
+        try (Span span = Tracer.span("ReservationService.getConfirmationPDF")) {
+            span.tag("reservationId", reservationId);
+            Optional<Reservation> reservation = reservationDAO.findById(reservationId);
+            Optional<Guest> guest = reservation.isPresent()
+                ? guestDAO.findById(reservation.get().getGuestId()) : Optional.empty();
+            Optional<User> user = guest.isPresent() && guest.get().getUserId() != null
+                ? userDAO.findById(guest.get().getUserId()) : Optional.empty();
+            if (user.isEmpty()) {
+                logger.warn("Confirmation not available for reservation ID: {}", reservationId);
+                return Optional.empty();
+            }
+            return Optional.of(pdfRenderService.get(
+                "confirmation-r" + reservationId,
+                pdfService.confirmationFingerprint(reservation.get(), user.get()),
+                out -> pdfService.writeBookingConfirmationPDF(reservation.get(), user.get(), out)));
+        } catch (SQLException | IOException e) {
+            logger.error("Error getting confirmation PDF for reservation ID: {}", reservationId, e);
+            return Optional.empty();
+        }
+    }
+    
     /**
      * Get reservation by reservation number
      * @param reservationNumber Reservation number
@@ -302,7 +520,8 @@ public class ReservationService {
      */
     public Optional<Reservation> getReservationByNumber(String reservationNumber) {
         try {
-            return reservationDAO.findByReservationNumber(reservationNumber);
+            return RequestCache.memoize(() -> reservationDAO.findByReservationNumber(reservationNumber),
+                                        "ReservationService.getReservationByNumber", reservationNumber);
         } catch (SQLException e) {
             logger.error("Error getting reservation by number: {}", reservationNumber, e);
             return Optional.empty();
@@ -316,7 +535,8 @@ public class ReservationService {
      */
     public List<Reservation> getReservationsByGuest(int guestId) {
         try {
-            return reservationDAO.findByGuestId(guestId);
+            return RequestCache.memoize(() -> reservationDAO.findByGuestId(guestId),
+                                        "ReservationService.getReservationsByGuest", guestId);
         } catch (SQLException e) {
             logger.error("Error getting reservations by guest: {}", guestId, e);
             return List.of();
@@ -329,20 +549,35 @@ public class ReservationService {
      */
     public List<Reservation> getAllReservations() {
         try {
-            return reservationDAO.findAll();
+            return RequestCache.memoize(reservationDAO::findAll, "ReservationService.getAllReservations");
         } catch (SQLException e) {
             logger.error("Error getting all reservations", e);
             return List.of();
         }
     }
     
+    /**
+     * Get one page of reservations, latest check-in first
+     * @param pageRequest Page size and cursor
+     * @return Page of reservations (empty on error)
+     */
+    public Page<Reservation> getReservationsPage(PageRequest pageRequest) {
+        try {
+            return reservationDAO.findPage(pageRequest);
+        } catch (SQLException e) {
+            logger.error("Error getting reservations page", e);
+            return new Page<>(List.of(), pageRequest.getPageSize(), null, null);
+        }
+    }
+    
     /**
      * Get active reservations
      * @return List of active reservations
      */
     public List<Reservation> getActiveReservations() {
         try {
-            return reservationDAO.findActiveReservations();
+            return RequestCache.memoize(reservationDAO::findActiveReservations,
+                                        "ReservationService.getActiveReservations");
         } catch (SQLException e) {
             logger.error("Error getting active reservations", e);
             return List.of();
@@ -355,7 +590,7 @@ public class ReservationService {
      */
     public List<Reservation> getTodayCheckIns() {
         try {
-            return reservationDAO.findTodayCheckIns();
+            return RequestCache.memoize(reservationDAO::findTodayCheckIns, "ReservationService.getTodayCheckIns");
         } catch (SQLException e) {
             logger.error("Error getting today's check-ins", e);
             return List.of();
@@ -368,7 +603,7 @@ public class ReservationService {
      */
     public List<Reservation> getTodayCheckOuts() {
         try {
-            return reservationDAO.findTodayCheckOuts();
+            return RequestCache.memoize(reservationDAO::findTodayCheckOuts, "ReservationService.getTodayCheckOuts");
         } catch (SQLException e) {
             logger.error("Error getting today's check-outs", e);
             return List.of();
@@ -377,12 +612,68 @@ public class ReservationService {
     
     /**
      * Generate unique reservation number
-     * Format: RES-YYYY-XXXX
+     * Format: RES- followed by a 13-character base32 ID
      * @return Reservation number
      */
     private String generateReservationNumber() {
-        String year = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyy"));
-        long timestamp = System.currentTimeMillis() % 10000;
-        return String.format("RES-%s-%04d", year, timestamp);
+        return IdGenerator.getInstance().nextNumber("RES-");
+    }
+    
+    /**
+     * Queue an audit log for a reservation once the current unit of work commits
+     * @param action Audit action
+     * @param reservationId Reservation ID
+     * @param actingUserId User who made the change, or null for the system
+     */
+    private void audit(String action, int reservationId, Integer actingUserId) {
+        if (config.isAuditLoggingEnabled()) {
+            TransactionTemplate.afterCommit(() ->
+                auditLogWriter.submit(new AuditLog(actingUserId, action, "RESERVATION", reservationId)));
+        }
+    }
+    
+    /**
+     * Drop a reservation's cached PDFs once the current unit of work commits
+     * @param reservationId Reservation ID
+     */
+    private void documentsChanged(int reservationId) {
+        TransactionTemplate.afterCommit(() -> pdfRenderService.invalidateReservation(reservationId));
+    }
+    
+    /**
+     * Queue a confirmation or cancellation email to the guest in the current
+     * unit of work, so it is only sent if the status change commits
+     * @param reservation Reservation that changed
+     * @param confirmed true for a confirmation, false for a cancellation
+     */
+    private void notifyGuest(Reservation reservation, boolean confirmed) throws SQLException {
+        if (!config.isEmailNotificationsEnabled()) {
+            return;
+        }
+        Optional<Guest> guest = guestDAO.findById(reservation.getGuestId());
+        Optional<User> user = guest.isPresent() && guest.get().getUserId() != null
+                ? userDAO.findById(guest.get().getUserId()) : Optional.empty();
+        if (user.isEmpty()) {
+            logger.warn("No email for guest ID: {}, reservation {}", reservation.getGuestId(),
+                       reservation.getReservationNumber());
+            return;
+        }
+        if (confirmed) {
+            emailService.enqueueBookingConfirmation(user.get(), reservation);
+        } else {
+            emailService.enqueueCancellation(user.get(), reservation);
+        }
+    }
+    
+    /**
+     * Give a stay's nights back to the inventory ledger of its room type
+     * @param reservation Stay that no longer holds its room
+     */
+    private void releaseInventory(Reservation reservation) throws SQLException {
+        Optional<Room> roomOpt = roomCache.findById(reservation.getRoomId());
+        if (roomOpt.isPresent()) {
+            inventoryDAO.release(roomOpt.get().getRoomType(), reservation.getCheckInDate(),
+                                 reservation.getCheckOutDate());
+        }
     }
 }
@@ -1,7 +1,13 @@
 package com.oceanview.service;
 
+import com.oceanview.dao.InventoryDAO;
+import com.oceanview.dao.RoomCache;
 import com.oceanview.dao.RoomDAO;
+import com.oceanview.dao.TransactionTemplate;
 import com.oceanview.model.Room;
+import com.oceanview.tracing.Span;
+import com.oceanview.tracing.Tracer;
+import com.oceanview.util.RequestCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -21,12 +27,20 @@ public class RoomService {
     
     private static final Logger logger = LoggerFactory.getLogger(RoomService.class);
     private final RoomDAO roomDAO;
+    private final RoomCache roomCache;
+    private final InventoryDAO inventoryDAO;
+    private final AvailabilityIndex availabilityIndex;
+    private final TransactionTemplate transactionTemplate;
     
     /**
      * Constructor
      */
     public RoomService() {
         this.roomDAO = new RoomDAO();
+        this.roomCache = RoomCache.getInstance();
+        this.inventoryDAO = new InventoryDAO();
+        this.availabilityIndex = AvailabilityIndex.getInstance();
+        this.transactionTemplate = new TransactionTemplate();
     }
     
     /**
@@ -35,7 +49,8 @@ public class RoomService {
      * @return Room ID if successful, -1 if failed
      */
     public int createRoom(Room room) {
-        try {
+        try (Span span = Tracer.span("RoomService.createRoom")) {
+            span.tag("roomNumber", room.getRoomNumber());
             // Check if room number already exists
             Optional<Room> existingRoom = roomDAO.findByRoomNumber(room.getRoomNumber());
             if (existingRoom.isPresent()) {
@@ -44,9 +59,15 @@ public class RoomService {
                 return -1;
             }
             
-            int roomId = roomDAO.create(room);
+            int roomId = transactionTemplate.execute(() -> {
+                int id = roomDAO.create(room);
+                inventoryDAO.adjustTotal(room.getRoomType(), LocalDate.now(), 1);
+                return id;
+            });
             
             if (roomId > 0) {
+                room.setRoomId(roomId);
+                availabilityIndex.roomChanged(room);
                 logger.info("Room created successfully: {}", room.getRoomNumber());
             }
             
@@ -64,10 +85,21 @@ public class RoomService {
      * @return true if successful
      */
     public boolean updateRoom(Room room) {
-        try {
-            boolean success = roomDAO.update(room);
+        try (Span span = Tracer.span("RoomService.updateRoom")) {
+            span.tag("roomId", room.getRoomId());
+            boolean success = transactionTemplate.execute(() -> {
+                Optional<Room> before = roomDAO.findById(room.getRoomId());
+                boolean updated = roomDAO.update(room);
+                if (updated && before.isPresent() && before.get().getRoomType() != room.getRoomType()) {
+                    // The room now counts towards another type in the inventory ledger
+                    inventoryDAO.adjustTotal(before.get().getRoomType(), LocalDate.now(), -1);
+                    inventoryDAO.adjustTotal(room.getRoomType(), LocalDate.now(), 1);
+                }
+                return updated;
+            });
             
             if (success) {
+                availabilityIndex.roomChanged(room);
                 logger.info("Room updated successfully: ID={}", room.getRoomId());
             }
             
@@ -90,6 +122,7 @@ public class RoomService {
             boolean success = roomDAO.updateStatus(roomId, status);
             
             if (success) {
+                availabilityIndex.roomStatusChanged(roomId, status);
                 logger.info("Room status updated: ID={}, status={}", roomId, status);
             }
             
@@ -107,10 +140,19 @@ public class RoomService {
      * @return true if successful
      */
     public boolean deleteRoom(int roomId) {
-        try {
-            boolean success = roomDAO.delete(roomId);
+        try (Span span = Tracer.span("RoomService.deleteRoom")) {
+            span.tag("roomId", roomId);
+            boolean success = transactionTemplate.execute(() -> {
+                Optional<Room> before = roomDAO.findById(roomId);
+                boolean deleted = roomDAO.delete(roomId);
+                if (deleted && before.isPresent()) {
+                    inventoryDAO.adjustTotal(before.get().getRoomType(), LocalDate.now(), -1);
+                }
+                return deleted;
+            });
             
             if (success) {
+                availabilityIndex.roomRemoved(roomId);
                 logger.info("Room deleted successfully: ID={}", roomId);
             }
             
@@ -129,7 +171,7 @@ public class RoomService {
      */
     public Optional<Room> getRoomById(int roomId) {
         try {
-            return roomDAO.findById(roomId);
+            return roomCache.findById(roomId);
         } catch (SQLException e) {
             logger.error("Error getting room by ID: {}", roomId, e);
             return Optional.empty();
@@ -143,7 +185,7 @@ public class RoomService {
      */
     public Optional<Room> getRoomByNumber(String roomNumber) {
         try {
-            return roomDAO.findByRoomNumber(roomNumber);
+            return roomCache.findByRoomNumber(roomNumber);
         } catch (SQLException e) {
             logger.error("Error getting room by number: {}", roomNumber, e);
             return Optional.empty();
@@ -156,7 +198,7 @@ public class RoomService {
      */
     public List<Room> getAllRooms() {
         try {
-            return roomDAO.findAll();
+            return roomCache.findAll();
         } catch (SQLException e) {
             logger.error("Error getting all rooms", e);
             return List.of();
@@ -170,7 +212,7 @@ public class RoomService {
      */
     public List<Room> getRoomsByType(Room.RoomType roomType) {
         try {
-            return roomDAO.findByType(roomType);
+            return roomCache.findByType(roomType);
         } catch (SQLException e) {
             logger.error("Error getting rooms by type: {}", roomType, e);
             return List.of();
@@ -183,7 +225,7 @@ public class RoomService {
      */
     public List<Room> getAvailableRooms() {
         try {
-            return roomDAO.findAvailableRooms();
+            return roomCache.findAvailableRooms();
         } catch (SQLException e) {
             logger.error("Error getting available rooms", e);
             return List.of();
@@ -197,7 +239,8 @@ public class RoomService {
      * @return List of available rooms
      */
     public List<Room> searchAvailableRooms(LocalDate checkIn, LocalDate checkOut) {
-        try {
+        try (Span span = Tracer.span("RoomService.searchAvailableRooms")) {
+            span.tag("checkIn", checkIn).tag("checkOut", checkOut);
             // Validate dates
             if (checkIn.isBefore(LocalDate.now())) {
                 logger.warn("Search failed: Check-in date is in the past");
@@ -209,7 +252,13 @@ public class RoomService {
                 return List.of();
             }
             
-            return roomDAO.findAvailableRoomsByDate(checkIn, checkOut);
+            Optional<List<Room>> indexed = availabilityIndex.findAvailableRooms(null, checkIn, checkOut);
+            if (indexed.isPresent()) {
+                return indexed.get();
+            }
+            
+            return RequestCache.memoize(() -> roomDAO.findAvailableRoomsByDate(checkIn, checkOut),
+                                        "RoomService.searchAvailableRooms", checkIn, checkOut);
             
         } catch (SQLException e) {
             logger.error("Error searching available rooms", e);
@@ -227,7 +276,8 @@ public class RoomService {
     public List<Room> searchAvailableRoomsByType(Room.RoomType roomType, 
                                                   LocalDate checkIn, 
                                                   LocalDate checkOut) {
-        try {
+        try (Span span = Tracer.span("RoomService.searchAvailableRoomsByType")) {
+            span.tag("roomType", roomType).tag("checkIn", checkIn).tag("checkOut", checkOut);
             // Validate dates
             if (checkIn.isBefore(LocalDate.now())) {
                 logger.warn("Search failed: Check-in date is in the past");
@@ -239,7 +289,13 @@ public class RoomService {
                 return List.of();
             }
             
-            return roomDAO.findAvailableRoomsByTypeAndDate(roomType, checkIn, checkOut);
+            Optional<List<Room>> indexed = availabilityIndex.findAvailableRooms(roomType, checkIn, checkOut);
+            if (indexed.isPresent()) {
+                return indexed.get();
+            }
+            
+            return RequestCache.memoize(() -> roomDAO.findAvailableRoomsByTypeAndDate(roomType, checkIn, checkOut),
+                                        "RoomService.searchAvailableRoomsByType", roomType, checkIn, checkOut);
             
         } catch (SQLException e) {
             logger.error("Error searching available rooms by type", e);
@@ -253,12 +309,24 @@ public class RoomService {
      */
     public int[] getRoomStatistics() {
         try {
+            // Counted from the cached catalog, which room status changes invalidate
             int[] stats = new int[4];
-            stats[0] = roomDAO.countByStatus(Room.RoomStatus.AVAILABLE);
-            stats[1] = roomDAO.countByStatus(Room.RoomStatus.OCCUPIED);
-            stats[2] = roomDAO.countByStatus(Room.RoomStatus.RESERVED);
-            stats[3] = roomDAO.countByStatus(Room.RoomStatus.MAINTENANCE);
-            
+            for (Room room : roomCache.findAll()) {
+                switch (room.getStatus()) {
+                    case AVAILABLE:
+                        stats[0]++;
+                        break;
+                    case OCCUPIED:
+                        stats[1]++;
+                        break;
+                    case RESERVED:
+                        stats[2]++;
+                        break;
+                    case MAINTENANCE:
+                        stats[3]++;
+                        break;
+                }
+            }
             return stats;
             
         } catch (SQLException e) {
@@ -0,0 +1,104 @@
+package com.oceanview.service;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * SMTP Transport Pool
+ * Keeps connected SMTP transports between messages so a send does not pay
+ * for a new TCP connection, STARTTLS handshake and login every time.
+ * 
+ * A borrowed transport is checked with isConnected(), which sends a NOOP,
+ * and reconnected if the server has dropped it. A transport that failed a
+ * send is closed instead of returned. At most maxIdle transports are kept.
+ * 
+ * @author Ocean View Resort Development Team
+ * @version 1.0.0
+ */
+class SmtpTransportPool {
+    
+    private static final Logger logger = LoggerFactory.getLogger(SmtpTransportPool.class);
+    
+    private final Session session;
+    private final BlockingQueue<Transport> idle;
+    private final AtomicLong connects = new AtomicLong();
+    
+    /**
+     * Constructor
+     * @param session Mail session with the SMTP host, port and authenticator
+     * @param maxIdle Maximum transports kept open
+     */
+    SmtpTransportPool(Session session, int maxIdle) {
+        this.session = session;
+        this.idle = new ArrayBlockingQueue<>(Math.max(1, maxIdle));
+    }
+    
+    /**
+     * Take a connected transport, opening one if none is idle
+     * @return Connected transport
+     * @throws MessagingException if the server cannot be reached
+     */
+    Transport borrow() throws MessagingException {
+        Transport transport = idle.poll();
+        if (transport != null && transport.isConnected()) {
+            return transport;
+        }
+        if (transport == null) {
+            transport = session.getTransport("smtp");
+        }
+        transport.connect();
+        connects.incrementAndGet();
+        logger.debug("SMTP connection opened");
+        return transport;
+    }
+    
+    /**
+     * Give back a transport after a successful send
+     * @param transport Transport from borrow()
+     */
+    void release(Transport transport) {
+        if (!idle.offer(transport)) {
+            closeQuietly(transport);
+        }
+    }
+    
+    /**
+     * Discard a transport after a failed send
+     * @param transport Transport from borrow()
+     */
+    void invalidate(Transport transport) {
+        closeQuietly(transport);
+    }
+    
+    /**
+     * Close every idle transport
+     */
+    void close() {
+        Transport transport;
+        while ((transport = idle.poll()) != null) {
+            closeQuietly(transport);
+        }
+    }
+    
+    /**
+     * @return SMTP connections opened since startup
+     */
+    long getConnectCount() {
+        return connects.get();
+    }
+    
+    private static void closeQuietly(Transport transport) {
+        try {
+            transport.close();
+        } catch (MessagingException e) {
+            logger.debug("Error closing SMTP connection", e);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.oceanview.tracing;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Span - one timed step of a trace
+ * Opened with {@link Tracer#span(String)} in a try-with-resources block and
+ * closed when the step ends. While open it is the current span of its
+ * thread, so spans opened inside it become its children.
+ * 
+ * Outside a trace Tracer hands out {@link #NOOP}, on which every method
+ * does nothing, so instrumented code needs no checks of its own.
+ * 
+ * @author Ocean View Resort Development Team
+ * @version 1.0.0
+ */
+public final class Span implements AutoCloseable {
+    
+    /**
+     * Span returned when there is no trace to record into
+     */
+    public static final Span NOOP = new Span(null, 0, 0, "", null);
+    
+    private static final int MAX_TAG_LENGTH = 200;
+    
+    private final Trace trace;
+    private final int id;
+    private final int parentId;
+    private final long startNanos;
+    private final String thread;
+    private final Span previous;
+    private String name;
+    private Map<String, String> tags;
+    private long durationNanos = -1;
+    
+    Span(Trace trace, int id, int parentId, String name, Span previous) {
+        this.trace = trace;
+        this.id = id;
+        this.parentId = parentId;
+        this.name = name;
+        this.previous = previous;
+        this.startNanos = System.nanoTime();
+        this.thread = trace != null ? Thread.currentThread().getName() : "";
+    }
+    
+    /**
+     * Attach a value to the span; long values are cut to 200 characters
+     * @param key Tag name
+     * @param value Tag value, shown with toString()
+     * @return This span
+     */
+    public Span tag(String key, Object value) {
+        if (trace == null || value == null) {
+            return this;
+        }
+        if (tags == null) {
+            tags = new LinkedHashMap<>();
+        }
+        String text = value.toString();
+        tags.put(key, text.length() > MAX_TAG_LENGTH ? text.substring(0, MAX_TAG_LENGTH) : text);
+        return this;
+    }
+    
+    /**
+     * Give the span a name known only once the step has run, such as the
+     * servlet that handled a request
+     * @param name New name
+     * @return This span
+     */
+    public Span rename(String name) {
+        if (trace != null && name != null) {
+            this.name = name;
+        }
+        return this;
+    }
+    
+    /**
+     * Record a failure of the step
+     * @param failure Exception thrown
+     * @return This span
+     */
+    public Span error(Throwable failure) {
+        return tag("error", failure.getClass().getSimpleName());
+    }
+    
+    /**
+     * End the span; the root span ends its trace. Closing twice has no effect.
+     */
+    @Override
+    public void close() {
+        if (trace == null || durationNanos >= 0) {
+            return;
+        }
+        durationNanos = System.nanoTime() - startNanos;
+        Tracer.restore(this, previous);
+        trace.finished(this);
+    }
+    
+    /**
+     * @return Id of the trace, or null for {@link #NOOP}
+     */
+    public String getTraceId() {
+        return trace != null ? trace.getTraceId() : null;
+    }
+    
+    public int getId() {
+        return id;
+    }
+    
+    /**
+     * @return Id of the enclosing span, 0 for the root
+     */
+    public int getParentId() {
+        return parentId;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public String getThread() {
+        return thread;
+    }
+    
+    /**
+     * @return Start relative to the start of the trace
+     */
+    public long getOffsetNanos() {
+        return startNanos - trace.getStartNanos();
+    }
+    
+    /**
+     * @return Duration, or -1 while the span is open
+     */
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+    
+    public Map<String, String> getTags() {
+        return tags != null ? tags : Collections.emptyMap();
+    }
+    
+    Trace getTrace() {
+        return trace;
+    }
+    
+    long getStartNanos() {
+        return startNanos;
+    }
+}
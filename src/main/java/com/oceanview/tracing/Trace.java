@@ -0,0 +1,125 @@
+package com.oceanview.tracing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Trace - the spans of one request or background job
+ * Spans are added as they close, from any thread that took part. Once the
+ * root span closes the trace is complete and handed to the exporter;
+ * spans closing after that are not recorded.
+ * 
+ * @author Ocean View Resort Development Team
+ * @version 1.0.0
+ */
+public final class Trace {
+    
+    private final String traceId;
+    private final long startEpochMicros;
+    private final long startNanos;
+    private final int maxSpans;
+    private final Consumer<Trace> sink;
+    private final AtomicInteger nextId = new AtomicInteger();
+    private final List<Span> spans = new ArrayList<>();
+    private int droppedSpans;
+    private Span root;
+    private boolean complete;
+    
+    Trace(int maxSpans, Consumer<Trace> sink) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        this.traceId = hex(random.nextLong()) + hex(random.nextLong());
+        this.startEpochMicros = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+        this.startNanos = System.nanoTime();
+        this.maxSpans = maxSpans;
+        this.sink = sink;
+    }
+    
+    /**
+     * Number a new span
+     * @return Span id, or 0 once the trace holds maxSpans spans
+     */
+    int nextSpanId() {
+        int id = nextId.incrementAndGet();
+        if (id > maxSpans) {
+            synchronized (this) {
+                droppedSpans++;
+            }
+            return 0;
+        }
+        return id;
+    }
+    
+    void started(Span root) {
+        this.root = root;
+    }
+    
+    void finished(Span span) {
+        boolean ended;
+        synchronized (this) {
+            if (complete) {
+                return;
+            }
+            spans.add(span);
+            complete = span == root;
+            ended = complete;
+        }
+        if (ended) {
+            sink.accept(this);
+        }
+    }
+    
+    /**
+     * @return 32 hex digit trace id, also put in the log MDC as traceId
+     */
+    public String getTraceId() {
+        return traceId;
+    }
+    
+    /**
+     * @return Wall-clock start in microseconds since the epoch
+     */
+    public long getStartEpochMicros() {
+        return startEpochMicros;
+    }
+    
+    /**
+     * @return Root span, which names the request or job
+     */
+    public Span getRoot() {
+        return root;
+    }
+    
+    /**
+     * @return Time from the root span opening to it closing
+     */
+    public long getDurationNanos() {
+        return root.getDurationNanos();
+    }
+    
+    /**
+     * @return Recorded spans in the order they closed
+     */
+    public synchronized List<Span> getSpans() {
+        return new ArrayList<>(spans);
+    }
+    
+    /**
+     * @return Spans not recorded because the trace was full
+     */
+    public synchronized int getDroppedSpans() {
+        return droppedSpans;
+    }
+    
+    long getStartNanos() {
+        return startNanos;
+    }
+    
+    private static String hex(long value) {
+        String digits = Long.toHexString(value);
+        return "0000000000000000".substring(digits.length()) + digits;
+    }
+}
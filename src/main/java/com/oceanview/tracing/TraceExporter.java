@@ -0,0 +1,346 @@
+package com.oceanview.tracing;
+
+import com.oceanview.config.AppConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Trace Exporter - Singleton Pattern
+ * Writes traces that took at least tracing.thresholdMillis to
+ * tracing.file, one JSON object per line:
+ * <pre>
+ * {"traceId":"...","name":"GET /reservation","timestamp":1700000000000000,"duration":812345,
+ *  "droppedSpans":0,"spans":[{"id":1,"parentId":0,"name":"GET /reservation","offset":0,
+ *  "duration":812345,"thread":"http-nio-8080-exec-3","tags":{"status":"200"}}, ...]}
+ * </pre>
+ * timestamp is microseconds since the epoch; offset (from the start of the
+ * trace) and duration are microseconds. Spans are listed in the order they
+ * closed and linked by parentId.
+ * 
+ * Completed traces are queued (up to tracing.queueCapacity, further ones
+ * are dropped) and written by a background thread once a second, so the
+ * request never waits on the file. When the file reaches
+ * tracing.maxFileMB it is rolled to traces.1.jsonl, traces.2.jsonl and so
+ * on, keeping tracing.maxFiles old files.
+ * 
+ * @author Ocean View Resort Development Team
+ * @version 1.0.0
+ */
+public class TraceExporter {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TraceExporter.class);
+    private static final long FLUSH_MILLIS = 1000;
+    private static TraceExporter instance;
+    
+    private final Path file;
+    private final long thresholdNanos;
+    private final long maxFileBytes;
+    private final int maxFiles;
+    private final int capacity;
+    private final int maxSpans;
+    
+    private final Queue<Trace> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger depth = new AtomicInteger();
+    private final AtomicLong exported = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final Object writeLock = new Object();
+    private BufferedWriter writer;
+    private long fileBytes;
+    private ScheduledExecutorService scheduler;
+    
+    /**
+     * Constructor
+     * @param file File traces are appended to
+     * @param thresholdMillis Traces shorter than this are not written
+     * @param maxFileBytes Size at which the file is rolled
+     * @param maxFiles Rolled files kept
+     * @param capacity Traces that may wait to be written
+     * @param maxSpans Most spans kept per trace
+     */
+    TraceExporter(Path file, long thresholdMillis, long maxFileBytes, int maxFiles, int capacity, int maxSpans) {
+        this.file = file;
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, thresholdMillis));
+        this.maxFileBytes = Math.max(1, maxFileBytes);
+        this.maxFiles = Math.max(0, maxFiles);
+        this.capacity = Math.max(1, capacity);
+        this.maxSpans = maxSpans;
+    }
+    
+    /**
+     * Get singleton instance
+     * @return TraceExporter instance
+     */
+    public static synchronized TraceExporter getInstance() {
+        if (instance == null) {
+            AppConfig config = AppConfig.getInstance();
+            instance = new TraceExporter(Paths.get(config.getTracingFile()), config.getTracingThresholdMillis(),
+                                         config.getTracingMaxFileMB() * 1024L * 1024L,
+                                         config.getTracingMaxFiles(), config.getTracingQueueCapacity(),
+                                         config.getTracingMaxSpans());
+        }
+        return instance;
+    }
+    
+    /**
+     * Start tracing requests and writing slow traces, if tracing.enabled
+     */
+    public synchronized void start() {
+        if (scheduler != null || !AppConfig.getInstance().isTracingEnabled()) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "trace-exporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, FLUSH_MILLIS, FLUSH_MILLIS, TimeUnit.MILLISECONDS);
+        Tracer.install(this::submit, maxSpans);
+        logger.info("Tracing started: traces of {} ms or more written to {}",
+                    TimeUnit.NANOSECONDS.toMillis(thresholdNanos), file.toAbsolutePath());
+    }
+    
+    /**
+     * Stop tracing and write what is still queued
+     */
+    public synchronized void stop() {
+        if (scheduler == null) {
+            return;
+        }
+        Tracer.install(null, maxSpans);
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        scheduler = null;
+        flushQuietly();
+        synchronized (writeLock) {
+            closeWriter();
+        }
+        logger.info("Tracing stopped: {} traces exported, {} dropped", exported.get(), dropped.get());
+    }
+    
+    /**
+     * Queue a completed trace if it was slow enough
+     * @param trace Completed trace
+     */
+    public void submit(Trace trace) {
+        if (trace.getDurationNanos() < thresholdNanos) {
+            return;
+        }
+        if (depth.incrementAndGet() > capacity) {
+            depth.decrementAndGet();
+            dropped.incrementAndGet();
+            return;
+        }
+        queue.offer(trace);
+    }
+    
+    /**
+     * Write every queued trace
+     * @return Traces written
+     * @throws IOException if the file cannot be written; the trace being written is lost
+     */
+    public int flush() throws IOException {
+        synchronized (writeLock) {
+            int count = 0;
+            Trace trace;
+            while ((trace = queue.poll()) != null) {
+                depth.decrementAndGet();
+                write(toJson(trace));
+                count++;
+            }
+            if (writer != null) {
+                writer.flush();
+            }
+            exported.addAndGet(count);
+            return count;
+        }
+    }
+    
+    /**
+     * @return Traces written since startup
+     */
+    public long getExportedCount() {
+        return exported.get();
+    }
+    
+    /**
+     * @return Slow traces not written because the queue was full
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+    
+    /**
+     * Format a trace as one line of JSON
+     * @param trace Completed trace
+     * @return JSON object without a line break
+     */
+    static String toJson(Trace trace) {
+        StringBuilder out = new StringBuilder(256);
+        out.append("{\"traceId\":\"").append(trace.getTraceId()).append('"');
+        out.append(",\"name\":");
+        string(out, trace.getRoot().getName());
+        out.append(",\"timestamp\":").append(trace.getStartEpochMicros());
+        out.append(",\"duration\":").append(micros(trace.getDurationNanos()));
+        out.append(",\"droppedSpans\":").append(trace.getDroppedSpans());
+        out.append(",\"spans\":[");
+        boolean first = true;
+        for (Span span : trace.getSpans()) {
+            if (!first) {
+                out.append(',');
+            }
+            first = false;
+            out.append("{\"id\":").append(span.getId());
+            out.append(",\"parentId\":").append(span.getParentId());
+            out.append(",\"name\":");
+            string(out, span.getName());
+            out.append(",\"offset\":").append(micros(span.getOffsetNanos()));
+            out.append(",\"duration\":").append(micros(span.getDurationNanos()));
+            out.append(",\"thread\":");
+            string(out, span.getThread());
+            if (!span.getTags().isEmpty()) {
+                out.append(",\"tags\":{");
+                boolean firstTag = true;
+                for (Map.Entry<String, String> tag : span.getTags().entrySet()) {
+                    if (!firstTag) {
+                        out.append(',');
+                    }
+                    firstTag = false;
+                    string(out, tag.getKey());
+                    out.append(':');
+                    string(out, tag.getValue());
+                }
+                out.append('}');
+            }
+            out.append('}');
+        }
+        return out.append("]}").toString();
+    }
+    
+    private void write(String line) throws IOException {
+        long bytes = line.getBytes(StandardCharsets.UTF_8).length + 1;
+        if (writer != null && fileBytes + bytes > maxFileBytes) {
+            closeWriter();
+            roll();
+        }
+        if (writer == null) {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                                             StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            fileBytes = Files.size(file);
+        }
+        writer.write(line);
+        writer.write('\n');
+        fileBytes += bytes;
+    }
+    
+    /**
+     * traces.jsonl becomes traces.1.jsonl, traces.1.jsonl becomes
+     * traces.2.jsonl and so on; the oldest beyond maxFiles is deleted
+     */
+    private void roll() throws IOException {
+        if (maxFiles == 0) {
+            Files.deleteIfExists(file);
+            return;
+        }
+        Files.deleteIfExists(rolled(maxFiles));
+        for (int i = maxFiles - 1; i >= 1; i--) {
+            if (Files.exists(rolled(i))) {
+                Files.move(rolled(i), rolled(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        Files.move(file, rolled(1), StandardCopyOption.REPLACE_EXISTING);
+    }
+    
+    private Path rolled(int index) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String rolledName = dot > 0
+            ? name.substring(0, dot) + "." + index + name.substring(dot)
+            : name + "." + index;
+        return file.resolveSibling(rolledName);
+    }
+    
+    private void closeWriter() {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.close();
+        } catch (IOException e) {
+            logger.warn("Error closing trace file", e);
+        }
+        writer = null;
+    }
+    
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (IOException e) {
+            logger.error("Error writing traces to {}", file, e);
+            synchronized (writeLock) {
+                closeWriter();
+            }
+        } catch (RuntimeException e) {
+            logger.error("Trace export failed", e);
+        }
+    }
+    
+    private static long micros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+    
+    private static void string(StringBuilder out, String value) {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    out.append("\\\"");
+                    break;
+                case '\\':
+                    out.append("\\\\");
+                    break;
+                case '\n':
+                    out.append("\\n");
+                    break;
+                case '\r':
+                    out.append("\\r");
+                    break;
+                case '\t':
+                    out.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+            }
+        }
+        out.append('"');
+    }
+}
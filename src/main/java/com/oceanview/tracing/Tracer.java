@@ -0,0 +1,151 @@
+package com.oceanview.tracing;
+
+import org.slf4j.MDC;
+
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
+
+/**
+ * Tracer - in-process request tracing
+ * LoggingFilter starts a trace for every request with {@link #startTrace};
+ * its id goes into the log MDC as traceId and the open span is bound to the
+ * request thread. Filters, servlets, services, DAOs, PDF rendering and email
+ * open child spans with {@link #span}:
+ * <pre>
+ * try (Span span = Tracer.span("ReservationService.checkIn")) {
+ *     ...
+ * }
+ * </pre>
+ * Work handed to another thread joins the trace through {@link #wrap}.
+ * 
+ * Nothing is recorded until a sink is installed (TraceExporter does this
+ * when tracing.enabled), and code running outside a trace gets
+ * {@link Span#NOOP}, so the calls cost a thread-local read when idle.
+ * 
+ * @author Ocean View Resort Development Team
+ * @version 1.0.0
+ */
+public final class Tracer {
+    
+    /**
+     * MDC key holding the current trace id
+     */
+    public static final String MDC_TRACE_ID = "traceId";
+    
+    private static final ThreadLocal<Span> CURRENT = new ThreadLocal<>();
+    private static volatile Consumer<Trace> sink;
+    private static volatile int maxSpans = 500;
+    
+    private Tracer() {
+    }
+    
+    /**
+     * Record completed traces
+     * @param traceSink Receives every trace when its root span closes; null stops tracing
+     * @param maxSpansPerTrace Most spans kept per trace
+     */
+    public static void install(Consumer<Trace> traceSink, int maxSpansPerTrace) {
+        maxSpans = Math.max(1, maxSpansPerTrace);
+        sink = traceSink;
+    }
+    
+    /**
+     * Start a trace on the current thread, or a child span if one is
+     * already running
+     * @param name Name of the request or job
+     * @return Root span; closing it completes the trace
+     */
+    public static Span startTrace(String name) {
+        Consumer<Trace> traceSink = sink;
+        if (traceSink == null) {
+            return Span.NOOP;
+        }
+        if (CURRENT.get() != null) {
+            return span(name);
+        }
+        Trace trace = new Trace(maxSpans, traceSink);
+        Span root = new Span(trace, trace.nextSpanId(), 0, name, null);
+        trace.started(root);
+        CURRENT.set(root);
+        MDC.put(MDC_TRACE_ID, trace.getTraceId());
+        return root;
+    }
+    
+    /**
+     * Open a span as a child of the current one
+     * @param name Step name, e.g. RoomDAO.findById
+     * @return New span, or {@link Span#NOOP} outside a trace
+     */
+    public static Span span(String name) {
+        Span parent = CURRENT.get();
+        if (parent == null) {
+            return Span.NOOP;
+        }
+        int id = parent.getTrace().nextSpanId();
+        if (id == 0) {
+            return Span.NOOP;
+        }
+        Span span = new Span(parent.getTrace(), id, parent.getId(), name, parent);
+        CURRENT.set(span);
+        return span;
+    }
+    
+    /**
+     * @return Span open on this thread, or {@link Span#NOOP}
+     */
+    public static Span current() {
+        Span span = CURRENT.get();
+        return span != null ? span : Span.NOOP;
+    }
+    
+    /**
+     * Carry the current trace into work run on another thread, so spans the
+     * task opens become children of the span open now
+     * @param task Task to run elsewhere
+     * @return Task that runs inside the trace, or the task itself outside one
+     */
+    public static <T> Callable<T> wrap(Callable<T> task) {
+        Span parent = CURRENT.get();
+        if (parent == null) {
+            return task;
+        }
+        return () -> {
+            Span saved = CURRENT.get();
+            String savedId = MDC.get(MDC_TRACE_ID);
+            CURRENT.set(parent);
+            MDC.put(MDC_TRACE_ID, parent.getTraceId());
+            try {
+                return task.call();
+            } finally {
+                restore(null, saved);
+                if (savedId != null) {
+                    MDC.put(MDC_TRACE_ID, savedId);
+                } else {
+                    MDC.remove(MDC_TRACE_ID);
+                }
+            }
+        };
+    }
+    
+    /**
+     * Make previous the current span again when span closes. The root span
+     * has no previous span; closing it always clears the thread and the MDC,
+     * even if a child was left open, so a pooled thread never carries a
+     * finished trace into its next request.
+     */
+    static void restore(Span span, Span previous) {
+        if (span != null && previous == null) {
+            CURRENT.remove();
+            MDC.remove(MDC_TRACE_ID);
+            return;
+        }
+        if (span != null && CURRENT.get() != span) {
+            return;
+        }
+        if (previous != null) {
+            CURRENT.set(previous);
+        } else {
+            CURRENT.remove();
+        }
+    }
+}
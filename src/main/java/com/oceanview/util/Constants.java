@@ -106,6 +106,7 @@ public class Constants {
     public static final String ATTR_SUCCESS = "success";
     public static final String ATTR_MESSAGE = "message";
     public static final String ATTR_DATA = "data";
+    public static final String ATTR_PAGE = "pagination";
     
     // ========================================
     // VALIDATION MESSAGES
@@ -159,6 +160,8 @@ public class Constants {
     // ========================================
     public static final int DEFAULT_PAGE_SIZE = 10;
     public static final int MAX_PAGE_SIZE = 100;
+    public static final String PARAM_CURSOR = "cursor";
+    public static final String PARAM_PAGE_SIZE = "size";
     
     // ========================================
     // FILE UPLOAD
@@ -0,0 +1,230 @@
+package com.oceanview.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * HTML Template - a template compiled once and rendered many times
+ * The source is split when it is compiled into static chunks and
+ * placeholders written {{name}} or {{name:type}}. Rendering to a string
+ * appends the chunks and the formatted values to a builder kept per thread;
+ * rendering to a stream writes chunks already encoded as UTF-8. Either way
+ * the template text is never parsed or rebuilt again.
+ * 
+ * Placeholder types:
+ * text   - any value, HTML escaped (the default)
+ * number - a Number, written as is
+ * money  - a Number, written with two decimals
+ * A missing or null value renders as nothing.
+ * 
+ * @author Ocean View Resort Development Team
+ * @version 1.0.0
+ */
+public final class HtmlTemplate {
+    
+    /**
+     * How a placeholder value is written
+     */
+    public enum Type { TEXT, NUMBER, MONEY }
+    
+    private static final int MAX_RETAINED_BUFFER = 64 * 1024;
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(8 * 1024));
+    
+    private final String name;
+    private final String[] chunks;
+    private final byte[][] encodedChunks;
+    private final String[] names;
+    private final Type[] types;
+    private final int length;
+    
+    private HtmlTemplate(String name, String[] chunks, String[] names, Type[] types) {
+        this.name = name;
+        this.chunks = chunks;
+        this.encodedChunks = new byte[chunks.length][];
+        int total = 0;
+        for (int i = 0; i < chunks.length; i++) {
+            encodedChunks[i] = chunks[i].getBytes(StandardCharsets.UTF_8);
+            total += chunks[i].length();
+        }
+        this.names = names;
+        this.types = types;
+        this.length = total;
+    }
+    
+    /**
+     * Load and compile a UTF-8 template from the classpath
+     * @param resource Resource path, e.g. templates/email/welcome.html
+     * @return Compiled template
+     * @throws IllegalStateException if the resource does not exist
+     * @throws IllegalArgumentException if the template is malformed
+     */
+    public static HtmlTemplate load(String resource) {
+        try (InputStream in = HtmlTemplate.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("Template not found: " + resource);
+            }
+            return compile(resource, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read template: " + resource, e);
+        }
+    }
+    
+    /**
+     * Compile template source
+     * @param name Template name for error messages
+     * @param source Template text
+     * @return Compiled template
+     * @throws IllegalArgumentException if a placeholder is unclosed, empty or has an unknown type
+     */
+    public static HtmlTemplate compile(String name, String source) {
+        List<String> chunks = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        List<Type> types = new ArrayList<>();
+        int position = 0;
+        int open;
+        while ((open = source.indexOf("{{", position)) >= 0) {
+            int close = source.indexOf("}}", open + 2);
+            if (close < 0) {
+                throw new IllegalArgumentException(name + ": unclosed placeholder at offset " + open);
+            }
+            String placeholder = source.substring(open + 2, close).trim();
+            int colon = placeholder.indexOf(':');
+            String placeholderName = colon < 0 ? placeholder : placeholder.substring(0, colon).trim();
+            if (placeholderName.isEmpty()) {
+                throw new IllegalArgumentException(name + ": empty placeholder at offset " + open);
+            }
+            chunks.add(source.substring(position, open));
+            names.add(placeholderName);
+            types.add(colon < 0 ? Type.TEXT : parseType(name, placeholder.substring(colon + 1).trim()));
+            position = close + 2;
+        }
+        chunks.add(source.substring(position));
+        return new HtmlTemplate(name, chunks.toArray(new String[0]), names.toArray(new String[0]),
+                                types.toArray(new Type[0]));
+    }
+    
+    /**
+     * Render to a string
+     * @param values Placeholder values by name
+     * @return Rendered HTML
+     */
+    public String render(Map<String, ?> values) {
+        StringBuilder buffer = BUFFER.get();
+        buffer.setLength(0);
+        buffer.ensureCapacity(length + 256);
+        for (int i = 0; i < names.length; i++) {
+            buffer.append(chunks[i]);
+            Object value = values.get(names[i]);
+            if (value != null) {
+                buffer.append(types[i] == Type.TEXT ? escape(value.toString()) : format(i, value));
+            }
+        }
+        buffer.append(chunks[names.length]);
+        String html = buffer.toString();
+        if (buffer.capacity() > MAX_RETAINED_BUFFER) {
+            // Do not keep a buffer grown by an unusually large render
+            BUFFER.remove();
+        }
+        return html;
+    }
+    
+    /**
+     * Render straight to a stream
+     * @param values Placeholder values by name
+     * @param out Destination, not closed
+     * @throws IOException if the stream fails
+     */
+    public void render(Map<String, ?> values, OutputStream out) throws IOException {
+        for (int i = 0; i < names.length; i++) {
+            out.write(encodedChunks[i]);
+            Object value = values.get(names[i]);
+            if (value != null) {
+                String text = types[i] == Type.TEXT ? escape(value.toString()) : format(i, value);
+                out.write(text.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        out.write(encodedChunks[names.length]);
+    }
+    
+    /**
+     * @return Placeholder names in the order they appear
+     */
+    public Set<String> getPlaceholders() {
+        return new LinkedHashSet<>(Arrays.asList(names));
+    }
+    
+    /**
+     * @return Template name
+     */
+    public String getName() {
+        return name;
+    }
+    
+    private String format(int slot, Object value) {
+        Number number = number(slot, value);
+        if (types[slot] == Type.NUMBER) {
+            return number.toString();
+        }
+        BigDecimal amount = number instanceof BigDecimal ? (BigDecimal) number : new BigDecimal(number.toString());
+        return amount.setScale(2, RoundingMode.HALF_UP).toPlainString();
+    }
+    
+    private Number number(int slot, Object value) {
+        if (!(value instanceof Number)) {
+            throw new IllegalArgumentException(name + ": " + names[slot] + " must be a number, got "
+                                               + value.getClass().getSimpleName());
+        }
+        return (Number) value;
+    }
+    
+    /**
+     * Escape text for HTML; text with nothing to escape is returned as is
+     */
+    private static String escape(String text) {
+        int length = text.length();
+        int i = 0;
+        while (i < length && !needsEscape(text.charAt(i))) {
+            i++;
+        }
+        if (i == length) {
+            return text;
+        }
+        StringBuilder escaped = new StringBuilder(length + 16).append(text, 0, i);
+        for (; i < length; i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '&': escaped.append("&amp;"); break;
+                case '<': escaped.append("&lt;"); break;
+                case '>': escaped.append("&gt;"); break;
+                case '"': escaped.append("&quot;"); break;
+                case '\'': escaped.append("&#39;"); break;
+                default: escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+    
+    private static boolean needsEscape(char c) {
+        return c == '&' || c == '<' || c == '>' || c == '"' || c == '\'';
+    }
+    
+    private static Type parseType(String name, String type) {
+        switch (type) {
+            case "text": return Type.TEXT;
+            case "number": return Type.NUMBER;
+            case "money": return Type.MONEY;
+            default: throw new IllegalArgumentException(name + ": unknown placeholder type " + type);
+        }
+    }
+}
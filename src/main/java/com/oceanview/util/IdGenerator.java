@@ -0,0 +1,187 @@
+package com.oceanview.util;
+
+import com.oceanview.config.AppConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * ID Generator - Singleton Pattern
+ * Snowflake-style 63-bit identifiers for reservation and payment numbers:
+ * 41 bits of milliseconds since 2024-01-01, a 10-bit node id and a 12-bit
+ * per-millisecond sequence. IDs are unique across nodes as long as every
+ * node has its own id, and increase over time on each node. A derived node
+ * id is only accepted when app.nodes says the application runs on one node.
+ * 
+ * Generation is lock-free. The last (timestamp, sequence) pair lives in one
+ * AtomicLong and the next value is max(now, last + 1), published with a
+ * compare-and-set. When a millisecond's 4096 sequence numbers are used up,
+ * the generator moves on to the next millisecond instead of waiting for the
+ * clock. A clock that steps backwards is handled the same way.
+ * 
+ * IDs are encoded as 13 characters of Crockford base32 (no I, L, O or U).
+ * The width is fixed, so the text sorts in the same order as the numbers.
+ * 
+ * @author Ocean View Resort Development Team
+ * @version 1.0.0
+ */
+public class IdGenerator {
+    
+    private static final Logger logger = LoggerFactory.getLogger(IdGenerator.class);
+    private static IdGenerator instance;
+    
+    /** 2024-01-01T00:00:00Z */
+    static final long EPOCH_MILLIS = 1704067200000L;
+    
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int ENCODED_LENGTH = 13;
+    
+    private final int nodeId;
+    private final LongSupplier clock;
+    private final AtomicLong lastState = new AtomicLong();
+    
+    /**
+     * Constructor
+     * @param nodeId Node id, 0 to 1023, unique per application node
+     * @param clock Wall clock in epoch milliseconds
+     */
+    IdGenerator(int nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+        }
+        this.nodeId = nodeId;
+        this.clock = clock;
+    }
+    
+    /**
+     * Get singleton instance
+     * @return IdGenerator instance
+     */
+    public static synchronized IdGenerator getInstance() {
+        if (instance == null) {
+            AppConfig config = AppConfig.getInstance();
+            instance = new IdGenerator(resolveNodeId(config.getNodeId(), config.getNodeCount()),
+                                       System::currentTimeMillis);
+        }
+        return instance;
+    }
+    
+    /**
+     * Next unique ID
+     * @return Positive 63-bit ID
+     */
+    public long nextId() {
+        long now = (clock.getAsLong() - EPOCH_MILLIS) << SEQUENCE_BITS;
+        long last;
+        long next;
+        do {
+            last = lastState.get();
+            next = Math.max(now, last + 1);
+        } while (!lastState.compareAndSet(last, next));
+        
+        long timestamp = next >>> SEQUENCE_BITS;
+        long sequence = next & SEQUENCE_MASK;
+        return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | ((long) nodeId << SEQUENCE_BITS) | sequence;
+    }
+    
+    /**
+     * Next unique ID as a prefixed number, e.g. RES-01HQ3KX8Z0A5C
+     * @param prefix Number prefix such as RES- or PAY-
+     * @return Prefix followed by the 13-character encoded ID
+     */
+    public String nextNumber(String prefix) {
+        return prefix + encode(nextId());
+    }
+    
+    public int getNodeId() {
+        return nodeId;
+    }
+    
+    /**
+     * Encode a non-negative ID as 13 Crockford base32 characters
+     * @param id ID to encode
+     * @return Encoded ID
+     */
+    public static String encode(long id) {
+        if (id < 0) {
+            throw new IllegalArgumentException("ID must not be negative: " + id);
+        }
+        char[] chars = new char[ENCODED_LENGTH];
+        for (int i = ENCODED_LENGTH - 1; i >= 0; i--) {
+            chars[i] = ALPHABET[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(chars);
+    }
+    
+    /**
+     * Decode a Crockford base32 ID. Case-insensitive, and I/L read as 1
+     * and O as 0, so numbers read out over the phone still decode.
+     * @param encoded Encoded ID, without prefix
+     * @return Decoded ID
+     */
+    public static long decode(String encoded) {
+        if (encoded == null || encoded.isEmpty() || encoded.length() > ENCODED_LENGTH) {
+            throw new IllegalArgumentException("Invalid encoded ID: " + encoded);
+        }
+        long id = 0;
+        for (int i = 0; i < encoded.length(); i++) {
+            id = (id << 5) | decodeChar(encoded.charAt(i), encoded);
+        }
+        if (id < 0) {
+            throw new IllegalArgumentException("Invalid encoded ID: " + encoded);
+        }
+        return id;
+    }
+    
+    private static int decodeChar(char c, String encoded) {
+        char upper = Character.toUpperCase(c);
+        if (upper == 'O') {
+            return 0;
+        }
+        if (upper == 'I' || upper == 'L') {
+            return 1;
+        }
+        for (int i = 0; i < ALPHABET.length; i++) {
+            if (ALPHABET[i] == upper) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Invalid encoded ID: " + encoded);
+    }
+    
+    /**
+     * Use the configured node id, or derive one from the host name and
+     * process id when none is configured on a single node
+     * @param configured app.nodeId, or -1 if not set
+     * @param nodes app.nodes
+     * @throws IllegalStateException if several nodes run without app.nodeId,
+     *         since derived ids may collide
+     */
+    static int resolveNodeId(int configured, int nodes) {
+        if (configured >= 0) {
+            return configured;
+        }
+        if (nodes > 1) {
+            throw new IllegalStateException("app.nodeId must be set on every node when app.nodes is " + nodes);
+        }
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "localhost";
+        }
+        int derived = Math.floorMod((host + ":" + ProcessHandle.current().pid()).hashCode(), MAX_NODE_ID + 1);
+        logger.info("app.nodeId is not set, using node id {} derived from {}", derived, host);
+        return derived;
+    }
+}
@@ -0,0 +1,126 @@
+package com.oceanview.util;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Request Cache - per-request memo of service read results
+ * Opened by RequestCacheFilter for the length of one HTTP request and bound
+ * to the request thread. Service read methods wrap their DAO call in
+ * {@link #memoize}, keyed by method name and arguments, so asking for the
+ * same data twice while rendering one page runs the query once.
+ * 
+ * Any write through the DAO layer clears the memo, so a request that
+ * changes data and then reads it back sees its own change. Outside a
+ * request (background jobs, tests) memoize simply runs the loader.
+ * 
+ * @author Ocean View Resort Development Team
+ * @version 1.0.0
+ */
+public final class RequestCache {
+    
+    private static final ThreadLocal<RequestCache> CURRENT = new ThreadLocal<>();
+    
+    private final Map<List<Object>, Object> results = new HashMap<>();
+    private int hits;
+    private int misses;
+    
+    /**
+     * Loads a value on a cache miss
+     */
+    @FunctionalInterface
+    public interface Loader<T> {
+        T load() throws SQLException;
+    }
+    
+    private RequestCache() {
+    }
+    
+    /**
+     * Bind a new cache to the current thread
+     * @return The new cache, or null if one is already bound (the caller
+     *         does not own it and must not close it)
+     */
+    public static RequestCache open() {
+        if (CURRENT.get() != null) {
+            return null;
+        }
+        RequestCache cache = new RequestCache();
+        CURRENT.set(cache);
+        return cache;
+    }
+    
+    /**
+     * Unbind the cache from the current thread and drop its results
+     * @param cache Cache returned by {@link #open()}; null is ignored
+     */
+    public static void close(RequestCache cache) {
+        if (cache != null && CURRENT.get() == cache) {
+            CURRENT.remove();
+            cache.results.clear();
+        }
+    }
+    
+    /**
+     * Cache bound to the current thread
+     * @return Current cache, or null outside a request
+     */
+    public static RequestCache current() {
+        return CURRENT.get();
+    }
+    
+    /**
+     * Return the memoized result for a read, loading it on first use
+     * @param loader DAO call that produces the result
+     * @param method Name of the read method, e.g. ReservationService.getAllReservations
+     * @param args Method arguments that the result depends on
+     * @return Memoized or freshly loaded result
+     * @throws SQLException if the loader fails; failures are not cached
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T memoize(Loader<T> loader, String method, Object... args) throws SQLException {
+        RequestCache cache = CURRENT.get();
+        if (cache == null) {
+            return loader.load();
+        }
+        Object[] parts = Arrays.copyOf(new Object[] {method}, args.length + 1);
+        System.arraycopy(args, 0, parts, 1, args.length);
+        List<Object> key = Arrays.asList(parts);
+        
+        if (cache.results.containsKey(key)) {
+            cache.hits++;
+            return (T) cache.results.get(key);
+        }
+        T result = loader.load();
+        cache.misses++;
+        cache.results.put(key, result);
+        return result;
+    }
+    
+    /**
+     * Drop every memoized result of the current request, after a write
+     */
+    public static void invalidate() {
+        RequestCache cache = CURRENT.get();
+        if (cache != null) {
+            cache.results.clear();
+        }
+    }
+    
+    /**
+     * @return Reads answered from the memo, i.e. database calls saved
+     */
+    public int getHits() {
+        return hits;
+    }
+    
+    /**
+     * @return Reads that went to the database
+     */
+    public int getMisses() {
+        return misses;
+    }
+}
@@ -0,0 +1,9 @@
+-- Migration script for the overlap-safe booking check
+-- Booking locks the room row and counts reservations of that room whose stay
+-- overlaps the requested dates. A (room_id, check_in_date, check_out_date)
+-- index turns that count into a short range scan under the lock; it also
+-- serves the room_id foreign key, so idx_room_id becomes redundant.
+
+CREATE INDEX idx_room_dates ON reservations(room_id, check_in_date, check_out_date);
+
+DROP INDEX idx_room_id ON reservations;
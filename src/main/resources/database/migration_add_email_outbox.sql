@@ -0,0 +1,21 @@
+-- Migration script for the email outbox
+-- EmailService writes each email to email_outbox in the caller's transaction,
+-- so a booking and its confirmation email commit or roll back together.
+-- EmailOutboxWorker claims due rows (status PENDING, or SENDING with an
+-- expired lease), sends them over pooled SMTP connections and marks them
+-- SENT, reschedules them with exponential backoff, or marks them DEAD after
+-- email.outbox.maxAttempts.
+
+CREATE TABLE IF NOT EXISTS email_outbox (
+    outbox_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    recipient VARCHAR(255) NOT NULL,
+    subject VARCHAR(255) NOT NULL,
+    body MEDIUMTEXT NOT NULL,
+    status ENUM('PENDING', 'SENDING', 'SENT', 'DEAD') NOT NULL DEFAULT 'PENDING',
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT 'Due time, or lease expiry while SENDING',
+    last_error VARCHAR(500),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    sent_at TIMESTAMP NULL,
+    INDEX idx_status_due (status, next_attempt_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
@@ -0,0 +1,19 @@
+-- Migration script to add indexes used by keyset (seek) pagination
+-- List pages order by (created_at, id) / (check_in_date, id); InnoDB secondary
+-- indexes already carry the primary key, so one column per index is enough.
+-- That does not hold for idx_dates (check_in_date, check_out_date): its rows
+-- are ordered by check_out_date before the key, so the reservations keyset
+-- (check_in_date DESC, reservation_id DESC) needs an index of its own, which
+-- is scanned backwards.
+
+-- Users list (newest first)
+CREATE INDEX IF NOT EXISTS idx_created_at ON users(created_at);
+
+-- Offers list (newest first)
+CREATE INDEX IF NOT EXISTS idx_created_at ON offers(created_at);
+
+-- Approved reviews list (status filter, newest first)
+CREATE INDEX IF NOT EXISTS idx_status_created ON reviews(status, created_at);
+
+-- Reservations list (latest check-in first)
+CREATE INDEX IF NOT EXISTS idx_check_in_id ON reservations(check_in_date, reservation_id);
@@ -0,0 +1,34 @@
+-- Migration script for the per-night room inventory ledger
+-- room_inventory holds one row per room type and night: how many rooms of the
+-- type exist and how many are held by CONFIRMED or CHECKED_IN stays. Checking
+-- a stay reads one row per night and takes MIN(total - booked); confirming a
+-- stay locks and increments those rows. InventoryReconciler rebuilds the next
+-- inventory.horizonDays nights from reservations on startup and on a schedule;
+-- the INSERT below fills the same window right away (MySQL 8 recursive CTE).
+
+CREATE TABLE IF NOT EXISTS room_inventory (
+    room_type ENUM('SINGLE', 'DOUBLE', 'DELUXE', 'SUITE', 'FAMILY') NOT NULL,
+    stay_date DATE NOT NULL,
+    total INT NOT NULL COMMENT 'Rooms of this type',
+    booked INT NOT NULL DEFAULT 0 COMMENT 'Confirmed or checked-in stays covering this night',
+    PRIMARY KEY (room_type, stay_date),
+    INDEX idx_stay_date (stay_date)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+INSERT INTO room_inventory (room_type, stay_date, total, booked)
+WITH RECURSIVE nights (stay_date) AS (
+    SELECT CURDATE()
+    UNION ALL
+    SELECT stay_date + INTERVAL 1 DAY FROM nights WHERE stay_date < CURDATE() + INTERVAL 364 DAY
+)
+SELECT t.room_type, n.stay_date, t.total,
+       (SELECT COUNT(*)
+        FROM reservations res
+        JOIN rooms r ON r.room_id = res.room_id
+        WHERE r.room_type = t.room_type
+        AND res.status IN ('CONFIRMED', 'CHECKED_IN')
+        AND res.check_in_date <= n.stay_date
+        AND res.check_out_date > n.stay_date) AS booked
+FROM (SELECT room_type, COUNT(*) AS total FROM rooms GROUP BY room_type) t
+CROSS JOIN nights n
+ON DUPLICATE KEY UPDATE total = VALUES(total), booked = VALUES(booked);
@@ -0,0 +1,41 @@
+-- Migration script for monthly range partitioning of audit_logs
+-- Retention then drops whole months with ALTER TABLE ... DROP PARTITION
+-- instead of deleting rows. MySQL requires the partitioning column in every
+-- unique key and does not allow foreign keys on partitioned tables, so the
+-- primary key becomes (log_id, timestamp) and the user_id foreign key is
+-- dropped (user_id stays indexed). Rows from before this month go into
+-- p_history; AuditRetentionJob splits one partition per month off p_future.
+-- After running this, set audit.retention.partitioned=true.
+--
+-- Rebuilds the table; run it in a quiet period.
+
+SET @fk_name = (
+    SELECT constraint_name FROM information_schema.referential_constraints
+    WHERE constraint_schema = DATABASE() AND table_name = 'audit_logs'
+    LIMIT 1
+);
+SET @sql = IF(@fk_name IS NULL, 'DO 0',
+              CONCAT('ALTER TABLE audit_logs DROP FOREIGN KEY ', @fk_name));
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+ALTER TABLE audit_logs
+    MODIFY timestamp TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (log_id, timestamp);
+
+SET @month_start = DATE_FORMAT(CURDATE(), '%Y-%m-01 00:00:00');
+SET @sql = CONCAT(
+    'ALTER TABLE audit_logs PARTITION BY RANGE (UNIX_TIMESTAMP(timestamp)) (',
+    'PARTITION p_history VALUES LESS THAN (UNIX_TIMESTAMP(''', @month_start, ''')), ',
+    'PARTITION p_future VALUES LESS THAN MAXVALUE)');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- Verify partitions
+SELECT partition_name, partition_description, table_rows
+FROM information_schema.partitions
+WHERE table_schema = DATABASE() AND table_name = 'audit_logs'
+ORDER BY partition_ordinal_position;
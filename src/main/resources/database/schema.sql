@@ -13,9 +13,11 @@ COLLATE utf8mb4_unicode_ci;
 USE oceanview_resort;
 
 -- Drop tables if they exist (for clean installation)
+DROP TABLE IF EXISTS email_outbox;
 DROP TABLE IF EXISTS audit_logs;
 DROP TABLE IF EXISTS reviews;
 DROP TABLE IF EXISTS payments;
+DROP TABLE IF EXISTS room_inventory;
 DROP TABLE IF EXISTS reservations;
 DROP TABLE IF EXISTS offers;
 DROP TABLE IF EXISTS rooms;
@@ -41,7 +43,8 @@ CREATE TABLE users (
     INDEX idx_username (username),
     INDEX idx_email (email),
     INDEX idx_role (role),
-    INDEX idx_status (status)
+    INDEX idx_status (status),
+    INDEX idx_created_at (created_at)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
 -- ============================================
@@ -110,7 +113,8 @@ CREATE TABLE offers (
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     INDEX idx_status (status),
     INDEX idx_dates (start_date, end_date),
-    INDEX idx_promo_code (promo_code)
+    INDEX idx_promo_code (promo_code),
+    INDEX idx_created_at (created_at)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
 -- ============================================
@@ -140,12 +144,27 @@ CREATE TABLE reservations (
     FOREIGN KEY (created_by) REFERENCES users(user_id) ON DELETE RESTRICT,
     INDEX idx_reservation_number (reservation_number),
     INDEX idx_guest_id (guest_id),
-    INDEX idx_room_id (room_id),
+    INDEX idx_room_dates (room_id, check_in_date, check_out_date),
     INDEX idx_dates (check_in_date, check_out_date),
+    INDEX idx_check_in_id (check_in_date, reservation_id),
     INDEX idx_status (status),
     INDEX idx_created_at (created_at)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
+-- ============================================
+-- Table: room_inventory
+-- Description: Rooms sold per room type and night, kept by
+-- ReservationService and rebuilt from reservations by InventoryReconciler
+-- ============================================
+CREATE TABLE room_inventory (
+    room_type ENUM('SINGLE', 'DOUBLE', 'DELUXE', 'SUITE', 'FAMILY') NOT NULL,
+    stay_date DATE NOT NULL,
+    total INT NOT NULL COMMENT 'Rooms of this type',
+    booked INT NOT NULL DEFAULT 0 COMMENT 'Confirmed or checked-in stays covering this night',
+    PRIMARY KEY (room_type, stay_date),
+    INDEX idx_stay_date (stay_date)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
 -- ============================================
 -- Table: payments
 -- Description: Payment transactions
@@ -188,7 +207,27 @@ CREATE TABLE reviews (
     INDEX idx_reservation_id (reservation_id),
     INDEX idx_guest_id (guest_id),
     INDEX idx_rating (rating),
-    INDEX idx_status (status)
+    INDEX idx_status (status),
+    INDEX idx_status_created (status, created_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- ============================================
+-- Table: email_outbox
+-- Description: Emails waiting to be sent, written in the same transaction as
+-- the change that triggers them and delivered by EmailOutboxWorker
+-- ============================================
+CREATE TABLE email_outbox (
+    outbox_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    recipient VARCHAR(255) NOT NULL,
+    subject VARCHAR(255) NOT NULL,
+    body MEDIUMTEXT NOT NULL,
+    status ENUM('PENDING', 'SENDING', 'SENT', 'DEAD') NOT NULL DEFAULT 'PENDING',
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT 'Due time, or lease expiry while SENDING',
+    last_error VARCHAR(500),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    sent_at TIMESTAMP NULL,
+    INDEX idx_status_due (status, next_attempt_at)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
 -- ============================================
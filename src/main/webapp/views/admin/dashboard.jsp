@@ -18,6 +18,7 @@
     Double monthlyRevenue = (Double) request.getAttribute("monthlyRevenue");
     Integer pendingReviews = (Integer) request.getAttribute("pendingReviews");
     Double occupancyRate = (Double) request.getAttribute("occupancyRate");
+    Long statsAgeSeconds = (Long) request.getAttribute("statsAgeSeconds");
     
     // Default values if null
     if (totalRooms == null) totalRooms = 0;
@@ -54,6 +55,9 @@
                 <div>
                     <h1><i class="fas fa-tachometer-alt"></i> Admin Dashboard</h1>
                     <p class="text-muted">Welcome back, <%= currentUser.getFirstName() %>! Here's your system overview.</p>
+                    <% if (statsAgeSeconds != null) { %>
+                    <small class="text-muted"><i class="fas fa-sync-alt"></i> Statistics updated <%= statsAgeSeconds %>s ago</small>
+                    <% } %>
                 </div>
                 <div class="header-actions">
                     <a href="<%= request.getContextPath() %>/admin/reports" class="btn btn-primary">
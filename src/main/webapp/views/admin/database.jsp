@@ -0,0 +1,318 @@
+<%@ page language="java" contentType="text/html; charset=UTF-8" pageEncoding="UTF-8"%>
+<%@ page import="com.oceanview.model.User" %>
+<%@ page import="com.oceanview.jdbc.ConnectionLeakDetector" %>
+<%@ page import="com.oceanview.jdbc.SqlStatistics" %>
+<%@ page import="java.util.List" %>
+<%@ page import="java.text.DecimalFormat" %>
+<%
+    // Authentication check
+    User currentUser = (User) session.getAttribute("user");
+    if (currentUser == null || !"ADMIN".equals(currentUser.getRole().toString())) {
+        response.sendRedirect(request.getContextPath() + "/login");
+        return;
+    }
+    
+    String contextPath = request.getContextPath();
+    
+    // Get data from servlet
+    Integer activeConnections = (Integer) request.getAttribute("activeConnections");
+    Integer idleConnections = (Integer) request.getAttribute("idleConnections");
+    Integer maxConnections = (Integer) request.getAttribute("maxConnections");
+    Long slowStatementMillis = (Long) request.getAttribute("slowStatementMillis");
+    Boolean instrumented = (Boolean) request.getAttribute("instrumented");
+    Integer statementCount = (Integer) request.getAttribute("statementCount");
+    Long slowCount = (Long) request.getAttribute("slowCount");
+    Long borrowCount = (Long) request.getAttribute("borrowCount");
+    Double borrowWaitP99Millis = (Double) request.getAttribute("borrowWaitP99Millis");
+    Long poolTimeouts = (Long) request.getAttribute("poolTimeouts");
+    Integer peakConnections = (Integer) request.getAttribute("peakConnections");
+    Long poolResizes = (Long) request.getAttribute("poolResizes");
+    Boolean leakDetection = (Boolean) request.getAttribute("leakDetection");
+    Double leakSampleRate = (Double) request.getAttribute("leakSampleRate");
+    Long leakThresholdMillis = (Long) request.getAttribute("leakThresholdMillis");
+    Long leakSuspects = (Long) request.getAttribute("leakSuspects");
+    List<ConnectionLeakDetector.SiteStats> leakSites =
+        (List<ConnectionLeakDetector.SiteStats>) request.getAttribute("leakSites");
+    List<SqlStatistics.StatementStats> statements =
+        (List<SqlStatistics.StatementStats>) request.getAttribute("statements");
+    
+    // Default values if null
+    if (activeConnections == null) activeConnections = 0;
+    if (idleConnections == null) idleConnections = 0;
+    if (maxConnections == null) maxConnections = 0;
+    if (slowStatementMillis == null) slowStatementMillis = 0L;
+    if (instrumented == null) instrumented = false;
+    if (statementCount == null) statementCount = 0;
+    if (slowCount == null) slowCount = 0L;
+    if (borrowCount == null) borrowCount = 0L;
+    if (borrowWaitP99Millis == null) borrowWaitP99Millis = 0.0;
+    if (poolTimeouts == null) poolTimeouts = 0L;
+    if (peakConnections == null) peakConnections = 0;
+    if (poolResizes == null) poolResizes = 0L;
+    if (leakDetection == null) leakDetection = false;
+    if (leakSampleRate == null) leakSampleRate = 0.0;
+    if (leakThresholdMillis == null) leakThresholdMillis = 0L;
+    if (leakSuspects == null) leakSuspects = 0L;
+    
+    DecimalFormat millisFormat = new DecimalFormat("#,##0.0");
+%>
+
+<jsp:include page="../common/header.jsp">
+    <jsp:param name="title" value="Database" />
+    <jsp:param name="css" value="admin,dashboard" />
+    <jsp:param name="active" value="admin" />
+</jsp:include>
+
+<jsp:include page="../common/sidebar.jsp">
+    <jsp:param name="active" value="database" />
+</jsp:include>
+
+<div class="content-with-sidebar">
+    <div class="admin-page">
+        <div class="container-fluid py-4">
+            <!-- Page Header -->
+            <div class="page-header mb-4">
+                <div>
+                    <h1><i class="fas fa-database"></i> Database</h1>
+                    <p class="text-muted">Connection pool usage and the statements that take the most database time</p>
+                </div>
+                <% if (instrumented || leakDetection) { %>
+                <div class="header-actions">
+                    <form method="post" action="<%= contextPath %>/admin/database"
+                          onsubmit="return confirm('Reset all SQL and leak statistics?')">
+                        <input type="hidden" name="action" value="reset">
+                        <button type="submit" class="btn btn-outline">
+                            <i class="fas fa-undo"></i> Reset Statistics
+                        </button>
+                    </form>
+                </div>
+                <% } %>
+            </div>
+            
+            <!-- Statistics Cards -->
+            <div class="row mb-4">
+                <div class="col-md-3">
+                    <div class="stat-card">
+                        <div class="stat-icon bg-primary">
+                            <i class="fas fa-plug"></i>
+                        </div>
+                        <div class="stat-details">
+                            <div class="stat-value"><%= activeConnections %> / <%= maxConnections %></div>
+                            <div class="stat-label">Connections In Use</div>
+                        </div>
+                    </div>
+                </div>
+                <div class="col-md-3">
+                    <div class="stat-card">
+                        <div class="stat-icon bg-success">
+                            <i class="fas fa-pause-circle"></i>
+                        </div>
+                        <div class="stat-details">
+                            <div class="stat-value"><%= idleConnections %></div>
+                            <div class="stat-label">Idle Connections</div>
+                        </div>
+                    </div>
+                </div>
+                <div class="col-md-3">
+                    <div class="stat-card">
+                        <div class="stat-icon bg-info">
+                            <i class="fas fa-code"></i>
+                        </div>
+                        <div class="stat-details">
+                            <div class="stat-value"><%= statementCount %></div>
+                            <div class="stat-label">Distinct Statements</div>
+                        </div>
+                    </div>
+                </div>
+                <div class="col-md-3">
+                    <div class="stat-card">
+                        <div class="stat-icon bg-danger">
+                            <i class="fas fa-hourglass-half"></i>
+                        </div>
+                        <div class="stat-details">
+                            <div class="stat-value"><%= slowCount %></div>
+                            <div class="stat-label">Slow Executions (&ge; <%= slowStatementMillis %> ms)</div>
+                        </div>
+                    </div>
+                </div>
+            </div>
+            
+            <!-- Pool Telemetry Cards -->
+            <div class="row mb-4">
+                <div class="col-md-3">
+                    <div class="stat-card">
+                        <div class="stat-icon bg-primary">
+                            <i class="fas fa-stopwatch"></i>
+                        </div>
+                        <div class="stat-details">
+                            <div class="stat-value"><%= millisFormat.format(borrowWaitP99Millis) %> ms</div>
+                            <div class="stat-label">p99 Borrow Wait (<%= borrowCount %> borrows)</div>
+                        </div>
+                    </div>
+                </div>
+                <div class="col-md-3">
+                    <div class="stat-card">
+                        <div class="stat-icon bg-danger">
+                            <i class="fas fa-times-circle"></i>
+                        </div>
+                        <div class="stat-details">
+                            <div class="stat-value"><%= poolTimeouts %></div>
+                            <div class="stat-label">Borrow Timeouts</div>
+                        </div>
+                    </div>
+                </div>
+                <div class="col-md-3">
+                    <div class="stat-card">
+                        <div class="stat-icon bg-warning">
+                            <i class="fas fa-chart-line"></i>
+                        </div>
+                        <div class="stat-details">
+                            <div class="stat-value"><%= peakConnections %></div>
+                            <div class="stat-label">Peak Connections In Use</div>
+                        </div>
+                    </div>
+                </div>
+                <div class="col-md-3">
+                    <div class="stat-card">
+                        <div class="stat-icon bg-info">
+                            <i class="fas fa-arrows-alt-v"></i>
+                        </div>
+                        <div class="stat-details">
+                            <div class="stat-value"><%= poolResizes %></div>
+                            <div class="stat-label">Pool Resizes</div>
+                        </div>
+                    </div>
+                </div>
+            </div>
+            
+            <!-- Leak Suspects Table -->
+            <div class="card mb-4">
+                <div class="card-header">
+                    <h5 class="mb-0"><i class="fas fa-tint"></i> Connection Leak Suspects
+                        <small class="text-muted">
+                            <% if (leakDetection) { %>
+                            <%= leakSuspects %> flagged; <%= new DecimalFormat("0.##").format(leakSampleRate * 100) %>% of borrows tracked, held over <%= leakThresholdMillis %> ms
+                            <% } %>
+                        </small>
+                    </h5>
+                </div>
+                <div class="card-body p-0">
+                    <div class="table-responsive">
+                        <table class="table table-hover mb-0">
+                            <thead>
+                                <tr>
+                                    <th>Borrow Site</th>
+                                    <th>Tracked Borrows</th>
+                                    <th>Flagged</th>
+                                    <th>Still Open</th>
+                                    <th>Longest Held (ms)</th>
+                                </tr>
+                            </thead>
+                            <tbody>
+                                <%
+                                if (!leakDetection) {
+                                %>
+                                <tr>
+                                    <td colspan="5" class="text-center py-4">
+                                        <h5 class="text-muted">Leak detection is off (db.leakDetection.enabled)</h5>
+                                    </td>
+                                </tr>
+                                <%
+                                } else if (leakSites != null && !leakSites.isEmpty()) {
+                                    for (ConnectionLeakDetector.SiteStats site : leakSites) {
+                                        String borrowSite = site.getSite().replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+                                %>
+                                <tr>
+                                    <td><code><%= borrowSite %></code></td>
+                                    <td><%= site.getSampled() %></td>
+                                    <td><span class="badge <%= site.getLeaks() > 0 ? "badge-danger" : "badge-secondary" %>"><%= site.getLeaks() %></span></td>
+                                    <td><span class="badge <%= site.getOpenNow() > 0 ? "badge-warning" : "badge-secondary" %>"><%= site.getOpenNow() %></span></td>
+                                    <td><%= site.getMaxHeldMillis() %></td>
+                                </tr>
+                                <%
+                                    }
+                                } else {
+                                %>
+                                <tr>
+                                    <td colspan="5" class="text-center py-4">
+                                        <i class="fas fa-check-circle fa-3x text-muted mb-3"></i>
+                                        <h5 class="text-muted">No borrows tracked yet</h5>
+                                    </td>
+                                </tr>
+                                <%
+                                }
+                                %>
+                            </tbody>
+                        </table>
+                    </div>
+                </div>
+            </div>
+            
+            <!-- Statements Table -->
+            <div class="card">
+                <div class="card-body p-0">
+                    <div class="table-responsive">
+                        <table class="table table-hover mb-0">
+                            <thead>
+                                <tr>
+                                    <th>Statement</th>
+                                    <th>Executions</th>
+                                    <th>Total (ms)</th>
+                                    <th>Mean (ms)</th>
+                                    <th>p99 (ms)</th>
+                                    <th>Max (ms)</th>
+                                    <th>Rows</th>
+                                    <th>Conn. Wait (ms)</th>
+                                    <th>Slow</th>
+                                    <th>Errors</th>
+                                </tr>
+                            </thead>
+                            <tbody>
+                                <%
+                                if (!instrumented) {
+                                %>
+                                <tr>
+                                    <td colspan="10" class="text-center py-4">
+                                        <h5 class="text-muted">Statement instrumentation is off (db.instrumentation.enabled)</h5>
+                                    </td>
+                                </tr>
+                                <%
+                                } else if (statements != null && !statements.isEmpty()) {
+                                    for (SqlStatistics.StatementStats stats : statements) {
+                                        String sql = stats.getSql().replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+                                %>
+                                <tr>
+                                    <td><code title="<%= stats.getId() %>"><%= sql %></code></td>
+                                    <td><%= stats.getExecutions() %></td>
+                                    <td><strong><%= millisFormat.format(stats.getTotalMillis()) %></strong></td>
+                                    <td><%= millisFormat.format(stats.getMeanMillis()) %></td>
+                                    <td><%= millisFormat.format(stats.getP99Millis()) %></td>
+                                    <td><%= millisFormat.format(stats.getMaxMillis()) %></td>
+                                    <td><%= stats.getRows() %></td>
+                                    <td><%= millisFormat.format(stats.getWaitMillis()) %></td>
+                                    <td><span class="badge <%= stats.getSlowCount() > 0 ? "badge-warning" : "badge-secondary" %>"><%= stats.getSlowCount() %></span></td>
+                                    <td><span class="badge <%= stats.getErrors() > 0 ? "badge-danger" : "badge-secondary" %>"><%= stats.getErrors() %></span></td>
+                                </tr>
+                                <%
+                                    }
+                                } else {
+                                %>
+                                <tr>
+                                    <td colspan="10" class="text-center py-4">
+                                        <i class="fas fa-database fa-3x text-muted mb-3"></i>
+                                        <h5 class="text-muted">No statements recorded yet</h5>
+                                    </td>
+                                </tr>
+                                <%
+                                }
+                                %>
+                            </tbody>
+                        </table>
+                    </div>
+                </div>
+            </div>
+        </div>
+    </div>
+</div>
+
+<jsp:include page="../common/footer.jsp" />
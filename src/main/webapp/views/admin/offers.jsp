@@ -198,6 +198,9 @@
                 }
                 %>
             </div>
+            <jsp:include page="../common/pagination.jsp">
+                <jsp:param name="baseUrl" value="/offer?action=list" />
+            </jsp:include>
         </div>
     </div>
 </div>
@@ -213,6 +213,9 @@
                             </tbody>
                         </table>
                     </div>
+                    <jsp:include page="../common/pagination.jsp">
+                        <jsp:param name="baseUrl" value="/user?action=list" />
+                    </jsp:include>
                 </div>
             </div>
         </div>
@@ -0,0 +1,37 @@
+<%@ page language="java" contentType="text/html; charset=UTF-8" pageEncoding="UTF-8"%>
+<%@ page import="com.oceanview.dao.Page" %>
+<%@ page import="com.oceanview.util.Constants" %>
+<%
+    // Keyset pagination links; expects the Page in request attribute "pagination"
+    // and the list URL (including its action parameter) in the "baseUrl" include parameter
+    Page<?> pageData = (Page<?>) request.getAttribute(Constants.ATTR_PAGE);
+    String baseUrl = request.getContextPath() + request.getParameter("baseUrl");
+    String separator = baseUrl.contains("?") ? "&" : "?";
+    
+    if (pageData != null && (pageData.hasPrevious() || pageData.hasNext())) {
+        String sizeParam = Constants.PARAM_PAGE_SIZE + "=" + pageData.getPageSize();
+%>
+<nav class="d-flex justify-content-between align-items-center mt-3" aria-label="Page navigation">
+    <% if (pageData.hasPrevious()) { %>
+    <a class="btn btn-sm btn-outline-primary"
+       href="<%= baseUrl + separator + Constants.PARAM_CURSOR + "=" + pageData.getPreviousCursor() + "&" + sizeParam %>">
+        <i class="fas fa-chevron-left"></i> Previous
+    </a>
+    <% } else { %>
+    <span class="btn btn-sm btn-outline-secondary disabled"><i class="fas fa-chevron-left"></i> Previous</span>
+    <% } %>
+    
+    <span class="text-muted small">Showing <%= pageData.size() %> per page</span>
+    
+    <% if (pageData.hasNext()) { %>
+    <a class="btn btn-sm btn-outline-primary"
+       href="<%= baseUrl + separator + Constants.PARAM_CURSOR + "=" + pageData.getNextCursor() + "&" + sizeParam %>">
+        Next <i class="fas fa-chevron-right"></i>
+    </a>
+    <% } else { %>
+    <span class="btn btn-sm btn-outline-secondary disabled">Next <i class="fas fa-chevron-right"></i></span>
+    <% } %>
+</nav>
+<%
+    }
+%>
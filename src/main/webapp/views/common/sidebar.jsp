@@ -149,6 +149,13 @@
                             <span>Audit Logs</span>
                         </a>
                     </li>
+                    <li class="sidebar-menu-item">
+                        <a href="<%= contextPath %>/admin/database" 
+                           class="sidebar-link <%= "database".equals(activePage) ? "active" : "" %>">
+                            <i class="fas fa-database"></i>
+                            <span>Database</span>
+                        </a>
+                    </li>
                 </ul>
             </div>
             
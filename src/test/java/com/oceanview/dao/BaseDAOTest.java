@@ -0,0 +1,167 @@
+package com.oceanview.dao;
+
+import com.oceanview.config.DatabaseConfig;
+import com.oceanview.model.GroupTotal;
+import com.oceanview.model.Room;
+import org.junit.jupiter.api.*;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Integration tests for the JDBC template in BaseDAO
+ * Runs RoomDAO against an H2 in-memory database in MySQL mode
+ */
+@DisplayName("BaseDAO Template Tests")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BaseDAOTest {
+    
+    private DatabaseConfig dbConfig;
+    private RoomDAO roomDAO;
+    
+    @BeforeAll
+    void setUpDatabase() throws SQLException {
+        dbConfig = TestDatabase.create("basedao", "db.pool.initialSize=1", "db.pool.minIdle=1");
+    }
+    
+    @BeforeEach
+    void setUp() throws SQLException {
+        try (Connection conn = dbConfig.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.execute("DELETE FROM rooms");
+        }
+        roomDAO = new RoomDAO(dbConfig);
+    }
+    
+    @AfterAll
+    void tearDown() {
+        dbConfig.closeDataSource();
+    }
+    
+    @Test
+    @DisplayName("Should insert and read back a row through the indexed mapper")
+    void testInsertAndFind() throws SQLException {
+        // Given
+        int roomId = roomDAO.create(room("101", Room.RoomType.DELUXE, "150.00"));
+        
+        // When
+        Optional<Room> found = roomDAO.findById(roomId);
+        
+        // Then
+        assertThat(roomId).isPositive();
+        assertThat(found).isPresent();
+        assertThat(found.get().getRoomNumber()).isEqualTo("101");
+        assertThat(found.get().getRoomType()).isEqualTo(Room.RoomType.DELUXE);
+        assertThat(found.get().getPricePerNight()).isEqualByComparingTo("150.00");
+        assertThat(found.get().getDescription()).isNull();
+        assertThat(found.get().getCreatedAt()).isNotNull();
+    }
+    
+    @Test
+    @DisplayName("Should return empty and zero for missing rows")
+    void testMissingRows() throws SQLException {
+        assertThat(roomDAO.findById(999)).isEmpty();
+        assertThat(roomDAO.count()).isZero();
+        assertThat(roomDAO.findAll()).isEmpty();
+    }
+    
+    @Test
+    @DisplayName("Should update rows and report affected row counts")
+    void testUpdate() throws SQLException {
+        // Given
+        int roomId = roomDAO.create(room("102", Room.RoomType.SINGLE, "80.00"));
+        
+        // When
+        boolean updated = roomDAO.updateStatus(roomId, Room.RoomStatus.MAINTENANCE);
+        boolean missing = roomDAO.updateStatus(999, Room.RoomStatus.MAINTENANCE);
+        
+        // Then
+        assertThat(updated).isTrue();
+        assertThat(missing).isFalse();
+        assertThat(roomDAO.countByStatus(Room.RoomStatus.MAINTENANCE)).isEqualTo(1);
+    }
+    
+    @Test
+    @DisplayName("Should map GROUP BY aggregates")
+    void testGroupTotals() throws SQLException {
+        // Given
+        roomDAO.create(room("201", Room.RoomType.SUITE, "300.00"));
+        roomDAO.create(room("202", Room.RoomType.SUITE, "320.00"));
+        roomDAO.create(room("203", Room.RoomType.SINGLE, "90.00"));
+        
+        // When
+        List<GroupTotal> totals = roomDAO.summarizeByType();
+        
+        // Then
+        assertThat(totals).extracting(GroupTotal::getKey).containsExactlyInAnyOrder("SUITE", "SINGLE");
+        GroupTotal suites = totals.stream().filter(t -> "SUITE".equals(t.getKey())).findFirst().get();
+        assertThat(suites.getCount()).isEqualTo(2);
+        assertThat(suites.getAmount()).isEqualTo(620.0);
+    }
+    
+    @Test
+    @DisplayName("Should run a JDBC batch with one entry per item")
+    void testBatchUpdate() throws SQLException {
+        // Given
+        List<Room> rooms = List.of(
+            room("301", Room.RoomType.DOUBLE, "120.00"),
+            room("302", Room.RoomType.DOUBLE, "120.00"),
+            room("303", Room.RoomType.FAMILY, "200.00"));
+        
+        // When
+        int[] counts = roomDAO.batchUpdate(
+            "INSERT INTO rooms (room_number, room_type, floor, capacity, price_per_night, status) " +
+            "VALUES (?, ?, ?, ?, ?, ?)", rooms,
+            r -> BaseDAO.params(r.getRoomNumber(), r.getRoomType(), r.getFloor(), r.getCapacity(),
+                                r.getPricePerNight(), r.getStatus()),
+            "batch insert rooms");
+        
+        // Then
+        assertThat(counts).containsExactly(1, 1, 1);
+        assertThat(roomDAO.findByType(Room.RoomType.DOUBLE)).hasSize(2);
+    }
+    
+    @Test
+    @DisplayName("Should report every statement to registered listeners")
+    void testStatementListener() throws SQLException {
+        // Given
+        List<String> operations = new ArrayList<>();
+        List<Long> rows = new ArrayList<>();
+        StatementListener listener = (operation, sql, elapsedNanos, rowCount, failure) -> {
+            operations.add(operation);
+            rows.add(rowCount);
+        };
+        BaseDAO.addStatementListener(listener);
+        
+        try {
+            // When
+            roomDAO.create(room("401", Room.RoomType.SINGLE, "75.00"));
+            roomDAO.findAll();
+            assertThatThrownBy(() -> roomDAO.create(room("401", Room.RoomType.SINGLE, "75.00")))
+                .isInstanceOf(SQLException.class);
+        } finally {
+            BaseDAO.removeStatementListener(listener);
+        }
+        
+        // Then
+        assertThat(operations).containsExactly("create room", "find all rooms", "create room");
+        assertThat(rows).containsExactly(1L, 1L, 0L);
+    }
+    
+    private Room room(String number, Room.RoomType type, String price) {
+        Room room = new Room();
+        room.setRoomNumber(number);
+        room.setRoomType(type);
+        room.setFloor(1);
+        room.setCapacity(2);
+        room.setPricePerNight(new BigDecimal(price));
+        room.setStatus(Room.RoomStatus.AVAILABLE);
+        return room;
+    }
+}
@@ -0,0 +1,85 @@
+package com.oceanview.dao;
+
+import com.oceanview.config.DatabaseConfig;
+import com.oceanview.model.AuditLog;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH comparison of inserting audit logs one row at a time with
+ * AuditLogDAO.create and in JDBC batches with createAll, on an H2 in-memory
+ * database. Scores are per row.
+ *
+ * Run with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.oceanview.dao.BatchInsertBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchInsertBenchmark {
+
+    private static final int ROWS = 500;
+
+    private DatabaseConfig dbConfig;
+    private AuditLogDAO auditLogDAO;
+
+    @Setup
+    public void setUp() throws SQLException {
+        dbConfig = TestDatabase.create("batchbench", "db.batch.size=100");
+        auditLogDAO = new AuditLogDAO(dbConfig);
+    }
+
+    @Setup(Level.Iteration)
+    public void truncate() throws SQLException {
+        try (Connection conn = dbConfig.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.execute("TRUNCATE TABLE audit_logs");
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        TestDatabase.drop(dbConfig);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int singleInserts() throws SQLException {
+        int last = 0;
+        for (AuditLog log : auditLogs()) {
+            last = auditLogDAO.create(log);
+        }
+        return last;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int batchInsert() throws SQLException {
+        return auditLogDAO.createAll(auditLogs()).getInsertedCount();
+    }
+
+    private static List<AuditLog> auditLogs() {
+        List<AuditLog> logs = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            AuditLog log = new AuditLog(TestDatabase.USER_ID, "UPDATE", "RESERVATION", i);
+            log.setIpAddress("127.0.0.1");
+            logs.add(log);
+        }
+        return logs;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(BatchInsertBenchmark.class.getSimpleName()).build()).run();
+    }
+}
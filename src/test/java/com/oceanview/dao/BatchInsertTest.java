@@ -0,0 +1,157 @@
+package com.oceanview.dao;
+
+import com.oceanview.config.DatabaseConfig;
+import com.oceanview.model.AuditLog;
+import com.oceanview.model.Payment;
+import com.oceanview.model.Reservation;
+import com.oceanview.model.Room;
+import org.junit.jupiter.api.*;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Integration tests for the batched createAll inserts
+ * Runs the DAOs against an H2 in-memory database in MySQL mode;
+ * BatchInsertBenchmark compares throughput with the single-insert path
+ */
+@DisplayName("Batch Insert Tests")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BatchInsertTest {
+    
+    private static final int LARGE_ROWS = 250;
+    
+    private DatabaseConfig dbConfig;
+    private ReservationDAO reservationDAO;
+    private PaymentDAO paymentDAO;
+    private AuditLogDAO auditLogDAO;
+    private int roomId;
+    
+    @BeforeAll
+    void setUpDatabase() throws SQLException {
+        dbConfig = TestDatabase.create("batchinsert", "db.pool.initialSize=1", "db.pool.minIdle=1",
+                                       "db.batch.size=100");
+        roomId = new RoomDAO(dbConfig).create(new Room("101", Room.RoomType.DOUBLE, 1, 2, new BigDecimal("100.00")));
+    }
+    
+    @BeforeEach
+    void setUp() throws SQLException {
+        try (Connection conn = dbConfig.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.execute("DELETE FROM payments");
+            stmt.execute("DELETE FROM reservations");
+            stmt.execute("DELETE FROM audit_logs");
+        }
+        reservationDAO = new ReservationDAO(dbConfig);
+        paymentDAO = new PaymentDAO(dbConfig);
+        auditLogDAO = new AuditLogDAO(dbConfig);
+    }
+    
+    @AfterAll
+    void tearDown() {
+        dbConfig.closeDataSource();
+    }
+    
+    @Test
+    @DisplayName("Should map generated keys back onto every inserted reservation")
+    void testCreateAllMapsKeys() throws SQLException {
+        // Given - more rows than one batch so several chunks are sent
+        List<Reservation> reservations = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            reservations.add(reservation("RES-" + i));
+        }
+        
+        // When
+        BatchResult<Reservation> result = reservationDAO.createAll(reservations);
+        
+        // Then
+        assertThat(result.isComplete()).isTrue();
+        assertThat(result.getInsertedCount()).isEqualTo(250);
+        assertThat(reservations).extracting(Reservation::getReservationId)
+            .doesNotContainNull().doesNotHaveDuplicates();
+        Reservation last = reservations.get(249);
+        assertThat(reservationDAO.findById(last.getReservationId()))
+            .get().extracting(Reservation::getReservationNumber).isEqualTo("RES-249");
+    }
+    
+    @Test
+    @DisplayName("Should report rejected rows individually and keep the rest")
+    void testCreateAllPartialFailure() throws SQLException {
+        // Given - the third payment reuses the first payment number
+        int reservationId = reservationDAO.create(reservation("RES-PAID"));
+        List<Payment> payments = List.of(payment(reservationId, "PAY-1"), payment(reservationId, "PAY-2"),
+                                         payment(reservationId, "PAY-1"), payment(reservationId, "PAY-3"));
+        
+        // When
+        BatchResult<Payment> result = paymentDAO.createAll(payments);
+        
+        // Then
+        assertThat(result.getInsertedCount()).isEqualTo(3);
+        assertThat(result.getFailures()).hasSize(1);
+        BatchResult.Failure<Payment> failure = result.getFailures().get(0);
+        assertThat(failure.getIndex()).isEqualTo(2);
+        assertThat(failure.getItem()).isSameAs(payments.get(2));
+        assertThat((Throwable) failure.getError()).isNotNull();
+        assertThat(payments.get(2).getPaymentId()).isNull();
+        assertThat(payments.get(3).getPaymentId()).isNotNull();
+        assertThat(paymentDAO.findAll()).hasSize(3);
+    }
+    
+    @Test
+    @DisplayName("Should return an empty result for an empty list")
+    void testCreateAllEmpty() throws SQLException {
+        BatchResult<AuditLog> result = auditLogDAO.createAll(List.of());
+        
+        assertThat(result.isComplete()).isTrue();
+        assertThat(result.getInsertedCount()).isZero();
+    }
+    
+    @Test
+    @DisplayName("Should insert a list larger than one chunk and set every key")
+    void testCreateAllChunks() throws SQLException {
+        List<AuditLog> logs = auditLogs(LARGE_ROWS);
+        
+        BatchResult<AuditLog> result = auditLogDAO.createAll(logs);
+        
+        assertThat(result.isComplete()).isTrue();
+        assertThat(result.getInsertedCount()).isEqualTo(LARGE_ROWS);
+        assertThat(logs).extracting(AuditLog::getLogId).doesNotContainNull().doesNotHaveDuplicates();
+    }
+    
+    private Reservation reservation(String number) {
+        Reservation reservation = new Reservation(TestDatabase.GUEST_ID, roomId, LocalDate.of(2026, 6, 1),
+                                                  LocalDate.of(2026, 6, 3));
+        reservation.setReservationNumber(number);
+        reservation.setCreatedBy(TestDatabase.USER_ID);
+        reservation.setTotalAmount(new BigDecimal("200.00"));
+        reservation.setFinalAmount(new BigDecimal("200.00"));
+        return reservation;
+    }
+    
+    private Payment payment(int reservationId, String number) {
+        Payment payment = new Payment(reservationId, new BigDecimal("50.00"), Payment.PaymentMethod.CASH);
+        payment.setPaymentNumber(number);
+        payment.setPaymentStatus(Payment.PaymentStatus.COMPLETED);
+        return payment;
+    }
+    
+    private List<AuditLog> auditLogs(int count) {
+        List<AuditLog> logs = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            logs.add(auditLog(i));
+        }
+        return logs;
+    }
+    
+    private AuditLog auditLog(int entityId) {
+        AuditLog log = new AuditLog(TestDatabase.USER_ID, "UPDATE", "RESERVATION", entityId);
+        log.setIpAddress("127.0.0.1");
+        return log;
+    }
+}
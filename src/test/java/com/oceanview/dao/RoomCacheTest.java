@@ -0,0 +1,123 @@
+package com.oceanview.dao;
+
+import com.oceanview.config.DatabaseConfig;
+import com.oceanview.model.Room;
+import org.junit.jupiter.api.*;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests for RoomCache against an H2 in-memory database
+ */
+@DisplayName("RoomCache Tests")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RoomCacheTest {
+    
+    private DatabaseConfig dbConfig;
+    private RoomDAO roomDAO;
+    private final AtomicLong clock = new AtomicLong();
+    private RoomCache cache;
+    
+    @BeforeAll
+    void setUpDatabase() throws SQLException {
+        dbConfig = TestDatabase.create("roomcache");
+        roomDAO = new RoomDAO(dbConfig);
+        
+        roomDAO.create(new Room("101", Room.RoomType.SINGLE, 1, 1, new BigDecimal("80.00")));
+        roomDAO.create(new Room("201", Room.RoomType.SUITE, 2, 4, new BigDecimal("300.00")));
+        roomDAO.create(new Room("102", Room.RoomType.SINGLE, 1, 1, new BigDecimal("85.00")));
+    }
+    
+    @BeforeEach
+    void setUp() {
+        cache = new RoomCache(roomDAO, clock::get, 60_000);
+    }
+    
+    @AfterAll
+    void tearDown() {
+        dbConfig.closeDataSource();
+    }
+    
+    @Test
+    @DisplayName("Should load the catalog once and answer lookups from memory")
+    void testReadThrough() throws SQLException {
+        // When
+        Room room = cache.findByRoomNumber("201").orElseThrow();
+        
+        // Then
+        assertThat(cache.findById(room.getRoomId())).contains(room);
+        assertThat(cache.findByType(Room.RoomType.SINGLE)).extracting(Room::getRoomNumber)
+            .containsExactly("101", "102");
+        assertThat(cache.findAll()).extracting(Room::getRoomNumber).containsExactly("101", "102", "201");
+        assertThat(cache.findByType(Room.RoomType.FAMILY)).isEmpty();
+        assertThat(cache.getMisses()).isEqualTo(1);
+        assertThat(cache.getHits()).isEqualTo(4);
+    }
+    
+    @Test
+    @DisplayName("Should return copies that callers may change")
+    void testCopies() throws SQLException {
+        Room room = cache.findByRoomNumber("201").orElseThrow();
+        room.setPricePerNight(new BigDecimal("1.00"));
+        
+        assertThat(cache.findByRoomNumber("201").orElseThrow().getPricePerNight())
+            .isEqualByComparingTo("300.00");
+    }
+    
+    @Test
+    @DisplayName("Should reload after a room write through RoomDAO")
+    void testInvalidateOnWrite() throws SQLException {
+        // Given
+        Room room = cache.findByRoomNumber("102").orElseThrow();
+        
+        // When
+        roomDAO.updateStatus(room.getRoomId(), Room.RoomStatus.MAINTENANCE);
+        
+        // Then
+        assertThat(cache.findById(room.getRoomId()).orElseThrow().getStatus())
+            .isEqualTo(Room.RoomStatus.MAINTENANCE);
+        assertThat(cache.getMisses()).isEqualTo(2);
+        roomDAO.updateStatus(room.getRoomId(), Room.RoomStatus.AVAILABLE);
+    }
+    
+    @Test
+    @DisplayName("Should pick up edits made outside the application after the TTL")
+    void testTtl() throws SQLException {
+        // Given
+        cache.findAll();
+        try (Connection conn = dbConfig.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.execute("UPDATE rooms SET price_per_night = 90.00 WHERE room_number = '101'");
+        }
+        
+        // When / Then
+        clock.addAndGet(59_000);
+        assertThat(cache.findByRoomNumber("101").orElseThrow().getPricePerNight()).isEqualByComparingTo("80.00");
+        clock.addAndGet(1_000);
+        assertThat(cache.findByRoomNumber("101").orElseThrow().getPricePerNight()).isEqualByComparingTo("90.00");
+    }
+    
+    @Test
+    @DisplayName("Should not publish rooms read inside a unit of work that rolls back")
+    void testRolledBackWrite() throws SQLException {
+        // Given
+        Room room = cache.findByRoomNumber("101").orElseThrow();
+        
+        // When
+        assertThatThrownBy(() -> new TransactionTemplate(dbConfig).execute(() -> {
+            roomDAO.updateStatus(room.getRoomId(), Room.RoomStatus.MAINTENANCE);
+            assertThat(cache.findById(room.getRoomId()).orElseThrow().getStatus())
+                .isEqualTo(Room.RoomStatus.MAINTENANCE);
+            throw new SQLException("rollback");
+        })).isInstanceOf(SQLException.class);
+        
+        // Then
+        assertThat(cache.findById(room.getRoomId()).orElseThrow().getStatus())
+            .isEqualTo(Room.RoomStatus.AVAILABLE);
+    }
+}
@@ -0,0 +1,144 @@
+package com.oceanview.dao;
+
+import com.oceanview.config.DatabaseConfig;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * H2 databases for tests
+ * Creates a named in-memory database in MySQL mode and runs the production
+ * schema (database/schema-jdbc.sql) on it, so tests see the same tables,
+ * constraints and indexes as the application. One guest user is seeded;
+ * rows that need a guest or a creating user can point at {@link #GUEST_ID}
+ * and {@link #USER_ID}.
+ */
+public final class TestDatabase {
+    
+    public static final int USER_ID = 1;
+    public static final int GUEST_ID = 1;
+    
+    private static final String SCHEMA = "/database/schema-jdbc.sql";
+    private static final Pattern CREATE_TABLE = Pattern.compile("CREATE TABLE (\\w+)");
+    
+    private TestDatabase() {
+    }
+    
+    /**
+     * Create a database with a fresh schema. Creating a database with a name
+     * that is still open drops and recreates every table.
+     * @param name Database name, unique per test class
+     * @param overrides Extra db.* settings as key=value, e.g. db.pool.maxActive=16
+     * @return New configuration; the caller must close it with closeDataSource
+     */
+    public static DatabaseConfig create(String name, String... overrides) throws SQLException {
+        Properties props = new Properties();
+        props.setProperty("db.driver", "org.h2.Driver");
+        props.setProperty("db.url", "jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1;MODE=MySQL");
+        props.setProperty("db.username", "sa");
+        props.setProperty("db.password", "");
+        for (String override : overrides) {
+            int eq = override.indexOf('=');
+            props.setProperty(override.substring(0, eq), override.substring(eq + 1));
+        }
+        DatabaseConfig dbConfig = DatabaseConfig.create(props);
+    
+        try (Connection conn = dbConfig.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP ALL OBJECTS");
+            for (String sql : schemaStatements()) {
+                stmt.execute(qualifyIndexNames(sql));
+            }
+            stmt.execute("INSERT INTO users (user_id, username, password, email, full_name, role) " +
+                         "VALUES (" + USER_ID + ", 'guest', 'hash', 'guest@example.com', 'Test Guest', 'GUEST')");
+            stmt.execute("INSERT INTO guests (guest_id, user_id) VALUES (" + GUEST_ID + ", " + USER_ID + ")");
+        }
+        return dbConfig;
+    }
+    
+    /**
+     * Run statements on a connection of their own
+     */
+    public static void execute(DatabaseConfig dbConfig, String... sql) throws SQLException {
+        try (Connection conn = dbConfig.getConnection(); Statement stmt = conn.createStatement()) {
+            for (String statement : sql) {
+                stmt.execute(statement);
+            }
+        }
+    }
+    
+    /**
+     * INSERT of a one-guest stay booked by the seeded guest, for seeding reservations
+     * @param number Reservation number
+     * @param status Reservation status name
+     */
+    public static String stay(String number, int roomId, LocalDate checkIn, LocalDate checkOut, String status) {
+        return "INSERT INTO reservations (reservation_number, guest_id, room_id, check_in_date, check_out_date, " +
+               "number_of_guests, number_of_nights, total_amount, final_amount, status, created_by) VALUES ('" +
+               number + "', " + GUEST_ID + ", " + roomId + ", '" + checkIn + "', '" + checkOut + "', 1, " +
+               ChronoUnit.DAYS.between(checkIn, checkOut) + ", 100, 100, '" + status + "', " + USER_ID + ")";
+    }
+    
+    /**
+     * Drop every table and close the pool
+     */
+    public static void drop(DatabaseConfig dbConfig) throws SQLException {
+        execute(dbConfig, "DROP ALL OBJECTS");
+        dbConfig.closeDataSource();
+    }
+    
+    /**
+     * Statements of the schema script, without comments and without the
+     * MySQL-only database creation and selection at its top
+     */
+    private static List<String> schemaStatements() {
+        StringBuilder script = new StringBuilder();
+        for (String line : readSchema().split("\n")) {
+            if (!line.trim().startsWith("--")) {
+                script.append(line).append('\n');
+            }
+        }
+        List<String> statements = new ArrayList<>();
+        for (String statement : script.toString().split(";")) {
+            String sql = statement.trim();
+            if (!sql.isEmpty() && !sql.startsWith("CREATE DATABASE") && !sql.startsWith("USE ")) {
+                statements.add(sql);
+            }
+        }
+        return statements;
+    }
+    
+    /**
+     * H2 index names are unique per schema rather than per table, so the
+     * inline indexes of a CREATE TABLE are prefixed with the table name
+     */
+    private static String qualifyIndexNames(String sql) {
+        Matcher table = CREATE_TABLE.matcher(sql);
+        if (!table.lookingAt()) {
+            return sql;
+        }
+        return sql.replaceAll("\\bINDEX (\\w+) \\(", "INDEX " + table.group(1) + "_$1 (");
+    }
+    
+    private static String readSchema() {
+        try (InputStream in = TestDatabase.class.getResourceAsStream(SCHEMA)) {
+            if (in == null) {
+                throw new IllegalStateException("Schema not on the classpath: " + SCHEMA);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.oceanview.dao;
+
+import com.oceanview.config.DatabaseConfig;
+import com.oceanview.model.Payment;
+import com.oceanview.model.Reservation;
+import com.oceanview.model.Room;
+import org.junit.jupiter.api.*;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Integration tests for TransactionTemplate
+ * Runs several DAOs in one unit of work on an H2 in-memory database
+ */
+@DisplayName("TransactionTemplate Tests")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class TransactionTemplateTest {
+    
+    private DatabaseConfig dbConfig;
+    private TransactionTemplate transactionTemplate;
+    private RoomDAO roomDAO;
+    private PaymentDAO paymentDAO;
+    private int reservationId;
+    
+    @BeforeAll
+    void setUpDatabase() throws SQLException {
+        dbConfig = TestDatabase.create("unitofwork", "db.pool.initialSize=1", "db.pool.minIdle=1");
+        
+        // Payments need a reservation to belong to
+        int roomId = new RoomDAO(dbConfig).create(room("900"));
+        Reservation reservation = new Reservation(TestDatabase.GUEST_ID, roomId, LocalDate.of(2030, 1, 1),
+                                                  LocalDate.of(2030, 1, 2));
+        reservation.setReservationNumber("RES-1");
+        reservation.setFinalAmount(new BigDecimal("90.00"));
+        reservation.setCreatedBy(TestDatabase.USER_ID);
+        reservationId = new ReservationDAO(dbConfig).create(reservation);
+    }
+    
+    @BeforeEach
+    void setUp() throws SQLException {
+        try (Connection conn = dbConfig.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.execute("DELETE FROM payments");
+            stmt.execute("DELETE FROM rooms WHERE room_number <> '900'");
+        }
+        transactionTemplate = new TransactionTemplate(dbConfig);
+        roomDAO = new RoomDAO(dbConfig);
+        paymentDAO = new PaymentDAO(dbConfig);
+    }
+    
+    @AfterAll
+    void tearDown() {
+        dbConfig.closeDataSource();
+    }
+    
+    @Test
+    @DisplayName("Should run every DAO call on one pooled connection and commit")
+    void testCommitOnOneConnection() throws SQLException {
+        // Given
+        int roomId = roomDAO.create(room("101"));
+        
+        // When
+        int activeInside = transactionTemplate.execute(() -> {
+            roomDAO.findById(roomId);
+            roomDAO.updateStatus(roomId, Room.RoomStatus.RESERVED);
+            paymentDAO.create(payment("PAY-1"));
+            assertThat(TransactionTemplate.isActive()).isTrue();
+            return dbConfig.getActiveConnections();
+        });
+        
+        // Then
+        assertThat(activeInside).isEqualTo(1);
+        assertThat(TransactionTemplate.isActive()).isFalse();
+        assertThat(dbConfig.getActiveConnections()).isZero();
+        assertThat(roomDAO.findById(roomId)).get()
+            .extracting(Room::getStatus).isEqualTo(Room.RoomStatus.RESERVED);
+        assertThat(paymentDAO.findAll()).hasSize(1);
+    }
+    
+    @Test
+    @DisplayName("Should roll back every DAO call when the callback fails")
+    void testRollbackOnFailure() throws SQLException {
+        // Given
+        int roomId = roomDAO.create(room("102"));
+        
+        // When - the second payment violates the unique payment number
+        assertThatThrownBy(() -> transactionTemplate.execute(() -> {
+            roomDAO.updateStatus(roomId, Room.RoomStatus.OCCUPIED);
+            paymentDAO.create(payment("PAY-2"));
+            return paymentDAO.create(payment("PAY-2"));
+        })).isInstanceOf(SQLException.class);
+        
+        // Then
+        assertThat(roomDAO.findById(roomId)).get()
+            .extracting(Room::getStatus).isEqualTo(Room.RoomStatus.AVAILABLE);
+        assertThat(paymentDAO.findAll()).isEmpty();
+        assertThat(dbConfig.getActiveConnections()).isZero();
+    }
+    
+    @Test
+    @DisplayName("Should join an outer unit of work from a nested execute")
+    void testNestedJoinsOuter() throws SQLException {
+        // When
+        assertThatThrownBy(() -> transactionTemplate.execute(() -> {
+            transactionTemplate.execute(() -> roomDAO.create(room("103")));
+            throw new IllegalStateException("outer fails after inner returned");
+        })).isInstanceOf(IllegalStateException.class);
+        
+        // Then - the inner work was not committed on its own
+        assertThat(roomDAO.findByRoomNumber("103")).isEmpty();
+    }
+    
+    @Test
+    @DisplayName("Should keep earlier work when a batch chunk is rejected inside a unit of work")
+    void testBatchInsertInsideUnitOfWork() throws SQLException {
+        // When
+        BatchResult<Payment> result = transactionTemplate.execute(() -> {
+            roomDAO.create(room("104"));
+            return paymentDAO.createAll(List.of(payment("PAY-3"), payment("PAY-3"), payment("PAY-4")));
+        });
+        
+        // Then
+        assertThat(result.getInsertedCount()).isEqualTo(2);
+        assertThat(result.getFailures()).extracting(BatchResult.Failure::getIndex).containsExactly(1);
+        assertThat(roomDAO.findByRoomNumber("104")).isPresent();
+        assertThat(paymentDAO.findAll()).hasSize(2);
+    }
+    
+    private Room room(String number) {
+        Room room = new Room();
+        room.setRoomNumber(number);
+        room.setRoomType(Room.RoomType.SINGLE);
+        room.setFloor(1);
+        room.setCapacity(2);
+        room.setPricePerNight(new BigDecimal("90.00"));
+        room.setStatus(Room.RoomStatus.AVAILABLE);
+        return room;
+    }
+    
+    private Payment payment(String number) {
+        Payment payment = new Payment(reservationId, new BigDecimal("50.00"), Payment.PaymentMethod.CARD);
+        payment.setPaymentNumber(number);
+        payment.setPaymentStatus(Payment.PaymentStatus.COMPLETED);
+        return payment;
+    }
+}
@@ -0,0 +1,198 @@
+package com.oceanview.dao;
+
+import com.oceanview.config.DatabaseConfig;
+import com.oceanview.model.User;
+import com.oceanview.model.UserPrincipal;
+import org.junit.jupiter.api.*;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests for UserCache against an H2 in-memory database
+ */
+@DisplayName("UserCache Tests")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class UserCacheTest {
+    
+    private DatabaseConfig dbConfig;
+    private UserDAO userDAO;
+    private final AtomicLong clock = new AtomicLong();
+    private UserCache cache;
+    
+    @BeforeAll
+    void setUpDatabase() throws SQLException {
+        dbConfig = TestDatabase.create("usercache");
+        userDAO = new UserDAO(dbConfig);
+        
+        for (String name : new String[] {"alice", "bob", "carol"}) {
+            User user = new User();
+            user.setUsername(name);
+            user.setPassword("hash-" + name);
+            user.setEmail(name + "@example.com");
+            user.setFullName(name);
+            user.setRole(User.Role.STAFF);
+            user.setStatus(User.Status.ACTIVE);
+            userDAO.create(user);
+        }
+    }
+    
+    @BeforeEach
+    void setUp() {
+        cache = new UserCache(userDAO, clock::get, 60_000, 2);
+    }
+    
+    @AfterAll
+    void tearDown() {
+        dbConfig.closeDataSource();
+    }
+    
+    @Test
+    @DisplayName("Should answer logins and principals from memory after the first load")
+    void testReadThrough() throws SQLException {
+        // When
+        User alice = cache.findByLogin("alice").orElseThrow();
+        
+        // Then
+        assertThat(cache.findByLogin("ALICE@example.com")).map(User::getUserId).contains(alice.getUserId());
+        assertThat(cache.findPrincipal(alice.getUserId())).map(UserPrincipal::getRole).contains(User.Role.STAFF);
+        assertThat(cache.findByLogin("nobody")).isEmpty();
+        assertThat(cache.getHits()).isEqualTo(2);
+        assertThat(cache.getMisses()).isEqualTo(3);
+        
+        alice.setPassword("changed");
+        assertThat(cache.findByLogin("alice").orElseThrow().getPassword()).isEqualTo("hash-alice");
+    }
+    
+    @Test
+    @DisplayName("Should reload a user after a write through UserDAO")
+    void testInvalidateOnWrite() throws SQLException {
+        // Given
+        User bob = cache.findByLogin("bob").orElseThrow();
+        
+        // When
+        bob.setStatus(User.Status.SUSPENDED);
+        userDAO.update(bob);
+        
+        // Then
+        assertThat(cache.findPrincipal(bob.getUserId()).orElseThrow().isActive()).isFalse();
+        bob.setStatus(User.Status.ACTIVE);
+        userDAO.update(bob);
+        assertThat(cache.findPrincipal(bob.getUserId()).orElseThrow().isActive()).isTrue();
+        assertThat(cache.getMisses()).isEqualTo(3);
+    }
+    
+    @Test
+    @DisplayName("Should pick up edits made outside the application after the TTL")
+    void testTtl() throws SQLException {
+        // Given
+        int carolId = cache.findByLogin("carol").orElseThrow().getUserId();
+        try (Connection conn = dbConfig.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.execute("UPDATE users SET role = 'ADMIN' WHERE username = 'carol'");
+        }
+        
+        // When / Then
+        clock.addAndGet(59_000);
+        assertThat(cache.findPrincipal(carolId).orElseThrow().getRole()).isEqualTo(User.Role.STAFF);
+        clock.addAndGet(1_000);
+        assertThat(cache.findPrincipal(carolId).orElseThrow().getRole()).isEqualTo(User.Role.ADMIN);
+    }
+    
+    @Test
+    @DisplayName("Should keep at most the configured number of users")
+    void testLruBound() throws SQLException {
+        // Given
+        cache.findByLogin("alice");
+        cache.findByLogin("bob");
+        cache.findByLogin("alice");
+        
+        // When - carol evicts bob, the least recently used
+        cache.findByLogin("carol");
+        
+        // Then
+        assertThat(cache.size()).isEqualTo(2);
+        long misses = cache.getMisses();
+        cache.findByLogin("alice");
+        assertThat(cache.getMisses()).isEqualTo(misses);
+        cache.findByLogin("bob");
+        assertThat(cache.getMisses()).isEqualTo(misses + 1);
+    }
+    
+    @Test
+    @DisplayName("Should serve concurrent readers from one cached entry")
+    void testConcurrentHits() throws Exception {
+        // Given
+        int userId = cache.findByLogin("alice").orElseThrow().getUserId();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> readers = new ArrayList<>();
+        
+        // When
+        for (int t = 0; t < 8; t++) {
+            readers.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 1_000; i++) {
+                    assertThat(cache.findPrincipal(userId)).isPresent();
+                    assertThat(cache.findByLogin("alice@example.com")).isPresent();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> reader : readers) {
+            reader.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        
+        // Then
+        assertThat(cache.getMisses()).isEqualTo(1);
+        assertThat(cache.getHits()).isEqualTo(16_000);
+    }
+    
+    @Test
+    @DisplayName("Should not cache a user read inside a unit of work that rolls back")
+    void testRolledBackWrite() throws SQLException {
+        // Given
+        User alice = cache.findByLogin("alice").orElseThrow();
+        
+        // When
+        assertThatThrownBy(() -> new TransactionTemplate(dbConfig).execute(() -> {
+            alice.setRole(User.Role.ADMIN);
+            userDAO.update(alice);
+            assertThat(cache.findPrincipal(alice.getUserId()).orElseThrow().getRole()).isEqualTo(User.Role.ADMIN);
+            throw new SQLException("rollback");
+        })).isInstanceOf(SQLException.class);
+        
+        // Then
+        assertThat(cache.findPrincipal(alice.getUserId()).orElseThrow().getRole()).isEqualTo(User.Role.STAFF);
+    }
+    
+    @Test
+    @DisplayName("Should forget change stamps older than the TTL")
+    void testChangesExpire() throws SQLException {
+        // Given
+        User bob = cache.findByLogin("bob").orElseThrow();
+        userDAO.update(bob);
+        assertThat(cache.trackedChanges()).isEqualTo(1);
+        
+        // When
+        clock.addAndGet(60_000);
+        User carol = cache.findByLogin("carol").orElseThrow();
+        userDAO.update(carol);
+        
+        // Then
+        assertThat(cache.trackedChanges()).isEqualTo(1);
+        assertThat(cache.findByLogin("carol").orElseThrow().getUserId()).isEqualTo(carol.getUserId());
+    }
+}
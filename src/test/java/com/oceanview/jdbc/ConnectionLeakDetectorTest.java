@@ -0,0 +1,96 @@
+package com.oceanview.jdbc;
+
+import com.oceanview.config.DatabaseConfig;
+import com.oceanview.dao.TestDatabase;
+import org.junit.jupiter.api.*;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests for connection leak detection
+ * Tracks every borrow from an H2 in-memory pool with a short threshold
+ */
+@DisplayName("ConnectionLeakDetector Tests")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ConnectionLeakDetectorTest {
+    
+    private DatabaseConfig dbConfig;
+    private ConnectionLeakDetector detector;
+    
+    @BeforeAll
+    void setUpDatabase() throws SQLException {
+        dbConfig = TestDatabase.create("leakdetector", "db.pool.initialSize=1", "db.pool.minIdle=1",
+                                       "db.leakDetection.sampleRate=1", "db.leakDetection.thresholdMillis=50");
+        detector = dbConfig.getLeakDetector();
+    }
+    
+    @BeforeEach
+    void setUp() {
+        detector.reset();
+    }
+    
+    @AfterAll
+    void tearDown() {
+        dbConfig.closeDataSource();
+    }
+    
+    @Test
+    @DisplayName("Should flag a connection held past the threshold against its borrow site")
+    void testFlagsLongHeldConnection() throws Exception {
+        long suspectsBefore = detector.getSuspectCount();
+        Connection conn = dbConfig.getConnection();
+        Thread.sleep(80);
+        
+        assertThat(detector.scan()).isEqualTo(1);
+        assertThat(detector.scan()).isZero();
+        assertThat(detector.getSuspectCount()).isEqualTo(suspectsBefore + 1);
+        assertThat(detector.getOpenSuspectCount()).isEqualTo(1);
+        
+        List<ConnectionLeakDetector.SiteStats> sites = detector.getSites();
+        assertThat(sites).hasSize(1);
+        assertThat(sites.get(0).getSite()).contains("ConnectionLeakDetectorTest.testFlagsLongHeldConnection");
+        assertThat(sites.get(0).getLeaks()).isEqualTo(1);
+        assertThat(sites.get(0).getOpenNow()).isEqualTo(1);
+        
+        conn.close();
+        conn.close();
+        assertThat(detector.getOpenSuspectCount()).isZero();
+        assertThat(sites.get(0).getOpenNow()).isZero();
+        assertThat(sites.get(0).getMaxHeldMillis()).isGreaterThanOrEqualTo(50);
+    }
+    
+    @Test
+    @DisplayName("Should pass calls through and leave promptly closed connections unflagged")
+    void testPromptCloseIsNotFlagged() throws SQLException {
+        try (Connection conn = dbConfig.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT 1")) {
+            assertThat(rs.next()).isTrue();
+            assertThat(conn).isEqualTo(conn);
+        }
+        
+        assertThat(detector.scan()).isZero();
+        assertThat(detector.getSites()).singleElement()
+            .satisfies(site -> {
+                assertThat(site.getSampled()).isEqualTo(1);
+                assertThat(site.getLeaks()).isZero();
+            });
+    }
+    
+    @Test
+    @DisplayName("Should hand out connections untouched when not sampled")
+    void testUnsampledConnectionsAreNotTracked() throws SQLException {
+        ConnectionLeakDetector off = new ConnectionLeakDetector(true, 0, 50);
+        try (Connection conn = dbConfig.getDataSource().getConnection()) {
+            assertThat(off.track(conn)).isSameAs(conn);
+        }
+        assertThat(off.isEnabled()).isFalse();
+        assertThat(off.getSites()).isEmpty();
+    }
+}
@@ -0,0 +1,134 @@
+package com.oceanview.jdbc;
+
+import com.oceanview.config.DatabaseConfig;
+import com.oceanview.dao.TestDatabase;
+import com.oceanview.metrics.MetricsWriter;
+import org.junit.jupiter.api.*;
+
+import java.io.StringWriter;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Integration tests for the instrumented connection pool
+ * Runs plain JDBC against an H2 in-memory database in MySQL mode
+ */
+@DisplayName("InstrumentedDataSource Tests")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class InstrumentedDataSourceTest {
+    
+    private DatabaseConfig dbConfig;
+    private SqlStatistics statistics;
+    
+    @BeforeAll
+    void setUpDatabase() throws SQLException {
+        dbConfig = TestDatabase.create("instrumented", "db.pool.initialSize=1", "db.pool.minIdle=1",
+                                       "db.slowStatementMillis=0");
+        statistics = dbConfig.getSqlStatistics();
+    }
+    
+    @BeforeEach
+    void setUp() throws SQLException {
+        try (Connection conn = dbConfig.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.execute("DELETE FROM audit_logs");
+        }
+        statistics.reset();
+    }
+    
+    @AfterAll
+    void tearDown() {
+        dbConfig.closeDataSource();
+    }
+    
+    @Test
+    @DisplayName("Should count executions, affected rows and fetched rows per statement")
+    void testStatementStatistics() throws SQLException {
+        try (Connection conn = dbConfig.getConnection()) {
+            try (PreparedStatement insert = conn.prepareStatement("INSERT INTO audit_logs (action) VALUES (?)")) {
+                for (String action : new String[]{"LOGIN", "UPDATE", "LOGOUT"}) {
+                    insert.setString(1, action);
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+            for (int i = 0; i < 2; i++) {
+                try (PreparedStatement select =
+                         conn.prepareStatement("SELECT action FROM audit_logs WHERE log_id > ?")) {
+                    select.setInt(1, 0);
+                    try (ResultSet rs = select.executeQuery()) {
+                        while (rs.next()) {
+                            assertThat(rs.getString(1)).isNotBlank();
+                        }
+                        assertThat(rs.getStatement()).isSameAs(select);
+                    }
+                }
+            }
+        }
+        
+        SqlStatistics.StatementStats insert = find("INSERT INTO audit_logs (action) VALUES (?)");
+        SqlStatistics.StatementStats select = find("SELECT action FROM audit_logs WHERE log_id > ?");
+        assertThat(insert.getExecutions()).isEqualTo(1);
+        assertThat(insert.getRows()).isEqualTo(3);
+        assertThat(select.getExecutions()).isEqualTo(2);
+        assertThat(select.getRows()).isEqualTo(6);
+        // A zero threshold makes every execution slow
+        assertThat(statistics.getSlowCount()).isEqualTo(3);
+        assertThat(statistics.getStatements().get(0).getTotalNanos())
+            .isGreaterThanOrEqualTo(statistics.getStatements().get(1).getTotalNanos());
+    }
+    
+    @Test
+    @DisplayName("Should group statements that differ only in literals and list length")
+    void testFingerprint() throws SQLException {
+        try (Connection conn = dbConfig.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("INSERT INTO audit_logs (action) VALUES ('O''Neil')");
+            stmt.executeUpdate("INSERT INTO audit_logs (action) VALUES ('Zoe')");
+            stmt.executeQuery("SELECT * FROM audit_logs WHERE log_id IN (1, 2, 3)").close();
+            stmt.executeQuery("SELECT * FROM audit_logs WHERE log_id IN (4,5)").close();
+            assertThatThrownBy(() -> stmt.executeQuery("SELECT missing FROM audit_logs WHERE action = 'secret'"))
+                .isInstanceOf(SQLException.class);
+        }
+        
+        assertThat(find("INSERT INTO audit_logs (action) VALUES (?)").getExecutions()).isEqualTo(2);
+        assertThat(find("SELECT * FROM audit_logs WHERE log_id IN (?, ...)").getExecutions()).isEqualTo(2);
+        assertThat(find("SELECT missing FROM audit_logs WHERE action = ?").getErrors()).isEqualTo(1);
+        assertThat(SqlFingerprint.of("SELECT  t2.a1\n FROM t2 WHERE x=-1.5 ;")).isEqualTo("SELECT t2.a1 FROM t2 WHERE x=-?");
+        assertThat(statistics.getStatements()).extracting(SqlStatistics.StatementStats::getSql)
+            .noneMatch(sql -> sql.contains("secret") || sql.contains("Neil"));
+    }
+    
+    @Test
+    @DisplayName("Should charge connection wait to the first statement and export metrics")
+    void testWaitAndMetrics() throws Exception {
+        try (Connection conn = dbConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("SELECT COUNT(*) FROM audit_logs")) {
+            assertThat(stmt.getConnection()).isSameAs(conn);
+            try (ResultSet rs = stmt.executeQuery()) {
+                assertThat(rs.next()).isTrue();
+            }
+        }
+        
+        StringWriter out = new StringWriter();
+        statistics.collect(new MetricsWriter(out));
+        SqlStatistics.StatementStats count = find("SELECT COUNT(*) FROM audit_logs");
+        
+        assertThat(count.getWaitMillis()).isGreaterThan(0);
+        assertThat(out.toString())
+            .contains("oceanview_sql_statement_info{statement=\"" + count.getId() +
+                      "\",sql=\"SELECT COUNT(*) FROM audit_logs\"} 1")
+            .contains("oceanview_sql_rows_total{statement=\"" + count.getId() + "\"} 1")
+            .contains("oceanview_sql_statement_duration_seconds_count{statement=\"" + count.getId() + "\"} 1");
+    }
+    
+    private SqlStatistics.StatementStats find(String fingerprint) {
+        return statistics.getStatements().stream()
+            .filter(stats -> stats.getSql().equals(fingerprint))
+            .findFirst()
+            .orElseThrow(() -> new AssertionError("No statistics for " + fingerprint));
+    }
+}
@@ -0,0 +1,100 @@
+package com.oceanview.jdbc;
+
+import com.oceanview.config.DatabaseConfig;
+import com.oceanview.dao.TestDatabase;
+import com.oceanview.metrics.MetricsWriter;
+import org.junit.jupiter.api.*;
+
+import java.io.StringWriter;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests for pool telemetry and adaptive pool sizing
+ * Runs against a one-connection H2 in-memory pool that times out quickly
+ */
+@DisplayName("PoolTelemetry Tests")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PoolTelemetryTest {
+    
+    private DatabaseConfig dbConfig;
+    private PoolTelemetry telemetry;
+    
+    @BeforeAll
+    void setUpDatabase() throws SQLException {
+        dbConfig = TestDatabase.create("pooltelemetry", "db.pool.initialSize=1", "db.pool.minIdle=1",
+                                       "db.pool.maxActive=1", "db.pool.maxWait=100");
+        telemetry = dbConfig.getPoolTelemetry();
+    }
+    
+    @BeforeEach
+    void setUp() {
+        dbConfig.getDataSource().setMaxTotal(1);
+        telemetry.drainWindow();
+    }
+    
+    @AfterAll
+    void tearDown() {
+        dbConfig.closeDataSource();
+    }
+    
+    @Test
+    @DisplayName("Should validate idle connections only, with Connection.isValid")
+    void testValidationSettings() {
+        assertThat(dbConfig.getDataSource().getTestOnBorrow()).isFalse();
+        assertThat(dbConfig.getDataSource().getTestOnReturn()).isFalse();
+        assertThat(dbConfig.getDataSource().getTestWhileIdle()).isTrue();
+        assertThat(dbConfig.getDataSource().getValidationQuery()).isNull();
+    }
+    
+    @Test
+    @DisplayName("Should record borrow waits, peak usage and timeouts")
+    void testBorrowTelemetry() throws Exception {
+        long borrowsBefore = telemetry.getBorrowWait().getCount();
+        long timeoutsBefore = telemetry.getTimeoutCount();
+        
+        try (Connection held = dbConfig.getConnection()) {
+            assertThat(held.isClosed()).isFalse();
+            assertThatThrownBy(() -> dbConfig.getConnection()).isInstanceOf(SQLException.class);
+        }
+        
+        assertThat(telemetry.getBorrowWait().getCount()).isEqualTo(borrowsBefore + 2);
+        assertThat(telemetry.getTimeoutCount()).isEqualTo(timeoutsBefore + 1);
+        assertThat(telemetry.getPeakActive()).isEqualTo(1);
+        assertThat(telemetry.getBorrowWait().getQuantileSeconds(1.0)).isGreaterThanOrEqualTo(0.1);
+        
+        StringWriter out = new StringWriter();
+        telemetry.collect(new MetricsWriter(out));
+        assertThat(out.toString())
+            .contains("oceanview_db_pool_borrow_wait_seconds_count " + (borrowsBefore + 2))
+            .contains("oceanview_db_pool_timeouts_total " + (timeoutsBefore + 1))
+            .contains("oceanview_db_pool_max_total 1");
+    }
+    
+    @Test
+    @DisplayName("Should grow the pool while it times out and shrink it once connections sit unused")
+    void testAdaptiveSizing() throws Exception {
+        PoolSizeController controller = new PoolSizeController(dbConfig.getDataSource(), telemetry,
+                                                               false, 1, 2, 50, 1, 30);
+        
+        try (Connection held = dbConfig.getConnection()) {
+            assertThat(held.isClosed()).isFalse();
+            assertThatThrownBy(() -> dbConfig.getConnection()).isInstanceOf(SQLException.class);
+            assertThat(controller.adjust()).isEqualTo(2);
+            
+            // Holding a second connection keeps the pool saturated at the upper bound
+            try (Connection second = dbConfig.getConnection()) {
+                assertThat(second).isNotNull();
+            }
+            assertThat(controller.adjust()).isEqualTo(2);
+        }
+        
+        // A quiet interval with nothing in use
+        telemetry.drainWindow();
+        assertThat(controller.adjust()).isEqualTo(1);
+        assertThat(dbConfig.getDataSource().getMaxTotal()).isEqualTo(1);
+        assertThat(telemetry.getResizeCount()).isGreaterThanOrEqualTo(2);
+    }
+}
@@ -0,0 +1,76 @@
+package com.oceanview.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests for HttpMetrics and the Prometheus output of MetricsRegistry
+ */
+@DisplayName("HttpMetrics Tests")
+class HttpMetricsTest {
+    
+    @Test
+    @DisplayName("Should write per-action histograms, status counts and errors")
+    void testScrape() throws Exception {
+        HttpMetrics metrics = new HttpMetrics(100);
+        record(metrics, "ReservationServlet", "confirm", 200, 12, false);
+        record(metrics, "ReservationServlet", "confirm", 302, 40, false);
+        record(metrics, "ReportServlet", "revenue", 500, 800, true);
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.register("http", metrics);
+        registry.gauge("oceanview_test_gauge", "Test \"gauge\"", () -> 2.5);
+        
+        String text = scrape(registry);
+        
+        assertThat(text)
+            .contains("# TYPE oceanview_http_request_duration_seconds histogram\n")
+            .contains("oceanview_http_request_duration_seconds_bucket{servlet=\"ReservationServlet\",action=\"confirm\",le=\"0.025\"} 1\n")
+            .contains("oceanview_http_request_duration_seconds_bucket{servlet=\"ReservationServlet\",action=\"confirm\",le=\"+Inf\"} 2\n")
+            .contains("oceanview_http_request_duration_seconds_count{servlet=\"ReportServlet\",action=\"revenue\"} 1\n")
+            .contains("oceanview_http_request_duration_quantile_seconds{servlet=\"ReservationServlet\",action=\"confirm\",quantile=\"0.99\"} 0.04")
+            .contains("oceanview_http_responses_total{servlet=\"ReservationServlet\",action=\"confirm\",status=\"302\"} 1\n")
+            .contains("oceanview_http_request_errors_total{servlet=\"ReportServlet\",action=\"revenue\"} 1\n")
+            .contains("oceanview_http_requests_in_flight 0\n")
+            .contains("oceanview_test_gauge 2.5\n");
+        // Every family's samples are written together
+        assertThat(text.indexOf("# TYPE oceanview_http_responses_total"))
+            .isGreaterThan(text.lastIndexOf("oceanview_http_request_duration_quantile_seconds{"));
+    }
+    
+    @Test
+    @DisplayName("Should bound the label values taken from the action parameter")
+    void testActionCardinality() throws Exception {
+        assertThat(HttpMetrics.labelFor(null)).isEmpty();
+        assertThat(HttpMetrics.labelFor("check-in_2")).isEqualTo("check-in_2");
+        assertThat(HttpMetrics.labelFor("x\"}")).isEqualTo(HttpMetrics.OTHER);
+        assertThat(HttpMetrics.labelFor("a".repeat(41))).isEqualTo(HttpMetrics.OTHER);
+        
+        HttpMetrics metrics = new HttpMetrics(3);
+        for (int i = 0; i < 10; i++) {
+            record(metrics, "RoomServlet", "action" + i, 200, 1, false);
+        }
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.register("http", metrics);
+        String text = scrape(registry);
+        
+        assertThat(text).contains("action=\"action2\"").doesNotContain("action=\"action3\"")
+            .contains("oceanview_http_request_duration_seconds_count{servlet=\"RoomServlet\",action=\"other\"} 7\n");
+    }
+    
+    private static void record(HttpMetrics metrics, String servlet, String action, int status,
+                               long millis, boolean failed) {
+        metrics.requestStarted();
+        metrics.record(servlet, action, status, TimeUnit.MILLISECONDS.toNanos(millis), failed);
+    }
+    
+    private static String scrape(MetricsRegistry registry) throws Exception {
+        StringWriter out = new StringWriter();
+        registry.scrape(out);
+        return out.toString();
+    }
+}
@@ -0,0 +1,70 @@
+package com.oceanview.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for LatencyHistogram
+ */
+@DisplayName("LatencyHistogram Tests")
+class LatencyHistogramTest {
+    
+    @Test
+    @DisplayName("Should place every value in a bucket no wider than about 3%")
+    void testBucketBounds() {
+        int previous = -1;
+        for (long micros = 0; micros < 5_000_000; micros += 1 + micros / 50) {
+            int index = LatencyHistogram.bucketIndex(micros);
+            long upper = LatencyHistogram.bucketUpperMicros(index);
+            assertThat(index).isGreaterThanOrEqualTo(previous);
+            assertThat(upper).isGreaterThanOrEqualTo(micros);
+            assertThat(upper - micros).isLessThanOrEqualTo(Math.max(1, micros / 32));
+            previous = index;
+        }
+        assertThat(LatencyHistogram.bucketIndex(Long.MAX_VALUE >>> 25))
+            .isLessThan(LatencyHistogram.BUCKET_COUNT);
+    }
+    
+    @Test
+    @DisplayName("Should report quantiles, sum and cumulative buckets")
+    void testQuantiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int millis = 1; millis <= 1000; millis++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(millis));
+        }
+        
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        
+        assertThat(snapshot.getCount()).isEqualTo(1000);
+        assertThat(snapshot.getSumSeconds()).isCloseTo(500.5, within(0.001));
+        assertThat(snapshot.getQuantileSeconds(0.5)).isCloseTo(0.5, withinPercentage(4));
+        assertThat(snapshot.getQuantileSeconds(0.99)).isCloseTo(0.99, withinPercentage(4));
+        assertThat(snapshot.getCountAtOrBelow(0.1)).isBetween(95L, 100L);
+        assertThat(snapshot.getCountAtOrBelow(10)).isEqualTo(1000);
+        assertThat(new LatencyHistogram().snapshot().getQuantileSeconds(0.99)).isZero();
+    }
+    
+    @Test
+    @DisplayName("Should not lose counts under concurrent recording")
+    void testConcurrentRecord() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int t = 0; t < 4; t++) {
+            executor.execute(() -> {
+                for (int i = 0; i < 50_000; i++) {
+                    histogram.record(i * 1000L);
+                }
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        
+        assertThat(histogram.snapshot().getCount()).isEqualTo(200_000);
+    }
+}
@@ -0,0 +1,153 @@
+package com.oceanview.service;
+
+import com.oceanview.config.DatabaseConfig;
+import com.oceanview.dao.AuditLogDAO;
+import com.oceanview.dao.BatchResult;
+import com.oceanview.dao.TestDatabase;
+import com.oceanview.model.AuditLog;
+import org.junit.jupiter.api.*;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests for AuditLogWriter against an H2 in-memory database
+ */
+@DisplayName("AuditLogWriter Tests")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class AuditLogWriterTest {
+    
+    private DatabaseConfig dbConfig;
+    private AuditLogDAO auditLogDAO;
+    
+    @BeforeAll
+    void setUpDatabase() throws SQLException {
+        dbConfig = TestDatabase.create("auditwriter", "db.batch.size=50");
+        auditLogDAO = new AuditLogDAO(dbConfig);
+    }
+    
+    @BeforeEach
+    void setUp() throws SQLException {
+        try (Connection conn = dbConfig.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.execute("DELETE FROM audit_logs");
+        }
+    }
+    
+    @AfterAll
+    void tearDown() {
+        dbConfig.closeDataSource();
+    }
+    
+    @Test
+    @DisplayName("Should write queued entries in batches on flush")
+    void testFlush() throws SQLException {
+        // Given
+        AuditLogWriter writer = new AuditLogWriter(auditLogDAO, 1000, 40, 60_000,
+                                                   AuditLogWriter.OverflowPolicy.DROP, 10, 0);
+        for (int i = 0; i < 100; i++) {
+            assertThat(writer.submit(new AuditLog(TestDatabase.USER_ID, "ACCESS", "HTTP_REQUEST", i))).isTrue();
+        }
+        assertThat(writer.getQueueDepth()).isEqualTo(100);
+        assertThat(countRows()).isZero();
+        
+        // When
+        int written = writer.flush();
+        
+        // Then
+        assertThat(written).isEqualTo(100);
+        assertThat(writer.getQueueDepth()).isZero();
+        assertThat(writer.getWrittenCount()).isEqualTo(100);
+        assertThat(countRows()).isEqualTo(100);
+    }
+    
+    @Test
+    @DisplayName("Should drop or sample entries when the queue fills up")
+    void testOverflow() {
+        AuditLogWriter drop = new AuditLogWriter(auditLogDAO, 10, 100, 60_000,
+                                                 AuditLogWriter.OverflowPolicy.DROP, 10, 0);
+        AuditLogWriter sample = new AuditLogWriter(auditLogDAO, 10, 100, 60_000,
+                                                   AuditLogWriter.OverflowPolicy.SAMPLE, 5, 0);
+        AuditLogWriter block = new AuditLogWriter(auditLogDAO, 10, 100, 60_000,
+                                                  AuditLogWriter.OverflowPolicy.BLOCK, 10, 20);
+        
+        for (int i = 0; i < 30; i++) {
+            drop.submit(new AuditLog(null, "ACCESS", "HTTP_REQUEST", null));
+            sample.submit(new AuditLog(null, "ACCESS", "HTTP_REQUEST", null));
+            block.submit(new AuditLog(null, "ACCESS", "HTTP_REQUEST", null));
+        }
+        
+        assertThat(drop.getQueueDepth()).isEqualTo(10);
+        assertThat(drop.getDroppedCount()).isEqualTo(20);
+        // 5 fill the first half, then 1 in 5 of the remaining 25
+        assertThat(sample.getQueueDepth()).isEqualTo(10);
+        assertThat(sample.getDroppedCount()).isEqualTo(20);
+        assertThat(block.getQueueDepth()).isEqualTo(10);
+        assertThat(block.getDroppedCount()).isEqualTo(20);
+    }
+    
+    @Test
+    @DisplayName("Should write what is left when stopped")
+    void testStopFlushes() throws SQLException {
+        // Given
+        AuditLogWriter writer = new AuditLogWriter(auditLogDAO, 1000, 500, 60_000,
+                                                   AuditLogWriter.OverflowPolicy.DROP, 10, 0);
+        writer.start();
+        writer.flush();
+        
+        // When
+        for (int i = 0; i < 25; i++) {
+            writer.submit(new AuditLog(TestDatabase.USER_ID, "LOGIN", "HTTP_REQUEST", null));
+        }
+        writer.stop();
+        
+        // Then
+        assertThat(countRows()).isEqualTo(25);
+        assertThat(writer.getQueueDepth()).isZero();
+    }
+    
+    @Test
+    @DisplayName("Should keep a batch the database rejected and write it on a later flush")
+    void testRetryAfterFailure() throws Exception {
+        // Given - the first batch insert loses its connection
+        AtomicInteger outages = new AtomicInteger(1);
+        AuditLogDAO flaky = new AuditLogDAO(dbConfig) {
+            @Override
+            public BatchResult<AuditLog> createAll(List<AuditLog> auditLogs) throws SQLException {
+                if (outages.getAndDecrement() > 0) {
+                    throw new SQLException("Communications link failure", "08S01");
+                }
+                return super.createAll(auditLogs);
+            }
+        };
+        AuditLogWriter writer = new AuditLogWriter(flaky, 1000, 40, 1,
+                                                   AuditLogWriter.OverflowPolicy.DROP, 10, 0);
+        for (int i = 0; i < 30; i++) {
+            writer.submit(new AuditLog(TestDatabase.USER_ID, "ACCESS", "HTTP_REQUEST", i));
+        }
+        
+        // When
+        assertThatThrownBy(writer::flush).isInstanceOf(SQLException.class);
+        assertThat(writer.getQueueDepth()).isEqualTo(30);
+        Thread.sleep(20);
+        
+        // Then
+        assertThat(writer.flush()).isEqualTo(30);
+        assertThat(writer.getQueueDepth()).isZero();
+        assertThat(writer.getFailedCount()).isZero();
+        assertThat(countRows()).isEqualTo(30);
+    }
+    
+    private int countRows() throws SQLException {
+        try (Connection conn = dbConfig.getConnection(); Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM audit_logs")) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.oceanview.service;
+
+import com.oceanview.config.DatabaseConfig;
+import com.oceanview.dao.AuditLogDAO;
+import com.oceanview.dao.TestDatabase;
+import com.oceanview.model.AuditLog;
+import org.junit.jupiter.api.*;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests for AuditRetentionJob in chunked mode against an H2 in-memory database
+ * Partition drops need MySQL and are not covered here
+ */
+@DisplayName("AuditRetentionJob Tests")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class AuditRetentionJobTest {
+    
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 6, 1, 12, 0);
+    
+    private DatabaseConfig dbConfig;
+    private AuditLogDAO auditLogDAO;
+    
+    @BeforeAll
+    void setUpDatabase() throws SQLException {
+        dbConfig = TestDatabase.create("auditretention");
+        auditLogDAO = new AuditLogDAO(dbConfig);
+    }
+    
+    @BeforeEach
+    void setUp() throws SQLException {
+        try (Connection conn = dbConfig.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.execute("DELETE FROM audit_logs");
+        }
+        // 250 logs older than 30 days, interleaved with 50 recent ones
+        List<AuditLog> logs = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            AuditLog log = new AuditLog(null, "ACCESS", "HTTP_REQUEST", i);
+            log.setTimestamp(i % 6 == 5 ? NOW.minusDays(1) : NOW.minusDays(40).plusMinutes(i));
+            logs.add(log);
+        }
+        auditLogDAO.createAll(logs);
+    }
+    
+    @AfterAll
+    void tearDown() {
+        dbConfig.closeDataSource();
+    }
+    
+    @Test
+    @DisplayName("Should delete old logs in chunks and keep recent ones")
+    void testChunkedRun() throws SQLException {
+        // Given
+        AuditRetentionJob job = new AuditRetentionJob(auditLogDAO, () -> NOW, 30, 40, 0, false, 3, null, 24);
+        
+        // When
+        long removed = job.run();
+        
+        // Then
+        assertThat(removed).isEqualTo(250);
+        assertThat(job.getRowsRemoved()).isEqualTo(250);
+        assertThat(job.isRunning()).isFalse();
+        assertThat(job.getLastFinishedAt()).isEqualTo(NOW);
+        assertThat(countRows("timestamp < '2030-05-01 12:00:00'")).isZero();
+        assertThat(countRows("1 = 1")).isEqualTo(50);
+        assertThat(job.run()).isZero();
+    }
+    
+    @Test
+    @DisplayName("Should delete at most one chunk per statement")
+    void testChunkBound() throws SQLException {
+        LocalDateTime cutoff = NOW.minusDays(30);
+        
+        assertThat(auditLogDAO.deleteChunkOlderThan(cutoff, 100)).isEqualTo(100);
+        assertThat(auditLogDAO.deleteChunkOlderThan(cutoff, 100)).isEqualTo(100);
+        assertThat(auditLogDAO.deleteChunkOlderThan(cutoff, 100)).isEqualTo(50);
+        assertThat(auditLogDAO.deleteChunkOlderThan(cutoff, 100)).isZero();
+        assertThat(countRows("1 = 1")).isEqualTo(50);
+    }
+    
+    private int countRows(String condition) throws SQLException {
+        try (Connection conn = dbConfig.getConnection(); Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM audit_logs WHERE " + condition)) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+}
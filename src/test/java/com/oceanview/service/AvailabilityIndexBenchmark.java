@@ -0,0 +1,102 @@
+package com.oceanview.service;
+
+import com.oceanview.config.DatabaseConfig;
+import com.oceanview.dao.ReservationDAO;
+import com.oceanview.dao.RoomDAO;
+import com.oceanview.dao.TestDatabase;
+import com.oceanview.model.Room;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH comparison of an availability search answered by AvailabilityIndex
+ * with the same search run as SQL through RoomDAO, on an H2 in-memory
+ * database of 60 rooms and 900 stays.
+ *
+ * Run with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.oceanview.service.AvailabilityIndexBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AvailabilityIndexBenchmark {
+
+    private static final LocalDate TODAY = LocalDate.of(2030, 6, 1);
+    private static final int ROOMS = 60;
+    private static final int STAYS = 900;
+
+    private DatabaseConfig dbConfig;
+    private RoomDAO roomDAO;
+    private AvailabilityIndex index;
+    private LocalDate[] checkIns;
+    private int next;
+
+    @Setup
+    public void setUp() throws SQLException {
+        dbConfig = TestDatabase.create("availabilitybench");
+        roomDAO = new RoomDAO(dbConfig);
+
+        Room.RoomType[] types = Room.RoomType.values();
+        for (int i = 0; i < ROOMS; i++) {
+            roomDAO.create(new Room(String.valueOf(100 + i), types[i % types.length], 1 + i / 20, 2,
+                                    new BigDecimal("120.00")));
+        }
+
+        String[] statuses = {"PENDING", "CONFIRMED", "CHECKED_IN", "CANCELLED", "CONFIRMED"};
+        Random random = new Random(42);
+        try (Connection conn = dbConfig.getConnection(); Statement stmt = conn.createStatement()) {
+            for (int i = 0; i < STAYS; i++) {
+                LocalDate checkIn = TODAY.plusDays(random.nextInt(210) - 10);
+                stmt.execute(TestDatabase.stay("S" + i, 1 + random.nextInt(ROOMS), checkIn,
+                                               checkIn.plusDays(1 + random.nextInt(7)), statuses[i % statuses.length]));
+            }
+        }
+
+        index = new AvailabilityIndex(roomDAO, new ReservationDAO(dbConfig), () -> TODAY, 365, 15);
+        index.reconcile();
+        checkIns = new LocalDate[1024];
+        for (int i = 0; i < checkIns.length; i++) {
+            checkIns[i] = TODAY.plusDays(random.nextInt(200));
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        TestDatabase.drop(dbConfig);
+    }
+
+    @Benchmark
+    public List<Room> indexSearch() {
+        LocalDate checkIn = nextCheckIn();
+        return index.findAvailableRooms(null, checkIn, checkIn.plusDays(3)).orElseThrow();
+    }
+
+    @Benchmark
+    public List<Room> sqlSearch() throws SQLException {
+        LocalDate checkIn = nextCheckIn();
+        return roomDAO.findAvailableRoomsByDate(checkIn, checkIn.plusDays(3));
+    }
+
+    private LocalDate nextCheckIn() {
+        next = (next + 1) & (checkIns.length - 1);
+        return checkIns[next];
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(AvailabilityIndexBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,164 @@
+package com.oceanview.service;
+
+import com.oceanview.config.DatabaseConfig;
+import com.oceanview.dao.BaseDAO;
+import com.oceanview.dao.ReservationDAO;
+import com.oceanview.dao.RoomDAO;
+import com.oceanview.dao.StatementListener;
+import com.oceanview.dao.TestDatabase;
+import com.oceanview.model.Room;
+import org.junit.jupiter.api.*;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests for AvailabilityIndex
+ * Compares indexed searches with RoomDAO's SQL search on an H2 in-memory
+ * database; AvailabilityIndexBenchmark times both
+ */
+@DisplayName("AvailabilityIndex Tests")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class AvailabilityIndexTest {
+    
+    private static final LocalDate TODAY = LocalDate.of(2030, 6, 1);
+    private static final int ROOMS = 60;
+    private static final int STAYS = 900;
+    private static final int SEARCHES = 500;
+    
+    private DatabaseConfig dbConfig;
+    private RoomDAO roomDAO;
+    private AvailabilityIndex index;
+    
+    @BeforeAll
+    void setUpDatabase() throws SQLException {
+        dbConfig = TestDatabase.create("availability", "db.pool.initialSize=1", "db.pool.minIdle=1");
+        roomDAO = new RoomDAO(dbConfig);
+        
+        Room.RoomType[] types = Room.RoomType.values();
+        for (int i = 0; i < ROOMS; i++) {
+            Room room = new Room(String.valueOf(100 + i), types[i % types.length], 1 + i / 20, 2,
+                                 new BigDecimal("120.00"));
+            room.setStatus(i % 10 == 9 ? Room.RoomStatus.MAINTENANCE : Room.RoomStatus.AVAILABLE);
+            roomDAO.create(room);
+        }
+        
+        String[] statuses = {"PENDING", "CONFIRMED", "CHECKED_IN", "CANCELLED", "CONFIRMED"};
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        try (Connection conn = dbConfig.getConnection(); Statement stmt = conn.createStatement()) {
+            for (int i = 0; i < STAYS; i++) {
+                LocalDate checkIn = TODAY.plusDays(random.nextInt(-10, 200));
+                stmt.execute(TestDatabase.stay("S" + i, 1 + random.nextInt(ROOMS), checkIn,
+                                               checkIn.plusDays(1 + random.nextInt(7)), statuses[i % statuses.length]));
+            }
+        }
+    }
+    
+    @BeforeEach
+    void setUp() throws SQLException {
+        index = new AvailabilityIndex(roomDAO, new ReservationDAO(dbConfig), () -> TODAY, 365, 15);
+        index.reconcile();
+    }
+    
+    @AfterAll
+    void tearDown() {
+        dbConfig.closeDataSource();
+    }
+    
+    @Test
+    @DisplayName("Should return the same rooms as the SQL search")
+    void testMatchesSql() throws SQLException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < 200; i++) {
+            LocalDate checkIn = TODAY.plusDays(random.nextInt(0, 200));
+            LocalDate checkOut = checkIn.plusDays(1 + random.nextInt(10));
+            Room.RoomType type = Room.RoomType.values()[random.nextInt(Room.RoomType.values().length)];
+            
+            assertThat(roomNumbers(index.findAvailableRooms(null, checkIn, checkOut).orElseThrow()))
+                .as("any type, %s to %s", checkIn, checkOut)
+                .isEqualTo(roomNumbers(roomDAO.findAvailableRoomsByDate(checkIn, checkOut)));
+            assertThat(roomNumbers(index.findAvailableRooms(type, checkIn, checkOut).orElseThrow()))
+                .as("%s, %s to %s", type, checkIn, checkOut)
+                .isEqualTo(roomNumbers(roomDAO.findAvailableRoomsByTypeAndDate(type, checkIn, checkOut)));
+        }
+    }
+    
+    @Test
+    @DisplayName("Should apply booked and released stays and room status changes")
+    void testIncrementalUpdates() {
+        // Given - a room with no stays in the first week of 2031
+        LocalDate checkIn = LocalDate.of(2031, 1, 2);
+        LocalDate checkOut = checkIn.plusDays(3);
+        Room room = index.findAvailableRooms(null, LocalDate.of(2031, 1, 1), LocalDate.of(2031, 1, 8))
+            .orElseThrow().get(0);
+        int roomId = room.getRoomId();
+        
+        // When / Then
+        index.stayBooked(roomId, checkIn, checkOut);
+        assertThat(availableIds(checkIn.plusDays(2), checkIn.plusDays(4))).doesNotContain(roomId);
+        assertThat(availableIds(checkOut, checkOut.plusDays(2))).contains(roomId);
+        assertThat(availableIds(checkIn.minusDays(2), checkIn)).contains(roomId);
+        
+        index.stayReleased(roomId, checkIn, checkOut);
+        assertThat(availableIds(checkIn, checkOut)).contains(roomId);
+        
+        index.roomStatusChanged(roomId, Room.RoomStatus.MAINTENANCE);
+        assertThat(availableIds(checkIn, checkOut)).doesNotContain(roomId);
+        index.roomStatusChanged(roomId, Room.RoomStatus.AVAILABLE);
+        assertThat(availableIds(checkIn, checkOut)).contains(roomId);
+    }
+    
+    @Test
+    @DisplayName("Should defer to SQL outside the window or before loading")
+    void testFallback() {
+        AvailabilityIndex unloaded = new AvailabilityIndex(roomDAO, new ReservationDAO(dbConfig),
+                                                           () -> TODAY, 365, 15);
+        
+        assertThat(unloaded.findAvailableRooms(null, TODAY, TODAY.plusDays(1))).isEmpty();
+        assertThat(index.findAvailableRooms(null, TODAY.minusDays(1), TODAY.plusDays(1))).isEmpty();
+        assertThat(index.findAvailableRooms(null, TODAY.plusDays(360), TODAY.plusDays(370))).isEmpty();
+        assertThat(index.findAvailableRooms(null, TODAY, TODAY)).isEmpty();
+    }
+    
+    @Test
+    @DisplayName("Should answer searches on a warm index without touching the database")
+    void testNoDatabaseCallsWhenWarm() {
+        Thread caller = Thread.currentThread();
+        AtomicInteger statements = new AtomicInteger();
+        StatementListener listener = (operation, sql, elapsedNanos, rows, failure) -> {
+            if (Thread.currentThread() == caller) {
+                statements.incrementAndGet();
+            }
+        };
+        BaseDAO.addStatementListener(listener);
+        try {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < SEARCHES; i++) {
+                LocalDate checkIn = TODAY.plusDays(random.nextInt(0, 200));
+                assertThat(index.findAvailableRooms(null, checkIn, checkIn.plusDays(3))).isPresent();
+            }
+        } finally {
+            BaseDAO.removeStatementListener(listener);
+        }
+        
+        assertThat(statements.get()).isZero();
+    }
+    
+    private List<Integer> availableIds(LocalDate checkIn, LocalDate checkOut) {
+        return index.findAvailableRooms(null, checkIn, checkOut).orElseThrow()
+            .stream().map(Room::getRoomId).collect(Collectors.toList());
+    }
+    
+    private static List<String> roomNumbers(List<Room> rooms) {
+        return rooms.stream().map(Room::getRoomNumber).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,268 @@
+package com.oceanview.service;
+
+import com.oceanview.config.DatabaseConfig;
+import com.oceanview.dao.InventoryDAO;
+import com.oceanview.dao.ReservationDAO;
+import com.oceanview.dao.RoomDAO;
+import com.oceanview.dao.TestDatabase;
+import com.oceanview.dao.TransactionTemplate;
+import com.oceanview.model.Reservation;
+import com.oceanview.model.Room;
+import org.junit.jupiter.api.*;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Concurrency tests for BookingEngine
+ * Hammers a handful of rooms from many threads on an H2 in-memory database
+ * and checks that no room ends up with overlapping stays
+ */
+@DisplayName("BookingEngine Concurrency Tests")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BookingEngineTest {
+    
+    private static final int ROOMS = 8;
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS_PER_THREAD = 150;
+    private static final LocalDate SEASON_START = LocalDate.of(2030, 1, 1);
+    
+    private DatabaseConfig dbConfig;
+    private BookingEngine bookingEngine;
+    
+    @BeforeAll
+    void setUpDatabase() throws SQLException {
+        dbConfig = TestDatabase.create("booking", "db.pool.initialSize=1", "db.pool.minIdle=1",
+                                       "db.pool.maxActive=" + THREADS, "db.pool.maxIdle=" + THREADS);
+        // Under CPU contention the H2 identity column occasionally hands concurrent inserts the same key
+        TestDatabase.execute(dbConfig, "CREATE SEQUENCE reservation_ids",
+                             "ALTER TABLE reservations ALTER COLUMN reservation_id DROP IDENTITY",
+                             "ALTER TABLE reservations ALTER COLUMN reservation_id " +
+                             "SET DEFAULT NEXT VALUE FOR reservation_ids");
+        RoomDAO roomDAO = new RoomDAO(dbConfig);
+        for (int i = 1; i <= ROOMS; i++) {
+            roomDAO.create(new Room(String.valueOf(100 + i), Room.RoomType.DOUBLE, 1, 2, new BigDecimal("120.00")));
+        }
+    }
+    
+    @BeforeEach
+    void setUp() throws SQLException {
+        try (Connection conn = dbConfig.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.execute("DELETE FROM reservations");
+            stmt.execute("DELETE FROM room_inventory");
+        }
+        bookingEngine = newEngine();
+    }
+    
+    @AfterAll
+    void tearDown() {
+        dbConfig.closeDataSource();
+    }
+    
+    @Test
+    @DisplayName("Should accept only one of two identical concurrent bookings")
+    void testSameRoomSameDates() throws Exception {
+        // Given
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Callable<Integer> booking = () -> {
+            start.await();
+            return bookingEngine.book(reservation("SAME-" + Thread.currentThread().getId(), 1, 0, 3));
+        };
+        
+        // When
+        Future<Integer> first = executor.submit(booking);
+        Future<Integer> second = executor.submit(booking);
+        start.countDown();
+        int a = first.get(10, TimeUnit.SECONDS);
+        int b = second.get(10, TimeUnit.SECONDS);
+        executor.shutdown();
+        
+        // Then
+        assertThat(List.of(a, b)).filteredOn(id -> id > 0).hasSize(1);
+        assertThat(List.of(a, b)).contains(0);
+    }
+    
+    @Test
+    @DisplayName("Should allow back-to-back stays and reject overlaps")
+    void testAdjacentAndOverlappingStays() throws SQLException {
+        assertThat(bookingEngine.book(reservation("ADJ-1", 2, 0, 3))).isPositive();
+        assertThat(bookingEngine.book(reservation("ADJ-2", 2, 3, 5))).isPositive();
+        assertThat(bookingEngine.book(reservation("ADJ-3", 2, 4, 6))).isZero();
+        assertThat(bookingEngine.book(reservation("ADJ-4", 3, 4, 6))).isPositive();
+        assertThat(bookingEngine.book(reservation("ADJ-5", 99, 0, 1))).isZero();
+    }
+    
+    @Test
+    @DisplayName("Should hold a room for a pending booking until it is cancelled or expires")
+    void testPendingHold() throws SQLException {
+        ReservationDAO reservationDAO = new ReservationDAO(dbConfig);
+        int pending = bookingEngine.book(reservation("HOLD-1", 4, 0, 3));
+        assertThat(pending).isPositive();
+        assertThat(bookingEngine.book(reservation("HOLD-2", 4, 1, 2))).isZero();
+        
+        // Search and the availability index see the hold; the inventory ledger does not
+        List<Integer> holds = new ArrayList<>();
+        reservationDAO.streamRoomHolds(SEASON_START, SEASON_START.plusDays(3), r -> holds.add(r.getReservationId()));
+        List<Integer> booked = new ArrayList<>();
+        reservationDAO.streamBookedStays(SEASON_START, SEASON_START.plusDays(3), r -> booked.add(r.getReservationId()));
+        assertThat(holds).containsExactly(pending);
+        assertThat(booked).isEmpty();
+        
+        LocalDateTime now = LocalDateTime.now();
+        assertThat(reservationDAO.findExpiredPendingIds(now.minusHours(1))).isEmpty();
+        try (Connection conn = dbConfig.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.execute("UPDATE reservations SET created_at = DATEADD('DAY', -2, created_at)");
+        }
+        assertThat(reservationDAO.findExpiredPendingIds(now.minusHours(1))).containsExactly(pending);
+        
+        reservationDAO.updateStatus(pending, Reservation.ReservationStatus.CANCELLED);
+        assertThat(reservationDAO.findExpiredPendingIds(now.minusHours(1))).isEmpty();
+        assertThat(bookingEngine.book(reservation("HOLD-3", 4, 1, 2))).isPositive();
+    }
+    
+    @Test
+    @DisplayName("Should move a confirmed stay to nights the ledger has no row for without counting it twice")
+    void testRescheduleOntoNewNights() throws SQLException {
+        // Given - a stay confirmed through an update, which adds its nights to the ledger
+        Reservation reservation = reservation("MOVE-1", 5, 200, 202);
+        reservation.setReservationId(bookingEngine.book(reservation));
+        reservation.setStatus(Reservation.ReservationStatus.CONFIRMED);
+        assertThat(bookingEngine.reschedule(reservation)).isPresent();
+        assertThat(bookedNights(200)).isEqualTo(1);
+        
+        // When - moved onto nights that have no ledger row yet
+        reservation.setCheckInDate(SEASON_START.plusDays(300));
+        reservation.setCheckOutDate(SEASON_START.plusDays(302));
+        Optional<Reservation> before = bookingEngine.reschedule(reservation);
+        
+        // Then
+        assertThat(before).map(Reservation::getCheckInDate).contains(SEASON_START.plusDays(200));
+        assertThat(bookedNights(200)).isZero();
+        assertThat(bookedNights(201)).isZero();
+        assertThat(bookedNights(300)).isEqualTo(1);
+        assertThat(bookedNights(301)).isEqualTo(1);
+    }
+    
+    @Test
+    @DisplayName("Should reject moving a stay onto a room taken for the new dates")
+    void testRescheduleOntoTakenRoom() throws SQLException {
+        // Given
+        assertThat(bookingEngine.book(reservation("TAKEN-1", 6, 10, 14))).isPositive();
+        Reservation reservation = reservation("TAKEN-2", 7, 10, 12);
+        reservation.setReservationId(bookingEngine.book(reservation));
+        
+        // When / Then - the other stay blocks room 6, its own old dates do not block room 7
+        reservation.setRoomId(6);
+        assertThat(bookingEngine.reschedule(reservation)).isEmpty();
+        reservation.setCheckInDate(SEASON_START.plusDays(14));
+        reservation.setCheckOutDate(SEASON_START.plusDays(16));
+        assertThat(bookingEngine.reschedule(reservation)).isPresent();
+        reservation.setRoomId(7);
+        reservation.setCheckInDate(SEASON_START.plusDays(11));
+        assertThat(bookingEngine.reschedule(reservation)).isPresent();
+        assertThat(countOverlappingPairs()).isZero();
+    }
+    
+    @Test
+    @DisplayName("Stress: concurrent bookings never double-book a room")
+    void testNoDoubleBookingsUnderLoad() throws Exception {
+        // Given - two engines stand in for two application nodes, so only the
+        // database row lock keeps them apart
+        BookingEngine[] nodes = {bookingEngine, newEngine()};
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger booked = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> workers = new ArrayList<>();
+        
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            workers.add(executor.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                    int roomId = 1 + random.nextInt(ROOMS);
+                    int firstNight = random.nextInt(120);
+                    int nights = 1 + random.nextInt(5);
+                    Reservation reservation = reservation("T" + thread + "-" + i, roomId,
+                                                          firstNight, firstNight + nights);
+                    if (nodes[thread % nodes.length].book(reservation) > 0) {
+                        booked.incrementAndGet();
+                    } else {
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        
+        // When
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        
+        // Then
+        assertThat(booked.get() + rejected.get()).isEqualTo(THREADS * ATTEMPTS_PER_THREAD);
+        assertThat(booked.get()).isPositive();
+        assertThat(countReservations()).isEqualTo(booked.get());
+        assertThat(countOverlappingPairs()).isZero();
+    }
+    
+    private int bookedNights(int day) throws SQLException {
+        try (Connection conn = dbConfig.getConnection(); Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT booked FROM room_inventory WHERE room_type = 'DOUBLE' " +
+                                              "AND stay_date = '" + SEASON_START.plusDays(day) + "'")) {
+            assertThat(rs.next()).as("ledger row for day %d", day).isTrue();
+            return rs.getInt(1);
+        }
+    }
+    
+    private BookingEngine newEngine() {
+        return new BookingEngine(new ReservationDAO(dbConfig), new RoomDAO(dbConfig), new InventoryDAO(dbConfig),
+                                 new TransactionTemplate(dbConfig), 16);
+    }
+    
+    private int countReservations() throws SQLException {
+        try (Connection conn = dbConfig.getConnection(); Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM reservations")) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+    
+    private int countOverlappingPairs() throws SQLException {
+        try (Connection conn = dbConfig.getConnection(); Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(
+                 "SELECT COUNT(*) FROM reservations a JOIN reservations b " +
+                 "ON a.room_id = b.room_id AND a.reservation_id < b.reservation_id " +
+                 "AND a.check_in_date < b.check_out_date AND a.check_out_date > b.check_in_date")) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+    
+    private Reservation reservation(String number, int roomId, int fromDay, int toDay) {
+        Reservation reservation = new Reservation(TestDatabase.GUEST_ID, roomId, SEASON_START.plusDays(fromDay),
+                                                  SEASON_START.plusDays(toDay));
+        reservation.setReservationNumber(number);
+        reservation.setCreatedBy(TestDatabase.USER_ID);
+        reservation.setTotalAmount(new BigDecimal("100.00"));
+        reservation.setFinalAmount(new BigDecimal("100.00"));
+        return reservation;
+    }
+}
@@ -0,0 +1,127 @@
+package com.oceanview.service;
+
+import com.oceanview.config.DatabaseConfig;
+import com.oceanview.dao.BaseDAO;
+import com.oceanview.dao.DashboardDAO;
+import com.oceanview.dao.ReservationDAO;
+import com.oceanview.dao.StatementListener;
+import com.oceanview.dao.TestDatabase;
+import com.oceanview.dao.TransactionTemplate;
+import com.oceanview.model.DashboardStats;
+import org.junit.jupiter.api.*;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests for DashboardStatsService
+ * Loads the combined dashboard counters from an H2 in-memory database and
+ * checks that reading the snapshot does not run any statements
+ */
+@DisplayName("DashboardStatsService Tests")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class DashboardStatsServiceTest {
+    
+    private DatabaseConfig dbConfig;
+    private AtomicLong clock;
+    private DashboardStatsService service;
+    
+    @BeforeAll
+    void setUpDatabase() throws SQLException {
+        dbConfig = TestDatabase.create("dashboard", "db.pool.initialSize=1", "db.pool.minIdle=1");
+        
+        LocalDate today = LocalDate.now();
+        TestDatabase.execute(dbConfig,
+            "INSERT INTO users (username, password, email, full_name, role, status) VALUES " +
+            "('admin', 'hash', 'admin@example.com', 'Admin', 'ADMIN', 'ACTIVE'), " +
+            "('staff', 'hash', 'staff@example.com', 'Staff', 'STAFF', 'ACTIVE'), " +
+            "('left', 'hash', 'left@example.com', 'Former Guest', 'GUEST', 'INACTIVE')",
+            "INSERT INTO guests (user_id) SELECT user_id FROM users WHERE username = 'left'",
+            "INSERT INTO rooms (room_number, room_type, floor, capacity, price_per_night, status) VALUES " +
+            "('101', 'SINGLE', 1, 1, 80, 'AVAILABLE'), ('102', 'SINGLE', 1, 1, 80, 'OCCUPIED'), " +
+            "('103', 'DOUBLE', 1, 2, 120, 'OCCUPIED'), ('104', 'DOUBLE', 1, 2, 120, 'RESERVED'), " +
+            "('105', 'SUITE', 1, 4, 300, 'MAINTENANCE')",
+            TestDatabase.stay("R1", 1, today, today.plusDays(2), "CONFIRMED"),
+            TestDatabase.stay("R2", 1, today.minusDays(2), today, "CHECKED_IN"),
+            TestDatabase.stay("R3", 1, today.plusDays(5), today.plusDays(7), "PENDING"),
+            "INSERT INTO reviews (reservation_id, guest_id, rating, status) VALUES " +
+            "(1, 1, 5, 'APPROVED'), (2, 1, 3, 'APPROVED'), (3, 1, 1, 'PENDING')",
+            "INSERT INTO payments (reservation_id, payment_number, amount, payment_method, payment_status, " +
+            "payment_date) VALUES " +
+            "(1, 'PAY-1', 100.00, 'CARD', 'COMPLETED', '" + today.atTime(9, 0) + "'), " +
+            "(1, 'PAY-2', 50.00, 'CARD', 'PENDING', '" + today.atTime(9, 0) + "'), " +
+            "(2, 'PAY-3', 200.00, 'CASH', 'COMPLETED', '" + today.minusYears(1).atTime(9, 0) + "')");
+    }
+    
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong(1_000_000L);
+        service = new DashboardStatsService(new DashboardDAO(dbConfig), new ReservationDAO(dbConfig),
+                                            new TransactionTemplate(dbConfig), clock::get, 10);
+    }
+    
+    @AfterAll
+    void tearDown() {
+        dbConfig.closeDataSource();
+    }
+    
+    @Test
+    @DisplayName("Should load every counter with one aggregate query")
+    void testCounters() {
+        // When
+        DashboardStats stats = service.getSnapshot().orElseThrow();
+        
+        // Then
+        assertThat(stats.getTotalUsers()).isEqualTo(4);
+        assertThat(stats.getActiveUsers()).isEqualTo(3);
+        assertThat(stats.getGuestUsers()).isEqualTo(2);
+        assertThat(stats.getStaffUsers()).isEqualTo(1);
+        assertThat(stats.getTotalGuests()).isEqualTo(2);
+        assertThat(stats.getTotalReservations()).isEqualTo(3);
+        assertThat(stats.getActiveReservations()).isEqualTo(2);
+        assertThat(stats.getPendingReservations()).isEqualTo(1);
+        assertThat(stats.getTodayCheckIns()).isEqualTo(1);
+        assertThat(stats.getTodayCheckOuts()).isEqualTo(1);
+        assertThat(stats.getTotalRooms()).isEqualTo(5);
+        assertThat(stats.getOccupiedRooms()).isEqualTo(2);
+        assertThat(stats.getOccupancyRate()).isEqualTo(40.0);
+        assertThat(stats.getPendingReviews()).isEqualTo(1);
+        assertThat(stats.getAverageRating()).isEqualTo(4.0);
+        assertThat(stats.getTodayRevenue()).isEqualTo(100.0);
+        assertThat(stats.getMonthlyRevenue()).isEqualTo(100.0);
+        assertThat(stats.getTotalRevenue()).isEqualTo(300.0);
+        assertThat(stats.getRecentReservations()).hasSize(3);
+    }
+    
+    @Test
+    @DisplayName("Should serve the snapshot without database calls and report its age")
+    void testSnapshotReadsAreFree() {
+        // Given
+        AtomicInteger statements = new AtomicInteger();
+        StatementListener counter = (operation, sql, elapsedNanos, rows, failure) -> statements.incrementAndGet();
+        assertThat(service.refresh()).isTrue();
+        BaseDAO.addStatementListener(counter);
+        try {
+            // When
+            clock.addAndGet(7_500);
+            DashboardStats first = service.getSnapshot().orElseThrow();
+            DashboardStats second = service.getSnapshot().orElseThrow();
+            
+            // Then
+            assertThat(statements.get()).isZero();
+            assertThat(second).isSameAs(first);
+            assertThat(service.getAgeSeconds(first)).isEqualTo(7);
+            
+            // A refresh costs the counters query plus the recent reservations query
+            service.refresh();
+            assertThat(statements.get()).isEqualTo(2);
+            assertThat(service.getAgeSeconds(service.getSnapshot().orElseThrow())).isZero();
+        } finally {
+            BaseDAO.removeStatementListener(counter);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.oceanview.service;
+
+import com.oceanview.config.DatabaseConfig;
+import com.oceanview.dao.EmailOutboxDAO;
+import com.oceanview.dao.TestDatabase;
+import jakarta.mail.Session;
+import org.junit.jupiter.api.*;
+
+import java.net.ServerSocket;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests for EmailOutboxWorker against an H2 outbox and a local SMTP sink
+ */
+@DisplayName("EmailOutboxWorker Tests")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class EmailOutboxWorkerTest {
+    
+    private DatabaseConfig dbConfig;
+    private EmailOutboxDAO outboxDAO;
+    private final AtomicReference<LocalDateTime> clock = new AtomicReference<>();
+    
+    @BeforeAll
+    void setUpDatabase() throws SQLException {
+        dbConfig = TestDatabase.create("emailoutbox");
+        outboxDAO = new EmailOutboxDAO(dbConfig);
+    }
+    
+    @BeforeEach
+    void setUp() throws SQLException {
+        try (Connection conn = dbConfig.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.execute("DELETE FROM email_outbox");
+        }
+        // Enqueue stamps the wall clock; run the worker well after it
+        clock.set(LocalDateTime.now().plusMinutes(1));
+    }
+    
+    @AfterAll
+    void tearDown() {
+        dbConfig.closeDataSource();
+    }
+    
+    @Test
+    @DisplayName("Should send a batch over one pooled SMTP connection")
+    void testSendBatch() throws Exception {
+        try (SmtpSink sink = new SmtpSink(null)) {
+            EmailOutboxWorker worker = worker(sink.getPort(), 3);
+            for (int i = 0; i < 5; i++) {
+                outboxDAO.enqueue("guest" + i + "@example.com", "Booking " + i, "<p>Hello</p>");
+            }
+            
+            assertThat(worker.processBatch()).isEqualTo(5);
+            
+            assertThat(sink.getMessages()).hasSize(5);
+            assertThat(worker.getConnectCount()).isEqualTo(1);
+            assertThat(sink.getConnections()).isEqualTo(1);
+            assertThat(outboxDAO.countByStatus("SENT")).isEqualTo(5);
+            assertThat(worker.processBatch()).isZero();
+        }
+    }
+    
+    @Test
+    @DisplayName("Should retry with backoff while the server is down, then dead-letter")
+    void testRetryThenDead() throws Exception {
+        int port;
+        try (ServerSocket unused = new ServerSocket(0)) {
+            port = unused.getLocalPort();
+        }
+        EmailOutboxWorker worker = worker(port, 2);
+        outboxDAO.enqueue("guest@example.com", "Booking", "<p>Hello</p>");
+        
+        assertThat(worker.processBatch()).isZero();
+        assertThat(outboxDAO.countByStatus("PENDING")).isEqualTo(1);
+        assertThat(worker.getRetriedCount()).isEqualTo(1);
+        
+        // Not due again until the backoff has passed
+        assertThat(worker.processBatch()).isZero();
+        assertThat(worker.getRetriedCount()).isEqualTo(1);
+        
+        clock.set(clock.get().plusSeconds(31));
+        assertThat(worker.processBatch()).isZero();
+        assertThat(outboxDAO.countByStatus("DEAD")).isEqualTo(1);
+        assertThat(worker.getDeadLetteredCount()).isEqualTo(1);
+    }
+    
+    @Test
+    @DisplayName("Should dead-letter a rejected recipient at once and keep sending the rest")
+    void testPermanentRejection() throws Exception {
+        try (SmtpSink sink = new SmtpSink("nobody")) {
+            EmailOutboxWorker worker = worker(sink.getPort(), 5);
+            outboxDAO.enqueue("nobody@example.com", "Booking", "<p>Hello</p>");
+            outboxDAO.enqueue("guest@example.com", "Booking", "<p>Hello</p>");
+            
+            assertThat(worker.processBatch()).isEqualTo(1);
+            
+            assertThat(outboxDAO.countByStatus("DEAD")).isEqualTo(1);
+            assertThat(outboxDAO.countByStatus("SENT")).isEqualTo(1);
+            assertThat(worker.getRetriedCount()).isZero();
+        }
+    }
+    
+    @Test
+    @DisplayName("Should double the backoff per attempt up to the cap")
+    void testBackoff() {
+        EmailOutboxWorker worker = new EmailOutboxWorker(outboxDAO, null, "test@example.com", clock::get,
+                                                         1, 10, 1000, 30, 300, 8);
+        
+        assertThat(worker.backoffFor(1)).isEqualTo(30);
+        assertThat(worker.backoffFor(2)).isEqualTo(60);
+        assertThat(worker.backoffFor(4)).isEqualTo(240);
+        assertThat(worker.backoffFor(5)).isEqualTo(300);
+        assertThat(worker.backoffFor(20)).isEqualTo(300);
+    }
+    
+    private EmailOutboxWorker worker(int port, int maxAttempts) {
+        Properties props = new Properties();
+        props.put("mail.smtp.host", "localhost");
+        props.put("mail.smtp.port", String.valueOf(port));
+        props.put("mail.smtp.connectiontimeout", "2000");
+        props.put("mail.smtp.timeout", "2000");
+        Session session = Session.getInstance(props);
+        return new EmailOutboxWorker(outboxDAO, session, "test@example.com", clock::get,
+                                     1, 10, 1000, 30, 3600, maxAttempts);
+    }
+}
@@ -0,0 +1,92 @@
+package com.oceanview.service;
+
+import com.oceanview.model.Reservation;
+import com.oceanview.model.User;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH comparison of the compiled email templates with the String.format
+ * builders they replaced. The format strings are rebuilt from the same
+ * template files, so both sides produce the same HTML.
+ *
+ * Run with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.oceanview.service.EmailTemplateBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmailTemplateBenchmark {
+    
+    private EmailService emailService;
+    private User user;
+    private Reservation reservation;
+    private String confirmationFormat;
+    private String welcomeFormat;
+    
+    @Setup
+    public void setUp() throws IOException {
+        emailService = EmailService.getInstance();
+        user = new User();
+        user.setFullName("Jane O'Neil");
+        reservation = new Reservation();
+        reservation.setReservationNumber("RES-20300601-0042");
+        reservation.setCheckInDate(LocalDate.of(2030, 6, 1));
+        reservation.setCheckOutDate(LocalDate.of(2030, 6, 5));
+        reservation.setNumberOfNights(4);
+        reservation.setFinalAmount(new BigDecimal("1249.50"));
+        confirmationFormat = legacyFormat("templates/email/booking-confirmation.html");
+        welcomeFormat = legacyFormat("templates/email/welcome.html");
+    }
+    
+    @Benchmark
+    public String confirmationTemplate() {
+        return emailService.buildBookingConfirmationEmail(user, reservation);
+    }
+    
+    @Benchmark
+    public String confirmationStringFormat() {
+        return String.format(confirmationFormat, user.getFullName(), reservation.getReservationNumber(),
+                             reservation.getCheckInDate(), reservation.getCheckOutDate(),
+                             reservation.getNumberOfNights(), reservation.getFinalAmount());
+    }
+    
+    @Benchmark
+    public String welcomeTemplate() {
+        return emailService.buildWelcomeEmail(user);
+    }
+    
+    @Benchmark
+    public String welcomeStringFormat() {
+        return String.format(welcomeFormat, user.getFullName());
+    }
+    
+    /**
+     * Turn a template back into the format string the old builder used
+     */
+    private static String legacyFormat(String resource) throws IOException {
+        try (InputStream in = EmailTemplateBenchmark.class.getClassLoader().getResourceAsStream(resource)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8)
+                .replace("%", "%%")
+                .replaceAll("\\{\\{\\w+:number}}", "%d")
+                .replaceAll("\\{\\{\\w+:money}}", "%.2f")
+                .replaceAll("\\{\\{\\w+}}", "%s");
+        }
+    }
+    
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(EmailTemplateBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,145 @@
+package com.oceanview.service;
+
+import com.oceanview.config.DatabaseConfig;
+import com.oceanview.dao.InventoryDAO;
+import com.oceanview.dao.RoomDAO;
+import com.oceanview.dao.TestDatabase;
+import com.oceanview.model.Room;
+import org.junit.jupiter.api.*;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests for InventoryReconciler and InventoryDAO
+ * Runs the room_inventory ledger against an H2 in-memory database
+ */
+@DisplayName("InventoryReconciler Tests")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class InventoryReconcilerTest {
+    
+    private static final LocalDate TODAY = LocalDate.of(2030, 6, 1);
+    
+    private DatabaseConfig dbConfig;
+    private InventoryDAO inventoryDAO;
+    private InventoryReconciler reconciler;
+    
+    @BeforeAll
+    void setUpDatabase() throws SQLException {
+        dbConfig = TestDatabase.create("inventory", "db.pool.initialSize=1", "db.pool.minIdle=1");
+        inventoryDAO = new InventoryDAO(dbConfig);
+        reconciler = new InventoryReconciler(inventoryDAO, () -> TODAY, 45, 60);
+        
+        RoomDAO roomDAO = new RoomDAO(dbConfig);
+        for (int i = 0; i < 2; i++) {
+            roomDAO.create(new Room("S" + i, Room.RoomType.SUITE, 1, 2, new BigDecimal("300.00")));
+        }
+        roomDAO.create(new Room("D0", Room.RoomType.DOUBLE, 1, 2, new BigDecimal("150.00")));
+    }
+    
+    @BeforeEach
+    void setUp() throws SQLException {
+        try (Connection conn = dbConfig.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.execute("DELETE FROM reservations");
+            stmt.execute("DELETE FROM room_inventory");
+        }
+    }
+    
+    @AfterAll
+    void tearDown() {
+        dbConfig.closeDataSource();
+    }
+    
+    @Test
+    @DisplayName("Should rebuild the ledger from confirmed and checked-in stays")
+    void testReconcile() throws SQLException {
+        // Given - rooms 1 and 2 are suites, room 3 is a double
+        insertStay("R1", 1, TODAY.plusDays(2), TODAY.plusDays(5), "CONFIRMED");
+        insertStay("R2", 2, TODAY.plusDays(4), TODAY.plusDays(6), "CHECKED_IN");
+        insertStay("R3", 2, TODAY.plusDays(1), TODAY.plusDays(3), "PENDING");
+        insertStay("R4", 3, TODAY.minusDays(2), TODAY.plusDays(1), "CONFIRMED");
+        
+        // When
+        int corrected = reconciler.reconcile();
+        
+        // Then
+        assertThat(corrected).isEqualTo(45 * Room.RoomType.values().length);
+        assertThat(inventoryDAO.findMinFree(Room.RoomType.SUITE, TODAY, TODAY.plusDays(4))).contains(1);
+        assertThat(inventoryDAO.findMinFree(Room.RoomType.SUITE, TODAY.plusDays(4), TODAY.plusDays(5))).contains(0);
+        assertThat(inventoryDAO.findMinFree(Room.RoomType.SUITE, TODAY.plusDays(6), TODAY.plusDays(9))).contains(2);
+        assertThat(inventoryDAO.findMinFree(Room.RoomType.DOUBLE, TODAY, TODAY.plusDays(1))).contains(0);
+        assertThat(inventoryDAO.findMinFree(Room.RoomType.FAMILY, TODAY, TODAY.plusDays(1))).contains(0);
+        assertThat(inventoryDAO.findMinFree(Room.RoomType.SUITE, TODAY.plusDays(43), TODAY.plusDays(47))).isEmpty();
+        assertThat(reconciler.reconcile()).isZero();
+    }
+    
+    @Test
+    @DisplayName("Should correct only the rows that drifted")
+    void testReconcileDrift() throws SQLException {
+        // Given
+        insertStay("R1", 1, TODAY.plusDays(35), TODAY.plusDays(37), "CONFIRMED");
+        reconciler.reconcile();
+        try (Connection conn = dbConfig.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.execute("UPDATE room_inventory SET booked = 0 WHERE room_type = 'SUITE'");
+        }
+        
+        // When / Then
+        assertThat(reconciler.reconcile()).isEqualTo(2);
+        assertThat(inventoryDAO.findMinFree(Room.RoomType.SUITE, TODAY.plusDays(35), TODAY.plusDays(37))).contains(1);
+    }
+    
+    @Test
+    @DisplayName("Should book until the room type is sold out and release again")
+    void testBookAndRelease() throws SQLException {
+        // Given
+        reconciler.reconcile();
+        LocalDate checkIn = TODAY.plusDays(10);
+        LocalDate checkOut = TODAY.plusDays(12);
+        
+        // When / Then
+        assertThat(inventoryDAO.book(Room.RoomType.SUITE, checkIn, checkOut)).isTrue();
+        assertThat(inventoryDAO.book(Room.RoomType.SUITE, checkIn.plusDays(1), checkOut.plusDays(1))).isTrue();
+        assertThat(inventoryDAO.book(Room.RoomType.SUITE, checkIn, checkOut)).isFalse();
+        assertThat(inventoryDAO.findMinFree(Room.RoomType.SUITE, checkIn, checkIn.plusDays(1))).contains(1);
+        
+        inventoryDAO.release(Room.RoomType.SUITE, checkIn, checkOut);
+        assertThat(inventoryDAO.findMinFree(Room.RoomType.SUITE, checkIn, checkOut)).contains(1);
+        assertThat(inventoryDAO.book(Room.RoomType.SUITE, checkIn, checkOut)).isTrue();
+    }
+    
+    @Test
+    @DisplayName("Should add nights beyond the rebuilt window when booking")
+    void testBookBeyondWindow() throws SQLException {
+        LocalDate checkIn = TODAY.plusDays(100);
+        
+        assertThat(inventoryDAO.findMinFree(Room.RoomType.DOUBLE, checkIn, checkIn.plusDays(2))).isEmpty();
+        assertThat(inventoryDAO.book(Room.RoomType.DOUBLE, checkIn, checkIn.plusDays(2))).isTrue();
+        assertThat(inventoryDAO.findMinFree(Room.RoomType.DOUBLE, checkIn, checkIn.plusDays(2))).contains(0);
+        assertThat(inventoryDAO.book(Room.RoomType.DOUBLE, checkIn.plusDays(1), checkIn.plusDays(3))).isFalse();
+    }
+    
+    @Test
+    @DisplayName("Should count confirmed stays on nights added when booking")
+    void testBookBeyondWindowWithStays() throws SQLException {
+        // Given - one suite already confirmed on the second night
+        LocalDate checkIn = TODAY.plusDays(200);
+        insertStay("R1", 1, checkIn.plusDays(1), checkIn.plusDays(2), "CONFIRMED");
+        
+        // When
+        assertThat(inventoryDAO.book(Room.RoomType.SUITE, checkIn, checkIn.plusDays(2))).isTrue();
+        
+        // Then
+        assertThat(inventoryDAO.findMinFree(Room.RoomType.SUITE, checkIn, checkIn.plusDays(1))).contains(1);
+        assertThat(inventoryDAO.findMinFree(Room.RoomType.SUITE, checkIn.plusDays(1), checkIn.plusDays(2))).contains(0);
+    }
+    
+    private void insertStay(String number, int roomId, LocalDate checkIn, LocalDate checkOut,
+                            String status) throws SQLException {
+        TestDatabase.execute(dbConfig, TestDatabase.stay(number, roomId, checkIn, checkOut, status));
+    }
+}
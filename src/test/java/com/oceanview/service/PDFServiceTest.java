@@ -0,0 +1,75 @@
+package com.oceanview.service;
+
+import com.itextpdf.text.pdf.PdfReader;
+import com.oceanview.model.Payment;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests for PDFService stream output
+ */
+@DisplayName("PDFService Tests")
+class PDFServiceTest {
+    
+    private final PDFService pdfService = PDFService.getInstance();
+    
+    @Test
+    @DisplayName("Should write a large revenue report incrementally and leave the stream open")
+    void testRevenueReportStreamsRows() throws Exception {
+        TrackingOutputStream out = new TrackingOutputStream();
+        AtomicInteger writtenMidway = new AtomicInteger();
+        
+        long rows = pdfService.writeRevenueReportPDF("01/01/2030", "31/12/2030", 3000, 150000.0, consumer -> {
+            for (int i = 0; i < 3000; i++) {
+                consumer.accept(payment(i));
+                if (i == 1500) {
+                    writtenMidway.set(out.size());
+                }
+            }
+        }, out);
+        
+        assertThat(rows).isEqualTo(3000);
+        // Pages for the first rows were on the stream before the source finished
+        assertThat(writtenMidway.get()).isGreaterThan(out.size() / 4);
+        assertThat(out.closed).isFalse();
+        PdfReader reader = new PdfReader(out.toByteArray());
+        assertThat(reader.getNumberOfPages()).isGreaterThan(10);
+        reader.close();
+    }
+    
+    @Test
+    @DisplayName("Should still return the report as a byte array")
+    void testRevenueReportBytes() throws Exception {
+        byte[] pdf = pdfService.generateRevenueReportPDF("01/01/2030", "31/01/2030",
+                                                         List.of(payment(1), payment(2)), 100.0);
+        
+        assertThat(pdf).isNotEmpty();
+        assertThat(new String(pdf, 0, 4)).isEqualTo("%PDF");
+    }
+    
+    private static Payment payment(int i) {
+        Payment payment = new Payment(i, new BigDecimal("50.00"), Payment.PaymentMethod.CARD);
+        payment.setPaymentNumber("PAY-" + i);
+        payment.setPaymentStatus(Payment.PaymentStatus.COMPLETED);
+        payment.setPaymentDate(LocalDateTime.of(2030, 1, 1, 12, 0).plusMinutes(i));
+        return payment;
+    }
+    
+    private static final class TrackingOutputStream extends ByteArrayOutputStream {
+        
+        private boolean closed;
+        
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
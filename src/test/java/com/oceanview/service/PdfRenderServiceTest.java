@@ -0,0 +1,149 @@
+package com.oceanview.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Tests for PdfRenderService's disk cache and bounded render pool
+ */
+@DisplayName("PdfRenderService Tests")
+class PdfRenderServiceTest {
+    
+    @TempDir
+    Path cacheDir;
+    
+    @Test
+    @DisplayName("Should serve repeat requests from disk and re-render when the content changes")
+    void testCacheByContentHash() throws Exception {
+        PdfRenderService service = new PdfRenderService(cacheDir, 1, 1, 5);
+        AtomicInteger renders = new AtomicInteger();
+        PdfRenderService.Renderer renderer = out -> {
+            renders.incrementAndGet();
+            out.write("%PDF-test".getBytes(StandardCharsets.US_ASCII), 0, 9);
+        };
+        
+        PdfRenderService.CachedPdf first = service.get("invoice-r1-p2", "PAID", renderer);
+        PdfRenderService.CachedPdf again = service.get("invoice-r1-p2", "PAID", renderer);
+        PdfRenderService.CachedPdf changed = service.get("invoice-r1-p2", "REFUNDED", renderer);
+        
+        assertThat(renders.get()).isEqualTo(2);
+        assertThat(service.getCacheHits()).isEqualTo(1);
+        assertThat(again.getPath()).isEqualTo(first.getPath());
+        assertThat(again.getEtag()).isEqualTo(first.getEtag());
+        assertThat(changed.getEtag()).isNotEqualTo(first.getEtag());
+        assertThat(changed.getSize()).isEqualTo(9);
+        // The old version is removed once the new one is written
+        assertThat(Files.exists(first.getPath())).isFalse();
+        assertThat(Files.list(cacheDir).count()).isEqualTo(1);
+    }
+    
+    @Test
+    @DisplayName("Should keep the cache directory and documents readable by the owner only")
+    void testOwnerOnlyPermissions() throws Exception {
+        assumeTrue(FileSystems.getDefault().supportedFileAttributeViews().contains("posix"));
+        Path dir = cacheDir.resolve("pdf-cache");
+        PdfRenderService service = new PdfRenderService(dir, 1, 1, 5);
+        
+        PdfRenderService.CachedPdf pdf = service.get("invoice-r1-p2", "PAID", out -> out.write(new byte[]{'%'}, 0, 1));
+        
+        assertThat(PosixFilePermissions.toString(Files.getPosixFilePermissions(dir))).isEqualTo("rwx------");
+        assertThat(PosixFilePermissions.toString(Files.getPosixFilePermissions(pdf.getPath()))).isEqualTo("rw-------");
+    }
+    
+    @Test
+    @DisplayName("Should delete only the changed reservation's or payment's files")
+    void testInvalidate() throws Exception {
+        PdfRenderService service = new PdfRenderService(cacheDir, 1, 1, 5);
+        PdfRenderService.Renderer renderer = out -> out.write(new byte[]{'%'}, 0, 1);
+        PdfRenderService.CachedPdf confirmation1 = service.get("confirmation-r1", "a", renderer);
+        PdfRenderService.CachedPdf confirmation12 = service.get("confirmation-r12", "a", renderer);
+        PdfRenderService.CachedPdf invoice = service.get("invoice-r12-p3", "a", renderer);
+        PdfRenderService.CachedPdf invoice33 = service.get("invoice-r12-p33", "a", renderer);
+        
+        service.invalidatePayment(3);
+        assertThat(Files.exists(invoice.getPath())).isFalse();
+        assertThat(Files.exists(invoice33.getPath())).isTrue();
+        
+        service.invalidateReservation(12);
+        assertThat(Files.exists(confirmation12.getPath())).isFalse();
+        assertThat(Files.exists(invoice33.getPath())).isFalse();
+        assertThat(Files.exists(confirmation1.getPath())).isTrue();
+    }
+    
+    @Test
+    @DisplayName("Should share one render per document and refuse renders beyond the queue")
+    void testBoundedPool() throws Exception {
+        PdfRenderService service = new PdfRenderService(cacheDir, 1, 1, 5);
+        service.start();
+        ExecutorService callers = Executors.newFixedThreadPool(3);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger renders = new AtomicInteger();
+        PdfRenderService.Renderer slow = out -> {
+            renders.incrementAndGet();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            out.write(new byte[]{'%'}, 0, 1);
+        };
+        try {
+            // One render running, one queued, a duplicate of the running one joins it
+            CompletableFuture<PdfRenderService.CachedPdf> running =
+                CompletableFuture.supplyAsync(() -> getQuietly(service, "confirmation-r1", slow), callers);
+            waitFor(() -> renders.get() == 1);
+            CompletableFuture<PdfRenderService.CachedPdf> queued =
+                CompletableFuture.supplyAsync(() -> getQuietly(service, "confirmation-r2", slow), callers);
+            CompletableFuture<PdfRenderService.CachedPdf> duplicate =
+                CompletableFuture.supplyAsync(() -> getQuietly(service, "confirmation-r1", slow), callers);
+            waitFor(() -> service.getQueueDepth() == 1);
+            
+            assertThatThrownBy(() -> service.get("confirmation-r3", "x", slow))
+                .isInstanceOf(RejectedExecutionException.class);
+            assertThat(service.getRejectedCount()).isEqualTo(1);
+            
+            release.countDown();
+            assertThat(duplicate.get(5, TimeUnit.SECONDS).getPath())
+                .isEqualTo(running.get(5, TimeUnit.SECONDS).getPath());
+            assertThat(queued.get(5, TimeUnit.SECONDS)).isNotNull();
+            assertThat(renders.get()).isEqualTo(2);
+        } finally {
+            release.countDown();
+            callers.shutdownNow();
+            service.stop();
+        }
+    }
+    
+    private static PdfRenderService.CachedPdf getQuietly(PdfRenderService service, String name,
+                                                         PdfRenderService.Renderer renderer) {
+        try {
+            return service.get(name, "x", renderer);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    private static void waitFor(java.util.function.BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
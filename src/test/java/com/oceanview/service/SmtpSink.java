@@ -0,0 +1,102 @@
+package com.oceanview.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Minimal SMTP server for tests
+ * Accepts every message on a local port and keeps it; recipients containing
+ * the rejected marker are refused with a permanent 550
+ */
+class SmtpSink implements AutoCloseable {
+    
+    private final ServerSocket server;
+    private final String rejected;
+    private final List<String> messages = new CopyOnWriteArrayList<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    
+    SmtpSink(String rejected) throws IOException {
+        this.server = new ServerSocket(0);
+        this.rejected = rejected;
+        Thread acceptor = new Thread(this::acceptLoop, "smtp-sink");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+    
+    int getPort() {
+        return server.getLocalPort();
+    }
+    
+    List<String> getMessages() {
+        return messages;
+    }
+    
+    int getConnections() {
+        return connections.get();
+    }
+    
+    @Override
+    public void close() throws IOException {
+        server.close();
+    }
+    
+    private void acceptLoop() {
+        while (!server.isClosed()) {
+            try {
+                Socket socket = server.accept();
+                connections.incrementAndGet();
+                Thread handler = new Thread(() -> handle(socket), "smtp-sink-session");
+                handler.setDaemon(true);
+                handler.start();
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+    
+    private void handle(Socket socket) {
+        try (Socket s = socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.US_ASCII));
+             PrintWriter out = new PrintWriter(s.getOutputStream(), true)) {
+            reply(out, "220 localhost test SMTP");
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.toUpperCase();
+                if (command.startsWith("EHLO")) {
+                    reply(out, "250-localhost");
+                    reply(out, "250 8BITMIME");
+                } else if (command.startsWith("RCPT") && rejected != null && line.contains(rejected)) {
+                    reply(out, "550 5.1.1 No such user");
+                } else if (command.startsWith("DATA")) {
+                    reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                    StringBuilder message = new StringBuilder();
+                    while ((line = in.readLine()) != null && !line.equals(".")) {
+                        message.append(line).append('\n');
+                    }
+                    messages.add(message.toString());
+                    reply(out, "250 OK");
+                } else if (command.startsWith("QUIT")) {
+                    reply(out, "221 Bye");
+                    return;
+                } else {
+                    reply(out, "250 OK");
+                }
+            }
+        } catch (IOException e) {
+            // Client went away
+        }
+    }
+    
+    private static void reply(PrintWriter out, String line) {
+        out.print(line + "\r\n");
+        out.flush();
+    }
+}
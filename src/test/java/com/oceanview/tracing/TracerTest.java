@@ -0,0 +1,155 @@
+package com.oceanview.tracing;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.MDC;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests for request tracing and trace export
+ * Traces are collected in a list, or exported to a temporary file with no
+ * latency threshold
+ */
+@DisplayName("Tracer Tests")
+class TracerTest {
+    
+    private final List<Trace> completed = new CopyOnWriteArrayList<>();
+    
+    @TempDir
+    Path tempDir;
+    
+    @BeforeEach
+    void setUp() {
+        Tracer.install(completed::add, 500);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        Tracer.install(null, 500);
+    }
+    
+    @Test
+    @DisplayName("Should link nested spans to their parents and complete the trace with the root")
+    void testNestedSpans() {
+        try (Span root = Tracer.startTrace("GET /staff/reservation")) {
+            assertThat(MDC.get(Tracer.MDC_TRACE_ID)).isEqualTo(root.getTraceId());
+            try (Span service = Tracer.span("ReservationService.checkInReservation")) {
+                try (Span dao = Tracer.span("ReservationDAO: find reservation by ID")) {
+                    dao.tag("rows", 1);
+                    assertThat(Tracer.current()).isSameAs(dao);
+                }
+                assertThat(Tracer.current()).isSameAs(service);
+            }
+            root.tag("status", 200);
+            assertThat(completed).isEmpty();
+        }
+        
+        assertThat(Tracer.current()).isSameAs(Span.NOOP);
+        assertThat(MDC.get(Tracer.MDC_TRACE_ID)).isNull();
+        assertThat(completed).hasSize(1);
+        List<Span> spans = completed.get(0).getSpans();
+        assertThat(spans).extracting(Span::getName).containsExactly(
+            "ReservationDAO: find reservation by ID", "ReservationService.checkInReservation", "GET /staff/reservation");
+        assertThat(spans.get(0).getParentId()).isEqualTo(spans.get(1).getId());
+        assertThat(spans.get(1).getParentId()).isEqualTo(spans.get(2).getId());
+        assertThat(spans.get(2).getParentId()).isZero();
+        assertThat(spans.get(0).getTags()).containsEntry("rows", "1");
+        assertThat(spans).allMatch(span -> span.getDurationNanos() >= 0);
+    }
+    
+    @Test
+    @DisplayName("Should clear the thread when the root closes with a child left open")
+    void testRootCloseClearsThread() {
+        Span root = Tracer.startTrace("GET /guest/dashboard");
+        Span leaked = Tracer.span("ReservationService.getReservationsByGuest");
+        leaked.tag("open", true);
+        root.close();
+        
+        assertThat(Tracer.current()).isSameAs(Span.NOOP);
+        assertThat(MDC.get(Tracer.MDC_TRACE_ID)).isNull();
+        try (Span next = Tracer.startTrace("GET /")) {
+            assertThat(next.getTraceId()).isNotEqualTo(root.getTraceId());
+            assertThat(next.getParentId()).isZero();
+        }
+    }
+    
+    @Test
+    @DisplayName("Should record nothing outside a trace or without a sink")
+    void testNoopOutsideTrace() {
+        try (Span span = Tracer.span("RoomDAO: find all rooms")) {
+            assertThat(span).isSameAs(Span.NOOP);
+            span.tag("rows", 3).rename("other");
+        }
+        Tracer.install(null, 500);
+        try (Span root = Tracer.startTrace("GET /")) {
+            assertThat(root).isSameAs(Span.NOOP);
+            assertThat(root.getTraceId()).isNull();
+        }
+        
+        assertThat(Span.NOOP.getTags()).isEmpty();
+        assertThat(completed).isEmpty();
+    }
+    
+    @Test
+    @DisplayName("Should carry the trace into work run on another thread")
+    void testWrapAcrossThreads() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (Span root = Tracer.startTrace("GET /guest/invoice")) {
+            String traceId = executor.submit(Tracer.wrap(() -> {
+                try (Span render = Tracer.span("pdf render")) {
+                    render.tag("cache", "miss");
+                }
+                return MDC.get(Tracer.MDC_TRACE_ID);
+            })).get();
+            assertThat(traceId).isEqualTo(root.getTraceId());
+            assertThat(executor.submit(Tracer::current).get()).isSameAs(Span.NOOP);
+        } finally {
+            executor.shutdown();
+        }
+        
+        List<Span> spans = completed.get(0).getSpans();
+        assertThat(spans).hasSize(2);
+        assertThat(spans.get(0).getName()).isEqualTo("pdf render");
+        assertThat(spans.get(0).getParentId()).isEqualTo(spans.get(1).getId());
+        assertThat(spans.get(0).getThread()).isNotEqualTo(spans.get(1).getThread());
+    }
+    
+    @Test
+    @DisplayName("Should write slow traces as JSON lines and roll the file when it is full")
+    void testExportAndRoll() throws Exception {
+        Path file = tempDir.resolve("traces.jsonl");
+        TraceExporter exporter = new TraceExporter(file, 0, 600, 2, 10, 500);
+        Tracer.install(exporter::submit, 500);
+        
+        for (int i = 0; i < 3; i++) {
+            try (Span root = Tracer.startTrace("POST /staff/reservation")) {
+                root.tag("status", 302);
+                try (Span span = Tracer.span("sql \"quoted\"")) {
+                    span.tag("sql", "SELECT * FROM rooms WHERE room_id = ?");
+                }
+            }
+            assertThat(exporter.flush()).isEqualTo(1);
+        }
+        
+        String line = Files.readAllLines(file, StandardCharsets.UTF_8).get(0);
+        assertThat(line).startsWith("{\"traceId\":\"").contains("\"name\":\"POST /staff/reservation\"")
+            .contains("\"name\":\"sql \\\"quoted\\\"\"").contains("\"parentId\":0")
+            .contains("\"tags\":{\"sql\":\"SELECT * FROM rooms WHERE room_id = ?\"}").endsWith("]}");
+        assertThat(Files.exists(tempDir.resolve("traces.1.jsonl"))).isTrue();
+        assertThat(exporter.getExportedCount()).isEqualTo(3);
+        
+        TraceExporter slowOnly = new TraceExporter(tempDir.resolve("slow.jsonl"), 60_000, 1024, 1, 10, 500);
+        Tracer.install(slowOnly::submit, 500);
+        Tracer.startTrace("GET /").close();
+        assertThat(slowOnly.flush()).isZero();
+    }
+}
@@ -0,0 +1,80 @@
+package com.oceanview.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for HtmlTemplate
+ */
+@DisplayName("HtmlTemplate Tests")
+class HtmlTemplateTest {
+    
+    @Test
+    @DisplayName("Should substitute typed placeholders")
+    void testRender() {
+        HtmlTemplate template = HtmlTemplate.compile("test",
+            "<p>{{name}} stays {{nights:number}} nights from {{checkIn}} for ${{total:money}}</p>");
+        
+        String html = template.render(Map.of("name", "Ana", "nights", 3,
+                                             "checkIn", LocalDate.of(2030, 6, 1),
+                                             "total", new BigDecimal("99.5")));
+        
+        assertThat(html).isEqualTo("<p>Ana stays 3 nights from 2030-06-01 for $99.50</p>");
+        assertThat(template.getPlaceholders()).containsExactly("name", "nights", "checkIn", "total");
+    }
+    
+    @Test
+    @DisplayName("Should escape text values and keep non-ASCII text")
+    void testEscape() {
+        HtmlTemplate template = HtmlTemplate.compile("test", "<b>{{name}}</b> ✓");
+        
+        assertThat(template.render(Map.of("name", "<Zoë & \"O'Neil\">")))
+            .isEqualTo("<b>&lt;Zoë &amp; &quot;O&#39;Neil&quot;&gt;</b> ✓");
+    }
+    
+    @Test
+    @DisplayName("Should render missing values as nothing and write to a stream")
+    void testMissingValueAndStream() throws IOException {
+        HtmlTemplate template = HtmlTemplate.compile("test", "[{{a}}|{{b:money}}]");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        
+        template.render(Map.of("b", 2), out);
+        
+        assertThat(template.render(Map.of())).isEqualTo("[|]");
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("[|2.00]");
+    }
+    
+    @Test
+    @DisplayName("Should reject malformed templates and non-numeric numbers")
+    void testInvalid() {
+        assertThatThrownBy(() -> HtmlTemplate.compile("test", "{{name"))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> HtmlTemplate.compile("test", "{{name:date}}"))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> HtmlTemplate.compile("test", "{{n:number}}").render(Map.of("n", "three")))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+    
+    @Test
+    @DisplayName("Should load the email templates with every placeholder filled")
+    void testEmailTemplates() {
+        HtmlTemplate template = HtmlTemplate.load("templates/email/booking-confirmation.html");
+        
+        String html = template.render(Map.of("guestName", "Ana", "reservationNumber", "RES-1",
+                                             "checkInDate", "2030-06-01", "checkOutDate", "2030-06-04",
+                                             "nights", 3, "totalAmount", 300));
+        
+        assertThat(html).contains("Dear <strong>Ana</strong>", "RES-1", "$300.00").doesNotContain("{{");
+        assertThatThrownBy(() -> HtmlTemplate.load("templates/email/missing.html"))
+            .isInstanceOf(IllegalStateException.class);
+    }
+}
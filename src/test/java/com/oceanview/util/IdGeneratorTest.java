@@ -0,0 +1,137 @@
+package com.oceanview.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for IdGenerator
+ */
+@DisplayName("IdGenerator Tests")
+class IdGeneratorTest {
+    
+    private static final int THREADS = 8;
+    private static final int IDS_PER_THREAD = 200_000;
+    
+    @Test
+    @DisplayName("Should round-trip IDs through Crockford base32")
+    void testEncodeDecode() {
+        long[] ids = {0L, 1L, 31L, 32L, 123456789L, Long.MAX_VALUE};
+        for (long id : ids) {
+            String encoded = IdGenerator.encode(id);
+            assertThat(encoded).hasSize(13).matches("[0-9A-HJKMNP-TV-Z]+");
+            assertThat(IdGenerator.decode(encoded)).isEqualTo(id);
+        }
+        assertThat(IdGenerator.decode("0000000000o1l")).isEqualTo(IdGenerator.decode("0000000000011"));
+        assertThatThrownBy(() -> IdGenerator.decode("000000000000U"))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+    
+    @Test
+    @DisplayName("Should fit reservation numbers in the reservation_number column")
+    void testNumberFormat() {
+        IdGenerator generator = new IdGenerator(7, System::currentTimeMillis);
+        
+        String number = generator.nextNumber("RES-");
+        
+        assertThat(number).startsWith("RES-").hasSize(17);
+        assertThat(number.length()).isLessThanOrEqualTo(20);
+    }
+    
+    @Test
+    @DisplayName("Should keep IDs increasing when the sequence overflows or the clock steps back")
+    void testMonotonicWithFrozenAndBackwardsClock() {
+        AtomicLong clock = new AtomicLong(IdGenerator.EPOCH_MILLIS + 1000);
+        IdGenerator generator = new IdGenerator(3, clock::get);
+        
+        long previous = -1;
+        for (int i = 0; i < 10_000; i++) {
+            if (i == 5000) {
+                clock.addAndGet(-500);
+            }
+            long id = generator.nextId();
+            assertThat(id).isGreaterThan(previous);
+            assertThat((id >>> IdGenerator.SEQUENCE_BITS) & IdGenerator.MAX_NODE_ID).isEqualTo(3);
+            previous = id;
+        }
+    }
+    
+    @Test
+    @DisplayName("Should never collide between nodes sharing the same clock")
+    void testDistinctNodes() {
+        AtomicLong clock = new AtomicLong(IdGenerator.EPOCH_MILLIS + 42);
+        IdGenerator first = new IdGenerator(1, clock::get);
+        IdGenerator second = new IdGenerator(2, clock::get);
+        
+        long[] ids = new long[20_000];
+        for (int i = 0; i < ids.length; i += 2) {
+            ids[i] = first.nextId();
+            ids[i + 1] = second.nextId();
+        }
+        
+        assertThat(Arrays.stream(ids).distinct().count()).isEqualTo(ids.length);
+    }
+    
+    @Test
+    @DisplayName("Should reject node ids outside 10 bits")
+    void testInvalidNodeId() {
+        assertThatThrownBy(() -> new IdGenerator(1024, System::currentTimeMillis))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new IdGenerator(-1, System::currentTimeMillis))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+    
+    @Test
+    @DisplayName("Should require a configured node id when several nodes run")
+    void testNodeIdRequiredForClusters() {
+        assertThat(IdGenerator.resolveNodeId(7, 3)).isEqualTo(7);
+        assertThat(IdGenerator.resolveNodeId(-1, 1)).isBetween(0, IdGenerator.MAX_NODE_ID);
+        assertThatThrownBy(() -> IdGenerator.resolveNodeId(-1, 2))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("app.nodeId");
+    }
+    
+    @Test
+    @DisplayName("Should stay unique under concurrent generation")
+    void testConcurrentUniqueness() throws Exception {
+        IdGenerator generator = new IdGenerator(5, System::currentTimeMillis);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<long[]>> results = new ArrayList<>();
+        
+        for (int t = 0; t < THREADS; t++) {
+            results.add(executor.submit(() -> {
+                long[] ids = new long[IDS_PER_THREAD];
+                start.await();
+                for (int i = 0; i < ids.length; i++) {
+                    ids[i] = generator.nextId();
+                }
+                return ids;
+            }));
+        }
+        
+        start.countDown();
+        long[] all = new long[THREADS * IDS_PER_THREAD];
+        for (int t = 0; t < THREADS; t++) {
+            long[] ids = results.get(t).get(60, TimeUnit.SECONDS);
+            System.arraycopy(ids, 0, all, t * IDS_PER_THREAD, IDS_PER_THREAD);
+        }
+        executor.shutdown();
+        
+        Arrays.sort(all);
+        for (int i = 1; i < all.length; i++) {
+            assertThat(all[i]).as("duplicate ID").isNotEqualTo(all[i - 1]);
+        }
+    }
+}
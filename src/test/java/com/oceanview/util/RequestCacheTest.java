@@ -0,0 +1,93 @@
+package com.oceanview.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for RequestCache
+ */
+@DisplayName("RequestCache Tests")
+class RequestCacheTest {
+    
+    private final AtomicInteger loads = new AtomicInteger();
+    
+    @AfterEach
+    void tearDown() {
+        RequestCache.close(RequestCache.current());
+    }
+    
+    @Test
+    @DisplayName("Should load once per method and arguments within a request")
+    void testMemoizeWithinRequest() throws SQLException {
+        // Given
+        RequestCache cache = RequestCache.open();
+        
+        // When
+        List<String> first = RequestCache.memoize(this::load, "Service.find", 1);
+        List<String> second = RequestCache.memoize(this::load, "Service.find", 1);
+        RequestCache.memoize(this::load, "Service.find", 2);
+        RequestCache.memoize(this::load, "Service.other", 1);
+        
+        // Then
+        assertThat(second).isSameAs(first);
+        assertThat(loads.get()).isEqualTo(3);
+        assertThat(cache.getHits()).isEqualTo(1);
+        assertThat(cache.getMisses()).isEqualTo(3);
+    }
+    
+    @Test
+    @DisplayName("Should run the loader every time outside a request")
+    void testNoRequest() throws SQLException {
+        RequestCache.memoize(this::load, "Service.find");
+        RequestCache.memoize(this::load, "Service.find");
+        
+        assertThat(loads.get()).isEqualTo(2);
+        assertThat(RequestCache.current()).isNull();
+    }
+    
+    @Test
+    @DisplayName("Should reload after a write invalidates the request cache")
+    void testInvalidate() throws SQLException {
+        // Given
+        RequestCache cache = RequestCache.open();
+        RequestCache.memoize(this::load, "Service.find");
+        
+        // When
+        RequestCache.invalidate();
+        RequestCache.memoize(this::load, "Service.find");
+        
+        // Then
+        assertThat(loads.get()).isEqualTo(2);
+        assertThat(cache.getHits()).isZero();
+    }
+    
+    @Test
+    @DisplayName("Should not cache failures or let a nested open take ownership")
+    void testFailuresAndNesting() {
+        // Given
+        RequestCache cache = RequestCache.open();
+        
+        // When / Then
+        assertThat(RequestCache.open()).isNull();
+        assertThatThrownBy(() -> RequestCache.memoize(() -> {
+            throw new SQLException("down");
+        }, "Service.find")).isInstanceOf(SQLException.class);
+        assertThatCode(() -> RequestCache.memoize(this::load, "Service.find")).doesNotThrowAnyException();
+        assertThat(cache.getMisses()).isEqualTo(1);
+        
+        RequestCache.close(cache);
+        assertThat(RequestCache.current()).isNull();
+    }
+    
+    private List<String> load() {
+        loads.incrementAndGet();
+        return List.of("row");
+    }
+}